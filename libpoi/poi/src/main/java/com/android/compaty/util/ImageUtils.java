@@ -29,8 +29,19 @@ public class ImageUtils {
     }
 
     public static BufferedImage read(InputStream inputStream) {
+        return read(inputStream, 1);
+    }
+
+    /**
+     * Decodes a subsampled image, i.e. only every n-th pixel of each row and column is decoded
+     *
+     * @param inputStream the image stream, which needs to support {@link InputStream#reset()}
+     * @param inSampleSize the sample size as calculated by {@link #calculateInSampleSize(BitmapFactory.Options, int, int)}
+     * @return the image or null, if the stream couldn't be decoded
+     */
+    public static BufferedImage read(InputStream inputStream, int inSampleSize) {
         final BitmapFactory.Options options = new BitmapFactory.Options();
-        options.inSampleSize = 1;
+        options.inSampleSize = Math.max(1, inSampleSize);
         // Decode bitmap with inSampleSize set
         options.inJustDecodeBounds = false;
         try {
@@ -42,6 +53,25 @@ public class ImageUtils {
         return bm == null ? null : BufferedImage.create(bm);
     }
 
+    /**
+     * Decodes only the dimensions of an image
+     *
+     * @param inputStream the image stream, which needs to support {@link InputStream#reset()}
+     * @return the options with the outWidth/outHeight of the image, which are negative
+     *  if the stream couldn't be decoded
+     */
+    public static BitmapFactory.Options readBounds(InputStream inputStream) {
+        final BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inJustDecodeBounds = true;
+        try {
+            inputStream.reset();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        BitmapFactory.decodeStream(inputStream, null, options);
+        return options;
+    }
+
     public static boolean canDecode(InputStream byteArrayInputStream) {
         final BitmapFactory.Options options = new BitmapFactory.Options();
         options.inJustDecodeBounds = true;
@@ -42,6 +42,23 @@ public abstract class POITextExtractor implements Closeable {
 	 * @return All the text from the document
 	 */
 	public abstract String getText();
+
+	/**
+	 * Writes the text of the document to the given output.
+	 * The default implementation writes the result of {@link #getText()},
+	 * event based extractors write the text in chunks, e.g. sheet by sheet,
+	 * so the whole text doesn't need to be kept in memory.
+	 * If the output throws an {@link IOException}, the extraction is stopped.
+	 *
+	 * @param out the output of the text
+	 * @throws IOException if the document can't be read or the output can't be written
+	 */
+	public void writeText(Appendable out) throws IOException {
+		String text = getText();
+		if (text != null) {
+			out.append(text);
+		}
+	}
 	
 	/**
 	 * Returns another text extractor, which is able to
@@ -32,9 +32,7 @@ import org.apache.poi.hwmf.record.HwmfObjectTableEntry;
 import org.apache.poi.hwmf.record.HwmfPenStyle;
 import org.apache.poi.util.Internal;
 
-import java.awt.AlphaComposite;
 import java.awt.Color;
-import java.awt.Composite;
 import java.awt.Graphics2D;
 import java.awt.LinearGradientPaint;
 import java.awt.MultipleGradientPaint;
@@ -392,18 +390,13 @@ public class HemfGraphics extends HwmfGraphics {
     public void fill(Shape shape) {
         HemfDrawProperties prop = getProperties();
 
-        Composite old = graphicsCtx.getComposite();
-        graphicsCtx.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
         if (prop.getBrushStyle() != HwmfBrushStyle.BS_NULL) {
             if (prop.getBkMode() == HwmfMisc.WmfSetBkMode.HwmfBkMode.OPAQUE) {
-                graphicsCtx.setPoiPaint(prop.getBackgroundColor().getColor());
-                graphicsCtx.fill(shape);
+                fillShape(shape, prop.getBackgroundColor().getColor());
             }
 
-            graphicsCtx.setPoiPaint(getFill());
-            graphicsCtx.fill(shape);
+            fillShape(shape, getFill());
         }
-        graphicsCtx.setComposite(old);
     }
 
 
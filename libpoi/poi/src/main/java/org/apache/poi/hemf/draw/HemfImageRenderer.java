@@ -21,6 +21,7 @@ import org.apache.poi.common.usermodel.GenericRecord;
 import org.apache.poi.hemf.usermodel.HemfPicture;
 import org.apache.poi.hwmf.draw.HwmfGraphicsState;
 import org.apache.poi.hwmf.draw.HwmfImageRenderer;
+import org.apache.poi.hwmf.draw.HwmfPictureCache;
 import org.apache.poi.sl.draw.BitmapImageRenderer;
 import org.apache.poi.sl.draw.EmbeddedExtractor;
 import org.apache.poi.sl.draw.ImageRenderer;
@@ -62,7 +63,12 @@ public class HemfImageRenderer implements ImageRenderer, EmbeddedExtractor {
         if (!PictureData.PictureType.EMF.contentType.equals(contentType)) {
             throw new IOException("Invalid picture type");
         }
-        image = new HemfPicture(new ByteArrayInputStream(data));
+        image = HwmfPictureCache.getPicture(data, contentType, d -> {
+            HemfPicture pic = new HemfPicture(new ByteArrayInputStream(d));
+            // the records are parsed lazily, so a shared picture is parsed upfront
+            pic.getRecords();
+            return pic;
+        });
     }
 
     @Override
@@ -87,7 +93,7 @@ public class HemfImageRenderer implements ImageRenderer, EmbeddedExtractor {
         g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
         g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
         g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
-        image.draw(g, new Rectangle2D.Double(0,0,dim.getWidth(),dim.getHeight()));
+        draw(g, new Rectangle2D.Double(0,0,dim.getWidth(),dim.getHeight()));
         g.dispose();
 
         return BitmapImageRenderer.setAlpha(bufImg, alpha);
@@ -114,7 +120,7 @@ public class HemfImageRenderer implements ImageRenderer, EmbeddedExtractor {
                 clip = new Insets(0, 0, 0, 0);
             }
 
-            image.draw(graphics, getOuterBounds(anchor, clip));
+            draw(graphics, getOuterBounds(anchor, clip));
         } finally {
             graphicsState.restore(graphics);
         }
@@ -122,6 +128,14 @@ public class HemfImageRenderer implements ImageRenderer, EmbeddedExtractor {
         return true;
     }
 
+    private void draw(Graphics2D ctx, Rectangle2D graphicsBounds) {
+        if (HwmfPictureCache.isEnabled()) {
+            image.getDisplayList().draw(ctx, graphicsBounds);
+        } else {
+            image.draw(ctx, graphicsBounds);
+        }
+    }
+
     @Override
     public GenericRecord getGenericRecord() {
         return image;
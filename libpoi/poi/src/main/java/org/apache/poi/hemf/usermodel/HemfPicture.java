@@ -29,6 +29,7 @@ import org.apache.poi.hemf.record.emf.HemfHeader;
 import org.apache.poi.hemf.record.emf.HemfRecord;
 import org.apache.poi.hemf.record.emf.HemfRecordIterator;
 import org.apache.poi.hemf.record.emf.HemfWindowing;
+import org.apache.poi.hwmf.draw.HwmfDisplayList;
 import org.apache.poi.hwmf.usermodel.HwmfEmbedded;
 import org.apache.poi.util.Dimension2DDouble;
 import org.apache.poi.util.Internal;
@@ -57,6 +58,7 @@ public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
     private final LittleEndianInputStream stream;
     private final List<HemfRecord> records = new ArrayList<>();
     private boolean isParsed = false;
+    private HwmfDisplayList displayList;
 
     public HemfPicture(InputStream is) {
         this(new LittleEndianInputStream(is));
@@ -189,6 +191,35 @@ public class HemfPicture implements Iterable<HemfRecord>, GenericRecord {
         }
     }
 
+    /**
+     * Returns the drawing operations of the records, which are compiled on the first call
+     * and kept with the picture, so repeated draws don't need to play back the records.
+     *
+     * @return the compiled display list
+     */
+    public synchronized HwmfDisplayList getDisplayList() {
+        if (displayList == null) {
+            final Rectangle2D emfBounds = getHeader().getBoundsRectangle();
+
+            displayList = HwmfDisplayList.compile(emfBounds, HemfGraphics::new, g -> {
+                HemfGraphics hg = (HemfGraphics)g;
+                HemfDrawProperties prop = hg.getProperties();
+                prop.setWindowOrg(emfBounds.getX(), emfBounds.getY());
+                prop.setWindowExt(emfBounds.getWidth(), emfBounds.getHeight());
+                prop.setViewportOrg(emfBounds.getX(), emfBounds.getY());
+                prop.setViewportExt(emfBounds.getWidth(), emfBounds.getHeight());
+
+                for (HemfRecord r : getRecords()) {
+                    try {
+                        hg.draw(r);
+                    } catch (RuntimeException ignored) {
+                    }
+                }
+            });
+        }
+        return displayList;
+    }
+
     public Iterable<HwmfEmbedded> getEmbeddings() {
         return () -> new HemfEmbeddedIterator(HemfPicture.this);
     }
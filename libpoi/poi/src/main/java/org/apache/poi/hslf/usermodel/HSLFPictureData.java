@@ -19,6 +19,7 @@ package org.apache.poi.hslf.usermodel;
 
 import java.awt.Dimension;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.security.MessageDigest;
 import java.util.Collections;
@@ -33,6 +34,7 @@ import org.apache.poi.hslf.blip.JPEG;
 import org.apache.poi.hslf.blip.PICT;
 import org.apache.poi.hslf.blip.PNG;
 import org.apache.poi.hslf.blip.WMF;
+import org.apache.poi.hslf.exceptions.HSLFException;
 import org.apache.poi.poifs.crypt.CryptoFunctions;
 import org.apache.poi.poifs.crypt.HashAlgorithm;
 import org.apache.poi.sl.usermodel.PictureData;
@@ -67,6 +69,27 @@ public abstract class HSLFPictureData implements PictureData, GenericRecord {
      * The 1-based index within the pictures stream 
      */
     private int index = -1;
+
+    /**
+     * The pictures stream, from which the binary data is read on demand,
+     * or {@code null}, if the binary data is held by this picture
+     */
+    private HSLFPictureStore store;
+
+    /**
+     * The offset of the picture header in the store
+     */
+    private int storeOffset;
+
+    /**
+     * The size of the binary data in the store
+     */
+    private int storeSize;
+
+    /**
+     * The checksum of the picture in the store, if it could be read without the binary data
+     */
+    private byte[] storeUID;
     
     /**
      * Blip signature.
@@ -98,11 +121,66 @@ public abstract class HSLFPictureData implements PictureData, GenericRecord {
      * @return picture data
      */
     public byte[] getRawData(){
+        if (rawdata == null && store != null) {
+            try {
+                return store.getRawData(storeOffset, storeSize);
+            } catch (IOException e) {
+                throw new HSLFException("Unable to read the picture at offset " + storeOffset, e);
+            }
+        }
         return rawdata;
     }
 
     public void setRawData(byte[] data){
         rawdata = (data == null) ? null : data.clone();
+        store = null;
+        storeUID = null;
+    }
+
+    /**
+     * Refers the binary data to the pictures stream, where it's read on demand
+     *
+     * @param store the pictures stream
+     * @param offset the offset of the picture header in the stream
+     * @param size the size of the binary data
+     * @param uid the checksum of the picture or {@code null}, if it needs to be read from the binary data
+     */
+    void setStoreData(HSLFPictureStore store, int offset, int size, byte[] uid) {
+        this.rawdata = null;
+        this.store = store;
+        this.storeOffset = offset;
+        this.storeSize = size;
+        this.storeUID = uid;
+    }
+
+    /**
+     * Reads the binary data from the pictures stream, so the picture doesn't
+     * depend on it anymore, e.g. before the stream is overwritten
+     */
+    void detachFromStore() {
+        if (rawdata == null && store != null) {
+            rawdata = getRawData();
+            store = null;
+            storeUID = null;
+        }
+    }
+
+    /**
+     * Opens the unchanged picture including its header in the pictures stream,
+     * so it can be copied without reading its binary data into memory
+     *
+     * @return the stream or {@code null}, if the picture has been changed or is encrypted
+     */
+    InputStream openStoredStream() throws IOException {
+        return (rawdata == null && store != null && !store.isEncrypted())
+            ? store.openStream(storeOffset, storeSize + 8) : null;
+    }
+
+    /**
+     * @return the size of the binary data, without reading it from the pictures stream
+     */
+    int getRawDataSize() {
+        return (rawdata == null && store != null) ? storeSize : getRawData().length;
     }
 
     /**
@@ -128,8 +206,11 @@ public abstract class HSLFPictureData implements PictureData, GenericRecord {
      * Returns 16-byte checksum of this picture
      */
     public byte[] getUID(){
+        if (rawdata == null && storeUID != null) {
+            return storeUID.clone();
+        }
         byte[] uid = new byte[16];
-        System.arraycopy(rawdata, 0, uid, 0, uid.length);
+        System.arraycopy(getRawData(), 0, uid, 0, uid.length);
         return uid;
     }
 
@@ -151,6 +232,12 @@ public abstract class HSLFPictureData implements PictureData, GenericRecord {
      * Write this picture into <code>OutputStream</code>
      */
     public void write(OutputStream out) throws IOException {
+        if (rawdata == null && store != null && !store.isEncrypted()) {
+            // the picture is unchanged, so its header and data are copied from the pictures stream
+            store.copyTo(out, storeOffset, storeSize + 8);
+            return;
+        }
+
         byte[] data;
 
         data = new byte[LittleEndian.SHORT_SIZE];
@@ -205,8 +292,9 @@ public abstract class HSLFPictureData implements PictureData, GenericRecord {
     public byte[] getHeader() {
         byte[] header = new byte[16 + 8];
         LittleEndian.putInt(header, 0, getSignature());
-        LittleEndian.putInt(header, 4, getRawData().length);
-        System.arraycopy(rawdata, 0, header, 8, 16);
+        byte[] rd = getRawData();
+        LittleEndian.putInt(header, 4, rd.length);
+        System.arraycopy(rd, 0, header, 8, 16);
         return header;
     }
 
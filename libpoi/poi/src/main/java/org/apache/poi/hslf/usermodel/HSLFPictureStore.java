@@ -0,0 +1,158 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hslf.usermodel;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.poi.hslf.record.DocumentEncryptionAtom;
+import org.apache.poi.poifs.filesystem.DirectoryNode;
+import org.apache.poi.poifs.filesystem.DocumentEntry;
+import org.apache.poi.poifs.filesystem.DocumentInputStream;
+import org.apache.poi.util.BoundedInputStream;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.Internal;
+
+/**
+ * Reads the pictures of the "Pictures" stream on demand, instead of holding
+ * the whole stream in memory.<p>
+ *
+ * The pictures are located by their offset and size, which are indexed when the
+ * slideshow is opened. The raw data of recently used pictures is kept in a
+ * cache, which is bounded by the number of bytes.
+ */
+@Internal
+final class HSLFPictureStore {
+    static final String PICTURES_ENTRY = "Pictures";
+
+    //arbitrarily selected; may need to increase
+    private static final int MAX_RECORD_LENGTH = 200_000_000;
+
+    private final DirectoryNode dir;
+    private final DocumentEncryptionAtom dea;
+    private final int maxCacheBytes;
+    private int cacheBytes;
+
+    private final Map<Integer, byte[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    /**
+     * @param dir the directory, which contains the "Pictures" stream
+     * @param dea the encryption of the stream or {@code null}, if the stream isn't encrypted
+     * @param maxCacheBytes the maximum size of the cached raw data
+     */
+    HSLFPictureStore(DirectoryNode dir, DocumentEncryptionAtom dea, int maxCacheBytes) {
+        this.dir = dir;
+        this.dea = dea;
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    /**
+     * @return {@code true}, if the pictures are stored encrypted
+     */
+    boolean isEncrypted() {
+        return dea != null;
+    }
+
+    /**
+     * Returns the raw data of a picture, excluding its 8 byte header
+     *
+     * @param offset the offset of the picture header in the stream
+     * @param size the size of the raw data
+     */
+    synchronized byte[] getRawData(int offset, int size) throws IOException {
+        byte[] data = cache.get(offset);
+        if (data == null) {
+            data = readRawData(offset, size);
+            if (size <= maxCacheBytes) {
+                cache.put(offset, data);
+                cacheBytes += size;
+                evict();
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Copies an unencrypted picture including its header to the output stream,
+     * without buffering its data
+     *
+     * @param offset the offset of the picture header in the stream
+     * @param length the size of the raw data plus 8 for the header
+     */
+    void copyTo(OutputStream out, int offset, int length) throws IOException {
+        try (InputStream is = openStream(offset, length)) {
+            IOUtils.copy(is, out);
+        }
+    }
+
+    /**
+     * Opens a stream of an unencrypted picture including its header
+     *
+     * @param offset the offset of the picture header in the stream
+     * @param length the size of the raw data plus 8 for the header
+     */
+    InputStream openStream(int offset, int length) throws IOException {
+        if (dea != null) {
+            throw new IllegalStateException("encrypted pictures can't be copied");
+        }
+        DocumentInputStream is = openPictures();
+        if (is.skip(offset) != offset) {
+            is.close();
+            throw new IOException("\"Pictures\" stream ended before the picture at offset " + offset);
+        }
+        return new BoundedInputStream(is, length);
+    }
+
+    DocumentInputStream openPictures() throws IOException {
+        DocumentEntry entry = (DocumentEntry) dir.getEntry(PICTURES_ENTRY);
+        return dir.createDocumentInputStream(entry);
+    }
+
+    private byte[] readRawData(int offset, int size) throws IOException {
+        try (DocumentInputStream is = openPictures()) {
+            if (dea == null) {
+                is.skip(offset + 8L);
+                byte[] data = IOUtils.safelyAllocate(size, MAX_RECORD_LENGTH);
+                is.readFully(data);
+                return data;
+            }
+
+            // the decryption needs the header of the picture
+            is.skip(offset);
+            byte[] buf = IOUtils.safelyAllocate(size + 8L, MAX_RECORD_LENGTH);
+            is.readFully(buf);
+            try (HSLFSlideShowEncrypted decryptData = new HSLFSlideShowEncrypted(dea)) {
+                decryptData.decryptPicture(buf, 0);
+            }
+            return Arrays.copyOfRange(buf, 8, buf.length);
+        }
+    }
+
+    private void evict() {
+        Iterator<byte[]> iter = cache.values().iterator();
+        while (cacheBytes > maxCacheBytes && iter.hasNext()) {
+            cacheBytes -= iter.next().length;
+            iter.remove();
+        }
+    }
+}
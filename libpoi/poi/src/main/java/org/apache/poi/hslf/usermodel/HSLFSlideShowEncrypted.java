@@ -278,6 +278,22 @@ public class HSLFSlideShowEncrypted implements Closeable {
         }
     }
 
+    /**
+     * Decrypts only the 8 byte header of a picture record, e.g. to index the pictures
+     * without decrypting their data
+     */
+    protected void decryptPictureHeader(byte[] pictstream, int offset) {
+        if (dea == null) {
+            return;
+        }
+
+        try {
+            decryptPicBytes(pictstream, offset, 8);
+        } catch (Exception e) {
+            throw new CorruptPowerPointFileException(e);
+        }
+    }
+
     protected void encryptPicture(byte[] pictstream, int offset) {
         if (dea == null) {
             return;
@@ -37,6 +37,7 @@ import org.apache.poi.poifs.filesystem.DocumentInputStream;
 import org.apache.poi.poifs.filesystem.EntryUtils;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.sl.usermodel.PictureData.PictureType;
+import org.apache.poi.util.Beta;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.LittleEndian;
 import org.apache.poi.util.LittleEndianConsts;
@@ -50,9 +51,12 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
@@ -75,6 +79,24 @@ public final class HSLFSlideShowImpl extends POIDocument implements Closeable {
 
     private static final String DUAL_STORAGE_NAME = "PP97_DUALSTORAGE";
 
+    /**
+     * Should the pictures of slideshows, which are read afterwards, be read on demand?
+     */
+    private static boolean lazyPictureLoading;
+
+    /**
+     * The maximum size of the cached picture data of a lazily loaded slideshow
+     */
+    private static int pictureCacheSize = 16 * 1024 * 1024;
+
+    /**
+     * Are the pictures of this slideshow read on demand?
+     */
+    private final boolean loadPicturesLazily;
+
+    // The pictures stream of the source document, if the pictures are read on demand
+    private HSLFPictureStore _pictureStore;
+
     // Holds metadata on where things are in our document
     private CurrentUserAtom currentUser;
 
@@ -136,6 +158,7 @@ public final class HSLFSlideShowImpl extends POIDocument implements Closeable {
      */
     public HSLFSlideShowImpl(DirectoryNode dir) throws IOException {
         super(handleDualStorage(dir));
+        this.loadPicturesLazily = lazyPictureLoading;
 
         try {
             // First up, grab the "Current User" stream
@@ -160,6 +183,57 @@ public final class HSLFSlideShowImpl extends POIDocument implements Closeable {
         }
     }
 
+    /**
+     * Enables or disables lazy picture loading for the slideshows, which are read afterwards.<p>
+     *
+     * When enabled, only the offsets and sizes of the pictures are indexed when the pictures
+     * are first accessed. The binary data of a picture is read from the "Pictures" stream,
+     * and decrypted if necessary, when it's requested. Unchanged pictures of unencrypted
+     * slideshows are copied from the source stream when the slideshow is written.
+     *
+     * @param lazy {@code true} to read the pictures on demand, defaults to {@code false}
+     *
+     * @see #setPictureCacheSize(int)
+     */
+    @Beta
+    public static void setLazyPictureLoading(boolean lazy) {
+        lazyPictureLoading = lazy;
+    }
+
+    /**
+     * @return {@code true}, if slideshows read afterwards read their pictures on demand
+     * @see #setLazyPictureLoading(boolean)
+     */
+    @Beta
+    public static boolean isLazyPictureLoading() {
+        return lazyPictureLoading;
+    }
+
+    /**
+     * Sets the maximum number of bytes of picture data, which are kept in memory
+     * by each lazily loaded slideshow, which is read afterwards.
+     *
+     * @param maxBytes the maximum size of the cached picture data, defaults to 16 MB
+     *
+     * @see #setLazyPictureLoading(boolean)
+     */
+    @Beta
+    public static void setPictureCacheSize(int maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("The picture cache size must not be negative");
+        }
+        pictureCacheSize = maxBytes;
+    }
+
+    /**
+     * @return the maximum size of the cached picture data of lazily loaded slideshows
+     * @see #setPictureCacheSize(int)
+     */
+    @Beta
+    public static int getPictureCacheSize() {
+        return pictureCacheSize;
+    }
+
     private static DirectoryNode handleDualStorage(DirectoryNode dir) throws IOException {
         // when there's a dual storage entry, use it, as the outer document can't be read quite probably ...
         if (!dir.hasEntry(DUAL_STORAGE_NAME)) {
@@ -358,6 +432,11 @@ public final class HSLFSlideShowImpl extends POIDocument implements Closeable {
             return;
         }
 
+        if (loadPicturesLazily) {
+            indexPictures();
+            return;
+        }
+
         DocumentEntry entry = (DocumentEntry) getDirectory().getEntry("Pictures");
         DocumentInputStream is = getDirectory().createDocumentInputStream(entry);
         byte[] pictstream = IOUtils.toByteArray(is, entry.getSize());
@@ -432,6 +511,90 @@ public final class HSLFSlideShowImpl extends POIDocument implements Closeable {
         }
     }
 
+    /**
+     * Index the pictures contained in the pictures stream, so their binary data
+     * can be read on demand. Only the picture headers and - for unencrypted
+     * pictures - the checksums are read.
+     */
+    private void indexPictures() throws IOException {
+        DocumentEncryptionAtom dea = getDocumentEncryptionAtom();
+        _pictureStore = new HSLFPictureStore(getDirectory(), dea, pictureCacheSize);
+
+        DocumentEntry entry = (DocumentEntry) getDirectory().getEntry(HSLFPictureStore.PICTURES_ENTRY);
+        final int streamSize = entry.getSize();
+
+        try (DocumentInputStream is = _pictureStore.openPictures();
+             HSLFSlideShowEncrypted decryptData = new HSLFSlideShowEncrypted(dea)) {
+            byte[] header = new byte[8];
+            int pos = 0;
+            // An empty picture record (length 0) will take up 8 bytes
+            while (pos <= (streamSize - 8)) {
+                int offset = pos;
+
+                is.readFully(header);
+                decryptData.decryptPictureHeader(header, 0);
+                pos += header.length;
+
+                // Image signature
+                int signature = LittleEndian.getUShort(header, 0);
+                // Image type + 0xF018
+                int type = LittleEndian.getUShort(header, 2);
+                // Image size (excluding the 8 byte header)
+                int imgsize = LittleEndian.getInt(header, 4);
+
+                // When parsing the BStoreDelay stream, [MS-ODRAW] says that we
+                //  should terminate if the type isn't 0xf007 or 0xf018->0xf117
+                if (!((type == 0xf007) || (type >= 0xf018 && type <= 0xf117))) {
+                    break;
+                }
+
+                // The image size must be 0 or greater
+                if (imgsize < 0) {
+                    throw new CorruptPowerPointFileException("The file contains a picture, at position " + _pictures.size() + ", which has a negatively sized data length, so we can't trust any of the picture data");
+                }
+
+                //The pictstream can be truncated halfway through a picture - see readPictures()
+                if (pos + imgsize > streamSize) {
+                    if (PictureType.forNativeID(type - 0xF018) != null) {
+                        logger.log(POILogger.WARN, "\"Pictures\" stream may have ended early. In some circumstances, this is not a problem; " +
+                                "in others, this could indicate a corrupt file");
+                    }
+                    break;
+                }
+
+                int skip = imgsize;
+                PictureType pt = PictureType.forNativeID(type - 0xF018);
+                if (pt == null) {
+                    logger.log(POILogger.ERROR, "Problem reading picture: Invalid image type 0, on picture with length " + imgsize + ".\nYou document will probably become corrupted if you save it!");
+                    logger.log(POILogger.ERROR, "" + pos);
+                } else {
+                    try {
+                        HSLFPictureData pict = HSLFPictureData.create(pt);
+                        pict.setSignature(signature);
+
+                        // the checksum of encrypted pictures is only available after decrypting the whole picture
+                        byte[] uid = null;
+                        if (dea == null && imgsize >= 16) {
+                            uid = new byte[16];
+                            is.readFully(uid);
+                            skip -= uid.length;
+                        }
+                        pict.setStoreData(_pictureStore, offset, imgsize, uid);
+
+                        pict.setOffset(offset);
+                        pict.setIndex(_pictures.size());
+                        _pictures.add(pict);
+                    } catch (IllegalArgumentException e) {
+                        logger.log(POILogger.ERROR, "Problem reading picture: " + e + "\nYou document will probably become corrupted if you save it!");
+                    }
+                }
+
+                IOUtils.skipFully(is, skip);
+                pos += imgsize;
+            }
+        }
+    }
+
     /**
      * remove duplicated UserEditAtoms and merge PersistPtrHolder, i.e.
      * remove document edit history
@@ -653,6 +816,13 @@ public final class HSLFSlideShowImpl extends POIDocument implements Closeable {
         if (_pictures == null) {
             readPictures();
         }
+        if (_pictureStore != null && outFS == getDirectory().getFileSystem()) {
+            // the pictures stream is overwritten, so the pictures can't be read on demand anymore
+            for (HSLFPictureData p : _pictures) {
+                p.detachFromStore();
+            }
+            _pictureStore = null;
+        }
         getDocumentSummaryInformation();
 
         // The list of entries we've written out
@@ -686,7 +856,13 @@ public final class HSLFSlideShowImpl extends POIDocument implements Closeable {
             currentUser.writeToFS(outFS);
             writtenEntries.add("Current User");
 
-            if (_pictures.size() > 0) {
+            if (_pictures.size() > 0 && _pictureStore != null && encryptedSS.getDocumentEncryptionAtom() == null) {
+                // stream the pictures, so the unchanged ones don't need to be held in memory
+                try (InputStream pict = new SequenceInputStream(new PictureStreams())) {
+                    outFS.createOrUpdateDocument(pict, "Pictures");
+                }
+                writtenEntries.add("Pictures");
+            } else if (_pictures.size() > 0) {
                 BufAccessBAOS pict = new BufAccessBAOS();
                 for (HSLFPictureData p : _pictures) {
                     int offset = pict.size();
@@ -765,7 +941,7 @@ public final class HSLFSlideShowImpl extends POIDocument implements Closeable {
         int offset = 0;
         if (_pictures.size() > 0) {
             HSLFPictureData prev = _pictures.get(_pictures.size() - 1);
-            offset = prev.getOffset() + prev.getRawData().length + 8;
+            offset = prev.getOffset() + prev.getRawDataSize() + 8;
         }
         img.setOffset(offset);
         img.setIndex(_pictures.size() + 1);
@@ -852,6 +1028,35 @@ public final class HSLFSlideShowImpl extends POIDocument implements Closeable {
         return "EncryptedSummary";
     }
 
+    /**
+     * Provides the records of the pictures stream one by one. Unchanged pictures
+     * are streamed from the source document, the others are serialized on demand.
+     */
+    private final class PictureStreams implements Enumeration<InputStream> {
+        private final Iterator<HSLFPictureData> iter = _pictures.iterator();
+
+        @Override
+        public boolean hasMoreElements() {
+            return iter.hasNext();
+        }
+
+        @Override
+        public InputStream nextElement() {
+            HSLFPictureData p = iter.next();
+            try {
+                InputStream is = p.openStoredStream();
+                if (is != null) {
+                    return is;
+                }
+                BufAccessBAOS bos = new BufAccessBAOS();
+                p.write(bos);
+                return new ByteArrayInputStream(bos.getBuf(), 0, bos.size());
+            } catch (IOException e) {
+                throw new HSLFException("Unable to write the picture at offset " + p.getOffset(), e);
+            }
+        }
+    }
+
     private static class BufAccessBAOS extends ByteArrayOutputStream {
         public byte[] getBuf() {
             return buf;
@@ -25,10 +25,12 @@ import org.apache.poi.POIDocument;
 import org.apache.poi.extractor.POIOLE2TextExtractor;
 import org.apache.poi.hpsf.DocumentSummaryInformation;
 import org.apache.poi.hpsf.SummaryInformation;
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
 import org.apache.poi.hssf.eventusermodel.FormatTrackingHSSFListener;
 import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
 import org.apache.poi.hssf.eventusermodel.HSSFListener;
 import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
 import org.apache.poi.hssf.model.HSSFFormulaParser;
 import org.apache.poi.hssf.record.BOFRecord;
 import org.apache.poi.hssf.record.BoundSheetRecord;
@@ -127,32 +129,53 @@ public class EventBasedExcelExtractor extends POIOLE2TextExtractor implements or
     * Retreives the text contents of the file
     */
    public String getText() {
-       String text;
+       StringBuilder text = new StringBuilder();
        try {
-           TextListener tl = triggerExtraction();
-
-           text = tl._text.toString();
-           if(! text.endsWith("\n")) {
-               text = text + "\n";
-           }
+           writeText(text);
        } catch(IOException e) {
            throw new RuntimeException(e);
        }
 
-       return text;
+       return text.toString();
+   }
+
+   /**
+    * Writes the text contents of the file, while the records are read,
+    *  i.e. the text isn't collected in memory
+    */
+   @Override
+   public void writeText(Appendable out) throws IOException {
+       TextListener tl = triggerExtraction(out);
+
+       if(tl._lastChar != '\n') {
+           out.append('\n');
+       }
    }
 
-   private TextListener triggerExtraction() throws IOException {
-       TextListener tl = new TextListener();
-       FormatTrackingHSSFListener ft = new FormatTrackingHSSFListener(tl);
+   private TextListener triggerExtraction(Appendable out) throws IOException {
+       final TextListener tl = new TextListener(out);
+       final FormatTrackingHSSFListener ft = new FormatTrackingHSSFListener(tl);
        tl._ft = ft;
 
-       // Register and process
+       // Register and process - abort, as soon as the output fails
        HSSFEventFactory factory = new HSSFEventFactory();
        HSSFRequest request = new HSSFRequest();
-       request.addListenerForAllRecords(ft);
+       request.addListenerForAllRecords(new AbortableHSSFListener() {
+           @Override
+           public short abortableProcessRecord(Record record) throws HSSFUserException {
+               ft.processRecord(record);
+               if(tl._error != null) {
+                   throw new HSSFUserException(tl._error);
+               }
+               return 0;
+           }
+       });
 
-       factory.processWorkbookEvents(request, _dir);
+       try {
+           factory.abortableProcessWorkbookEvents(request, _dir);
+       } catch(HSSFUserException e) {
+           throw tl._error;
+       }
 
        return tl;
    }
@@ -162,16 +185,36 @@ public class EventBasedExcelExtractor extends POIOLE2TextExtractor implements or
        private SSTRecord sstRecord;
 
        private final List<String> sheetNames;
-       final StringBuilder _text = new StringBuilder();
+       private final Appendable _out;
+       char _lastChar;
+       IOException _error;
        private int sheetNum = -1;
        private int rowNum;
 
        private boolean outputNextStringValue;
        private int nextRow = -1;
 
-       public TextListener() {
+       public TextListener(Appendable out) {
            sheetNames = new ArrayList<>();
+           _out = out;
        }
+
+       private boolean isEmpty() {
+           return _lastChar == 0;
+       }
+
+       private void append(String text) {
+           if(_error != null || text.isEmpty()) {
+               return;
+           }
+           try {
+               _out.append(text);
+               _lastChar = text.charAt(text.length()-1);
+           } catch(IOException e) {
+               _error = e;
+           }
+       }
+
        public void processRecord(Record record) {
            String thisText = null;
            int thisRow = -1;
@@ -188,8 +231,8 @@ public class EventBasedExcelExtractor extends POIOLE2TextExtractor implements or
                    rowNum = -1;
 
                    if(_includeSheetNames) {
-                       if(_text.length() > 0) _text.append("\n");
-                       _text.append(sheetNames.get(sheetNum));
+                       if(!isEmpty()) append("\n");
+                       append(sheetNames.get(sheetNum));
                    }
                }
                break;
@@ -253,12 +296,12 @@ public class EventBasedExcelExtractor extends POIOLE2TextExtractor implements or
            if(thisText != null) {
                if(thisRow != rowNum) {
                    rowNum = thisRow;
-                   if(_text.length() > 0)
-                       _text.append("\n");
+                   if(!isEmpty())
+                       append("\n");
                } else {
-                   _text.append("\t");
+                   append("\t");
                }
-               _text.append(thisText);
+               append(thisText);
            }
        }
    }
@@ -82,6 +82,10 @@ import org.apache.poi.util.RecordFormatException;
  * <p>
  * EscherAggrefate contains also NoteRecords
  * NoteRecords must be serial
+ * <p>
+ * The escher tree of an aggregate read from a sheet is decoded lazily, i.e. only the raw bytes
+ * are kept until the escher records or the shape to object mapping are accessed. The
+ * tail records are available without decoding.
  */
 
 public final class EscherAggregate extends AbstractEscherHolderRecord {
@@ -307,6 +311,16 @@ public final class EscherAggregate extends AbstractEscherHolderRecord {
      */
     private final Map<Integer, NoteRecord> tailRec = new LinkedHashMap<>();
 
+    /**
+     * the collected drawing bytes, if the escher records haven't been decoded yet
+     */
+    private ShapeCollector pendingShapes;
+
+    /**
+     * the Obj and TextObj records, which will be associated to the shapes on decoding
+     */
+    private List<Record> pendingObjectRecords;
+
     /**
      * create new EscherAggregate
      * @param createDefaultTree if true creates base tree of the escher records, see EscherAggregate.buildBaseTree()
@@ -319,7 +333,7 @@ public final class EscherAggregate extends AbstractEscherHolderRecord {
     }
 
     public EscherAggregate(EscherAggregate other) {
-        super(other);
+        super(decoded(other));
         // shallow copy, because the aggregates doesn't own the records
         shapeToObj.putAll(other.shapeToObj);
         tailRec.putAll(other.tailRec);
@@ -412,14 +426,78 @@ public final class EscherAggregate extends AbstractEscherHolderRecord {
             records.subList(locFirstDrawingRecord + 1, nextIdx).clear();
         }
 
+        // The shapes are decoded on first access
+        agg.pendingShapes = recordFactory;
+        agg.pendingObjectRecords = objectRecords;
+        return agg;
+    }
+
+    private static EscherAggregate decoded(EscherAggregate agg) {
+        agg.decodeShapes();
+        return agg;
+    }
+
+    /**
+     * Decodes the collected drawing bytes into escher records, if not already done
+     */
+    private void decodeShapes() {
+        ShapeCollector collector = pendingShapes;
+        if (collector == null) {
+            return;
+        }
+        pendingShapes = null;
+
         // Decode the shapes
-        Iterator<EscherRecord> shapeIter = recordFactory.parse(agg).iterator();
+        Iterator<EscherRecord> shapeIter = collector.parse(this).iterator();
 
         // Associate the object records with the shapes
-        for (Record record : objectRecords) {
-            agg.shapeToObj.put(shapeIter.next(), record);
+        for (Record record : pendingObjectRecords) {
+            shapeToObj.put(shapeIter.next(), record);
         }
-        return agg;
+        pendingObjectRecords = null;
+    }
+
+    /**
+     * @return {@code true}, if the escher records are still kept as raw bytes
+     */
+    public boolean isDecoded() {
+        return pendingShapes == null;
+    }
+
+    @Override
+    public List<EscherRecord> getEscherRecords() {
+        decodeShapes();
+        return super.getEscherRecords();
+    }
+
+    @Override
+    public void addEscherRecord(int index, EscherRecord element) {
+        decodeShapes();
+        super.addEscherRecord(index, element);
+    }
+
+    @Override
+    public boolean addEscherRecord(EscherRecord element) {
+        decodeShapes();
+        return super.addEscherRecord(element);
+    }
+
+    @Override
+    public void clearEscherRecords() {
+        decodeShapes();
+        super.clearEscherRecords();
+    }
+
+    @Override
+    public EscherContainerRecord getEscherContainer() {
+        decodeShapes();
+        return super.getEscherContainer();
+    }
+
+    @Override
+    public EscherRecord getEscherRecord(int index) {
+        decodeShapes();
+        return super.getEscherRecord(index);
     }
 
     private static class ShapeCollector extends DefaultEscherRecordFactory {
@@ -623,6 +701,7 @@ public final class EscherAggregate extends AbstractEscherHolderRecord {
      * @param objRecord - Obj or TextObj record
      */
     public void associateShapeToObjRecord(EscherRecord r, Record objRecord) {
+        decodeShapes();
         shapeToObj.put(r, objRecord);
     }
 
@@ -631,6 +710,7 @@ public final class EscherAggregate extends AbstractEscherHolderRecord {
      * @param rec - clientData or textbox record to be removed
      */
     public void removeShapeToObjRecord(EscherRecord rec) {
+        decodeShapes();
         shapeToObj.remove(rec);
     }
 
@@ -750,6 +830,7 @@ public final class EscherAggregate extends AbstractEscherHolderRecord {
      * We need to access it outside of EscherAggregate when building shapes
      */
     public Map<EscherRecord, Record> getShapeToObjMapping() {
+        decodeShapes();
         return Collections.unmodifiableMap(shapeToObj);
     }
 
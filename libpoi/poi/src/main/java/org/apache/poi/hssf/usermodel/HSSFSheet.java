@@ -20,6 +20,7 @@ package org.apache.poi.hssf.usermodel;
 import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +41,7 @@ import org.apache.poi.hssf.record.EscherAggregate;
 import org.apache.poi.hssf.record.ExtendedFormatRecord;
 import org.apache.poi.hssf.record.HyperlinkRecord;
 import org.apache.poi.hssf.record.NameRecord;
+import org.apache.poi.hssf.record.NoteRecord;
 import org.apache.poi.hssf.record.Record;
 import org.apache.poi.hssf.record.RecordBase;
 import org.apache.poi.hssf.record.RowRecord;
@@ -114,6 +116,11 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
     protected final InternalWorkbook _book;
     protected final HSSFWorkbook _workbook;
     private HSSFPatriarch _patriarch;
+    /**
+     * cell addresses of the comment notes, used to look up comments
+     * without decoding the drawing layer as long as there's no patriarch
+     */
+    private Map<CellAddress, NoteRecord> _noteIndex;
     private int _firstrow = -1;
     private int _lastrow = -1;
 
@@ -2448,6 +2455,10 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
     }
 
     protected HSSFComment findCellComment(int row, int column) {
+        if (_patriarch == null && findNoteRecord(row, column) == null) {
+            // each comment has a note, so there's no need to build the patriarch
+            return null;
+        }
         HSSFPatriarch patriarch = getDrawingPatriarch();
         if (null == patriarch) {
             patriarch = createDrawingPatriarch();
@@ -2455,6 +2466,28 @@ public final class HSSFSheet implements org.apache.poi.ss.usermodel.Sheet {
         return lookForComment(patriarch, row, column);
     }
 
+    /**
+     * Looks up the note of a cell comment via the note index, which is built on first use.
+     * Only valid as long as the patriarch hasn't been created, because comments
+     * are added, moved and removed via the patriarch.
+     */
+    private NoteRecord findNoteRecord(int row, int column) {
+        if (_noteIndex == null) {
+            Map<CellAddress, NoteRecord> index = new HashMap<>();
+            for (NoteRecord note : _sheet.getNoteRecords()) {
+                index.put(new CellAddress(note.getRow(), note.getColumn()), note);
+            }
+            EscherAggregate agg = (EscherAggregate) _sheet.findFirstRecordBySid(EscherAggregate.sid);
+            if (agg != null) {
+                for (NoteRecord note : agg.getTailRecords().values()) {
+                    index.put(new CellAddress(note.getRow(), note.getColumn()), note);
+                }
+            }
+            _noteIndex = index;
+        }
+        return _noteIndex.get(new CellAddress(row, column));
+    }
+
     private HSSFComment lookForComment(HSSFShapeContainer container, int row, int column) {
         for (Object object : container.getChildren()) {
             HSSFShape shape = (HSSFShape) object;
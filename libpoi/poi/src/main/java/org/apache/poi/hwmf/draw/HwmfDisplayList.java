@@ -0,0 +1,280 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hwmf.draw;
+
+import com.android.compaty.util.function.BiFunction;
+import com.android.compaty.util.function.Consumer;
+
+import org.apache.poi.util.Beta;
+import org.apache.poi.util.Internal;
+
+import java.awt.AlphaComposite;
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Composite;
+import java.awt.Graphics2D;
+import java.awt.PoiPaint;
+import java.awt.Shape;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Area;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.geom.RectangularShape;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An immutable list of the drawing operations of a WMF or EMF picture.<p>
+ *
+ * The records of a picture are played back once against a recording graphics context.
+ * Thereby the object table, the window/viewport mapping, the save/restore stack and the
+ * brushes and pens are resolved into a flat list of fill and stroke operations, each with
+ * its paint or stroke, its path, its transformation and clip. Replaying the list only
+ * applies the operations to the target graphics context, i.e. it doesn't allocate
+ * properties or paths.<p>
+ *
+ * Text and bitmap operations depend on the font handler and the image renderers of the
+ * target graphics context. They are recorded with a snapshot of the draw properties
+ * and are drawn by a {@link HwmfGraphics} during the replay.<p>
+ *
+ * The display list is thread-safe and can be replayed concurrently.
+ */
+@Beta
+public final class HwmfDisplayList {
+    private enum OpType { FILL, STROKE, CALL }
+
+    private static final class Op {
+        final OpType type;
+        /** the transformation relative to the initial transformation */
+        final AffineTransform transform;
+        /** the clip in the initial coordinate system or {@code null} */
+        final Shape clip;
+        final Shape shape;
+        final PoiPaint paint;
+        final BasicStroke stroke;
+        final Color color;
+        final HwmfDrawProperties properties;
+        final Consumer<HwmfGraphics> call;
+
+        Op(OpType type, AffineTransform transform, Shape clip, Shape shape, PoiPaint paint,
+           BasicStroke stroke, Color color, HwmfDrawProperties properties, Consumer<HwmfGraphics> call) {
+            this.type = type;
+            this.transform = transform;
+            this.clip = clip;
+            this.shape = shape;
+            this.paint = paint;
+            this.stroke = stroke;
+            this.color = color;
+            this.properties = properties;
+            this.call = call;
+        }
+    }
+
+    private final Rectangle2D frameBounds;
+    private final BiFunction<Graphics2D,Rectangle2D,? extends HwmfGraphics> graphicsFactory;
+    private final Op[] ops;
+
+    private HwmfDisplayList(Rectangle2D frameBounds,
+                            BiFunction<Graphics2D,Rectangle2D,? extends HwmfGraphics> graphicsFactory,
+                            List<Op> ops) {
+        this.frameBounds = (Rectangle2D)frameBounds.clone();
+        this.graphicsFactory = graphicsFactory;
+        this.ops = ops.toArray(new Op[ops.size()]);
+    }
+
+    /**
+     * Compiles the records of a picture
+     *
+     * @param frameBounds the bounds of the picture, which are mapped to the output bounds
+     * @param graphicsFactory the factory of the graphics context, i.e. of the WMF or EMF flavour
+     * @param playback draws the records to the given graphics context
+     * @return the display list
+     */
+    @Internal
+    public static HwmfDisplayList compile(Rectangle2D frameBounds,
+                                          BiFunction<Graphics2D,Rectangle2D,? extends HwmfGraphics> graphicsFactory,
+                                          Consumer<HwmfGraphics> playback) {
+        // the recording context only tracks the transformation and clip, nothing is drawn into it
+        BufferedImage img = BufferedImage.create(1, 1);
+        Graphics2D ctx = img.createGraphics();
+        try {
+            HwmfGraphics g = graphicsFactory.apply(ctx, frameBounds);
+            Builder builder = new Builder();
+            g.displayListBuilder = builder;
+            playback.accept(g);
+            return new HwmfDisplayList(frameBounds, graphicsFactory, builder.ops);
+        } finally {
+            ctx.dispose();
+        }
+    }
+
+    /**
+     * @return the number of drawing operations
+     */
+    public int size() {
+        return ops.length;
+    }
+
+    /**
+     * Replays the drawing operations
+     *
+     * @param ctx the graphics context to draw into
+     * @param graphicsBounds the output bounds of the picture
+     */
+    public void draw(Graphics2D ctx, Rectangle2D graphicsBounds) {
+        final HwmfGraphicsState state = new HwmfGraphicsState();
+        state.backup(ctx);
+
+        final AffineTransform at = ctx.getTransform();
+        final Shape clip = ctx.getClip();
+        final Composite composite = ctx.getComposite();
+        final Composite srcOver = AlphaComposite.getInstance(AlphaComposite.SRC_OVER);
+
+        try {
+            // scale output bounds to image bounds
+            ctx.translate(graphicsBounds.getCenterX(), graphicsBounds.getCenterY());
+            ctx.scale(graphicsBounds.getWidth()/frameBounds.getWidth(), graphicsBounds.getHeight()/frameBounds.getHeight());
+            ctx.translate(-frameBounds.getCenterX(), -frameBounds.getCenterY());
+
+            final AffineTransform initial = ctx.getTransform();
+            final AffineTransform opTransform = new AffineTransform();
+            HwmfGraphics callGraphics = null;
+
+            AffineTransform lastTransform = null;
+            Shape lastClip = null;
+            boolean clipApplied = false;
+
+            for (Op op : ops) {
+                if (!clipApplied || op.clip != lastClip) {
+                    // the picture clip is combined with the clip of the caller
+                    ctx.setTransform(at);
+                    ctx.setClip(clip);
+                    ctx.setTransform(initial);
+                    if (op.clip != null) {
+                        ctx.clip(op.clip);
+                    }
+                    lastClip = op.clip;
+                    lastTransform = null;
+                    clipApplied = true;
+                }
+                if (op.transform != lastTransform) {
+                    opTransform.setTransform(initial);
+                    opTransform.concatenate(op.transform);
+                    ctx.setTransform(opTransform);
+                    lastTransform = op.transform;
+                }
+
+                switch (op.type) {
+                    case FILL:
+                        ctx.setComposite(srcOver);
+                        ctx.setPoiPaint(op.paint);
+                        ctx.fill(op.shape);
+                        ctx.setComposite(composite);
+                        break;
+                    case STROKE:
+                        ctx.setStroke(op.stroke);
+                        ctx.setColor(op.color);
+                        ctx.draw(op.shape);
+                        break;
+                    case CALL:
+                        if (callGraphics == null) {
+                            // the graphics context keeps the current transformation as its initial one
+                            ctx.setTransform(initial);
+                            callGraphics = graphicsFactory.apply(ctx, frameBounds);
+                            ctx.setTransform(opTransform);
+                        }
+                        // the operations restore the transformation and clip by themselves
+                        callGraphics.prop = op.properties;
+                        op.call.accept(callGraphics);
+                        break;
+                }
+            }
+        } finally {
+            state.restore(ctx);
+        }
+    }
+
+    /**
+     * Records the drawing operations of a {@link HwmfGraphics}
+     */
+    static final class Builder {
+        private final List<Op> ops = new ArrayList<>();
+        private AffineTransform lastTransform;
+        private Shape lastClip;
+
+        void addFill(Graphics2D ctx, Shape shape, PoiPaint paint) {
+            ops.add(new Op(OpType.FILL, getTransform(ctx), getClip(ctx), copy(shape), paint, null, null, null, null));
+        }
+
+        void addStroke(Graphics2D ctx, Shape shape, BasicStroke stroke, Color color) {
+            ops.add(new Op(OpType.STROKE, getTransform(ctx), getClip(ctx), copy(shape), null, stroke, color, null, null));
+        }
+
+        void addCall(HwmfGraphics g, Consumer<HwmfGraphics> call) {
+            HwmfDrawProperties props = g.newProperties(g.getProperties());
+            ops.add(new Op(OpType.CALL, getTransform(g.graphicsCtx), getClip(g.graphicsCtx), null, null, null, null, props, call));
+        }
+
+        private AffineTransform getTransform(Graphics2D ctx) {
+            AffineTransform tx = ctx.getTransform();
+            if (!tx.equals(lastTransform)) {
+                lastTransform = tx;
+            }
+            return lastTransform;
+        }
+
+        private Shape getClip(Graphics2D ctx) {
+            // the recording context starts with the identity, so the clip is stored in the initial coordinate system
+            AffineTransform tx = ctx.getTransform();
+            ctx.setTransform(new AffineTransform());
+            Shape clip = ctx.getClip();
+            ctx.setTransform(tx);
+
+            if (!isSameClip(clip, lastClip)) {
+                lastClip = clip;
+            }
+            return lastClip;
+        }
+
+        private static boolean isSameClip(Shape clip1, Shape clip2) {
+            if (clip1 == null || clip2 == null) {
+                return clip1 == clip2;
+            }
+            if (clip1 instanceof Rectangle2D && clip2 instanceof Rectangle2D) {
+                return clip1.equals(clip2);
+            }
+            return Objects.equals(clip1.getBounds2D(), clip2.getBounds2D())
+                && new Area(clip1).equals(new Area(clip2));
+        }
+
+        /**
+         * The shapes of the records might be modified later on, e.g. the path of a path bracket
+         */
+        private static Shape copy(Shape shape) {
+            if (shape instanceof Path2D) {
+                return new Path2D.Double(shape);
+            } else if (shape instanceof RectangularShape) {
+                return (Shape)((RectangularShape)shape).clone();
+            } else {
+                return shape;
+            }
+        }
+    }
+}
@@ -124,6 +124,9 @@ public class HwmfGraphics {
     protected final TreeMap<Integer,HwmfObjectTableEntry> objectTable = new TreeMap<>();
     private final AffineTransform initialAT = new AffineTransform();
 
+    /** if set, the drawing operations are recorded instead of being drawn */
+    HwmfDisplayList.Builder displayListBuilder;
+
 
     private static final Charset DEFAULT_CHARSET = LocaleUtil.CHARSET_1252;
     /** Bounding box from the placeable header */
@@ -168,36 +171,59 @@ public class HwmfGraphics {
         // first draw a solid background line (depending on bkmode)
         // only makes sense if the line is not solid
         if (getProperties().getBkMode() == HwmfBkMode.OPAQUE && (lineDash != HwmfLineDash.SOLID && lineDash != HwmfLineDash.INSIDEFRAME)) {
-            graphicsCtx.setStroke(new BasicStroke(stroke.getLineWidth()));
-            graphicsCtx.setColor(getProperties().getBackgroundColor().getColor());
-            graphicsCtx.draw(shape);
+            strokeShape(shape, new BasicStroke(stroke.getLineWidth()), getProperties().getBackgroundColor().getColor());
         }
 
         // then draw the (dashed) line
-        graphicsCtx.setStroke(stroke);
-        graphicsCtx.setColor(getProperties().getPenColor().getColor());
-        graphicsCtx.draw(shape);
+        strokeShape(shape, stroke, getProperties().getPenColor().getColor());
     }
 
     public void fill(Shape shape) {
         HwmfDrawProperties prop = getProperties();
 
-        Composite old = graphicsCtx.getComposite();
-        graphicsCtx.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
         if (prop.getBrushStyle() != HwmfBrushStyle.BS_NULL) {
             if (prop.getBkMode() == HwmfBkMode.OPAQUE) {
-                graphicsCtx.setPoiPaint(prop.getBackgroundColor().getColor());
-                graphicsCtx.fill(shape);
+                fillShape(shape, prop.getBackgroundColor().getColor());
             }
 
-            graphicsCtx.setPoiPaint(getFill());
-            graphicsCtx.fill(shape);
+            fillShape(shape, getFill());
         }
-        graphicsCtx.setComposite(old);
 
         draw(shape);
     }
 
+    /**
+     * Fills the shape with the resolved paint. All fill operations end up here,
+     * so they can be recorded into a {@link HwmfDisplayList}.
+     */
+    protected void fillShape(Shape shape, PoiPaint paint) {
+        if (displayListBuilder != null) {
+            displayListBuilder.addFill(graphicsCtx, shape, paint);
+            return;
+        }
+
+        Composite old = graphicsCtx.getComposite();
+        graphicsCtx.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER));
+        graphicsCtx.setPoiPaint(paint);
+        graphicsCtx.fill(shape);
+        graphicsCtx.setComposite(old);
+    }
+
+    /**
+     * Draws the outline of the shape with the resolved stroke and color. All line drawing operations
+     * end up here, so they can be recorded into a {@link HwmfDisplayList}.
+     */
+    protected void strokeShape(Shape shape, BasicStroke stroke, Color color) {
+        if (displayListBuilder != null) {
+            displayListBuilder.addStroke(graphicsCtx, shape, stroke, color);
+            return;
+        }
+
+        graphicsCtx.setStroke(stroke);
+        graphicsCtx.setColor(color);
+        graphicsCtx.draw(shape);
+    }
+
     protected BasicStroke getStroke() {
         HwmfDrawProperties prop = getProperties();
         HwmfPenStyle ps = prop.getPenStyle();
@@ -439,6 +465,12 @@ public class HwmfGraphics {
     }
 
     public void drawString(byte[] text, int length, Point2D reference, Dimension2D scale, Rectangle2D clip, WmfExtTextOutOptions opts, List<Integer> dx, boolean isUnicode) {
+        if (displayListBuilder != null) {
+            // the text layout depends on the font handler of the target graphics
+            displayListBuilder.addCall(this, g -> g.drawString(text, length, reference, scale, clip, opts, dx, isUnicode));
+            return;
+        }
+
         final HwmfDrawProperties prop = getProperties();
 
         final AffineTransform at = graphicsCtx.getTransform();
@@ -696,6 +728,10 @@ public class HwmfGraphics {
         if (srcBounds.isEmpty()) {
             return;
         }
+        if (displayListBuilder != null) {
+            displayListBuilder.addCall(this, g -> g.drawImage(img, srcBounds, dstBounds));
+            return;
+        }
         HwmfDrawProperties prop = getProperties();
 
         // handle raster op
@@ -66,7 +66,7 @@ public class HwmfImageRenderer implements ImageRenderer, EmbeddedExtractor {
         if (!PictureType.WMF.contentType.equals(contentType)) {
             throw new IOException("Invalid picture type");
         }
-        image = new HwmfPicture(new ByteArrayInputStream(data));
+        image = HwmfPictureCache.getPicture(data, contentType, d -> new HwmfPicture(new ByteArrayInputStream(d)));
     }
 
     @Override
@@ -96,7 +96,7 @@ public class HwmfImageRenderer implements ImageRenderer, EmbeddedExtractor {
         g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
         g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
         g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
-        image.draw(g, new Rectangle2D.Double(0,0,dim.getWidth(),dim.getHeight()));
+        draw(g, new Rectangle2D.Double(0,0,dim.getWidth(),dim.getHeight()));
         g.dispose();
 
         return BitmapImageRenderer.setAlpha(bufImg, alpha);
@@ -126,13 +126,21 @@ public class HwmfImageRenderer implements ImageRenderer, EmbeddedExtractor {
             graphics.clip(anchor);
         }
 
-        image.draw(graphics, getOuterBounds(anchor, clip));
+        draw(graphics, getOuterBounds(anchor, clip));
 
         graphicsState.restore(graphics);
 
         return true;
     }
 
+    private void draw(Graphics2D ctx, Rectangle2D graphicsBounds) {
+        if (HwmfPictureCache.isEnabled()) {
+            image.getDisplayList().draw(ctx, graphicsBounds);
+        } else {
+            image.draw(ctx, graphicsBounds);
+        }
+    }
+
     @Internal
     public static Rectangle2D getOuterBounds(Rectangle2D anchor, Insets clip) {
         double outerWidth = anchor.getWidth() / ((100_000.-clip.left-clip.right)/100_000.);
@@ -0,0 +1,166 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.hwmf.draw;
+
+import org.apache.poi.poifs.crypt.CryptoFunctions;
+import org.apache.poi.poifs.crypt.HashAlgorithm;
+import org.apache.poi.util.Beta;
+import org.apache.poi.util.Internal;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A process-wide cache of the parsed WMF and EMF pictures, which is shared by the
+ * {@link HwmfImageRenderer} and the {@code HemfImageRenderer}.<p>
+ *
+ * The image renderers are created for each drawing of a picture shape, so without
+ * the cache the metafile is parsed and its records are played back every time.
+ * The pictures are keyed by the checksum of their data. A cached picture is drawn
+ * via its {@link HwmfDisplayList}, which is compiled on the first draw and kept
+ * along with the picture.<p>
+ *
+ * The cache is disabled by default and needs to be enabled via {@link #setMaxEntries(int)}.
+ * The least recently used pictures are evicted, when the number of entries is exceeded.
+ */
+@Beta
+public final class HwmfPictureCache {
+    /**
+     * Parses the picture data
+     */
+    public interface PictureParser<T> {
+        T parse(byte[] data) throws IOException;
+    }
+
+    private static int maxEntries;
+
+    private static final Map<CacheKey, Object> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    private HwmfPictureCache() {
+    }
+
+    /**
+     * Sets the maximum number of cached pictures.
+     * A value of 0 (the default) disables the cache.
+     *
+     * @param entries the maximum number of cached pictures
+     */
+    public static synchronized void setMaxEntries(int entries) {
+        if (entries < 0) {
+            throw new IllegalArgumentException("the number of entries must not be negative");
+        }
+        maxEntries = entries;
+        evict();
+    }
+
+    /**
+     * @return the maximum number of cached pictures, 0 if the cache is disabled
+     */
+    public static synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * @return {@code true}, if the pictures are cached and drawn via their display list
+     */
+    public static boolean isEnabled() {
+        return getMaxEntries() > 0;
+    }
+
+    /**
+     * Removes all cached pictures
+     */
+    public static synchronized void clear() {
+        CACHE.clear();
+    }
+
+    /**
+     * Returns the parsed picture, either from the cache or by parsing the data
+     *
+     * @param data the picture data
+     * @param contentType the content type of the picture
+     * @param parser the parser of the content type
+     * @return the parsed picture, which is shared and must not be modified
+     */
+    @Internal
+    public static <T> T getPicture(byte[] data, String contentType, PictureParser<T> parser) throws IOException {
+        if (!isEnabled()) {
+            return parser.parse(data);
+        }
+
+        CacheKey key = new CacheKey(CryptoFunctions.getMessageDigest(HashAlgorithm.md5).digest(data), contentType);
+        synchronized (HwmfPictureCache.class) {
+            @SuppressWarnings("unchecked")
+            T picture = (T)CACHE.get(key);
+            if (picture != null) {
+                return picture;
+            }
+        }
+
+        // parse outside of the lock, so other pictures aren't blocked
+        T picture = parser.parse(data);
+
+        synchronized (HwmfPictureCache.class) {
+            if (maxEntries > 0 && !CACHE.containsKey(key)) {
+                CACHE.put(key, picture);
+                evict();
+            }
+        }
+        return picture;
+    }
+
+    private static void evict() {
+        Iterator<Object> iter = CACHE.values().iterator();
+        while (CACHE.size() > maxEntries && iter.hasNext()) {
+            iter.next();
+            iter.remove();
+        }
+    }
+
+    private static final class CacheKey {
+        private final byte[] checksum;
+        private final String contentType;
+        private final int hashCode;
+
+        CacheKey(byte[] checksum, String contentType) {
+            this.checksum = checksum;
+            this.contentType = contentType;
+            this.hashCode = 31 * Arrays.hashCode(checksum) + contentType.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey)o;
+            return contentType.equals(other.contentType) && Arrays.equals(checksum, other.checksum);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.poi.hwmf.usermodel;
 import com.android.compaty.util.function.Supplier;
 
 import org.apache.poi.common.usermodel.GenericRecord;
+import org.apache.poi.hwmf.draw.HwmfDisplayList;
 import org.apache.poi.hwmf.draw.HwmfDrawProperties;
 import org.apache.poi.hwmf.draw.HwmfGraphics;
 import org.apache.poi.hwmf.draw.HwmfGraphicsState;
@@ -62,6 +63,8 @@ public class HwmfPicture implements Iterable<HwmfRecord>, GenericRecord {
     final List<HwmfRecord> records = new ArrayList<>();
     final HwmfPlaceableHeader placeableHeader;
     final HwmfHeader header;
+
+    private HwmfDisplayList displayList;
     
     public HwmfPicture(InputStream inputStream) throws IOException {
 
@@ -166,6 +169,30 @@ public class HwmfPicture implements Iterable<HwmfRecord>, GenericRecord {
         }
     }
 
+    /**
+     * Returns the drawing operations of the records, which are compiled on the first call
+     * and kept with the picture, so repeated draws don't need to play back the records.
+     *
+     * @return the compiled display list
+     */
+    public synchronized HwmfDisplayList getDisplayList() {
+        if (displayList == null) {
+            Rectangle2D bounds = getInnnerBounds();
+            final Rectangle2D innerBounds = (bounds == null) ? getBounds() : bounds;
+
+            displayList = HwmfDisplayList.compile(innerBounds, HwmfGraphics::new, g -> {
+                HwmfDrawProperties prop = g.getProperties();
+                prop.setViewportOrg(innerBounds.getX(), innerBounds.getY());
+                prop.setViewportExt(innerBounds.getWidth(), innerBounds.getHeight());
+
+                for (HwmfRecord r : records) {
+                    r.draw(g);
+                }
+            });
+        }
+        return displayList;
+    }
+
     /**
      * Returns the bounding box in device-independent units. Usually this is taken from the placeable header.
      *
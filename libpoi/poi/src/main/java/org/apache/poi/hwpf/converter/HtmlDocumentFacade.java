@@ -38,6 +38,12 @@ public class HtmlDocumentFacade
     private Map<String, Map<String, String>> stylesheet = new LinkedHashMap<>();
     private Element stylesheetElement;
 
+    /**
+     * Map from tag name, to number of css classes already returned by
+     * {@link #buildStylesheetUpdate()}
+     */
+    private final Map<String, Integer> writtenClasses = new LinkedHashMap<>();
+
     protected Element title;
     protected Text titleText;
 
@@ -114,6 +120,42 @@ public class HtmlDocumentFacade
         return stringBuilder.toString();
     }
 
+    /**
+     * Builds the css rules of the classes, which were created since the
+     * previous call, e.g. to write the stylesheet incrementally along with
+     * the body of a streamed document.
+     *
+     * @return the new css rules, empty if no classes were created
+     */
+    public String buildStylesheetUpdate()
+    {
+        Map<String, Map<String, String>> update = new LinkedHashMap<>();
+        for ( Map.Entry<String, Map<String, String>> byPrefix : stylesheet
+                .entrySet() )
+        {
+            String prefix = byPrefix.getKey();
+            Map<String, String> styles = byPrefix.getValue();
+            Integer written = writtenClasses.get( prefix );
+            int skip = written == null ? 0 : written;
+            if ( skip == styles.size() )
+                continue;
+
+            Map<String, String> newStyles = new LinkedHashMap<>();
+            for ( Map.Entry<String, String> byStyle : styles.entrySet() )
+            {
+                if ( skip > 0 )
+                {
+                    skip--;
+                    continue;
+                }
+                newStyles.put( byStyle.getKey(), byStyle.getValue() );
+            }
+            update.put( prefix, newStyles );
+            writtenClasses.put( prefix, styles.size() );
+        }
+        return update.isEmpty() ? "" : buildStylesheet( update );
+    }
+
     public Element createBlock()
     {
         return document.createElement( "div" );
@@ -172,7 +172,7 @@ public class WordToHtmlConverter extends AbstractWordConverter
     @Override
     protected void afterProcess()
     {
-        if ( notes != null ) {
+        if ( notes != null && notes.hasChildNodes() ) {
             htmlDocumentFacade.getBody().appendChild( notes );
         }
 
@@ -0,0 +1,331 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.hwpf.converter;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.apache.poi.hwpf.HWPFDocumentCore;
+import org.apache.poi.hwpf.usermodel.Paragraph;
+import org.apache.poi.hwpf.usermodel.Section;
+import org.apache.poi.hwpf.usermodel.Table;
+import org.apache.poi.util.Beta;
+import org.apache.poi.util.XMLHelper;
+import org.w3c.dom.Attr;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Converts Word files (95-2007) into HTML, which is written incrementally to
+ * a {@link Writer} instead of being kept in a DOM document.
+ * <p>
+ * The converter callbacks still build the elements of a paragraph or table,
+ * but each top-level block is serialized and detached from the document as
+ * soon as it's completed. The sections of a paginated document are written
+ * and closed one after another, so the memory usage doesn't depend on the
+ * length of the document. The css classes are deduplicated as usual, the
+ * classes which were created since the previous flush are written in a
+ * <tt>style</tt> element in front of the blocks which use them.
+ * <p>
+ * The head of the document, i.e. the title and meta data, is written along
+ * with the first block. Therefore changes of the head or of the attributes
+ * of the body after the first block are not reflected in the output.
+ * {@link #processDocument(HWPFDocumentCore)} completes the output. When
+ * several parts are converted via
+ * {@link #processDocumentPart(HWPFDocumentCore, org.apache.poi.hwpf.usermodel.Range)},
+ * {@link #finish()} needs to be called afterwards.
+ * <p>
+ * I/O errors of the writer are rethrown by the processing methods as
+ * {@link IllegalStateException}, which has the {@link IOException} as cause.
+ */
+@Beta
+public class WordToHtmlStreamConverter extends WordToHtmlConverter
+{
+    private final HtmlDocumentFacade htmlDocumentFacade;
+
+    private final Writer out;
+
+    private final Transformer serializer;
+
+    private boolean headWritten;
+
+    private boolean finished;
+
+    /**
+     * Section block, which start tag was already written
+     */
+    private Element openSection;
+
+    /**
+     * Creates new instance of {@link WordToHtmlStreamConverter}
+     *
+     * @param document XML DOM Document used to build the HTML blocks
+     * @param out the writer, which receives the HTML, it isn't closed by
+     *            the converter
+     */
+    public WordToHtmlStreamConverter( Document document, Writer out )
+    {
+        this( new HtmlDocumentFacade( document ), out );
+    }
+
+    public WordToHtmlStreamConverter( HtmlDocumentFacade htmlDocumentFacade,
+            Writer out )
+    {
+        super( htmlDocumentFacade );
+        this.htmlDocumentFacade = htmlDocumentFacade;
+        this.out = out;
+
+        try
+        {
+            serializer = XMLHelper.newTransformer();
+        }
+        catch ( TransformerException exc )
+        {
+            throw new IllegalStateException(
+                    "Unable to create HTML serializer", exc );
+        }
+        serializer.setOutputProperty( OutputKeys.METHOD, "html" );
+        serializer.setOutputProperty( OutputKeys.OMIT_XML_DECLARATION, "yes" );
+        serializer.setOutputProperty( OutputKeys.INDENT, "no" );
+    }
+
+    @Override
+    protected void afterProcess()
+    {
+        super.afterProcess();
+
+        try
+        {
+            flush( htmlDocumentFacade.getBody() );
+        }
+        catch ( IOException exc )
+        {
+            throw new IllegalStateException( "Unable to write HTML", exc );
+        }
+    }
+
+    /**
+     * Writes the remaining blocks and the end tags of the document and
+     * flushes the writer. Further calls have no effect.
+     */
+    public void finish() throws IOException
+    {
+        if ( finished )
+            return;
+
+        flush( htmlDocumentFacade.getBody() );
+        out.write( "</body></html>" );
+        out.flush();
+        finished = true;
+    }
+
+    @Override
+    public void processDocument( HWPFDocumentCore wordDocument )
+    {
+        super.processDocument( wordDocument );
+
+        try
+        {
+            finish();
+        }
+        catch ( IOException exc )
+        {
+            throw new IllegalStateException( "Unable to write HTML", exc );
+        }
+    }
+
+    @Override
+    protected void processParagraph( HWPFDocumentCore hwpfDocument,
+            Element parentElement, int currentTableLevel, Paragraph paragraph,
+            String bulletText )
+    {
+        super.processParagraph( hwpfDocument, parentElement,
+                currentTableLevel, paragraph, bulletText );
+
+        if ( currentTableLevel == Integer.MIN_VALUE )
+            flushBlocks( parentElement );
+    }
+
+    @Override
+    protected void processSection( HWPFDocumentCore wordDocument,
+            Section section, int sectionCounter )
+    {
+        super.processSection( wordDocument, section, sectionCounter );
+
+        Element body = htmlDocumentFacade.getBody();
+        Node div = body.getLastChild();
+        if ( !( div instanceof Element ) )
+            return;
+
+        try
+        {
+            flush( (Element) div );
+            if ( openSection == div )
+            {
+                out.write( "</div>" );
+                openSection = null;
+            }
+            body.removeChild( div );
+        }
+        catch ( IOException exc )
+        {
+            throw new IllegalStateException( "Unable to write HTML", exc );
+        }
+    }
+
+    @Override
+    protected void processTable( HWPFDocumentCore hwpfDocument, Element flow,
+            Table table )
+    {
+        super.processTable( hwpfDocument, flow, table );
+
+        flushBlocks( flow );
+    }
+
+    /**
+     * Writes the completed blocks of a top-level flow, i.e. of the body or of
+     * the current section block. Nested flows, like table cells, are written
+     * along with their top-level block.
+     */
+    private void flushBlocks( Element flow )
+    {
+        Element body = htmlDocumentFacade.getBody();
+        if ( flow != body && flow.getParentNode() != body )
+            return;
+
+        try
+        {
+            flush( flow );
+        }
+        catch ( IOException exc )
+        {
+            throw new IllegalStateException( "Unable to write HTML", exc );
+        }
+    }
+
+    private void flush( Element flow ) throws IOException
+    {
+        final Element body = htmlDocumentFacade.getBody();
+
+        if ( !headWritten )
+        {
+            // the head contains all css classes known so far
+            htmlDocumentFacade.updateStylesheet();
+            htmlDocumentFacade.buildStylesheetUpdate();
+
+            out.write( "<html>" );
+            serialize( htmlDocumentFacade.getHead() );
+            writeStartTag( body );
+            headWritten = true;
+        }
+
+        String styles = htmlDocumentFacade.buildStylesheetUpdate();
+        if ( styles.length() > 0 )
+        {
+            out.write( "<style type=\"text/css\">\n" );
+            // css rules don't need escaping, apart from a closing style tag
+            out.write( styles.replace( "</", "<\\/" ) );
+            out.write( "</style>" );
+        }
+
+        if ( flow != body && flow != openSection )
+        {
+            if ( openSection != null )
+                out.write( "</div>" );
+            writeStartTag( flow );
+            openSection = flow;
+        }
+
+        for ( Node child = flow.getFirstChild(); child != null; child = flow
+                .getFirstChild() )
+        {
+            serialize( child );
+            flow.removeChild( child );
+
+            /*
+             * The notes block is kept by the converter and appended again
+             * after the next document part, therefore its written notes are
+             * removed
+             */
+            while ( child.hasChildNodes() )
+                child.removeChild( child.getFirstChild() );
+        }
+    }
+
+    private void serialize( Node node ) throws IOException
+    {
+        try
+        {
+            serializer.transform( new DOMSource( node ),
+                    new StreamResult( out ) );
+        }
+        catch ( TransformerException exc )
+        {
+            throw new IOException( "Unable to write HTML", exc );
+        }
+    }
+
+    private void writeStartTag( Element element ) throws IOException
+    {
+        out.write( '<' );
+        out.write( element.getTagName() );
+
+        NamedNodeMap attributes = element.getAttributes();
+        for ( int i = 0; i < attributes.getLength(); i++ )
+        {
+            Attr attr = (Attr) attributes.item( i );
+            out.write( ' ' );
+            out.write( attr.getName() );
+            out.write( "=\"" );
+            out.write( escapeAttribute( attr.getValue() ) );
+            out.write( '"' );
+        }
+        out.write( '>' );
+    }
+
+    private static String escapeAttribute( String value )
+    {
+        StringBuilder builder = new StringBuilder( value.length() );
+        for ( int i = 0; i < value.length(); i++ )
+        {
+            char c = value.charAt( i );
+            switch ( c )
+            {
+            case '&':
+                builder.append( "&amp;" );
+                break;
+            case '"':
+                builder.append( "&quot;" );
+                break;
+            case '<':
+                builder.append( "&lt;" );
+                break;
+            default:
+                builder.append( c );
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -19,7 +19,11 @@ package org.apache.poi.hwpf.usermodel;
 
 import static java.util.stream.Collectors.toList;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.poi.hwpf.HWPFDocument;
 import org.apache.poi.hwpf.HWPFDocumentCore;
@@ -681,6 +685,7 @@ public class Range {
 	 *            The text to be replaced (e.g., "${organization}")
 	 * @param pValue
 	 *            The replacement text (e.g., "Apache Software Foundation")
+	 * @see #replaceText(Map)
 	 */
 	public void replaceText(String pPlaceHolder, String pValue) {
 		while (true) {
@@ -694,6 +699,132 @@ public class Range {
 		}
 	}
 
+	/**
+	 * Replace all instances of several pieces of text at once, e.g. the
+	 * placeholders of a mail merge.<p>
+	 *
+	 * The replacements are applied in one pass: the text is rebuilt once and the
+	 * offsets of the sections, paragraphs and character runs are shifted once,
+	 * instead of once per replacement as with {@link #replaceText(String, String)}.
+	 * The replacement text gets the properties of the character run, in which
+	 * the replaced text starts.<p>
+	 *
+	 * The text is searched from the start of this range. When placeholders
+	 * overlap, the first one wins, and the longer one if they start at the same
+	 * offset. The replacement texts aren't searched again.
+	 *
+	 * @param replacements
+	 *            The replacement texts by the texts to be replaced
+	 */
+	public void replaceText(Map<String, String> replacements) {
+		if (!(_doc instanceof HWPFDocument)) {
+			throw new IllegalArgumentException("doc must be instance of HWPFDocument");
+		}
+
+		// find the non-overlapping instances, relative to this range
+		final String text = text();
+		List<int[]> found = new ArrayList<>();
+		List<String> values = new ArrayList<>();
+		for (Map.Entry<String, String> me : replacements.entrySet()) {
+			String placeHolder = me.getKey();
+			if (placeHolder == null || placeHolder.isEmpty()) {
+				continue;
+			}
+			for (int idx = text.indexOf(placeHolder); idx >= 0; idx = text.indexOf(placeHolder, idx + placeHolder.length())) {
+				found.add(new int[]{idx, placeHolder.length(), values.size()});
+			}
+			values.add(me.getValue() == null ? "" : me.getValue());
+		}
+		if (found.isEmpty()) {
+			return;
+		}
+		Collections.sort(found, (a, b) -> (a[0] != b[0]) ? Integer.compare(a[0], b[0]) : Integer.compare(b[1], a[1]));
+
+		// absolute offset, replaced length and replacement length of the applied instances
+		int[] offsets = new int[found.size()];
+		int[] oldLengths = new int[found.size()];
+		int[] newLengths = new int[found.size()];
+		int edits = 0;
+		int lastEnd = 0;
+		StringBuilder newText = new StringBuilder(text.length());
+		for (int[] f : found) {
+			if (f[0] < lastEnd) {
+				continue;
+			}
+			String value = values.get(f[2]);
+			newText.append(text, lastEnd, f[0]).append(value);
+			lastEnd = f[0] + f[1];
+			offsets[edits] = _start + f[0];
+			oldLengths[edits] = f[1];
+			newLengths[edits] = value.length();
+			edits++;
+		}
+		newText.append(text, lastEnd, text.length());
+
+		initAll();
+
+		// the shift of the offsets after each instance
+		int[] shifts = new int[edits];
+		int shift = 0;
+		for (int i = 0; i < edits; i++) {
+			shift += newLengths[i] - oldLengths[i];
+			shifts[i] = shift;
+		}
+
+		// this is the same as inserting the replacement before and deleting the replaced text
+		// for each instance, but all property nodes are only visited once
+		shiftNodes(_characters, _charStart, offsets, oldLengths, newLengths, shifts, edits);
+		shiftNodes(_paragraphs, _parStart, offsets, oldLengths, newLengths, shifts, edits);
+		shiftNodes(_sections, _sectionStart, offsets, oldLengths, newLengths, shifts, edits);
+
+		// the bookmarks and FIB fields are few, so they are adjusted per instance,
+		// starting with the last one to keep the offsets of the previous ones valid
+		for (int i = edits - 1; i >= 0; i--) {
+			int offset = offsets[i];
+			BookmarksImpl bookmarks = (BookmarksImpl)((HWPFDocument)_doc).getBookmarks();
+			bookmarks.afterInsert(offset, newLengths[i]);
+			bookmarks.afterDelete(offset + newLengths[i], oldLengths[i]);
+			adjustFIB(offset, newLengths[i]);
+			adjustFIB(offset + newLengths[i], -oldLengths[i]);
+		}
+
+		_text.replace(_start, _end, newText.toString());
+		adjustForInsert(shift);
+
+		sanityCheck();
+	}
+
+	/**
+	 * Maps the offsets of the property nodes for a batch of replacements.
+	 * Offsets up to the start of a replacement are kept, offsets within the replaced
+	 * text are moved to the end of the replacement and the following ones are shifted.
+	 */
+	private static void shiftNodes(List<? extends PropertyNode<?>> nodes, int fromIndex,
+			int[] offsets, int[] oldLengths, int[] newLengths, int[] shifts, int edits) {
+		for (int i = fromIndex; i < nodes.size(); i++) {
+			PropertyNode<?> node = nodes.get(i);
+			if (node == null) {
+				continue;
+			}
+			node.setStart(shiftOffset(node.getStart(), offsets, oldLengths, newLengths, shifts, edits));
+			node.setEnd(shiftOffset(node.getEnd(), offsets, oldLengths, newLengths, shifts, edits));
+		}
+	}
+
+	private static int shiftOffset(int cp, int[] offsets, int[] oldLengths, int[] newLengths, int[] shifts, int edits) {
+		// the last replacement, which starts before the offset
+		int idx = Arrays.binarySearch(offsets, 0, edits, cp);
+		idx = (idx >= 0 ? idx : -idx - 1) - 1;
+		if (idx < 0) {
+			return cp;
+		}
+		int prevShift = (idx == 0) ? 0 : shifts[idx - 1];
+		if (cp <= offsets[idx] + oldLengths[idx]) {
+			return offsets[idx] + newLengths[idx] + prevShift;
+		}
+		return cp + shifts[idx];
+	}
+
 	/**
 	 * Gets the character run at index. The index is relative to this range.
 	 *
@@ -1065,6 +1196,11 @@ public class Range {
      *            The (signed) value that should be added to the FIB CCP fields
      */
     protected void adjustFIB( int adjustment )
+    {
+        adjustFIB( _start, adjustment );
+    }
+
+    private void adjustFIB( int start, int adjustment )
     {
         if (!( _doc instanceof HWPFDocument)) {
         	throw new IllegalArgumentException("doc must be instance of HWPFDocument");
@@ -1112,7 +1248,7 @@ public class Range {
             currentEnd += currentLength;
 
             // do we need to shift this part?
-            if ( _start > currentEnd )
+            if ( start > currentEnd )
                 continue;
 
             fib.setSubdocumentTextStreamLength( type, currentLength
@@ -45,6 +45,8 @@ import org.apache.poi.xddf.usermodel.chart.XDDFChart;
 import org.apache.poi.xssf.usermodel.XSSFRelation;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.xwpf.usermodel.XWPFRelation;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
 
 /**
  * Represents an entry of a OOXML package.
@@ -61,6 +63,13 @@ public class POIXMLDocumentPart {
     private Map<String, RelationPart> relations = new LinkedHashMap<>();
     private boolean isCommitted = false;
 
+    /**
+     * the XML bean holding the state of this part, if the part tracks its changes
+     */
+    private XmlObject trackedBean;
+    private XmlCursor.ChangeStamp changeStamp;
+    private boolean isDirty = true;
+
     /**
      * to check whether embedded part is already committed
      *
@@ -104,6 +113,44 @@ public class POIXMLDocumentPart {
         this.isCommitted = isCommitted;
     }
 
+    /**
+     * Starts tracking the changes of the XML bean, which holds the whole state of this part.
+     * As long as the bean isn't modified and {@link #markDirty()} isn't called, the part is
+     * not committed on save, so the package part keeps its original content.<p>
+     *
+     * Subclasses, which keep state outside of the bean or replace the bean, need to
+     * call {@link #markDirty()} on such changes.
+     *
+     * @param bean the XML bean, usually the document element, which was read from the package part
+     */
+    protected final void trackChanges(XmlObject bean) {
+        trackedBean = bean;
+        XmlCursor cur = bean.newCursor();
+        try {
+            changeStamp = cur.getDocChangeStamp();
+        } finally {
+            cur.dispose();
+        }
+        isDirty = false;
+    }
+
+    /**
+     * Marks this part as modified, so it will be committed on the next save
+     */
+    public final void markDirty() {
+        isDirty = true;
+    }
+
+    /**
+     * Is this part committed on the next save?
+     * Parts which don't track their changes via {@link #trackChanges(XmlObject)} are always dirty.
+     *
+     * @return {@code true}, if the part needs to be committed
+     */
+    public boolean isDirty() {
+        return isDirty || changeStamp == null || changeStamp.hasChanged();
+    }
+
     /**
      * The RelationPart is a cached relationship between the document, which contains the RelationPart,
      * and one of its referenced child document parts.
@@ -484,10 +531,17 @@ public class POIXMLDocumentPart {
             return;
         }
 
-        // this usually clears out previous content in the part...
-        prepareForCommit();
+        if (isDirty()) {
+            // this usually clears out previous content in the part...
+            prepareForCommit();
+
+            commit();
 
-        commit();
+            // the package part is in sync with the bean now
+            if (trackedBean != null) {
+                trackChanges(trackedBean);
+            }
+        }
         alreadySaved.add(this.getPackagePart());
         for (RelationPart rp : relations.values()) {
             POIXMLDocumentPart p = rp.getDocumentPart();
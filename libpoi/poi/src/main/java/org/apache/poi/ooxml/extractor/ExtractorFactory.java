@@ -38,6 +38,7 @@ import org.apache.poi.poifs.filesystem.NotOLE2FileException;
 import org.apache.poi.poifs.filesystem.OfficeXmlFileException;
 import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.sl.extractor.SlideShowExtractor;
+import org.apache.poi.util.Beta;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.NotImplemented;
 import org.apache.poi.util.POILogFactory;
@@ -56,6 +57,7 @@ import org.apache.poi.xwpf.usermodel.XWPFRelation;
 import org.apache.xmlbeans.XmlException;
 
 import java.io.File;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Method;
@@ -171,6 +173,101 @@ public final class ExtractorFactory {
         }
     }
 
+    /**
+     * Extracts the text of a document into the given output, but not more than {@code maxChars} characters.<p>
+     *
+     * For the extraction the event based extractors are preferred, unless this was overridden via
+     * {@link #setAllThreadsPreferEventExtractors(Boolean)}. They write the text in chunks, e.g. sheet
+     * by sheet, so the memory usage depends on the size of the chunks and not on the size of the document.
+     * The other extractors collect the text in memory and write it at once. When the budget is exhausted,
+     * the extraction is stopped and the document is closed.
+     *
+     * @param file the document file
+     * @param out the output of the text, which isn't closed
+     * @param maxChars the maximum number of characters to write, -1 for no limit
+     * @return the metrics of the extraction
+     * @throws IOException If an error occurs while reading the file or writing the output
+     * @throws OpenXML4JException If an error parsing the OpenXML file format is found.
+     * @throws XmlException If an XML parsing error occurs.
+     */
+    @Beta
+    public static TextExtractionResult extractText(final File file, Appendable out, long maxChars)
+    throws IOException, OpenXML4JException, XmlException {
+        return extractText(new ExtractorOpener() {
+            @Override
+            public POITextExtractor open() throws IOException, OpenXML4JException, XmlException {
+                return createExtractor(file);
+            }
+
+            @Override
+            public long getBytesRead() {
+                return file.length();
+            }
+        }, out, maxChars);
+    }
+
+    /**
+     * Extracts the text of a document stream into the given output, but not more than {@code maxChars}
+     * characters - see {@link #extractText(File, Appendable, long)}
+     *
+     * @param inp the document stream, which isn't closed
+     * @param out the output of the text, which isn't closed
+     * @param maxChars the maximum number of characters to write, -1 for no limit
+     * @return the metrics of the extraction
+     * @throws IOException If an error occurs while reading the stream or writing the output
+     * @throws OpenXML4JException If an error parsing the OpenXML file format is found.
+     * @throws XmlException If an XML parsing error occurs.
+     */
+    @Beta
+    public static TextExtractionResult extractText(InputStream inp, Appendable out, long maxChars)
+    throws IOException, OpenXML4JException, XmlException {
+        final CountingInputStream cis = new CountingInputStream(inp);
+        return extractText(new ExtractorOpener() {
+            @Override
+            public POITextExtractor open() throws IOException, OpenXML4JException, XmlException {
+                return createExtractor(cis);
+            }
+
+            @Override
+            public long getBytesRead() {
+                return cis.count;
+            }
+        }, out, maxChars);
+    }
+
+    private static TextExtractionResult extractText(ExtractorOpener opener, Appendable out, long maxChars)
+    throws IOException, OpenXML4JException, XmlException {
+        if (maxChars < -1) {
+            throw new IllegalArgumentException("maxChars must be -1 or positive");
+        }
+
+        final boolean preferEvent = getThreadPrefersEventExtractors();
+        final BoundedAppendable bounded = new BoundedAppendable(out, (maxChars == -1) ? Long.MAX_VALUE : maxChars);
+        final long start = System.nanoTime();
+        long opened = start;
+        Class<? extends POITextExtractor> extractorClass;
+
+        setThreadPrefersEventExtractors(true);
+        try (POITextExtractor extractor = opener.open()) {
+            opened = System.nanoTime();
+            extractorClass = extractor.getClass();
+            try {
+                extractor.writeText(bounded);
+            } catch (IOException | RuntimeException e) {
+                // the budget exception might be wrapped by the extractor
+                if (!bounded.truncated) {
+                    throw e;
+                }
+            }
+        } finally {
+            setThreadPrefersEventExtractors(preferEvent);
+        }
+        final long end = System.nanoTime();
+
+        return new TextExtractionResult(extractorClass, opener.getBytesRead(), bounded.count,
+            bounded.truncated, opened - start, end - opened);
+    }
+
     /**
      * Tries to determine the actual type of file and produces a matching text-extractor for it.
      *
@@ -221,7 +318,8 @@ public final class ExtractorFactory {
             // Is it XWPF?
             for (XWPFRelation rel : XWPFWordExtractor.SUPPORTED_TYPES) {
                 if ( rel.getContentType().equals( contentType ) ) {
-                    return new XWPFWordExtractor(pkg);
+                    // the streaming mode of XWPF is the event based extractor
+                    return new XWPFWordExtractor(pkg, getPreferEventExtractor());
                 }
             }
 
@@ -409,4 +507,102 @@ public final class ExtractorFactory {
             fs.close();
         }
     }
+
+    private interface ExtractorOpener {
+        POITextExtractor open() throws IOException, OpenXML4JException, XmlException;
+
+        long getBytesRead();
+    }
+
+    /**
+     * Stops the extraction, when the character budget is exhausted
+     */
+    private static final class BoundedAppendable implements Appendable {
+        private final Appendable out;
+        private final long maxChars;
+        private long count;
+        private boolean truncated;
+
+        BoundedAppendable(Appendable out, long maxChars) {
+            this.out = out;
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            CharSequence cs = (csq == null) ? "null" : csq;
+            return append(cs, 0, cs.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            CharSequence cs = (csq == null) ? "null" : csq;
+            long remaining = maxChars - count;
+            if (end - start <= remaining) {
+                out.append(cs, start, end);
+                count += end - start;
+                return this;
+            }
+
+            int cut = start + (int)remaining;
+            // don't split a surrogate pair
+            if (cut > start && Character.isHighSurrogate(cs.charAt(cut - 1))) {
+                cut--;
+            }
+            out.append(cs, start, cut);
+            count += cut - start;
+            truncated = true;
+            throw new IOException("The text exceeds the budget of " + maxChars + " characters");
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            if (count < maxChars) {
+                out.append(c);
+                count++;
+                return this;
+            }
+            truncated = true;
+            throw new IOException("The text exceeds the budget of " + maxChars + " characters");
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            // a reset would count the bytes twice
+            return false;
+        }
+    }
 }
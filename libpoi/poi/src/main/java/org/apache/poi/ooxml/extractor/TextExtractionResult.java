@@ -0,0 +1,94 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ooxml.extractor;
+
+import org.apache.poi.extractor.POITextExtractor;
+import org.apache.poi.util.Beta;
+
+/**
+ * The metrics of a text extraction via
+ * {@link ExtractorFactory#extractText(java.io.File, Appendable, long)}
+ */
+@Beta
+public final class TextExtractionResult {
+    private final Class<? extends POITextExtractor> extractorClass;
+    private final long bytesRead;
+    private final long charsWritten;
+    private final boolean truncated;
+    private final long openNanos;
+    private final long extractNanos;
+
+    TextExtractionResult(Class<? extends POITextExtractor> extractorClass, long bytesRead, long charsWritten,
+                         boolean truncated, long openNanos, long extractNanos) {
+        this.extractorClass = extractorClass;
+        this.bytesRead = bytesRead;
+        this.charsWritten = charsWritten;
+        this.truncated = truncated;
+        this.openNanos = openNanos;
+        this.extractNanos = extractNanos;
+    }
+
+    /**
+     * @return the class of the extractor, which was chosen for the document
+     */
+    public Class<? extends POITextExtractor> getExtractorClass() {
+        return extractorClass;
+    }
+
+    /**
+     * @return the size of the document file or the number of bytes read from the document stream
+     */
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * @return the number of characters written to the output
+     */
+    public long getCharsWritten() {
+        return charsWritten;
+    }
+
+    /**
+     * @return {@code true}, if the extraction was stopped, because the character budget was exhausted
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @return the time in nanoseconds to open the document and to create the extractor
+     */
+    public long getOpenNanos() {
+        return openNanos;
+    }
+
+    /**
+     * @return the time in nanoseconds to extract the text
+     */
+    public long getExtractNanos() {
+        return extractNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "TextExtractionResult [extractor=" + extractorClass.getSimpleName()
+            + ", bytesRead=" + bytesRead + ", charsWritten=" + charsWritten + ", truncated=" + truncated
+            + ", openMillis=" + (openNanos / 1_000_000) + ", extractMillis=" + (extractNanos / 1_000_000) + "]";
+    }
+}
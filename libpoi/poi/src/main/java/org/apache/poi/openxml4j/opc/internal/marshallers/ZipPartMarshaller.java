@@ -33,8 +33,12 @@ import org.apache.poi.openxml4j.opc.PackageRelationshipCollection;
 import org.apache.poi.openxml4j.opc.PackagingURIHelper;
 import org.apache.poi.openxml4j.opc.StreamHelper;
 import org.apache.poi.openxml4j.opc.TargetMode;
+import org.apache.poi.openxml4j.opc.ZipPackage;
+import org.apache.poi.openxml4j.opc.ZipPackagePart;
 import org.apache.poi.openxml4j.opc.internal.PartMarshaller;
 import org.apache.poi.openxml4j.opc.internal.ZipHelper;
+import org.apache.poi.openxml4j.util.ZipEntrySource;
+import org.apache.poi.openxml4j.util.ZipFileZipEntrySource;
 import org.apache.poi.ooxml.util.DocumentHelper;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.POILogFactory;
@@ -72,18 +76,18 @@ public final class ZipPartMarshaller implements PartMarshaller {
 		}
 
 		ZipArchiveOutputStream zos = (ZipArchiveOutputStream) os;
-		ZipArchiveEntry partEntry = new ZipArchiveEntry(ZipHelper
-				.getZipItemNameFromOPCName(part.getPartName().getURI()
-						.getPath()));
+		String entryName = ZipHelper.getZipItemNameFromOPCName(part.getPartName().getURI().getPath());
 		try {
-			// Create next zip entry
-			zos.putArchiveEntry(partEntry);
-
-			// Saving data in the ZIP file
-			try (final InputStream ins = part.getInputStream()) {
-				IOUtils.copy(ins, zos);
-			} finally {
-				zos.closeArchiveEntry();
+			if (!copyRawEntry(part, entryName, zos)) {
+				// Create next zip entry
+				zos.putArchiveEntry(new ZipArchiveEntry(entryName));
+
+				// Saving data in the ZIP file
+				try (final InputStream ins = part.getInputStream()) {
+					IOUtils.copy(ins, zos);
+				} finally {
+					zos.closeArchiveEntry();
+				}
 			}
 		} catch (IOException ioe) {
 			logger.log(POILogger.ERROR,"Cannot write: " + part.getPartName() + ": in ZIP",
@@ -103,6 +107,31 @@ public final class ZipPartMarshaller implements PartMarshaller {
 		return true;
 	}
 
+	/**
+	 * Copies the still compressed data of an unmodified part, which was read from a zip file,
+	 * to avoid inflating and deflating it again.
+	 *
+	 * @return {@code true}, if the entry was copied
+	 */
+	private static boolean copyRawEntry(PackagePart part, String entryName, ZipArchiveOutputStream zos)
+			throws IOException {
+		if (!(part instanceof ZipPackagePart) || !(part.getPackage() instanceof ZipPackage)) {
+			return false;
+		}
+		ZipEntrySource zes = ((ZipPackage)part.getPackage()).getZipArchive();
+		ZipArchiveEntry entry = ((ZipPackagePart)part).getZipArchive();
+		if (!(zes instanceof ZipFileZipEntrySource) || entry == null || !entryName.equals(entry.getName())) {
+			return false;
+		}
+		try (InputStream raw = ((ZipFileZipEntrySource)zes).getRawInputStream(entry)) {
+			if (raw == null) {
+				return false;
+			}
+			zos.addRawArchiveEntry(new ZipArchiveEntry(entry), raw);
+		}
+		return true;
+	}
+
 	/**
 	 * Save relationships into the part.
 	 *
@@ -18,11 +18,21 @@
 package org.apache.poi.openxml4j.util;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.poi.poifs.crypt.temp.EncryptedTempData;
 import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.POILogFactory;
+import org.apache.poi.util.POILogger;
+import org.apache.poi.util.TempFile;
 
 
 /**
@@ -30,9 +40,18 @@ import org.apache.poi.util.IOUtils;
  *  effectively work with it.
  * Holds the (decompressed!) data in memory, so
  *  close this as soon as you can!
+ * Entries above the threshold of
+ *  {@link ZipInputStreamZipEntrySource#setThresholdBytesForTempFiles(int)}
+ *  are spooled to a (possibly encrypted) temp file instead.
  */
-/* package */ class ZipArchiveFakeEntry extends ZipArchiveEntry {
-    private final byte[] data;
+/* package */ class ZipArchiveFakeEntry extends ZipArchiveEntry implements Closeable {
+    private static final POILogger LOG = POILogFactory.getLogger(ZipArchiveFakeEntry.class);
+    /** the largest array size, which is supported by most VMs */
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
+    private byte[] data;
+    private File tempFile;
+    private EncryptedTempData encryptedTempData;
 
     ZipArchiveFakeEntry(ZipArchiveEntry entry, InputStream inp) throws IOException {
         super(entry.getName());
@@ -43,11 +62,74 @@ import org.apache.poi.util.IOUtils;
             throw new IOException("ZIP entry size is too large or invalid");
         }
 
-        // Grab the de-compressed contents for later
-        data = (entrySize == -1) ? IOUtils.toByteArray(inp) : IOUtils.toByteArray(inp, (int)entrySize);
+        final int threshold = ZipInputStreamZipEntrySource.getThresholdBytesForTempFiles();
+        if (threshold < 0 || (entrySize != -1 && entrySize <= threshold)) {
+            // Grab the de-compressed contents for later
+            data = (entrySize == -1) ? IOUtils.toByteArray(inp) : IOUtils.toByteArray(inp, (int)entrySize);
+            return;
+        }
+
+        // the size might be unknown, so buffer up to the threshold first - the buffer only grows
+        // with the data and an entry, which doesn't fit into an array, is always spooled
+        final int limit = (int)Math.min(threshold + 1L, MAX_BUFFER_SIZE);
+        final ByteArrayOutputStream head = new ByteArrayOutputStream(Math.min(limit, 4096));
+        if (IOUtils.copy(inp, head, limit) < limit) {
+            data = head.toByteArray();
+            return;
+        }
+
+        // Spool the de-compressed contents to a temp file
+        try {
+            if (ZipInputStreamZipEntrySource.shouldEncryptTempFiles()) {
+                encryptedTempData = new EncryptedTempData();
+                try (OutputStream os = encryptedTempData.getOutputStream()) {
+                    head.writeTo(os);
+                    IOUtils.copy(inp, os);
+                }
+            } else {
+                tempFile = TempFile.createTempFile("poi-zip-entry-", ".tmp");
+                try (OutputStream os = new FileOutputStream(tempFile)) {
+                    head.writeTo(os);
+                    IOUtils.copy(inp, os);
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
     }
 
-    public InputStream getInputStream() {
-        return new ByteArrayInputStream(data);
+    /**
+     * Returns zip entry.
+     *
+     * @return input stream
+     * @throws IOException if the temp file can't be opened
+     */
+    public InputStream getInputStream() throws IOException {
+        if (encryptedTempData != null) {
+            return encryptedTempData.getInputStream();
+        } else if (tempFile != null) {
+            return new FileInputStream(tempFile);
+        } else {
+            return new ByteArrayInputStream(data);
+        }
+    }
+
+    /**
+     * Frees the in-memory data or removes the temp file
+     */
+    @Override
+    public void close() {
+        data = null;
+        if (encryptedTempData != null) {
+            encryptedTempData.dispose();
+            encryptedTempData = null;
+        }
+        if (tempFile != null) {
+            if (tempFile.exists() && !tempFile.delete()) {
+                LOG.log(POILogger.WARN, tempFile.getAbsolutePath()+" can't be removed (or was already removed).");
+            }
+            tempFile = null;
+        }
     }
 }
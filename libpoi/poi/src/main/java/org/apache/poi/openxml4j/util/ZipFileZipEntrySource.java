@@ -63,6 +63,20 @@ public class ZipFileZipEntrySource implements ZipEntrySource {
       return zipArchive.getInputStream(entry);
    }
 
+   /**
+    * Returns the raw, i.e. still compressed, data of the entry.
+    *
+    * @param entry an entry of this zip file
+    * @return the raw data or {@code null}, if the entry isn't part of this zip file
+    * @throws IOException if the zip file can't be read
+    */
+   public InputStream getRawInputStream(ZipArchiveEntry entry) throws IOException {
+      if (zipArchive == null)
+         throw new IllegalStateException("Zip File is closed");
+
+      return zipArchive.getRawInputStream(entry);
+   }
+
    @Override
    public ZipArchiveEntry getEntry(final String path) {
       String normalizedPath = path.replace('\\', '/');
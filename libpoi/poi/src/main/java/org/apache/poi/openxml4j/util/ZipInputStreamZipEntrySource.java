@@ -34,6 +34,9 @@ import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
  *  done, to free up that memory!
  */
 public class ZipInputStreamZipEntrySource implements ZipEntrySource {
+	private static int thresholdForTempFiles = -1;
+	private static boolean encryptTempFiles = false;
+
 	private final Map<String, ZipArchiveFakeEntry> zipEntries = new HashMap<>();
 
 	private InputStream streamToClose;
@@ -43,33 +46,84 @@ public class ZipInputStreamZipEntrySource implements ZipEntrySource {
 	 *  into memory, and don't close (since POI 4.0.1) the source stream.
 	 * We'll then eat lots of memory, but be able to
 	 *  work with the entries at-will.
+	 * Entries larger than {@link #getThresholdBytesForTempFiles()}
+	 *  are kept in temp files instead.
 	 */
 	public ZipInputStreamZipEntrySource(ZipArchiveThresholdInputStream inp) throws IOException {
-		for (;;) {
-			final ZipArchiveEntry zipEntry = inp.getNextEntry();
-			if (zipEntry == null) {
-				break;
+		try {
+			for (;;) {
+				final ZipArchiveEntry zipEntry = inp.getNextEntry();
+				if (zipEntry == null) {
+					break;
+				}
+				zipEntries.put(zipEntry.getName(), new ZipArchiveFakeEntry(zipEntry, inp));
+			}
+		} catch (IOException | RuntimeException e) {
+			for (ZipArchiveFakeEntry entry : zipEntries.values()) {
+				entry.close();
 			}
-			zipEntries.put(zipEntry.getName(), new ZipArchiveFakeEntry(zipEntry, inp));
+			throw e;
 		}
 
 		streamToClose = inp;
 	}
 
+	/**
+	 * Sets the threshold, above which the decompressed entries are spooled to temp files
+	 *  instead of being held in memory. This applies to all packages opened afterwards
+	 *  from an {@link InputStream}.
+	 *
+	 * @param thresholdBytes the number of bytes, a negative value (the default)
+	 *  keeps all entries in memory, 0 spools all non-empty entries to temp files
+	 * @see #setEncryptTempFiles(boolean)
+	 */
+	public static void setThresholdBytesForTempFiles(int thresholdBytes) {
+		thresholdForTempFiles = thresholdBytes;
+	}
+
+	/**
+	 * @return the number of bytes above which entries are spooled to temp files,
+	 *  or a negative value if all entries are kept in memory
+	 */
+	public static int getThresholdBytesForTempFiles() {
+		return thresholdForTempFiles;
+	}
+
+	/**
+	 * Should the temp files of the spooled entries be encrypted with a random
+	 *  key via {@link org.apache.poi.poifs.crypt.temp.EncryptedTempData}?
+	 *  Defaults to {@code false}.
+	 *
+	 * @param encrypt {@code true} to encrypt the temp files
+	 */
+	public static void setEncryptTempFiles(boolean encrypt) {
+		encryptTempFiles = encrypt;
+	}
+
+	/**
+	 * @return {@code true}, if the temp files of the spooled entries are encrypted
+	 */
+	public static boolean shouldEncryptTempFiles() {
+		return encryptTempFiles;
+	}
+
 	@Override
 	public Enumeration<? extends ZipArchiveEntry> getEntries() {
 		return Collections.enumeration(zipEntries.values());
 	}
 
 	@Override
-	public InputStream getInputStream(ZipArchiveEntry zipEntry) {
+	public InputStream getInputStream(ZipArchiveEntry zipEntry) throws IOException {
 	    assert (zipEntry instanceof ZipArchiveFakeEntry);
 		return ((ZipArchiveFakeEntry)zipEntry).getInputStream();
 	}
 
 	@Override
 	public void close() throws IOException {
-		// Free the memory
+		// Free the memory and remove the temp files
+		for (ZipArchiveFakeEntry entry : zipEntries.values()) {
+			entry.close();
+		}
 		zipEntries.clear();
 
 		streamToClose.close();
@@ -0,0 +1,149 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.poifs.crypt;
+
+import java.io.IOException;
+import java.security.GeneralSecurityException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import javax.crypto.Cipher;
+
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.Internal;
+
+/**
+ * Processes a batch of independent cipher chunks on a worker pool.<p>
+ *
+ * This only works for cipher modes, where each chunk is initialized with
+ * its own IV derived from the chunk index, i.e. agile encryption.
+ * Each worker thread keeps its own {@link Cipher} instance, which is
+ * reinitialized for every chunk instead of being recreated.
+ */
+@Internal
+final class ChunkedCipherBatch {
+    /** the number of chunks per thread and batch */
+    private static final int CHUNKS_PER_THREAD = 8;
+
+    //arbitrarily selected; may need to increase
+    private static final int MAX_RECORD_LENGTH = 10_000_000;
+
+    interface CipherInitializer {
+        Cipher initCipherForBlock(Cipher existing, int block) throws IOException, GeneralSecurityException;
+    }
+
+    private final int threads;
+    private final int chunkSize;
+    private final byte[] buffer;
+    private final CipherInitializer initializer;
+    private final ExecutorService executor;
+    private final ThreadLocal<Cipher> ciphers = new ThreadLocal<>();
+
+    ChunkedCipherBatch(int threads, int chunkSize, CipherInitializer initializer) {
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+        this.buffer = IOUtils.safelyAllocate((long)threads * CHUNKS_PER_THREAD * chunkSize, MAX_RECORD_LENGTH);
+        this.initializer = initializer;
+        this.executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "poi-chunked-cipher");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+    }
+
+    /**
+     * @return the buffer holding the chunks of the batch, which are processed in-place
+     */
+    byte[] getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return the maximum number of chunks in a batch
+     */
+    int getMaxChunks() {
+        return buffer.length / chunkSize;
+    }
+
+    /**
+     * Encrypts or decrypts the chunks in the buffer in-place.
+     * Only a trailing chunk, which is shorter than the chunk size, isn't finalized.
+     *
+     * @param firstBlock the chunk index of the first chunk in the buffer
+     * @param length the number of bytes in the buffer
+     */
+    void process(final int firstBlock, final int length) throws IOException, GeneralSecurityException {
+        final int chunks = (length + chunkSize - 1) / chunkSize;
+        final int chunksPerTask = Math.max(1, (chunks + threads - 1) / threads);
+
+        List<Future<Void>> futures = new ArrayList<>();
+        for (int start = 0; start < chunks; start += chunksPerTask) {
+            final int from = start;
+            final int to = Math.min(chunks, start + chunksPerTask);
+            futures.add(executor.submit(new Callable<Void>() {
+                @Override
+                public Void call() throws IOException, GeneralSecurityException {
+                    Cipher cipher = ciphers.get();
+                    for (int i = from; i < to; i++) {
+                        int off = i * chunkSize;
+                        int len = Math.min(chunkSize, length - off);
+                        cipher = initializer.initCipherForBlock(cipher, firstBlock + i);
+                        if (len == chunkSize) {
+                            cipher.doFinal(buffer, off, len, buffer, off);
+                        } else {
+                            cipher.update(buffer, off, len, buffer, off);
+                        }
+                    }
+                    ciphers.set(cipher);
+                    return null;
+                }
+            }));
+        }
+
+        try {
+            for (Future<Void> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while processing the cipher chunks", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof GeneralSecurityException) {
+                throw (GeneralSecurityException)cause;
+            }
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    void close() {
+        executor.shutdownNow();
+    }
+}
@@ -45,6 +45,13 @@ public abstract class ChunkedCipherInputStream extends LittleEndianInputStream {
     private long pos;
     private boolean chunkIsValid;
 
+    // optional worker pool for decrypting read-ahead chunks in parallel
+    private ChunkedCipherBatch batch;
+    private byte[] batchRaw;
+    private int batchFirstBlock;
+    private int batchChunks;
+    private int batchLength;
+
     public ChunkedCipherInputStream(InputStream stream, long size, int chunkSize)
     throws GeneralSecurityException {
         this(stream, size, chunkSize, 0);
@@ -76,6 +83,24 @@ public abstract class ChunkedCipherInputStream extends LittleEndianInputStream {
     protected abstract Cipher initCipherForBlock(Cipher existing, int block)
     throws GeneralSecurityException;
 
+    /**
+     * Enables reading ahead a batch of chunks, which are then decrypted on a pool
+     * of worker threads. This is only possible for chunked (i.e. non-streaming)
+     * ciphers, where each chunk is independently initialized by
+     * {@link #initCipherForBlock(Cipher, int)}, which therefore needs to be thread-safe.
+     *
+     * @param threads the number of worker threads, values below 2 disable the parallel mode
+     */
+    protected void setParallelism(int threads) {
+        if (batch != null) {
+            throw new IllegalStateException("parallelism can only be set once");
+        }
+        if (threads > 1 && chunkSize != -1) {
+            batch = new ChunkedCipherBatch(threads, chunk.length, this::initCipherForBlock);
+            batchRaw = new byte[batch.getBuffer().length];
+        }
+    }
+
     @Override
     public int read() throws IOException {
         byte[] b = { 0 };
@@ -174,6 +199,11 @@ public abstract class ChunkedCipherInputStream extends LittleEndianInputStream {
     }
 
     private void nextChunk() throws GeneralSecurityException, IOException {
+        if (batch != null) {
+            nextBatchedChunk();
+            return;
+        }
+
         if (chunkSize != -1) {
             int index = (int)(pos >> chunkBits);
             initCipherForBlock(cipher, index);
@@ -204,6 +234,56 @@ public abstract class ChunkedCipherInputStream extends LittleEndianInputStream {
         invokeCipher(totalBytes, totalBytes == chunkSize);
     }
 
+    private void nextBatchedChunk() throws GeneralSecurityException, IOException {
+        int index = (int)(pos >> chunkBits);
+        if (index < batchFirstBlock || index >= batchFirstBlock + batchChunks) {
+            readBatch(index);
+        }
+
+        int off = (index - batchFirstBlock) * chunk.length;
+        int len = Math.min(chunk.length, batchLength - off);
+        System.arraycopy(batchRaw, off, plain, 0, len);
+        System.arraycopy(batch.getBuffer(), off, chunk, 0, len);
+    }
+
+    private void readBatch(int index) throws GeneralSecurityException, IOException {
+        if (lastIndex != index) {
+            long skipN = (index - lastIndex) << chunkBits;
+            if (skipN < 0 || super.skip(skipN) < skipN) {
+                throw new EOFException("buffer underrun");
+            }
+        }
+
+        // only read what's left of the stream, rounded up to full chunks
+        final long remainingChunks = ((size - ((long)index << chunkBits)) + chunk.length - 1) >> chunkBits;
+        final int todo = (int)Math.min(batchRaw.length, Math.max(1, remainingChunks) << chunkBits);
+        int readBytes, totalBytes = 0;
+        do {
+            readBytes = super.read(batchRaw, totalBytes, todo-totalBytes);
+            totalBytes += Math.max(0, readBytes);
+        } while (readBytes != -1 && totalBytes < todo);
+
+        if (readBytes == -1 && pos+totalBytes < size && size < Integer.MAX_VALUE) {
+            throw new EOFException("buffer underrun");
+        }
+
+        System.arraycopy(batchRaw, 0, batch.getBuffer(), 0, totalBytes);
+        batch.process(index, totalBytes);
+
+        batchFirstBlock = index;
+        batchLength = totalBytes;
+        batchChunks = (totalBytes + chunk.length - 1) >> chunkBits;
+        lastIndex = index + batchChunks;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (batch != null) {
+            batch.close();
+        }
+        super.close();
+    }
+
     /**
      * Helper function for overriding the cipher invocation, i.e. XOR doesn't use a cipher
      * and uses it's own implementation
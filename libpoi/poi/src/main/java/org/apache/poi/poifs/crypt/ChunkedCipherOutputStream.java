@@ -69,6 +69,11 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
     private Cipher cipher;
     private boolean isClosed;
 
+    // optional worker pool for encrypting full chunks in parallel
+    private ChunkedCipherBatch batch;
+    private int batchFirstBlock;
+    private int batchChunks;
+
     public ChunkedCipherOutputStream(DirectoryNode dir, int chunkSize) throws IOException, GeneralSecurityException {
         super(null);
         this.chunkSize = chunkSize;
@@ -109,6 +114,25 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
     protected abstract Cipher initCipherForBlock(Cipher existing, int block, boolean lastChunk)
     throws IOException, GeneralSecurityException;
 
+    /**
+     * Enables the encryption of full chunks on a pool of worker threads.
+     * The encrypted chunks are still written in order. This is only possible
+     * for chunked (i.e. non-streaming) ciphers, where each chunk is independently
+     * initialized by {@link #initCipherForBlock(Cipher, int, boolean)},
+     * which therefore needs to be thread-safe.
+     *
+     * @param threads the number of worker threads, values below 2 disable the parallel mode
+     */
+    protected void setParallelism(int threads) {
+        if (batch != null) {
+            throw new IllegalStateException("parallelism can only be set once");
+        }
+        if (threads > 1 && chunkSize != STREAMING) {
+            batch = new ChunkedCipherBatch(threads, chunk.length,
+                (existing, block) -> initCipherForBlock(existing, block, false));
+        }
+    }
+
     protected abstract void calculateChecksum(File fileOut, int oleStreamSize)
     throws GeneralSecurityException, IOException;
 
@@ -185,6 +209,24 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
             lastChunk = true;
         }
 
+        boolean canBatch = (batch != null && !lastChunk && plainByteFlags.isEmpty());
+        if (canBatch) {
+            // pos isn't reset for chunked ciphers, so just queue the chunk
+            if (batchChunks == 0) {
+                batchFirstBlock = index;
+            }
+            System.arraycopy(chunk, 0, batch.getBuffer(), batchChunks * chunk.length, chunk.length);
+            batchChunks++;
+            written += chunk.length;
+            if (batchChunks == batch.getMaxChunks()) {
+                flushBatch();
+            }
+            return;
+        }
+
+        // keep the order with the queued chunks
+        flushBatch();
+
         int ciLen;
         try {
             boolean doFinal = true;
@@ -211,6 +253,20 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
         written += ciLen;
     }
 
+    private void flushBatch() throws IOException {
+        if (batchChunks == 0) {
+            return;
+        }
+        int len = batchChunks * chunk.length;
+        try {
+            batch.process(batchFirstBlock, len);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("can't encrypt chunks", e);
+        }
+        out.write(batch.getBuffer(), 0, len);
+        batchChunks = 0;
+    }
+
     /**
      * Helper function for overriding the cipher invocation, i.e. XOR doesn't use a cipher
      * and uses it's own implementation
@@ -265,6 +321,7 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
 
         try {
             writeChunk(false);
+            flushBatch();
 
             super.close();
 
@@ -276,6 +333,10 @@ public abstract class ChunkedCipherOutputStream extends FilterOutputStream {
             }
         } catch (GeneralSecurityException e) {
             throw new IOException(e);
+        } finally {
+            if (batch != null) {
+                batch.close();
+            }
         }
     }
     
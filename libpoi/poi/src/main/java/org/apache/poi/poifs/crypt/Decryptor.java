@@ -91,6 +91,17 @@ public abstract class Decryptor implements GenericRecord {
         throw new EncryptedDocumentException("this decryptor doesn't support changing the chunk size");
     }
 
+    /**
+     * Sets the number of worker threads, which decrypt the chunks of the data stream
+     * in parallel. Needs to be set before the data stream is requested.
+     * When not set, the chunks are decrypted on the calling thread.
+     *
+     * @param threads the number of worker threads, values below 2 disable the parallel mode
+     */
+    public void setParallelism(int threads) {
+        throw new EncryptedDocumentException("this decryptor doesn't support parallel decryption");
+    }
+
     /**
      * Initializes a cipher object for a given block index for encryption
      *
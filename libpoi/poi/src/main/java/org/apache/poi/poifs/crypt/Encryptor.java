@@ -97,6 +97,17 @@ public abstract class Encryptor implements GenericRecord {
         throw new EncryptedDocumentException("this decryptor doesn't support changing the chunk size");
     }
 
+    /**
+     * Sets the number of worker threads, which encrypt the chunks of the data stream
+     * in parallel. Needs to be set before the data stream is requested.
+     * When not set, the chunks are encrypted on the calling thread.
+     *
+     * @param threads the number of worker threads, values below 2 disable the parallel mode
+     */
+    public void setParallelism(int threads) {
+        throw new EncryptedDocumentException("this encryptor doesn't support parallel encryption");
+    }
+
     public abstract Encryptor copy();
 
     @Override
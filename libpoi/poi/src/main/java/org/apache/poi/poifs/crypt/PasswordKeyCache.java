@@ -0,0 +1,271 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.poifs.crypt;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.apache.poi.EncryptedDocumentException;
+import org.apache.poi.util.StringUtil;
+
+/**
+ * A bounded cache of spin-count derived password hashes, as calculated by
+ * {@link CryptoFunctions#hashPassword(String, HashAlgorithm, byte[], int)}.<p>
+ *
+ * Deriving the password hash of agile (and standard) encryption iterates the
+ * hash function up to 100.000 times, which dominates the time of opening
+ * a password protected document. When the same documents or documents with
+ * the same password and salt are opened repeatedly, the derived hash can be
+ * reused.<p>
+ *
+ * The cache is disabled by default and needs to be enabled via
+ * {@link #setMaxEntries(int)}. The passwords themselves aren't kept,
+ * only a HMAC-SHA256 of them is used as part of the lookup key. The HMAC key
+ * is random and generated once per process, so the lookup keys can't be used
+ * to brute-force the passwords without it.
+ * Evicted entries and the entries removed by {@link #clear()} are
+ * overwritten with zeros.
+ */
+public final class PasswordKeyCache {
+    private static int maxEntries;
+
+    private static final Map<CacheKey, CacheEntry> CACHE = new LinkedHashMap<CacheKey, CacheEntry>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, CacheEntry> eldest) {
+            if (size() <= maxEntries) {
+                return false;
+            }
+            eldest.getValue().wipe();
+            evictions++;
+            return true;
+        }
+    };
+
+    private static long hits;
+    private static long misses;
+    private static long evictions;
+    private static long timeSavedNanos;
+
+    private PasswordKeyCache() {
+    }
+
+    /**
+     * Sets the maximum number of cached password hashes.
+     * A value of 0 (the default) disables the cache.
+     *
+     * @param entries the maximum number of entries
+     */
+    public static synchronized void setMaxEntries(int entries) {
+        if (entries < 0) {
+            throw new IllegalArgumentException("the number of entries must not be negative");
+        }
+        maxEntries = entries;
+        Iterator<CacheEntry> iter = CACHE.values().iterator();
+        while (CACHE.size() > maxEntries && iter.hasNext()) {
+            iter.next().wipe();
+            iter.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * @return the maximum number of cached password hashes, 0 if the cache is disabled
+     */
+    public static synchronized int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * Returns the derived password hash, either from the cache or by calculating it
+     * with {@link CryptoFunctions#hashPassword(String, HashAlgorithm, byte[], int)}.
+     *
+     * @param password the password
+     * @param hashAlgorithm the hash algorithm
+     * @param salt the initial salt value
+     * @param spinCount the repetition count
+     * @return the hashed password, which can be modified by the caller
+     */
+    public static byte[] hashPassword(String password, HashAlgorithm hashAlgorithm, byte[] salt, int spinCount) {
+        if (getMaxEntries() == 0) {
+            return CryptoFunctions.hashPassword(password, hashAlgorithm, salt, spinCount);
+        }
+
+        CacheKey key = new CacheKey(password, hashAlgorithm, salt, spinCount);
+        synchronized (PasswordKeyCache.class) {
+            CacheEntry entry = CACHE.get(key);
+            if (entry != null) {
+                hits++;
+                timeSavedNanos += entry.derivationNanos;
+                return entry.hash.clone();
+            }
+            misses++;
+        }
+
+        // derive outside of the lock, so other passwords aren't blocked
+        long start = System.nanoTime();
+        byte[] hash = CryptoFunctions.hashPassword(password, hashAlgorithm, salt, spinCount);
+        long duration = System.nanoTime() - start;
+
+        synchronized (PasswordKeyCache.class) {
+            if (maxEntries > 0 && !CACHE.containsKey(key)) {
+                CACHE.put(key, new CacheEntry(hash.clone(), duration));
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Removes and wipes all cached password hashes. The statistics are kept.
+     */
+    public static synchronized void clear() {
+        for (CacheEntry entry : CACHE.values()) {
+            entry.wipe();
+        }
+        CACHE.clear();
+    }
+
+    /**
+     * Resets the hit, miss, eviction and time saved counters
+     */
+    public static synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+        timeSavedNanos = 0;
+    }
+
+    /**
+     * @return the number of current entries
+     */
+    public static synchronized int size() {
+        return CACHE.size();
+    }
+
+    /**
+     * @return the number of lookups, which were answered from the cache
+     */
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups, which needed to derive the password hash
+     */
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of entries, which were removed because the cache was full
+     */
+    public static synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the ratio of hits to all lookups, or 0 if there were no lookups
+     */
+    public static synchronized double getHitRate() {
+        long total = hits + misses;
+        return (total == 0) ? 0 : (double)hits / total;
+    }
+
+    /**
+     * @return the accumulated derivation time of all cache hits in nanoseconds,
+     *  i.e. the time which would have been spent without the cache
+     */
+    public static synchronized long getTimeSavedNanos() {
+        return timeSavedNanos;
+    }
+
+    private static final class CacheKey {
+        /** the random key of the password HMAC, which is only held in memory */
+        private static final SecretKeySpec HMAC_KEY = createHmacKey();
+
+        private final byte[] passwordDigest;
+        private final HashAlgorithm hashAlgorithm;
+        private final byte[] salt;
+        private final int spinCount;
+        private final int hashCode;
+
+        CacheKey(String password, HashAlgorithm hashAlgorithm, byte[] salt, int spinCount) {
+            byte[] pwBytes = StringUtil.getToUnicodeLE(password == null ? Decryptor.DEFAULT_PASSWORD : password);
+            Mac mac = CryptoFunctions.getMac(HashAlgorithm.sha256);
+            try {
+                mac.init(HMAC_KEY);
+            } catch (GeneralSecurityException e) {
+                throw new EncryptedDocumentException(e);
+            }
+            this.passwordDigest = mac.doFinal(pwBytes);
+            Arrays.fill(pwBytes, (byte)0);
+            this.hashAlgorithm = hashAlgorithm;
+            this.salt = salt.clone();
+            this.spinCount = spinCount;
+            this.hashCode = 31 * (31 * (31 * Arrays.hashCode(passwordDigest) + hashAlgorithm.hashCode())
+                + Arrays.hashCode(this.salt)) + spinCount;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey)o;
+            return spinCount == other.spinCount
+                && hashAlgorithm == other.hashAlgorithm
+                && MessageDigest.isEqual(passwordDigest, other.passwordDigest)
+                && Arrays.equals(salt, other.salt);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        private static SecretKeySpec createHmacKey() {
+            byte[] key = new byte[HashAlgorithm.sha256.hashSize];
+            new SecureRandom().nextBytes(key);
+            return new SecretKeySpec(key, HashAlgorithm.sha256.jceHmacId);
+        }
+    }
+
+    private static final class CacheEntry {
+        private final byte[] hash;
+        private final long derivationNanos;
+
+        CacheEntry(byte[] hash, long derivationNanos) {
+            this.hash = hash;
+            this.derivationNanos = derivationNanos;
+        }
+
+        void wipe() {
+            Arrays.fill(hash, (byte)0);
+        }
+    }
+}
@@ -21,7 +21,6 @@ import static org.apache.poi.poifs.crypt.CryptoFunctions.generateKey;
 import static org.apache.poi.poifs.crypt.CryptoFunctions.getBlock0;
 import static org.apache.poi.poifs.crypt.CryptoFunctions.getCipher;
 import static org.apache.poi.poifs.crypt.CryptoFunctions.getMessageDigest;
-import static org.apache.poi.poifs.crypt.CryptoFunctions.hashPassword;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -49,6 +48,7 @@ import org.apache.poi.poifs.crypt.Decryptor;
 import org.apache.poi.poifs.crypt.EncryptionHeader;
 import org.apache.poi.poifs.crypt.EncryptionInfo;
 import org.apache.poi.poifs.crypt.HashAlgorithm;
+import org.apache.poi.poifs.crypt.PasswordKeyCache;
 import org.apache.poi.poifs.crypt.agile.AgileEncryptionVerifier.AgileCertificateEntry;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
 import org.apache.poi.poifs.filesystem.DocumentInputStream;
@@ -65,6 +65,7 @@ public class AgileDecryptor extends Decryptor {
     static final byte[] kIntegrityValueBlock = longToBytes(0xa0677f02b22c8433L);
 
     private long _length = -1;
+    private int parallelism = 1;
 
     protected AgileDecryptor() {
     }
@@ -72,6 +73,7 @@ public class AgileDecryptor extends Decryptor {
     protected AgileDecryptor(AgileDecryptor other) {
         super(other);
         _length = other._length;
+        parallelism = other.parallelism;
     }
 
     private static byte[] longToBytes(long l) {
@@ -88,7 +90,7 @@ public class AgileDecryptor extends Decryptor {
 
         int blockSize = header.getBlockSize();
 
-        byte[] pwHash = hashPassword(password, ver.getHashAlgorithm(), ver.getSalt(), ver.getSpinCount());
+        byte[] pwHash = PasswordKeyCache.hashPassword(password, ver.getHashAlgorithm(), ver.getSalt(), ver.getSpinCount());
 
         /**
          * encryptedVerifierHashInput: This attribute MUST be generated by using the following steps:
@@ -277,6 +279,11 @@ public class AgileDecryptor extends Decryptor {
         return new AgileCipherInputStream(dis, _length);
     }
 
+    @Override
+    public void setParallelism(int threads) {
+        this.parallelism = threads;
+    }
+
     @Override
     public long getLength(){
         if(_length == -1) {
@@ -329,6 +336,7 @@ public class AgileDecryptor extends Decryptor {
         public AgileCipherInputStream(DocumentInputStream stream, long size)
         throws GeneralSecurityException {
             super(stream, size, 4096);
+            setParallelism(parallelism);
         }
 
         // TODO: calculate integrity hmac while reading the stream
@@ -83,6 +83,7 @@ public class AgileEncryptor extends Encryptor {
 
     private byte[] integritySalt;
     private byte[] pwHash;
+    private int parallelism = 1;
 
 	protected AgileEncryptor() {}
 
@@ -90,6 +91,7 @@ public class AgileEncryptor extends Encryptor {
 	    super(other);
 	    integritySalt = (other.integritySalt == null) ? null : other.integritySalt.clone();
 	    pwHash = (other.pwHash == null) ? null : other.pwHash.clone();
+	    parallelism = other.parallelism;
     }
 
     @Override
@@ -233,6 +235,11 @@ public class AgileEncryptor extends Encryptor {
         return new AgileCipherOutputStream(dir);
     }
 
+    @Override
+    public void setParallelism(int threads) {
+        this.parallelism = threads;
+    }
+
     /**
      * Generate an HMAC, as specified in [RFC2104], of the encrypted form of the data (message),
      * which the DataIntegrity element will verify by using the Salt generated in step 2 as the key.
@@ -434,6 +441,7 @@ public class AgileEncryptor extends Encryptor {
     private class AgileCipherOutputStream extends ChunkedCipherOutputStream {
         public AgileCipherOutputStream(DirectoryNode dir) throws IOException, GeneralSecurityException {
             super(dir, 4096);
+            setParallelism(parallelism);
         }
 
         @Override
@@ -36,6 +36,7 @@ import org.apache.poi.poifs.crypt.Decryptor;
 import org.apache.poi.poifs.crypt.EncryptionHeader;
 import org.apache.poi.poifs.crypt.EncryptionVerifier;
 import org.apache.poi.poifs.crypt.HashAlgorithm;
+import org.apache.poi.poifs.crypt.PasswordKeyCache;
 import org.apache.poi.poifs.filesystem.DirectoryNode;
 import org.apache.poi.poifs.filesystem.DocumentInputStream;
 import org.apache.poi.util.BoundedInputStream;
@@ -56,7 +57,8 @@ public class StandardDecryptor extends Decryptor {
     @Override
     public boolean verifyPassword(String password) {
         EncryptionVerifier ver = getEncryptionInfo().getVerifier();
-        SecretKey skey = generateSecretKey(password, ver, getKeySizeInBytes());
+        byte[] pwHash = PasswordKeyCache.hashPassword(password, ver.getHashAlgorithm(), ver.getSalt(), ver.getSpinCount());
+        SecretKey skey = generateSecretKey(pwHash, ver, getKeySizeInBytes());
         Cipher cipher = getCipher(skey);
 
         try {
@@ -85,9 +87,15 @@ public class StandardDecryptor extends Decryptor {
     }
 
     protected static SecretKey generateSecretKey(String password, EncryptionVerifier ver, int keySize) {
-        HashAlgorithm hashAlgo = ver.getHashAlgorithm();
+        byte[] pwHash = hashPassword(password, ver.getHashAlgorithm(), ver.getSalt(), ver.getSpinCount());
+        return generateSecretKey(pwHash, ver, keySize);
+    }
 
-        byte[] pwHash = hashPassword(password, hashAlgo, ver.getSalt(), ver.getSpinCount());
+    /**
+     * Generates the secret key from an already derived password hash
+     */
+    protected static SecretKey generateSecretKey(byte[] pwHash, EncryptionVerifier ver, int keySize) {
+        HashAlgorithm hashAlgo = ver.getHashAlgorithm();
 
         byte[] blockKey = new byte[4];
         LittleEndian.putInt(blockKey, 0, 0);
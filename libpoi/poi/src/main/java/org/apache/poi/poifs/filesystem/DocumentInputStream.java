@@ -27,7 +27,6 @@ import java.nio.ByteBuffer;
 import java.util.Iterator;
 
 import org.apache.poi.poifs.property.DocumentProperty;
-import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.LittleEndian;
 import org.apache.poi.util.LittleEndianInput;
 
@@ -247,9 +246,19 @@ public final class DocumentInputStream extends InputStream implements LittleEndi
 
 		long rval = new_offset - _current_offset;
 
-		// TODO Do this better
-		byte[] skip = IOUtils.safelyAllocate(rval, Integer.MAX_VALUE);
-		readFully(skip);
+		// wind on through the blocks, without copying the skipped bytes
+		int remaining = (int)rval;
+		while (remaining > 0) {
+		   if(_buffer == null || _buffer.remaining() == 0) {
+		      _current_block_count++;
+		      _buffer = _data.next();
+		   }
+
+		   int limit = Math.min(remaining, _buffer.remaining());
+		   _buffer.position(_buffer.position() + limit);
+		   _current_offset += limit;
+		   remaining -= limit;
+		}
 		return rval;
 	}
 
@@ -90,6 +90,12 @@ public class POIFSFileSystem extends BlockStore
 
     protected DataSource _data;
 
+    /**
+     * In incremental write mode, the first block which may be
+     * (re-)allocated, otherwise -1
+     */
+    private int _appendFrom = -1;
+
     /**
      * What big block size the file uses. Most files
      * use 512 bytes, but a few use 4096
@@ -494,9 +500,10 @@ public class POIFSFileSystem extends BlockStore
         // First up, do we have any spare ones?
         int offset = 0;
         for (BATBlock bat : _bat_blocks) {
-            if (bat.hasFreeSectors()) {
+            if (bat.hasFreeSectors() && offset + numSectors > _appendFrom) {
                 // Claim one of them and return it
-                for (int j = 0; j < numSectors; j++) {
+                // In incremental mode, blocks of the original file aren't reused
+                for (int j = Math.max(0, _appendFrom - offset); j < numSectors; j++) {
                     int batValue = bat.getValueAt(j);
                     if (batValue == POIFSConstants.UNUSED_BLOCK) {
                         // Bingo
@@ -681,6 +688,55 @@ public class POIFSFileSystem extends BlockStore
         return (_data instanceof FileBackedDataSource) && ((FileBackedDataSource) _data).isWriteable();
     }
 
+    /**
+     * Enables or disables the incremental write mode for in-place writes
+     * via {@link #writeFilesystem()}.<p>
+     *
+     * In incremental mode, the sectors of the original file aren't reused.
+     * Changed streams are written to new sectors at the end of the file and
+     * only the changed FAT sectors, the property table and the header are
+     * rewritten. This makes small edits, e.g. of the property set streams,
+     * fast, but the freed sectors remain in the file until it is compacted
+     * via {@link #writeCompacted(File)}.
+     *
+     * @param incremental {@code true} to enable the incremental mode
+     * @throws IOException if the size of the underlying data can't be determined
+     */
+    public void setIncrementalWrite(boolean incremental) throws IOException {
+        if (incremental) {
+            int bs = bigBlockSize.getBigBlockSize();
+            // The header block doesn't count
+            _appendFrom = (int)Math.max(0, (size() + bs - 1) / bs - 1);
+        } else {
+            _appendFrom = -1;
+        }
+    }
+
+    /**
+     * @return {@code true}, if the incremental write mode is enabled
+     * @see #setIncrementalWrite(boolean)
+     */
+    public boolean isIncrementalWrite() {
+        return _appendFrom >= 0;
+    }
+
+    /**
+     * Writes a compacted copy of the filesystem, i.e. without the unused sectors
+     * which accumulated by incremental writes, to the given file.
+     *
+     * @param file the destination file, which must not be the file of this filesystem
+     * @throws IOException thrown on errors reading the entries or writing the file
+     */
+    public void writeCompacted(File file) throws IOException {
+        try (POIFSStreamingWriter writer = new POIFSStreamingWriter(file)) {
+            DirectoryNode root = getRoot();
+            if (root.getStorageClsid() != null) {
+                writer.getRoot().setStorageClsid(root.getStorageClsid());
+            }
+            writer.getRoot().copyFrom(root);
+        }
+    }
+
     /**
      * Write the filesystem out to the open file. Will thrown an
      * {@link IllegalArgumentException} if opened from an
@@ -744,14 +800,25 @@ public class POIFSFileSystem extends BlockStore
 
         // BATs
         for (BATBlock bat : _bat_blocks) {
-            ByteBuffer block = getBlockAt(bat.getOurBlockIndex());
-            bat.writeData(block);
+            syncBATBlock(bat);
         }
         // XBats
         for (BATBlock bat : _xbat_blocks) {
-            ByteBuffer block = getBlockAt(bat.getOurBlockIndex());
-            bat.writeData(block);
+            syncBATBlock(bat);
+        }
+    }
+
+    /**
+     * Writes the BAT/XBAT/SBAT block to its backing block -
+     * in incremental mode only, if it has been changed
+     */
+    void syncBATBlock(BATBlock bat) throws IOException {
+        if (isIncrementalWrite() && !bat.isDirty()) {
+            return;
         }
+        ByteBuffer block = getBlockAt(bat.getOurBlockIndex());
+        bat.writeData(block);
+        bat.clearDirty();
     }
 
     /**
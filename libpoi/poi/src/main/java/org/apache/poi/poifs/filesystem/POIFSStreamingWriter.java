@@ -0,0 +1,544 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.poifs.filesystem;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import org.apache.poi.hpsf.ClassID;
+import org.apache.poi.poifs.common.POIFSBigBlockSize;
+import org.apache.poi.poifs.common.POIFSConstants;
+import org.apache.poi.poifs.property.DirectoryProperty;
+import org.apache.poi.poifs.property.DocumentProperty;
+import org.apache.poi.poifs.property.Property;
+import org.apache.poi.poifs.property.PropertyTable;
+import org.apache.poi.poifs.property.RootProperty;
+import org.apache.poi.poifs.storage.HeaderBlock;
+import org.apache.poi.util.Beta;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.IntList;
+import org.apache.poi.util.LittleEndian;
+import org.apache.poi.util.LittleEndianConsts;
+
+/**
+ * A write-once writer for OLE2 files, which lays out the big block
+ *  documents sequentially in the target file as they are written,
+ *  instead of building up the whole filesystem in a
+ *  {@link org.apache.poi.poifs.nio.DataSource DataSource} first, as
+ *  {@link POIFSFileSystem#writeFilesystem(OutputStream)} does.<p>
+ *
+ * As every big block stream is stored as one contiguous run of blocks,
+ *  only the start and length of each run have to be kept. The FAT,
+ *  the mini stream (with its SBAT) and the property table are written
+ *  at the end, and the header is then written to the start of the file
+ *  with a positioned write. Only documents smaller than
+ *  {@link POIFSConstants#BIG_BLOCK_MINIMUM_DOCUMENT_SIZE} are buffered,
+ *  as they need to go into the mini stream.<p>
+ *
+ * Only one document can be written at a time, and entries can't be
+ *  changed or removed after they were written.
+ *
+ * <pre>
+ * try (POIFSStreamingWriter writer = new POIFSStreamingWriter(file)) {
+ *     writer.getRoot().createDocument("Workbook", workbookStream);
+ * }
+ * </pre>
+ */
+@Beta
+public class POIFSStreamingWriter implements Closeable {
+    private final FileChannel _channel;
+    private final boolean _closeChannel;
+    private final POIFSBigBlockSize _bigBlockSize;
+    private final HeaderBlock _header;
+    private final PropertyTable _property_table;
+    private final StreamingDirectory _root;
+
+    /** start and length of the contiguous big block runs, in file order */
+    private final IntList _runStarts = new IntList();
+    private final IntList _runLengths = new IntList();
+    /** start and length of the contiguous mini block runs */
+    private final IntList _miniRunStarts = new IntList();
+    private final IntList _miniRunLengths = new IntList();
+    private final ByteArrayOutputStream _miniStream = new ByteArrayOutputStream();
+
+    private int _nextBlock;
+    private StreamingDocumentOutputStream _openDocument;
+    private boolean _closed;
+
+    /**
+     * Creates a writer for a new file, using 512 byte blocks.
+     * Any existing content of the file is replaced.
+     *
+     * @param file the file to write the filesystem to
+     */
+    public POIFSStreamingWriter(File file) throws IOException {
+        this(openChannel(file), true, POIFSConstants.SMALLER_BIG_BLOCK_SIZE_DETAILS);
+    }
+
+    /**
+     * Creates a writer on an open channel. Any existing content of the
+     *  channel is replaced, and the channel isn't closed on {@link #close()}.
+     *
+     * @param channel the channel to write the filesystem to
+     * @param bigBlockSize the big block size to use, normally 512 bytes
+     */
+    public POIFSStreamingWriter(FileChannel channel, POIFSBigBlockSize bigBlockSize) throws IOException {
+        this(channel, false, bigBlockSize);
+    }
+
+    private POIFSStreamingWriter(FileChannel channel, boolean closeChannel, POIFSBigBlockSize bigBlockSize)
+    throws IOException {
+        _channel = channel;
+        _closeChannel = closeChannel;
+        _bigBlockSize = bigBlockSize;
+        _header = new HeaderBlock(bigBlockSize);
+        _property_table = new PropertyTable(_header);
+        _root = new StreamingDirectory(_property_table.getRoot());
+
+        // Blocks are written with positioned writes, the header last of all
+        channel.truncate(0);
+    }
+
+    private static FileChannel openChannel(File file) throws IOException {
+        @SuppressWarnings("resource")
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        raf.setLength(0);
+        return raf.getChannel();
+    }
+
+    /**
+     * @return the root directory of the filesystem being written
+     */
+    public StreamingDirectory getRoot() {
+        return _root;
+    }
+
+    /**
+     * @return The Big Block size, normally 512 bytes, sometimes 4096 bytes
+     */
+    public int getBigBlockSize() {
+        return _bigBlockSize.getBigBlockSize();
+    }
+
+    /**
+     * Writes the FAT, mini stream, property table and header, and closes
+     *  the file if it was opened by this writer.
+     */
+    @Override
+    public void close() throws IOException {
+        if (_closed) {
+            return;
+        }
+        _closed = true;
+        try {
+            if (_openDocument != null) {
+                _openDocument.close();
+            }
+            writeMiniStream();
+            writePropertyTable();
+            writeAllocationTables();
+            writeHeader();
+        } finally {
+            if (_closeChannel) {
+                _channel.close();
+            }
+        }
+    }
+
+    private void checkWritable() {
+        if (_closed) {
+            throw new IllegalStateException("The filesystem has already been written");
+        }
+        if (_openDocument != null) {
+            throw new IllegalStateException(
+                "Document \"" + _openDocument._property.getName() + "\" needs to be closed first");
+        }
+    }
+
+    private long blockPosition(int block) {
+        // The header block doesn't count, so add one
+        return (block + 1L) * _bigBlockSize.getBigBlockSize();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += _channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Writes the given data as a new run of big blocks, padding the
+     *  last block if needed
+     *
+     * @return the first block of the run
+     */
+    private int writeRun(byte[] data, int length) throws IOException {
+        int start = _nextBlock;
+        int blockSize = _bigBlockSize.getBigBlockSize();
+        int blocks = (length + blockSize - 1) / blockSize;
+        writeFully(ByteBuffer.wrap(data, 0, length), blockPosition(start));
+        padBlock(start, length);
+        addRun(start, blocks);
+        return start;
+    }
+
+    private void padBlock(int start, long length) throws IOException {
+        int blockSize = _bigBlockSize.getBigBlockSize();
+        int usedInBlock = (int)(length % blockSize);
+        if (usedInBlock != 0) {
+            byte[] padding = new byte[blockSize - usedInBlock];
+            Arrays.fill(padding, (byte)0xFF);
+            writeFully(ByteBuffer.wrap(padding), blockPosition(start) + length);
+        }
+    }
+
+    private void addRun(int start, int blocks) {
+        if (blocks == 0) {
+            return;
+        }
+        _runStarts.add(start);
+        _runLengths.add(blocks);
+        _nextBlock = start + blocks;
+    }
+
+    private void writeMiniStream() throws IOException {
+        int miniBlocks = _miniStream.size() / POIFSConstants.SMALL_BLOCK_SIZE;
+        if (miniBlocks == 0) {
+            return;
+        }
+
+        RootProperty root = _property_table.getRoot();
+        root.setStartBlock(writeRun(_miniStream.toByteArray(), _miniStream.size()));
+        root.setSize(miniBlocks);
+
+        // SBAT, with the same chain logic as the FAT, just on mini blocks
+        int entriesPerBlock = _bigBlockSize.getBATEntriesPerBlock();
+        int sbatBlocks = (miniBlocks + entriesPerBlock - 1) / entriesPerBlock;
+        byte[] sbat = new byte[sbatBlocks * _bigBlockSize.getBigBlockSize()];
+        fillAllocationTable(sbat, 0, sbatBlocks * entriesPerBlock, _miniRunStarts, _miniRunLengths);
+        _header.setSBATStart(writeRun(sbat, sbat.length));
+        _header.setSBATBlockCount(sbatBlocks);
+    }
+
+    private void writePropertyTable() throws IOException {
+        _property_table.preWrite();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        _property_table.writeProperties(bos);
+
+        // Unused property slots at the end of the block are empty (zero) properties
+        int blockSize = _bigBlockSize.getBigBlockSize();
+        int padded = ((bos.size() + blockSize - 1) / blockSize) * blockSize;
+        byte[] props = Arrays.copyOf(bos.toByteArray(), padded);
+        int start = _nextBlock;
+        writeFully(ByteBuffer.wrap(props), blockPosition(start));
+        addRun(start, padded / blockSize);
+        _property_table.setStartBlock(start);
+    }
+
+    private void writeAllocationTables() throws IOException {
+        final int dataBlocks = _nextBlock;
+        final int entriesPerFat = _bigBlockSize.getBATEntriesPerBlock();
+        final int entriesPerXFat = _bigBlockSize.getXBATEntriesPerBlock();
+        final int fatsInHeader = 109;
+
+        // The FAT has to cover itself and the XFATs as well
+        int fatCount = 0, xfatCount;
+        do {
+            fatCount++;
+            xfatCount = Math.max(0, (fatCount - fatsInHeader + entriesPerXFat - 1) / entriesPerXFat);
+        } while ((long)fatCount * entriesPerFat < (long)dataBlocks + fatCount + xfatCount);
+
+        final int fatStart = dataBlocks;
+        final int xfatStart = fatStart + fatCount;
+
+        // FATs are generated one block at a time from the runs
+        int blockSize = _bigBlockSize.getBigBlockSize();
+        byte[] fat = new byte[blockSize];
+        RunCursor cursor = new RunCursor(_runStarts, _runLengths);
+        for (int i = 0; i < fatCount; i++) {
+            int firstSector = i * entriesPerFat;
+            for (int j = 0; j < entriesPerFat; j++) {
+                int sector = firstSector + j;
+                int value;
+                if (sector < fatStart) {
+                    value = cursor.nextValue(sector);
+                } else if (sector < xfatStart) {
+                    value = POIFSConstants.FAT_SECTOR_BLOCK;
+                } else if (sector < xfatStart + xfatCount) {
+                    value = POIFSConstants.DIFAT_SECTOR_BLOCK;
+                } else {
+                    value = POIFSConstants.UNUSED_BLOCK;
+                }
+                LittleEndian.putInt(fat, j * LittleEndianConsts.INT_SIZE, value);
+            }
+            writeFully(ByteBuffer.wrap(fat), blockPosition(fatStart + i));
+        }
+
+        // The first FATs are referenced from the header, the others from the XFATs
+        int[] batArray = new int[Math.min(fatCount, fatsInHeader)];
+        for (int i = 0; i < batArray.length; i++) {
+            batArray[i] = fatStart + i;
+        }
+        byte[] xfat = new byte[blockSize];
+        for (int i = 0; i < xfatCount; i++) {
+            for (int j = 0; j < entriesPerXFat; j++) {
+                int fatIndex = fatsInHeader + i * entriesPerXFat + j;
+                int value = (fatIndex < fatCount) ? fatStart + fatIndex : POIFSConstants.UNUSED_BLOCK;
+                LittleEndian.putInt(xfat, j * LittleEndianConsts.INT_SIZE, value);
+            }
+            int next = (i == xfatCount - 1) ? POIFSConstants.END_OF_CHAIN : xfatStart + i + 1;
+            LittleEndian.putInt(xfat, entriesPerXFat * LittleEndianConsts.INT_SIZE, next);
+            writeFully(ByteBuffer.wrap(xfat), blockPosition(xfatStart + i));
+        }
+        _nextBlock = xfatStart + xfatCount;
+
+        _header.setBATCount(fatCount);
+        _header.setBATArray(batArray);
+        _header.setXBATCount(xfatCount);
+        _header.setXBATStart(xfatCount == 0 ? POIFSConstants.END_OF_CHAIN : xfatStart);
+    }
+
+    private void writeHeader() throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(_bigBlockSize.getBigBlockSize());
+        _header.writeData(bos);
+        writeFully(ByteBuffer.wrap(bos.toByteArray()), 0);
+    }
+
+    /**
+     * Fills an allocation table from a list of contiguous runs,
+     *  chaining each block of a run to the next one
+     */
+    private static void fillAllocationTable(byte[] table, int firstSector, int sectors,
+            IntList runStarts, IntList runLengths) {
+        RunCursor cursor = new RunCursor(runStarts, runLengths);
+        for (int i = 0; i < sectors; i++) {
+            LittleEndian.putInt(table, i * LittleEndianConsts.INT_SIZE, cursor.nextValue(firstSector + i));
+        }
+    }
+
+    /**
+     * Walks the (sorted) runs in sector order and works out the
+     *  allocation table entry of each sector
+     */
+    private static final class RunCursor {
+        private final IntList starts;
+        private final IntList lengths;
+        private int run;
+
+        RunCursor(IntList starts, IntList lengths) {
+            this.starts = starts;
+            this.lengths = lengths;
+        }
+
+        int nextValue(int sector) {
+            while (run < starts.size() && sector >= starts.get(run) + lengths.get(run)) {
+                run++;
+            }
+            if (run == starts.size() || sector < starts.get(run)) {
+                return POIFSConstants.UNUSED_BLOCK;
+            }
+            int end = starts.get(run) + lengths.get(run) - 1;
+            return (sector == end) ? POIFSConstants.END_OF_CHAIN : sector + 1;
+        }
+    }
+
+    /**
+     * A directory of the filesystem being written
+     */
+    public final class StreamingDirectory {
+        private final DirectoryProperty _property;
+
+        private StreamingDirectory(DirectoryProperty property) {
+            _property = property;
+        }
+
+        /**
+         * @return the name of this directory
+         */
+        public String getName() {
+            return _property.getName();
+        }
+
+        /**
+         * Sets the storage clsid of this directory
+         */
+        public void setStorageClsid(ClassID clsid) {
+            _property.setStorageClsid(clsid);
+        }
+
+        /**
+         * Creates a new sub-directory
+         *
+         * @param name the name of the new directory
+         * @return the new directory
+         * @throws IOException on name duplication
+         */
+        public StreamingDirectory createDirectory(String name) throws IOException {
+            checkWritable();
+            DirectoryProperty property = new DirectoryProperty(name);
+            _property.addChild(property);
+            _property_table.addProperty(property);
+            return new StreamingDirectory(property);
+        }
+
+        /**
+         * Creates a new document, and copies the given stream into it.
+         *  The stream isn't closed.
+         *
+         * @param name the name of the new document
+         * @param stream the InputStream from which the document's data will be obtained
+         * @throws IOException on name duplication, or on errors writing the data
+         */
+        public void createDocument(String name, InputStream stream) throws IOException {
+            try (OutputStream os = createDocumentOutputStream(name)) {
+                IOUtils.copy(stream, os);
+            }
+        }
+
+        /**
+         * Creates a new document, whose data is written into the returned
+         *  stream. No other document can be created until the stream
+         *  has been closed.
+         *
+         * @param name the name of the new document
+         * @return the stream to write the document data to
+         * @throws IOException on name duplication
+         */
+        public OutputStream createDocumentOutputStream(String name) throws IOException {
+            checkWritable();
+            DocumentProperty property = new DocumentProperty(name, 0);
+            property.setStartBlock(POIFSConstants.END_OF_CHAIN);
+            _property.addChild(property);
+            _property_table.addProperty(property);
+            _openDocument = new StreamingDocumentOutputStream(property);
+            return _openDocument;
+        }
+
+        /**
+         * Copies all the entries of the given directory, recursively,
+         *  into this one. This allows an existing filesystem to be
+         *  written out without buffering all of it again.
+         *
+         * @param source the directory to copy from
+         */
+        public void copyFrom(DirectoryEntry source) throws IOException {
+            setStorageClsid(source.getStorageClsid());
+            for (Entry entry : source) {
+                if (entry.isDirectoryEntry()) {
+                    createDirectory(entry.getName()).copyFrom((DirectoryEntry)entry);
+                } else {
+                    try (DocumentInputStream dis = new DocumentInputStream((DocumentEntry)entry)) {
+                        createDocument(entry.getName(), dis);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Buffers a document until it's known whether it belongs in the
+     *  mini stream, otherwise writes it directly to the file
+     */
+    private final class StreamingDocumentOutputStream extends OutputStream {
+        private final DocumentProperty _property;
+        private final byte[] _buffer = new byte[POIFSConstants.BIG_BLOCK_MINIMUM_DOCUMENT_SIZE];
+        private int _buffered;
+        private int _startBlock = POIFSConstants.END_OF_CHAIN;
+        private long _size;
+        private boolean _docClosed;
+
+        StreamingDocumentOutputStream(DocumentProperty property) {
+            _property = property;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte)b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (_docClosed) {
+                throw new IOException("Document \"" + _property.getName() + "\" has already been closed");
+            }
+            if (_size + len > Integer.MAX_VALUE) {
+                throw new IOException("Document \"" + _property.getName() + "\" exceeds 2GB");
+            }
+            if (_startBlock == POIFSConstants.END_OF_CHAIN) {
+                int toBuffer = Math.min(len, _buffer.length - _buffered);
+                System.arraycopy(b, off, _buffer, _buffered, toBuffer);
+                _buffered += toBuffer;
+                _size += toBuffer;
+                off += toBuffer;
+                len -= toBuffer;
+                if (len == 0) {
+                    return;
+                }
+                // Too big for the mini stream, so switch to big blocks
+                _startBlock = _nextBlock;
+                writeFully(ByteBuffer.wrap(_buffer, 0, _buffered), blockPosition(_startBlock));
+            }
+            writeFully(ByteBuffer.wrap(b, off, len), blockPosition(_startBlock) + _size);
+            _size += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (_docClosed) {
+                return;
+            }
+            _docClosed = true;
+            _openDocument = null;
+
+            if (_startBlock == POIFSConstants.END_OF_CHAIN && !Property.isSmall(_buffered)) {
+                // Exactly at the big block threshold, which is too big for the mini stream
+                _startBlock = _nextBlock;
+                writeFully(ByteBuffer.wrap(_buffer, 0, _buffered), blockPosition(_startBlock));
+            }
+
+            if (_startBlock == POIFSConstants.END_OF_CHAIN) {
+                if (_buffered > 0) {
+                    // Pad to the end of the mini block with -1s
+                    int miniStart = _miniStream.size() / POIFSConstants.SMALL_BLOCK_SIZE;
+                    int miniBlocks = (_buffered + POIFSConstants.SMALL_BLOCK_SIZE - 1) / POIFSConstants.SMALL_BLOCK_SIZE;
+                    _miniStream.write(_buffer, 0, _buffered);
+                    for (int i = _buffered; i < miniBlocks * POIFSConstants.SMALL_BLOCK_SIZE; i++) {
+                        _miniStream.write(0xFF);
+                    }
+                    _miniRunStarts.add(miniStart);
+                    _miniRunLengths.add(miniBlocks);
+                    _property.setStartBlock(miniStart);
+                }
+            } else {
+                int blockSize = _bigBlockSize.getBigBlockSize();
+                padBlock(_startBlock, _size);
+                addRun(_startBlock, (int)((_size + blockSize - 1) / blockSize));
+                _property.setStartBlock(_startBlock);
+            }
+            _property.updateSize((int)_size);
+        }
+    }
+}
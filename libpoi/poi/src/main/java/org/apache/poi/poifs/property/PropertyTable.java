@@ -199,11 +199,7 @@ public final class PropertyTable implements BATManaged {
      */
     public void write(POIFSStream stream) throws IOException {
        OutputStream os = stream.getOutputStream();
-       for(Property property : _properties) {
-          if(property != null) {
-             property.writeData(os);
-          }
-       }
+       writeProperties(os);
        os.close();
        
        // Update the start position if needed
@@ -212,6 +208,18 @@ public final class PropertyTable implements BATManaged {
        }
     }
 
+    /**
+     * Writes the raw property records out into the given stream, without
+     *  any block handling. Used by writers which lay out the blocks themselves.
+     */
+    public void writeProperties(OutputStream os) throws IOException {
+       for(Property property : _properties) {
+          if(property != null) {
+             property.writeData(os);
+          }
+       }
+    }
+
     private void populatePropertyTree(DirectoryProperty root) throws IOException {
         int index = root.getChildIndex();
 
@@ -55,6 +55,11 @@ public final class BATBlock implements BlockWritable {
      * Where in the file are we?
      */
     private int ourBlockIndex;
+
+    /**
+     * Has this block been changed since it was read or last written?
+     */
+    private boolean _dirty;
     
     /**
      * Create a single instance initialized with default values
@@ -62,6 +67,7 @@ public final class BATBlock implements BlockWritable {
     private BATBlock(POIFSBigBlockSize bigBlockSize)
     {
         this.bigBlockSize = bigBlockSize;
+        _dirty = true;
         
         int _entries_per_block = bigBlockSize.getBATEntriesPerBlock();
         _values = new int[_entries_per_block];
@@ -97,6 +103,7 @@ public final class BATBlock implements BlockWritable {
           block._values[i] = LittleEndian.getInt(buffer);
        }
        block.recomputeFree();
+       block._dirty = false;
        
        // All done
        return block;
@@ -203,6 +210,9 @@ public final class BATBlock implements BlockWritable {
     public void setValueAt(int relativeOffset, int value) {
        int oldValue = _values[relativeOffset];
        _values[relativeOffset] = value;
+       if (oldValue != value) {
+          _dirty = true;
+       }
        
        // Do we need to re-compute the free?
        if(value == POIFSConstants.UNUSED_BLOCK) {
@@ -214,6 +224,21 @@ public final class BATBlock implements BlockWritable {
        }
     }
     
+    /**
+     * Has this block been changed since it was read, or since
+     *  it was last marked as clean?
+     */
+    public boolean isDirty() {
+       return _dirty;
+    }
+
+    /**
+     * Marks this block as being in sync with its backing block
+     */
+    public void clearDirty() {
+       _dirty = false;
+    }
+
     /**
      * Record where in the file we live
      */
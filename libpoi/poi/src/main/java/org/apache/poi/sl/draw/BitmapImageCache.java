@@ -0,0 +1,186 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.sl.draw;
+
+import com.android.compaty.util.ImageUtils;
+
+import org.apache.poi.util.Beta;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A process-wide cache of decoded bitmaps, which is shared by all {@link BitmapImageRenderer}s,
+ * i.e. by the picture shapes and the texture fills of all slideshows.<p>
+ *
+ * Decoding a large photo dominates the time of rendering a slide, and the same picture is
+ * usually rendered repeatedly, e.g. as a thumbnail and afterwards as the full slide, or by
+ * several slides which use the same picture. The bitmaps are keyed by the checksum of the
+ * picture data and by the sample size, which was used to decode them, so differently sized
+ * renderings of a picture share a bitmap, as long as they need the same resolution.<p>
+ *
+ * The cache is disabled by default and needs to be enabled via {@link #setMaxBytes(long)}.
+ * The least recently used bitmaps are evicted, when the size of the decoded pixels exceeds
+ * the memory budget. The cached bitmaps are shared and must not be modified by the caller.
+ */
+@Beta
+public final class BitmapImageCache {
+    /** the decoded bitmaps are stored as ARGB_8888 */
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private static long maxBytes;
+    private static long cachedBytes;
+
+    private static final Map<CacheKey, BufferedImage> CACHE = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static long hits;
+    private static long misses;
+
+    private BitmapImageCache() {
+    }
+
+    /**
+     * Sets the memory budget of the decoded bitmaps.
+     * A value of 0 (the default) disables the cache.
+     *
+     * @param bytes the maximum number of bytes of the cached pixels
+     */
+    public static synchronized void setMaxBytes(long bytes) {
+        if (bytes < 0) {
+            throw new IllegalArgumentException("the memory budget must not be negative");
+        }
+        maxBytes = bytes;
+        evict();
+    }
+
+    /**
+     * @return the memory budget of the decoded bitmaps, 0 if the cache is disabled
+     */
+    public static synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return the number of bytes of the currently cached pixels
+     */
+    public static synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * @return the number of lookups, which were answered from the cache
+     */
+    public static synchronized long getHits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups, which needed to decode the bitmap
+     */
+    public static synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Removes all cached bitmaps. The statistics are kept.
+     */
+    public static synchronized void clear() {
+        CACHE.clear();
+        cachedBytes = 0;
+    }
+
+    /**
+     * Returns the decoded bitmap, either from the cache or by decoding the data
+     *
+     * @param checksum the checksum of the data, or {@code null} to bypass the cache
+     * @param data the encoded image
+     * @param inSampleSize the sample size as calculated by {@link ImageUtils#calculateInSampleSize}
+     * @return the bitmap or null, if the data couldn't be decoded
+     */
+    static BufferedImage getImage(byte[] checksum, byte[] data, int inSampleSize) {
+        CacheKey key = null;
+        if (checksum != null && getMaxBytes() > 0) {
+            key = new CacheKey(checksum, inSampleSize);
+            synchronized (BitmapImageCache.class) {
+                BufferedImage img = CACHE.get(key);
+                if (img != null) {
+                    hits++;
+                    return img;
+                }
+                misses++;
+            }
+        }
+
+        // decode outside of the lock, so other pictures aren't blocked
+        BufferedImage img = ImageUtils.read(new ByteArrayInputStream(data), inSampleSize);
+
+        if (key != null && img != null) {
+            long size = (long)img.getWidth() * img.getHeight() * BYTES_PER_PIXEL;
+            synchronized (BitmapImageCache.class) {
+                if (size <= maxBytes && !CACHE.containsKey(key)) {
+                    CACHE.put(key, img);
+                    cachedBytes += size;
+                    evict();
+                }
+            }
+        }
+        return img;
+    }
+
+    private static void evict() {
+        Iterator<BufferedImage> iter = CACHE.values().iterator();
+        while (cachedBytes > maxBytes && iter.hasNext()) {
+            BufferedImage img = iter.next();
+            cachedBytes -= (long)img.getWidth() * img.getHeight() * BYTES_PER_PIXEL;
+            iter.remove();
+        }
+    }
+
+    private static final class CacheKey {
+        private final byte[] checksum;
+        private final int inSampleSize;
+        private final int hashCode;
+
+        CacheKey(byte[] checksum, int inSampleSize) {
+            this.checksum = checksum.clone();
+            this.inSampleSize = inSampleSize;
+            this.hashCode = 31 * Arrays.hashCode(this.checksum) + inSampleSize;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey)o;
+            return inSampleSize == other.inSampleSize && Arrays.equals(checksum, other.checksum);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -17,11 +17,14 @@
 
 package org.apache.poi.sl.draw;
 
+import android.graphics.BitmapFactory;
 import android.graphics.Paint;
 import android.graphics.Rect;
 
 import com.android.compaty.util.ImageUtils;
 
+import org.apache.poi.poifs.crypt.CryptoFunctions;
+import org.apache.poi.poifs.crypt.HashAlgorithm;
 import org.apache.poi.sl.usermodel.PictureData.PictureType;
 import org.apache.poi.util.IOUtils;
 import org.apache.poi.util.POILogFactory;
@@ -30,22 +33,43 @@ import org.apache.poi.util.POILogger;
 import java.awt.Graphics2D;
 import java.awt.Insets;
 import java.awt.Shape;
+import java.awt.geom.AffineTransform;
 import java.awt.geom.Dimension2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 
 /**
- * For now this class renders only images supported by the javax.imageio.ImageIO framework.
+ * For now this class renders only images supported by the javax.imageio.ImageIO framework.<p>
+ *
+ * The image data is only decoded, when the image is requested or drawn. When drawn, the image
+ * is decoded with a sample size matching the size of the anchor on the device, instead of the
+ * full resolution. {@link #getImage(Dimension2D)} uses the requested size in the same way.
+ * Texture fills request the native size, because their tiling depends on the image size,
+ * so they are decoded at full resolution. The decoded images are shared via the
+ * {@link BitmapImageCache}.
  **/
 public class BitmapImageRenderer implements ImageRenderer {
     private final static POILogger LOG = POILogFactory.getLogger(BitmapImageRenderer.class);
 
+    /**
+     * The image, which was set directly or by {@link #setAlpha(double)}, otherwise the image
+     * is decoded from {@link #data} on demand
+     */
     protected BufferedImage img;
 
+    // the encoded image
+    private byte[] data;
+    private String contentType;
+    private byte[] checksum;
+    private BitmapFactory.Options bounds;
+
+    // the most recently decoded image, in case the cache is disabled
+    private BufferedImage decoded;
+    private int decodedSampleSize;
+
     @Override
     public boolean canRender(String contentType) {
         PictureType[] pts = {
@@ -62,69 +86,118 @@ public class BitmapImageRenderer implements ImageRenderer {
 
     @Override
     public void loadImage(InputStream data, String contentType) throws IOException {
-        img = readImage(data, contentType);
+        loadImage(IOUtils.toByteArray(data), contentType);
     }
 
     @Override
     public void loadImage(byte[] data, String contentType) throws IOException {
-        img = readImage(new ByteArrayInputStream(data), contentType);
+        this.img = null;
+        this.data = data;
+        this.contentType = contentType;
+        this.checksum = null;
+        this.bounds = null;
+        this.decoded = null;
     }
 
     /**
-     * Read the image data via ImageIO and optionally try to workaround metadata errors.
+     * Decodes the image data with the given sample size or returns it from the cache
      *
-     * @param data the data stream
-     * @param contentType the content type
-     * @return the bufferedImage or null, if there was no image reader for this content type
-     * @throws IOException thrown if there was an error while processing the image
+     * @param inSampleSize the sample size, 1 for the full resolution
+     * @return the image or null, if the data couldn't be decoded
      */
-    private static BufferedImage readImage(final InputStream data, final String contentType) throws IOException {
-        BufferedImage img = null;
-
-        final ByteArrayInputStream bis;
-        if (data instanceof ByteArrayInputStream) {
-            bis = (ByteArrayInputStream)data;
-        } else {
-            ByteArrayOutputStream bos = new ByteArrayOutputStream(0x3FFFF);
-            IOUtils.copy(data, bos);
-            bis = new ByteArrayInputStream(bos.toByteArray());
-        }
-        img = ImageUtils.read(bis);
+    private BufferedImage readImage(int inSampleSize) {
         if (img != null) {
-            img.setContentType(contentType);
+            return img;
         }
-        return img;
+        if (data == null || !hasValidBounds()) {
+            return null;
+        }
+        if (decoded != null && decodedSampleSize == inSampleSize) {
+            return decoded;
+        }
+        if (checksum == null && BitmapImageCache.getMaxBytes() > 0) {
+            checksum = CryptoFunctions.getMessageDigest(HashAlgorithm.md5).digest(data);
+        }
+        BufferedImage bi = BitmapImageCache.getImage(checksum, data, inSampleSize);
+        if (bi != null) {
+            bi.setContentType(contentType);
+        }
+        decoded = bi;
+        decodedSampleSize = inSampleSize;
+        return bi;
+    }
+
+    /**
+     * Decodes the image with the lowest resolution, which still covers the requested size
+     */
+    private BufferedImage readImage(double width, double height) {
+        if (img != null || !hasValidBounds()) {
+            return readImage(1);
+        }
+        int reqWidth = (int)Math.ceil(width);
+        int reqHeight = (int)Math.ceil(height);
+        if (reqWidth <= 0 || reqHeight <= 0) {
+            return readImage(1);
+        }
+        return readImage(ImageUtils.calculateInSampleSize(bounds, reqWidth, reqHeight));
+    }
+
+    private boolean hasValidBounds() {
+        if (bounds == null && data != null) {
+            bounds = ImageUtils.readBounds(new ByteArrayInputStream(data));
+        }
+        return bounds != null && bounds.outWidth > 0 && bounds.outHeight > 0;
     }
 
     @Override
     public BufferedImage getImage() {
-        return img;
+        return readImage(1);
     }
 
     @Override
     public BufferedImage getImage(Dimension2D dim) {
-        if (img == null) {
-            return img;
-        }
-        double w_old = img.getWidth();
-        double h_old = img.getHeight();
         double w_new = dim.getWidth();
         double h_new = dim.getHeight();
-        if (w_old == w_new && h_old == h_new) {
-            return img;
+        BufferedImage bi = readImage(w_new, h_new);
+        if (bi == null) {
+            return null;
+        }
+        int w_old = bi.getWidth();
+        int h_old = bi.getHeight();
+        if (w_old == (int)w_new && h_old == (int)h_new) {
+            return bi;
         }
-        return BufferedImage.create((int)w_new, (int)h_new);
+
+        // the cached images are shared, so the rescaled image is a copy
+        Paint paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setFilterBitmap(true);
+
+        BufferedImage scaled = BufferedImage.create((int)w_new, (int)h_new);
+        Graphics2D g = scaled.createGraphics();
+        g.drawImage(bi, new Rect(0, 0, w_old, h_old), new Rect(0, 0, (int)w_new, (int)h_new), paint);
+        g.dispose();
+        return scaled;
     }
 
     @Override
     public Rectangle2D getBounds() {
-        return (img == null)
-                ? new Rectangle2D.Double()
-                : new Rectangle2D.Double(0, 0, img.getWidth(), img.getHeight());
+        if (img != null) {
+            return new Rectangle2D.Double(0, 0, img.getWidth(), img.getHeight());
+        }
+        return hasValidBounds()
+                ? new Rectangle2D.Double(0, 0, bounds.outWidth, bounds.outHeight)
+                : new Rectangle2D.Double();
     }
 
     @Override
     public void setAlpha(double alpha) {
+        if (img == null && hasValidBounds()) {
+            // setAlpha(BufferedImage, double) returns valid images unchanged,
+            // so the image is still decoded on demand
+            LOG.log(POILogger.WARN, "Not implements");
+            return;
+        }
         img = setAlpha(img, alpha);
     }
 
@@ -143,22 +216,29 @@ public class BitmapImageRenderer implements ImageRenderer {
 
     @Override
     public boolean drawImage(Graphics2D graphics, Rectangle2D anchor, Insets clip) {
-        if (img == null) return false;
+        if (clip == null) {
+            clip = new Insets(0,0,0,0);
+        }
+
+        // the anchor only shows the unclipped part of the image
+        double cw = (100000-clip.left-clip.right) / 100000.0;
+        double ch = (100000-clip.top-clip.bottom) / 100000.0;
+        AffineTransform tx = graphics.getTransform();
+        double scaleX = (tx == null) ? 1 : Math.hypot(tx.getScaleX(), tx.getShearY());
+        double scaleY = (tx == null) ? 1 : Math.hypot(tx.getShearX(), tx.getScaleY());
+        BufferedImage image = (cw > 0 && ch > 0)
+                ? readImage(Math.abs(anchor.getWidth()) * scaleX / cw, Math.abs(anchor.getHeight()) * scaleY / ch)
+                : readImage(1);
+        if (image == null) return false;
 
         Paint paint = new Paint();
         paint.setAntiAlias(true);
         paint.setDither(true);
 
-        if (clip == null) {
-            clip = new Insets(0,0,0,0);
-        }
-
-        int iw = img.getWidth();
-        int ih = img.getHeight();
+        int iw = image.getWidth();
+        int ih = image.getHeight();
         double cx = clip.left / 100000.0;
         double cy = clip.top / 100000.0;
-        double cw = (100000-clip.left-clip.right) / 100000.0;
-        double ch = (100000-clip.top-clip.bottom) / 100000.0;
 
         Rect src = new Rect((int) (iw * cx), (int) (ih * cy), (int) (iw * (cx + cw)), (int) (ih * (cy + ch)));
         Rect dst = new Rect((int)anchor.getX(), (int)anchor.getY(),
@@ -166,13 +246,13 @@ public class BitmapImageRenderer implements ImageRenderer {
                 (int)(anchor.getY() + anchor.getHeight()));
 
         Shape clipOld = graphics.getClip();
-        graphics.drawImage(img, src, dst, paint);
+        graphics.drawImage(image, src, dst, paint);
         graphics.setClip(clipOld);
         return true;
     }
 
     @Override
     public Rectangle2D getNativeBounds() {
-        return new Rectangle2D.Double(0, 0, img.getWidth(), img.getHeight());
+        return getBounds();
     }
 }
@@ -49,8 +49,16 @@ public class DrawGroupShape extends DrawShape {
 
         DrawFactory drawFact = DrawFactory.getInstance(graphics);
         AffineTransform at2 = graphics.getTransform();
-        
+
+        // skip the children outside of the clip, if culling is enabled
+        boolean[] visible = ShapeIndex.getVisibleShapes(graphics, getShape());
+        int childIdx = 0;
+
         for (Shape<?,?> child : getShape()) {
+            if (visible != null && !visible[childIdx++]) {
+                continue;
+            }
+
             // remember the initial transform and restore it after we are done with the drawing
             AffineTransform at = graphics.getTransform();
             graphics.setRenderingHint(Drawable.GSAVE, true);
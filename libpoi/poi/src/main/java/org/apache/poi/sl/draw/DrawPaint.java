@@ -284,6 +284,7 @@ public class DrawPaint {
                 imgDim = new Dimension2DDouble(textAnchor.getWidth(), textAnchor.getHeight());
             }
 
+            // the texture is tiled by the image size, so it's not decoded at the size of the anchor
             BufferedImage image = renderer.getImage(imgDim);
             if(image == null) {
                 LOG.log(POILogger.ERROR, "Can't load image data");
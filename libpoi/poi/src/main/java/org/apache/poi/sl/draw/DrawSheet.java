@@ -52,7 +52,14 @@ public class DrawSheet implements Drawable {
         
         graphics.setRenderingHint(Drawable.GROUP_TRANSFORM, new AffineTransform());
 
+        // skip the shapes outside of the clip, if culling is enabled
+        boolean[] visible = ShapeIndex.getVisibleShapes(graphics, sheet);
+        int shapeIdx = 0;
+
         for (Shape<?,?> shape : sheet.getShapes()) {
+            if (visible != null && !visible[shapeIdx++]) {
+                continue;
+            }
             if(!canDraw(graphics, shape)) {
                 continue;
             }
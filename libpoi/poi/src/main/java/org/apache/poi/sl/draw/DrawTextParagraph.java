@@ -70,6 +70,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 public class DrawTextParagraph implements Drawable {
     private static final POILogger LOG = POILogFactory.getLogger(DrawTextParagraph.class);
@@ -268,11 +269,100 @@ public class DrawTextParagraph implements Drawable {
     }
 
     /**
-     * break text into lines, each representing a line of text that fits in the wrapping width
+     * The line breaks of a paragraph, which are kept in the {@link Drawable#TEXT_LAYOUT_CACHE}
+     */
+    public static final class CachedLayout {
+        private final String content;
+        private final double wrappingWidth;
+        private final Object fontHandler;
+        private final DrawText[] lines;
+        private final String rawText;
+        private final double maxLineHeight;
+
+        CachedLayout(String content, double wrappingWidth, Object fontHandler,
+                     List<DrawTextFragment> lines, String rawText, double maxLineHeight) {
+            this.content = content;
+            this.wrappingWidth = wrappingWidth;
+            this.fontHandler = fontHandler;
+            this.lines = new DrawText[lines.size()];
+            for (int i = 0; i < this.lines.length; i++) {
+                this.lines[i] = lines.get(i).getDrawText();
+            }
+            this.rawText = rawText;
+            this.maxLineHeight = maxLineHeight;
+        }
+
+        boolean matches(String content, double wrappingWidth, Object fontHandler) {
+            return this.fontHandler == fontHandler
+                && Double.compare(this.wrappingWidth, wrappingWidth) == 0
+                && this.content.equals(content);
+        }
+    }
+
+    /**
+     * break text into lines, each representing a line of text that fits in the wrapping width.
+     * If a {@link Drawable#TEXT_LAYOUT_CACHE} is registered, the lines of the previous call are
+     * reused, as long as the text and the wrapping width are unchanged.
      *
      * @param graphics The drawing context for computing text-lengths.
      */
     protected void breakText(Graphics2D graphics){
+        @SuppressWarnings("unchecked")
+        Map<TextParagraph<?,?,?>,CachedLayout> cache =
+            (Map<TextParagraph<?,?,?>,CachedLayout>)graphics.getRenderingHint(Drawable.TEXT_LAYOUT_CACHE);
+        if (cache == null) {
+            layoutText(graphics);
+            return;
+        }
+
+        // the text is measured before the first line is added, i.e. always with the first line indent
+        double wrappingWidth = getWrappingWidth(true, graphics);
+        String content = getLayoutContent(graphics);
+        // the default font manager is created on demand, so only a registered one has an identity
+        Object fontHandler = graphics.getRenderingHint(Drawable.FONT_HANDLER);
+
+        CachedLayout layout;
+        synchronized (cache) {
+            layout = cache.get(paragraph);
+        }
+        if (layout == null || !layout.matches(content, wrappingWidth, fontHandler)) {
+            layoutText(graphics);
+            layout = new CachedLayout(content, wrappingWidth, fontHandler, lines, rawText, maxLineHeight);
+            synchronized (cache) {
+                cache.put(paragraph, layout);
+            }
+            return;
+        }
+
+        lines.clear();
+        DrawFactory fact = DrawFactory.getInstance(graphics);
+        for (DrawText dt : layout.lines) {
+            // the fragments keep their position, so they aren't shared between draws
+            lines.add(fact.getTextFragment(dt));
+        }
+        rawText = layout.rawText;
+        maxLineHeight = Math.max(maxLineHeight, layout.maxLineHeight);
+    }
+
+    /**
+     * @return the text and the character styles, which affect the line breaks
+     */
+    private String getLayoutContent(Graphics2D graphics) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(paragraph.getTextAlign()).append('|').append(paragraph.getDefaultFontSize());
+        for (TextRun run : paragraph) {
+            FontInfo fi = run.getFontInfo();
+            sb.append('\u0000').append(getRenderableText(graphics, run))
+              .append('\u0000').append(fi == null ? null : fi.getTypeface())
+              .append('|').append(run.getFontSize())
+              .append('|').append(run.isBold()).append(run.isItalic())
+              .append(run.isUnderlined()).append(run.isStrikethrough())
+              .append(run.isSubscript()).append(run.isSuperscript());
+        }
+        return sb.toString();
+    }
+
+    private void layoutText(Graphics2D graphics){
         lines.clear();
 
         DrawFactory fact = DrawFactory.getInstance(graphics);
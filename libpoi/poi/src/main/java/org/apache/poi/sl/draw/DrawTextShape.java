@@ -27,6 +27,7 @@ import org.apache.poi.sl.usermodel.TextShape;
 import org.apache.poi.sl.usermodel.TextShape.TextDirection;
 
 import java.awt.Graphics2D;
+import java.awt.Shape;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
@@ -131,18 +132,28 @@ public class DrawTextShape extends DrawSimpleShape {
     }
 
     /**
-     * paint the paragraphs starting from top left (x,y)
+     * paint the paragraphs starting from top left (x,y).
+     * When painting, the paragraphs below the clip of the graphics are neither laid out nor drawn.
      *
-     * @return  the vertical advance, i.e. the cumulative space occupied by the text
+     * @return  the vertical advance, i.e. the cumulative space occupied by the text,
+     *  which excludes the skipped paragraphs
      */
     public double drawParagraphs(Graphics2D graphics, double x, double y, boolean calculateHeight) {
         DrawFactory fact = DrawFactory.getInstance(graphics);
 
+        // the clip is returned in user space, i.e. in the coordinates of the paragraphs
+        Shape clip = calculateHeight ? null : graphics.getClip();
+        double maxY = (clip == null) ? Double.POSITIVE_INFINITY : clip.getBounds2D().getMaxY();
+
         double y0 = y;
         Iterator<? extends TextParagraph<?,?,? extends TextRun>> paragraphs = getShape().iterator();
 
         boolean isFirstLine = true;
         for (int autoNbrIdx=0; paragraphs.hasNext(); autoNbrIdx++){
+            if (y > maxY) {
+                // the following paragraphs start below the visible area
+                break;
+            }
             TextParagraph<?,?,? extends TextRun> p = paragraphs.next();
             DrawTextParagraph dp = fact.getDrawable(p);
             BulletStyle bs = p.getBulletStyle();
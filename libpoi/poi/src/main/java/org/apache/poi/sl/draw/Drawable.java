@@ -48,6 +48,7 @@ public interface Drawable {
             case 11: return "GRESTORE";
             case 12: return "CURRENT_SLIDE";
             case 13: return "BUFFERED_IMAGE";
+            case 14: return "SHAPE_INDEX_CACHE";
             default: return "UNKNOWN_ID "+intKey();
             }
         }
@@ -145,6 +146,23 @@ public interface Drawable {
      */
     DrawableHint BUFFERED_IMAGE = new DrawableHint(13);
 
+    /**
+     * Key for a cache of type {@code Map<ShapeContainer<?,?>,ShapeIndex>}, which stores the
+     * spatial indexes of the drawn sheets and group shapes. If it's registered, shapes outside
+     * of the clip of the graphics are skipped. The cache needs to be cleared, when the shapes
+     * are modified.
+     */
+    DrawableHint SHAPE_INDEX_CACHE = new DrawableHint(14);
+
+    /**
+     * Key for a cache of type {@code Map<TextParagraph<?,?,?>,DrawTextParagraph.CachedLayout>}, which
+     * stores the line breaks of the drawn paragraphs. If it's registered, the lines of a paragraph are
+     * only laid out again, when its text, its character styles, its wrapping width or the font handler
+     * changed. Other modifications, e.g. of the font colors, require the cache to be cleared.
+     * The cached lines must not be drawn concurrently.
+     */
+    DrawableHint TEXT_LAYOUT_CACHE = new DrawableHint(15);
+
     /**
      * Apply 2-D transforms before drawing this shape. This includes rotation and flipping.
      *
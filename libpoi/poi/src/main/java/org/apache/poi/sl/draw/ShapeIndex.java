@@ -0,0 +1,241 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.sl.draw;
+
+import org.apache.poi.sl.usermodel.PlaceableShape;
+import org.apache.poi.sl.usermodel.Shape;
+import org.apache.poi.sl.usermodel.ShapeContainer;
+import org.apache.poi.sl.usermodel.TextShape;
+import org.apache.poi.util.Beta;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A spatial index of the shapes of a sheet or a group shape, which is used to skip
+ * the shapes outside of the clip, see {@link Drawable#SHAPE_INDEX_CACHE}.<p>
+ *
+ * The bounds of the shapes are calculated once, when the container is drawn the first time,
+ * and are packed into a static R-tree by the sort-tile-recursive algorithm.
+ * The bounds are conservative, i.e. they include the rotation of the shape and a margin for
+ * strokes, arrow heads and shadows. As text might overflow its shape, text shapes are
+ * only culled horizontally, or not at all, if their text isn't wrapped or is rotated.
+ */
+@Beta
+public final class ShapeIndex {
+    private static final int NODE_CAPACITY = 16;
+
+    /** the minimum margin in points around the shape bounds */
+    private static final double MIN_MARGIN = 12;
+
+    /** the margin relative to the size of the shape bounds */
+    private static final double REL_MARGIN = 0.1;
+
+    /** the number of indexed shapes */
+    private final int size;
+
+    /** the z-order of the leaf entries in their packed order */
+    private final int[] entries;
+
+    /**
+     * The bounds per tree level, starting with the leaves.
+     * Each item is stored as minX, minY, maxX, maxY
+     */
+    private final double[][] levels;
+
+    private ShapeIndex(Rectangle2D[] bounds) {
+        size = bounds.length;
+
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+
+        // sort-tile-recursive: slice the entries by their x center, then sort each slice by y
+        Arrays.sort(order, (i, j) -> Double.compare(bounds[i].getCenterX(), bounds[j].getCenterX()));
+        int leafCount = (size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        int sliceSize = (int)Math.ceil(Math.sqrt(leafCount)) * NODE_CAPACITY;
+        for (int start = 0; start < size; start += sliceSize) {
+            Arrays.sort(order, start, Math.min(start + sliceSize, size),
+                (i, j) -> Double.compare(bounds[i].getCenterY(), bounds[j].getCenterY()));
+        }
+
+        entries = new int[size];
+        List<double[]> levelList = new ArrayList<>();
+        double[] leaves = new double[size * 4];
+        for (int i = 0; i < size; i++) {
+            Rectangle2D b = bounds[order[i]];
+            entries[i] = order[i];
+            leaves[i * 4] = b.getMinX();
+            leaves[i * 4 + 1] = b.getMinY();
+            leaves[i * 4 + 2] = b.getMaxX();
+            leaves[i * 4 + 3] = b.getMaxY();
+        }
+        levelList.add(leaves);
+
+        for (double[] level = leaves; level.length > 4; ) {
+            int count = level.length / 4;
+            int nodes = (count + NODE_CAPACITY - 1) / NODE_CAPACITY;
+            double[] parent = new double[nodes * 4];
+            for (int n = 0; n < nodes; n++) {
+                double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+                double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+                for (int c = n * NODE_CAPACITY; c < Math.min((n + 1) * NODE_CAPACITY, count); c++) {
+                    minX = Math.min(minX, level[c * 4]);
+                    minY = Math.min(minY, level[c * 4 + 1]);
+                    maxX = Math.max(maxX, level[c * 4 + 2]);
+                    maxY = Math.max(maxY, level[c * 4 + 3]);
+                }
+                parent[n * 4] = minX;
+                parent[n * 4 + 1] = minY;
+                parent[n * 4 + 2] = maxX;
+                parent[n * 4 + 3] = maxY;
+            }
+            levelList.add(parent);
+            level = parent;
+        }
+
+        levels = levelList.toArray(new double[levelList.size()][]);
+    }
+
+    /**
+     * @return the number of indexed shapes
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Looks up the shapes, which might be visible within the given area
+     *
+     * @param area the area in the coordinate system of the container
+     * @return the visibility of the shapes in the order of the container
+     */
+    boolean[] query(Rectangle2D area) {
+        boolean[] visible = new boolean[size];
+        if (size > 0) {
+            int top = levels.length - 1;
+            int count = levels[top].length / 4;
+            for (int n = 0; n < count; n++) {
+                query(top, n, area, visible);
+            }
+        }
+        return visible;
+    }
+
+    private void query(int level, int item, Rectangle2D area, boolean[] visible) {
+        double[] bounds = levels[level];
+        int i = item * 4;
+        if (bounds[i] > area.getMaxX() || bounds[i + 2] < area.getMinX()
+            || bounds[i + 1] > area.getMaxY() || bounds[i + 3] < area.getMinY()) {
+            return;
+        }
+        if (level == 0) {
+            visible[entries[item]] = true;
+            return;
+        }
+        int count = levels[level - 1].length / 4;
+        for (int c = item * NODE_CAPACITY; c < Math.min((item + 1) * NODE_CAPACITY, count); c++) {
+            query(level - 1, c, area, visible);
+        }
+    }
+
+    /**
+     * Determines the shapes of the container, which intersect the clip of the graphics.
+     * The index of the container is looked up or built via the cache, which is registered
+     * as {@link Drawable#SHAPE_INDEX_CACHE}.
+     *
+     * @param graphics the graphics, with the transform and group transform of the container
+     * @param container the sheet or group shape
+     * @return the visibility of the shapes in the order of the container, or {@code null}
+     *  if culling isn't enabled or the graphics has no clip
+     */
+    static boolean[] getVisibleShapes(Graphics2D graphics, ShapeContainer<?,?> container) {
+        @SuppressWarnings("unchecked")
+        Map<ShapeContainer<?,?>,ShapeIndex> cache =
+            (Map<ShapeContainer<?,?>,ShapeIndex>)graphics.getRenderingHint(Drawable.SHAPE_INDEX_CACHE);
+        if (cache == null) {
+            return null;
+        }
+        java.awt.Shape clip = graphics.getClip();
+        if (clip == null) {
+            return null;
+        }
+
+        ShapeIndex index;
+        synchronized (cache) {
+            index = cache.get(container);
+        }
+        // rebuild a stale index, e.g. after shapes were added
+        if (index == null || index.size() != container.getShapes().size()) {
+            index = build(graphics, container);
+            synchronized (cache) {
+                cache.put(container, index);
+            }
+        }
+        return index.query(clip.getBounds2D());
+    }
+
+    private static ShapeIndex build(Graphics2D graphics, ShapeContainer<?,?> container) {
+        List<? extends Shape<?,?>> shapes = container.getShapes();
+        Rectangle2D[] bounds = new Rectangle2D[shapes.size()];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = getBounds(graphics, shapes.get(i));
+        }
+        return new ShapeIndex(bounds);
+    }
+
+    private static Rectangle2D getBounds(Graphics2D graphics, Shape<?,?> shape) {
+        final Rectangle2D infinite = new Rectangle2D.Double(
+            -Double.MAX_VALUE/2, -Double.MAX_VALUE/2, Double.MAX_VALUE, Double.MAX_VALUE);
+        if (!(shape instanceof PlaceableShape)) {
+            return infinite;
+        }
+        PlaceableShape<?,?> ps = (PlaceableShape<?,?>)shape;
+        Rectangle2D anchor = DrawShape.getAnchor(graphics, ps);
+        if (anchor == null) {
+            return infinite;
+        }
+
+        double rotation = ps.getRotation();
+        if (rotation != 0.) {
+            AffineTransform tx = AffineTransform.getRotateInstance(
+                Math.toRadians(rotation), anchor.getCenterX(), anchor.getCenterY());
+            anchor = tx.createTransformedShape(anchor).getBounds2D();
+        }
+
+        double margin = Math.max(MIN_MARGIN, REL_MARGIN * Math.max(anchor.getWidth(), anchor.getHeight()));
+        Rectangle2D bounds = new Rectangle2D.Double(anchor.getX() - margin, anchor.getY() - margin,
+            anchor.getWidth() + 2 * margin, anchor.getHeight() + 2 * margin);
+
+        if (shape instanceof TextShape) {
+            TextShape<?,?> ts = (TextShape<?,?>)shape;
+            if (!ts.getWordWrap() || rotation != 0.) {
+                return infinite;
+            }
+            // the text might overflow vertically, e.g. if it isn't auto fitted
+            bounds.setRect(bounds.getX(), infinite.getY(), bounds.getWidth(), infinite.getHeight());
+        }
+        return bounds;
+    }
+}
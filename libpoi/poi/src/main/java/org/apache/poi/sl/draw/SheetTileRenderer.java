@@ -0,0 +1,286 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.sl.draw;
+
+import android.graphics.Paint;
+import android.graphics.Rect;
+
+import org.apache.poi.sl.usermodel.ShapeContainer;
+import org.apache.poi.sl.usermodel.Sheet;
+import org.apache.poi.sl.usermodel.TextParagraph;
+import org.apache.poi.util.Beta;
+
+import java.awt.AlphaComposite;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Renders a sheet as a grid of square tiles, which are cached per zoom level.<p>
+ *
+ * Panning over a zoomed slide only renders the tiles, which become visible, instead of
+ * the whole slide. A tile is rendered with its area as clip and a {@link ShapeIndex}
+ * per sheet and group shape, so only the shapes intersecting the tile are drawn.
+ * The least recently used tiles are evicted, when their pixels exceed the memory budget.<p>
+ *
+ * The text layouts are cached as well, so the tiles of a new zoom level don't need to break
+ * the text into lines again.<p>
+ *
+ * The cached tiles, shape indexes and text layouts need to be dropped via {@link #invalidate()},
+ * when the sheet is modified.<p>
+ *
+ * The renderer can be used by several threads. Cached tiles are returned concurrently, but
+ * the tiles are rendered one at a time, because the cached text layouts must not be drawn
+ * concurrently. The sheet must not be modified while tiles are rendered.
+ */
+@Beta
+public class SheetTileRenderer {
+    /** the tiles are stored as ARGB_8888 */
+    private static final int BYTES_PER_PIXEL = 4;
+
+    private final Sheet<?,?> sheet;
+    private final int tileSize;
+    private final long maxBytes;
+    private final DrawFactory drawFactory;
+
+    private final Map<ShapeContainer<?,?>,ShapeIndex> shapeIndexes = new IdentityHashMap<>();
+    private final Map<TextParagraph<?,?,?>,DrawTextParagraph.CachedLayout> textLayouts = new IdentityHashMap<>();
+    private final Map<TileKey,BufferedImage> tiles = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+    /** serializes the rendering, so the shared text layouts aren't drawn concurrently */
+    private final Object renderLock = new Object();
+
+    /**
+     * @param sheet the sheet to render
+     * @param tileSize the width and height of the tiles in pixels
+     * @param maxBytes the memory budget of the cached tiles
+     */
+    public SheetTileRenderer(Sheet<?,?> sheet, int tileSize, long maxBytes) {
+        this(sheet, tileSize, maxBytes, null);
+    }
+
+    /**
+     * @param sheet the sheet to render
+     * @param tileSize the width and height of the tiles in pixels
+     * @param maxBytes the memory budget of the cached tiles
+     * @param drawFactory the draw factory or {@code null} for the default factory
+     */
+    public SheetTileRenderer(Sheet<?,?> sheet, int tileSize, long maxBytes, DrawFactory drawFactory) {
+        if (tileSize <= 0) {
+            throw new IllegalArgumentException("Invalid tile size given");
+        }
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("the memory budget must not be negative");
+        }
+        this.sheet = sheet;
+        this.tileSize = tileSize;
+        this.maxBytes = maxBytes;
+        this.drawFactory = (drawFactory == null) ? new DrawFactory() : drawFactory;
+    }
+
+    /**
+     * @return the width and height of the tiles in pixels
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @return the number of bytes of the currently cached tiles
+     */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    /**
+     * Draws the visible part of the zoomed sheet, i.e. the cached or rendered tiles
+     * intersecting the viewport
+     *
+     * @param graphics the graphics to draw into, the viewport is drawn at its origin
+     * @param zoom the zoom level, 1 renders one pixel per point
+     * @param viewport the visible area of the zoomed sheet in pixels
+     */
+    public void draw(Graphics2D graphics, double zoom, Rectangle2D viewport) {
+        Dimension pgsize = sheet.getSlideShow().getPageSize();
+        int columns = (int)Math.ceil(pgsize.getWidth() * zoom / tileSize);
+        int rows = (int)Math.ceil(pgsize.getHeight() * zoom / tileSize);
+
+        int firstCol = Math.max((int)Math.floor(viewport.getMinX() / tileSize), 0);
+        int lastCol = Math.min((int)Math.ceil(viewport.getMaxX() / tileSize), columns);
+        int firstRow = Math.max((int)Math.floor(viewport.getMinY() / tileSize), 0);
+        int lastRow = Math.min((int)Math.ceil(viewport.getMaxY() / tileSize), rows);
+
+        Paint paint = new Paint();
+        paint.setFilterBitmap(false);
+
+        for (int row = firstRow; row < lastRow; row++) {
+            for (int col = firstCol; col < lastCol; col++) {
+                BufferedImage tile = getTile(zoom, col, row);
+                int x = (int)Math.round(col * tileSize - viewport.getX());
+                int y = (int)Math.round(row * tileSize - viewport.getY());
+                int w = tile.getWidth();
+                int h = tile.getHeight();
+                graphics.drawImage(tile, new Rect(0, 0, w, h), new Rect(x, y, x + w, y + h), paint);
+            }
+        }
+    }
+
+    /**
+     * Returns a tile of the zoomed sheet, either from the cache or by rendering it.
+     * The tiles of the right and bottom border are cropped to the page size.
+     * The cached tiles are shared and must not be modified by the caller.
+     *
+     * @param zoom the zoom level, 1 renders one pixel per point
+     * @param column the 0-based column of the tile
+     * @param row the 0-based row of the tile
+     * @return the tile
+     */
+    public BufferedImage getTile(double zoom, int column, int row) {
+        if (zoom <= 0) {
+            throw new IllegalArgumentException("Invalid zoom given");
+        }
+
+        TileKey key = new TileKey(zoom, column, row);
+        BufferedImage tile = getCachedTile(key);
+        if (tile != null) {
+            return tile;
+        }
+
+        synchronized (renderLock) {
+            // the tile might have been rendered while waiting for the lock
+            tile = getCachedTile(key);
+            if (tile != null) {
+                return tile;
+            }
+            tile = renderTile(zoom, column, row);
+
+            long size = (long)tile.getWidth() * tile.getHeight() * BYTES_PER_PIXEL;
+            synchronized (this) {
+                if (size <= maxBytes) {
+                    tiles.put(key, tile);
+                    cachedBytes += size;
+                    evict();
+                }
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * Drops the cached tiles, shape indexes and text layouts, e.g. after the sheet was modified
+     */
+    public synchronized void invalidate() {
+        tiles.clear();
+        cachedBytes = 0;
+        synchronized (shapeIndexes) {
+            shapeIndexes.clear();
+        }
+        synchronized (textLayouts) {
+            textLayouts.clear();
+        }
+    }
+
+    private synchronized BufferedImage getCachedTile(TileKey key) {
+        return tiles.get(key);
+    }
+
+    private BufferedImage renderTile(double zoom, int column, int row) {
+        Dimension pgsize = sheet.getSlideShow().getPageSize();
+        int pageWidth = (int)Math.ceil(pgsize.getWidth() * zoom);
+        int pageHeight = (int)Math.ceil(pgsize.getHeight() * zoom);
+        int x = column * tileSize;
+        int y = row * tileSize;
+        int width = Math.max(Math.min(tileSize, pageWidth - x), 1);
+        int height = Math.max(Math.min(tileSize, pageHeight - y), 1);
+
+        BufferedImage img = BufferedImage.create(width, height);
+        Graphics2D graphics = img.createGraphics();
+        try {
+            // default rendering options
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_SPEED);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            graphics.setRenderingHint(Drawable.BUFFERED_IMAGE, new WeakReference<>(img));
+            graphics.setRenderingHint(Drawable.DRAW_FACTORY, drawFactory);
+            graphics.setRenderingHint(Drawable.SHAPE_INDEX_CACHE, shapeIndexes);
+            graphics.setRenderingHint(Drawable.TEXT_LAYOUT_CACHE, textLayouts);
+
+            graphics.setComposite(AlphaComposite.Clear);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setComposite(AlphaComposite.SrcOver);
+
+            // the clip is transformed along with the graphics, so the shapes are culled in sheet coordinates
+            graphics.setClip(0, 0, width, height);
+            graphics.translate(-x, -y);
+            graphics.scale(zoom, zoom);
+
+            sheet.draw(graphics);
+        } finally {
+            graphics.dispose();
+        }
+        return img;
+    }
+
+    private void evict() {
+        Iterator<BufferedImage> iter = tiles.values().iterator();
+        while (cachedBytes > maxBytes && iter.hasNext()) {
+            BufferedImage img = iter.next();
+            cachedBytes -= (long)img.getWidth() * img.getHeight() * BYTES_PER_PIXEL;
+            iter.remove();
+        }
+    }
+
+    private static final class TileKey {
+        private final double zoom;
+        private final int column;
+        private final int row;
+
+        TileKey(double zoom, int column, int row) {
+            this.zoom = zoom;
+            this.column = column;
+            this.row = row;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TileKey)) {
+                return false;
+            }
+            TileKey other = (TileKey)o;
+            return Double.compare(zoom, other.zoom) == 0 && column == other.column && row == other.row;
+        }
+
+        @Override
+        public int hashCode() {
+            long bits = Double.doubleToLongBits(zoom);
+            return ((int)(bits ^ (bits >>> 32)) * 31 + column) * 31 + row;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.sl.draw;
+
+import org.apache.poi.sl.draw.geom.PresetGeometries;
+import org.apache.poi.sl.usermodel.MasterSheet;
+import org.apache.poi.sl.usermodel.Placeholder;
+import org.apache.poi.sl.usermodel.Sheet;
+import org.apache.poi.sl.usermodel.Slide;
+import org.apache.poi.sl.usermodel.SlideShow;
+import org.apache.poi.util.Beta;
+
+import java.awt.AlphaComposite;
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Renders the slides of a slideshow into separate images, optionally in parallel.<p>
+ *
+ * The slideshow usermodels aren't thread-safe, but rendering a slide only modifies
+ * the lazily initialized state of the slide itself and of its master sheets, e.g. the
+ * shapes and placeholders of a layout, which are shared by several slides. Therefore
+ * the master sheets, their backgrounds and placeholders, as well as the pictures of
+ * the slideshow are resolved in the calling thread, before the slides are rendered
+ * concurrently. Afterwards the master sheets are only read by the rendering threads.<p>
+ *
+ * The slideshow must not be modified while the slides are rendered.
+ */
+@Beta
+public class SlideRenderer {
+    private final SlideShow<?,?> slideShow;
+    private final double scale;
+    private final DrawFactory drawFactory;
+
+    /**
+     * @param slideShow the slideshow to render
+     * @param scale the scale of the images, 1 renders one pixel per point
+     */
+    public SlideRenderer(SlideShow<?,?> slideShow, double scale) {
+        this(slideShow, scale, null);
+    }
+
+    /**
+     * @param slideShow the slideshow to render
+     * @param scale the scale of the images, 1 renders one pixel per point
+     * @param drawFactory the stateless draw factory, which is shared by the rendering threads,
+     *  or {@code null} for the default factory
+     */
+    public SlideRenderer(SlideShow<?,?> slideShow, double scale, DrawFactory drawFactory) {
+        if (scale <= 0) {
+            throw new IllegalArgumentException("Invalid scale given");
+        }
+        this.slideShow = slideShow;
+        this.scale = scale;
+        this.drawFactory = (drawFactory == null) ? new DrawFactory() : drawFactory;
+    }
+
+    /**
+     * Renders a single slide in the calling thread
+     *
+     * @param slideIndex the 0-based index of the slide
+     * @return the rendered slide
+     */
+    public RenderedSlide render(int slideIndex) {
+        return render(new int[]{slideIndex}, null).get(0);
+    }
+
+    /**
+     * Renders several slides, one task per slide
+     *
+     * @param slideIndexes the 0-based indexes of the slides
+     * @param executor the executor to run the tasks, or {@code null} to render in the calling thread
+     * @return the rendered slides in the order of the given indexes
+     */
+    public List<RenderedSlide> render(int[] slideIndexes, ExecutorService executor) {
+        final List<? extends Slide<?,?>> slides = slideShow.getSlides();
+        final List<Slide<?,?>> selected = new ArrayList<>(slideIndexes.length);
+        for (int idx : slideIndexes) {
+            if (idx < 0 || idx >= slides.size()) {
+                throw new IllegalArgumentException("slide index " + idx + " is not within range: [0.." + (slides.size() - 1) + "]");
+            }
+            selected.add(slides.get(idx));
+        }
+
+        prepare(selected);
+
+        final Dimension pgsize = slideShow.getPageSize();
+        final int width = Math.max((int)Math.rint(pgsize.getWidth() * scale), 1);
+        final int height = Math.max((int)Math.rint(pgsize.getHeight() * scale), 1);
+
+        final List<RenderedSlide> result = new ArrayList<>(slideIndexes.length);
+        if (executor == null) {
+            for (int i = 0; i < slideIndexes.length; i++) {
+                result.add(renderSlide(slideIndexes[i], selected.get(i), width, height));
+            }
+            return result;
+        }
+
+        List<Future<RenderedSlide>> futures = new ArrayList<>(slideIndexes.length);
+        for (int i = 0; i < slideIndexes.length; i++) {
+            final int slideIndex = slideIndexes[i];
+            final Slide<?,?> slide = selected.get(i);
+            futures.add(executor.submit(new Callable<RenderedSlide>() {
+                @Override
+                public RenderedSlide call() {
+                    return renderSlide(slideIndex, slide, width, height);
+                }
+            }));
+        }
+
+        try {
+            for (Future<RenderedSlide> f : futures) {
+                result.add(f.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while rendering the slides", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the state, which is shared by the slides, in the calling thread
+     */
+    private void prepare(List<Slide<?,?>> slides) {
+        PresetGeometries.getInstance();
+        slideShow.getPictureData();
+
+        Set<Sheet<?,?>> masters = Collections.newSetFromMap(new IdentityHashMap<Sheet<?,?>,Boolean>());
+        for (Slide<?,?> slide : slides) {
+            for (MasterSheet<?,?> ms = slide.getMasterSheet(); ms != null && masters.add(ms); ms = ms.getMasterSheet()) {
+                ms.getShapes();
+                ms.getBackground();
+                for (Placeholder ph : Placeholder.values()) {
+                    ms.getPlaceholderDetails(ph);
+                }
+            }
+        }
+    }
+
+    private RenderedSlide renderSlide(int slideIndex, Slide<?,?> slide, int width, int height) {
+        final long start = System.nanoTime();
+
+        BufferedImage img = BufferedImage.create(width, height);
+        Graphics2D graphics = img.createGraphics();
+        try {
+            // default rendering options
+            graphics.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setRenderingHint(RenderingHints.KEY_COLOR_RENDERING, RenderingHints.VALUE_COLOR_RENDER_SPEED);
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            graphics.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+            graphics.setRenderingHint(Drawable.BUFFERED_IMAGE, new WeakReference<>(img));
+            graphics.setRenderingHint(Drawable.DRAW_FACTORY, drawFactory);
+
+            graphics.scale(scale, scale);
+
+            graphics.setComposite(AlphaComposite.Clear);
+            graphics.fillRect(0, 0, width, height);
+            graphics.setComposite(AlphaComposite.SrcOver);
+
+            slide.draw(graphics);
+        } finally {
+            graphics.dispose();
+        }
+
+        return new RenderedSlide(slideIndex, img, System.nanoTime() - start);
+    }
+
+    /**
+     * The image of a rendered slide
+     */
+    public static final class RenderedSlide {
+        private final int slideIndex;
+        private final BufferedImage image;
+        private final long renderNanos;
+
+        RenderedSlide(int slideIndex, BufferedImage image, long renderNanos) {
+            this.slideIndex = slideIndex;
+            this.image = image;
+            this.renderNanos = renderNanos;
+        }
+
+        /**
+         * @return the 0-based index of the slide
+         */
+        public int getSlideIndex() {
+            return slideIndex;
+        }
+
+        /**
+         * @return the rendered image
+         */
+        public BufferedImage getImage() {
+            return image;
+        }
+
+        /**
+         * @return the time spent to render the slide in nanoseconds
+         */
+        public long getRenderNanos() {
+            return renderNanos;
+        }
+    }
+}
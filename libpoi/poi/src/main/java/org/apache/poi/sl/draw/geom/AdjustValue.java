@@ -30,6 +30,10 @@ public class AdjustValue extends Guide {
         super(gd.getName(), gd.getFmla());
     }
 
+    public AdjustValue(String nm, String fm) {
+        super(nm, fm);
+    }
+
     @Override
     public double evaluate(Context ctx){
         String name = getName();
@@ -51,6 +51,13 @@ public class ArcToCommand implements PathCommand {
         swAng = arc.getSwAng();
     }
 
+    ArcToCommand(String wr, String hr, String stAng, String swAng){
+        this.wr = wr;
+        this.hr = hr;
+        this.stAng = stAng;
+        this.swAng = swAng;
+    }
+
     @Override
     public void execute(Path2D.Double path, Context ctx){
         double rx = ctx.getValue(wr);
@@ -38,6 +38,15 @@ public class CurveToCommand implements PathCommand {
         arg6 = pt3.getY();
     }
 
+    CurveToCommand(String s1, String s2, String s3, String s4, String s5, String s6){
+        arg1 = s1;
+        arg2 = s2;
+        arg3 = s3;
+        arg4 = s4;
+        arg5 = s5;
+        arg6 = s6;
+    }
+
     @Override
     public void execute(Path2D.Double path, Context ctx){
         double x1 = ctx.getValue(arg1);
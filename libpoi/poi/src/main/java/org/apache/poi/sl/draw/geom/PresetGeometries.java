@@ -20,24 +20,28 @@
 package org.apache.poi.sl.draw.geom;
 
 
-import android.util.Log;
-
-import com.alibaba.fastjson.JSON;
-
-import com.alibaba.fastjson.TypeReference;
 import com.android.compaty.util.ContextUtil;
-import com.google.gson.Gson;
 
 import org.apache.poi.R;
 import org.apache.poi.sl.draw.binding.CTCustomGeometry2D;
+import org.apache.poi.sl.usermodel.PaintStyle.PaintModifier;
+import org.apache.poi.util.IOUtils;
+import org.apache.poi.util.LittleEndianByteArrayInputStream;
 import org.apache.poi.util.POILogFactory;
 import org.apache.poi.util.POILogger;
+import org.apache.poi.util.StringUtil;
 
-import java.io.BufferedReader;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
@@ -46,12 +50,28 @@ import javax.xml.bind.Unmarshaller;
 import javax.xml.stream.XMLStreamReader;
 
 /**
+ * The dictionary of the preset shape geometries.<p>
  *
+ * The geometries are read from a precompiled binary table (see {@code PresetGeometriesCompiler}),
+ * which is loaded on first access. Only the name index is decoded upfront, the geometry
+ * of a shape type is decoded on its first lookup. The instance is read-only and lookups
+ * don't need to lock.
  */
-public class PresetGeometries extends LinkedHashMap<String, CustomGeometry> {
+public class PresetGeometries extends AbstractMap<String, CustomGeometry> {
     private final static POILogger LOG = POILogFactory.getLogger(PresetGeometries.class);
     private final static String BINDING_PACKAGE = "org.apache.poi.sl.draw.binding";
 
+    /** "PGEO" - the signature of the binary preset table */
+    static final int SIGNATURE = 0x4F454750;
+    static final int VERSION = 1;
+
+    static final int CMD_CLOSE = 0;
+    static final int CMD_MOVE_TO = 1;
+    static final int CMD_LINE_TO = 2;
+    static final int CMD_ARC_TO = 3;
+    static final int CMD_QUAD_TO = 4;
+    static final int CMD_CURVE_TO = 5;
+
     private static class SingletonHelper {
         private static JAXBContext JAXB_CONTEXT;
         static {
@@ -64,44 +84,160 @@ public class PresetGeometries extends LinkedHashMap<String, CustomGeometry> {
     }
 
 
-    protected static PresetGeometries _inst;
+    protected static volatile PresetGeometries _inst;
 
-    protected PresetGeometries(){}
+    private final byte[] data;
+    private final String[] strings;
+    private final String[] names;
+    private final int[] offsets;
+    private final Map<String, Integer> index;
+    private final AtomicReferenceArray<CustomGeometry> geometries;
 
-    @SuppressWarnings("unused")
-    public void init(InputStream is) throws Exception {
-        BufferedReader reader = null;
-        try {
-            reader = new BufferedReader(new InputStreamReader(is));
-            StringBuilder builder = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                builder.append(line);
-            }
+    protected PresetGeometries(InputStream is) throws IOException {
+        data = IOUtils.toByteArray(is);
+        LittleEndianByteArrayInputStream leis = new LittleEndianByteArrayInputStream(data);
+        if (leis.readInt() != SIGNATURE || leis.readUShort() != VERSION) {
+            throw new IOException("Invalid or unsupported preset geometry table");
+        }
+
+        strings = new String[leis.readInt()];
+        for (int i=0; i<strings.length; i++) {
+            strings[i] = StringUtil.readCompressedUnicode(leis, leis.readUShort());
+        }
 
+        int count = leis.readInt();
+        names = new String[count];
+        offsets = new int[count];
+        Map<String, Integer> idx = new HashMap<>(count * 4 / 3 + 1);
+        for (int i=0; i<count; i++) {
+            names[i] = strings[leis.readUShort()];
+            offsets[i] = leis.readInt();
+            idx.put(names[i], i);
+        }
+        index = Collections.unmodifiableMap(idx);
+        geometries = new AtomicReferenceArray<>(count);
+    }
+
+    @Override
+    public CustomGeometry get(Object name) {
+        Integer i = index.get(name);
+        return (i == null) ? null : getGeometry(i);
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return index.containsKey(name);
+    }
+
+    @Override
+    public int size() {
+        return names.length;
+    }
 
+    @Override
+    public Set<String> keySet() {
+        // don't decode the geometries via the entry set
+        return index.keySet();
+    }
 
-            /*
-            * 此处在Android 10 Note3 设备上测试不通过,无法解析Json 数据导致,PPT 图片无法渲染造成画面白屏
-            *  具体log --->>>>> Accessing hidden method TypeReference getType()Ljava/lang/reflect/Type; (blacklist, linking, denied)
-            *  在Android 10 以下系统正常显示,在7.1， 9.0 系统下测试通过
-            * */
+    @Override
+    public Set<Entry<String, CustomGeometry>> entrySet() {
+        return new AbstractSet<Entry<String, CustomGeometry>>() {
+            @Override
+            public Iterator<Entry<String, CustomGeometry>> iterator() {
+                return new Iterator<Entry<String, CustomGeometry>>() {
+                    private int i;
 
-            putAll(JSON.parseObject(builder.toString(), new TypeReference<HashMap<String, CustomGeometry>>() {}.getType()));
-            //修改为Google Gson 解析后问题解决
-//            putAll(gson.fromJson(builder.toString(),new TypeToken<HashMap<String, CustomGeometry>>(){}.getType()));
+                    @Override
+                    public boolean hasNext() {
+                        return i < names.length;
+                    }
 
+                    @Override
+                    public Entry<String, CustomGeometry> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, CustomGeometry> e = new SimpleImmutableEntry<>(names[i], getGeometry(i));
+                        i++;
+                        return e;
+                    }
+                };
+            }
 
-        } catch (Exception e) {
-            throw e;
-        } finally {
-            if (reader != null) {
-                reader.close();
+            @Override
+            public int size() {
+                return names.length;
             }
+        };
+    }
+
+    private CustomGeometry getGeometry(int i) {
+        CustomGeometry geom = geometries.get(i);
+        if (geom == null) {
+            // concurrent decoders may race - the first one wins
+            geometries.compareAndSet(i, null, readGeometry(offsets[i]));
+            geom = geometries.get(i);
         }
+        return geom;
     }
 
+    private CustomGeometry readGeometry(int offset) {
+        LittleEndianByteArrayInputStream leis = new LittleEndianByteArrayInputStream(data, offset);
+        CustomGeometry geom = new CustomGeometry();
+        for (int i = leis.readUShort(); i > 0; i--) {
+            geom.adjusts.add(new AdjustValue(readString(leis), readString(leis)));
+        }
+        for (int i = leis.readUShort(); i > 0; i--) {
+            geom.guides.add(new Guide(readString(leis), readString(leis)));
+        }
+        for (int i = leis.readUShort(); i > 0; i--) {
+            geom.paths.add(readPath(leis));
+        }
+        if (leis.readUByte() != 0) {
+            geom.textBounds = readPath(leis);
+        }
+        return geom;
+    }
 
+    private Path readPath(LittleEndianByteArrayInputStream leis) {
+        Path path = new Path();
+        path.setFill(PaintModifier.values()[leis.readUByte()]);
+        path.setStroke(leis.readUByte() != 0);
+        path.setW(leis.readLong());
+        path.setH(leis.readLong());
+        for (int i = leis.readUShort(); i > 0; i--) {
+            int type = leis.readUByte();
+            switch (type) {
+                case CMD_CLOSE:
+                    path.addCommand(new ClosePathCommand());
+                    break;
+                case CMD_MOVE_TO:
+                    path.addCommand(new MoveToCommand(readString(leis), readString(leis)));
+                    break;
+                case CMD_LINE_TO:
+                    path.addCommand(new LineToCommand(readString(leis), readString(leis)));
+                    break;
+                case CMD_ARC_TO:
+                    path.addCommand(new ArcToCommand(readString(leis), readString(leis), readString(leis), readString(leis)));
+                    break;
+                case CMD_QUAD_TO:
+                    path.addCommand(new QuadToCommand(readString(leis), readString(leis), readString(leis), readString(leis)));
+                    break;
+                case CMD_CURVE_TO:
+                    path.addCommand(new CurveToCommand(readString(leis), readString(leis), readString(leis),
+                        readString(leis), readString(leis), readString(leis)));
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported path command: " + type);
+            }
+        }
+        return path;
+    }
+
+    private String readString(LittleEndianByteArrayInputStream leis) {
+        return strings[leis.readUShort()];
+    }
 
 
     /**
@@ -119,20 +255,22 @@ public class PresetGeometries extends LinkedHashMap<String, CustomGeometry> {
         }
     }
 
-    public static synchronized PresetGeometries getInstance(){
-        if (_inst == null) {
-            // use a local object first to not assign a partly constructed object
-            // in case of failure
-            PresetGeometries lInst = new PresetGeometries();
-            try {
+    public static PresetGeometries getInstance(){
+        PresetGeometries inst = _inst;
+        if (inst != null) {
+            return inst;
+        }
+        synchronized (PresetGeometries.class) {
+            if (_inst == null) {
+                // use a local object first to not assign a partly constructed object
+                // in case of failure
                 try (InputStream is = ContextUtil.getContext().getResources().openRawResource(R.raw.preset_shape_definitions)) {
-                    lInst.init(is);
+                    _inst = new PresetGeometries(is);
+                } catch (IOException e){
+                    throw new RuntimeException(e);
                 }
-            } catch (Exception e){
-                throw new RuntimeException(e);
             }
-            _inst = lInst;
+            return _inst;
         }
-        return _inst;
     }
 }
@@ -36,6 +36,13 @@ public class QuadToCommand implements PathCommand {
         arg4 = pt2.getY();
     }
 
+    QuadToCommand(String s1, String s2, String s3, String s4){
+        arg1 = s1;
+        arg2 = s2;
+        arg3 = s3;
+        arg4 = s4;
+    }
+
     @Override
     public void execute(Path2D.Double path, Context ctx){
         double x1 = ctx.getValue(arg1);
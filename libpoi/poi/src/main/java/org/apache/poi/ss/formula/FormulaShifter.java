@@ -31,6 +31,7 @@ import org.apache.poi.ss.formula.ptg.Ref3DPxg;
 import org.apache.poi.ss.formula.ptg.RefErrorPtg;
 import org.apache.poi.ss.formula.ptg.RefPtg;
 import org.apache.poi.ss.formula.ptg.RefPtgBase;
+import org.apache.poi.util.Internal;
 
 
 /**
@@ -138,6 +139,26 @@ public final class FormulaShifter {
         return new FormulaShifter(srcSheetIndex, dstSheetIndex);
     }
 
+    /**
+     * Returns the lowest row, which can be affected by a row move. References which lie
+     * completely above that row are never changed by {@link #adjustFormula(Ptg[], int)},
+     * so callers can skip parsing formulas which only refer to those rows.
+     *
+     * @return the lowest affected row index, or -1 if this shifter doesn't move rows
+     */
+    @Internal
+    public int getFirstAffectedRow() {
+        return (_mode == ShiftMode.RowMove) ? Math.min(_firstMovedIndex, _firstMovedIndex + _amountToMove) : -1;
+    }
+
+    /**
+     * @return the name of the sheet where the moving is occurring, or {@code null} for sheet moves
+     */
+    @Internal
+    public String getSheetName() {
+        return _sheetName;
+    }
+
     @Override
     public String toString() {
         return getClass().getName() +
@@ -0,0 +1,549 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.usermodel;
+
+import java.math.BigDecimal;
+import java.text.DecimalFormatSymbols;
+import java.text.FieldPosition;
+import java.text.Format;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.poi.ss.format.CellFormat;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.util.Beta;
+import org.apache.poi.util.LocaleUtil;
+import org.apache.poi.util.POILogFactory;
+import org.apache.poi.util.POILogger;
+
+/**
+ * A thread-safe variant of {@link DataFormatter}, which can be shared by parallel readers.<p>
+ *
+ * Each combination of format index, format string and locale is compiled once and kept in a
+ * bounded concurrent cache. As {@link Format} instances aren't thread-safe, a compiled format
+ * pools its instances, so the pool grows to the number of threads, which use the format at the
+ * same time, instead of re-running the format string cleanup per thread or per call. The values
+ * are appended to a caller-supplied {@link StringBuilder}, and the General format appends
+ * integers without going through {@link Format} at all.<p>
+ *
+ * In contrast to {@link DataFormatter}, custom formats can't be registered and conditional
+ * formatting rules aren't evaluated. The formatted values are the same otherwise.
+ */
+@Beta
+public final class ConcurrentDataFormatter {
+    /** the default maximum number of compiled formats */
+    public static final int DEFAULT_MAX_FORMATS = 1000;
+
+    private static final POILogger LOG = POILogFactory.getLogger(ConcurrentDataFormatter.class);
+
+    /** the fixed locale or {@code null}, if the locale follows {@link LocaleUtil#getUserLocale()} */
+    private final Locale locale;
+    private final boolean emulateCSV;
+    private final int maxFormats;
+
+    private final ConcurrentHashMap<FormatKey, CompiledFormat> formats = new ConcurrentHashMap<>();
+    /** the DataFormatters, which compile the format strings, one per locale */
+    private final ConcurrentHashMap<Locale, DataFormatter> compilers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Locale, FormatPool> defaultDateFormats = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a formatter, which follows the {@link LocaleUtil#getUserLocale() user locale}
+     */
+    public ConcurrentDataFormatter() {
+        this(null, false, DEFAULT_MAX_FORMATS);
+    }
+
+    /**
+     * Creates a formatter using the given locale
+     */
+    public ConcurrentDataFormatter(Locale locale) {
+        this(locale, false, DEFAULT_MAX_FORMATS);
+    }
+
+    /**
+     * Creates a formatter using the given locale
+     *
+     * @param locale the locale or {@code null} to follow the {@link LocaleUtil#getUserLocale() user locale}
+     * @param emulateCSV whether to emulate CSV output
+     * @param maxFormats the maximum number of compiled formats to cache
+     */
+    public ConcurrentDataFormatter(Locale locale, boolean emulateCSV, int maxFormats) {
+        if (maxFormats < 1) {
+            throw new IllegalArgumentException("maxFormats must be positive");
+        }
+        this.locale = locale;
+        this.emulateCSV = emulateCSV;
+        this.maxFormats = maxFormats;
+    }
+
+    /**
+     * Returns the formatted value of a cell as a String - see {@link DataFormatter#formatCellValue(Cell)}
+     *
+     * @param cell The cell (can be null)
+     * @return the formatted cell value as a String
+     */
+    public String formatCellValue(Cell cell) {
+        return formatCellValue(cell, null);
+    }
+
+    /**
+     * Returns the formatted value of a cell as a String - see {@link DataFormatter#formatCellValue(Cell, FormulaEvaluator)}
+     *
+     * @param cell The cell (can be null)
+     * @param evaluator The FormulaEvaluator (can be null)
+     * @return the formatted cell value as a String
+     */
+    public String formatCellValue(Cell cell, FormulaEvaluator evaluator) {
+        StringBuilder sb = new StringBuilder();
+        formatCellValue(cell, evaluator, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the formatted value of a cell - see {@link DataFormatter#formatCellValue(Cell, FormulaEvaluator)}
+     *
+     * @param cell The cell (can be null)
+     * @param evaluator The FormulaEvaluator (can be null), which needs to be confined to the calling thread
+     * @param out the builder to append to
+     */
+    public void formatCellValue(Cell cell, FormulaEvaluator evaluator, StringBuilder out) {
+        if (cell == null) {
+            return;
+        }
+
+        CellType cellType = cell.getCellType();
+        if (cellType == CellType.FORMULA) {
+            if (evaluator == null) {
+                out.append(cell.getCellFormula());
+                return;
+            }
+            cellType = evaluator.evaluateFormulaCell(cell);
+        }
+
+        switch (cellType) {
+            case NUMERIC:
+                formatNumericCell(cell, out);
+                break;
+            case STRING:
+                out.append(cell.getRichStringCellValue().getString());
+                break;
+            case BOOLEAN:
+                out.append(cell.getBooleanCellValue() ? "TRUE" : "FALSE");
+                break;
+            case BLANK:
+                break;
+            case ERROR:
+                out.append(FormulaError.forInt(cell.getErrorCellValue()).getString());
+                break;
+            default:
+                throw new RuntimeException("Unexpected celltype (" + cellType + ")");
+        }
+    }
+
+    /**
+     * Formats the given raw cell value - see {@link DataFormatter#formatRawCellContents(double, int, String)}
+     */
+    public String formatRawCellContents(double value, int formatIndex, String formatString) {
+        StringBuilder sb = new StringBuilder();
+        formatRawCellContents(value, formatIndex, formatString, false, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the formatted raw cell value - see {@link DataFormatter#formatRawCellContents(double, int, String, boolean)}
+     *
+     * @param out the builder to append to
+     */
+    public void formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing, StringBuilder out) {
+        final Locale loc = getLocale();
+
+        // Is it a date?
+        if (DateUtil.isADateFormat(formatIndex, formatString)) {
+            if (DateUtil.isValidExcelDate(value)) {
+                CompiledFormat cf = getCompiledFormat(formatIndex, formatString, loc);
+                Date d = DateUtil.getJavaDate(value, use1904Windowing);
+                if (!cf.formatMultiPart(value, formatIndex, formatString, use1904Windowing, out)) {
+                    FormatPool pool = cf.getPool(value);
+                    formatDate(pool.isEmpty() ? getDefaultDateFormats(loc) : pool, value, d, out);
+                }
+                return;
+            }
+            // RK: Invalid dates are 255 #s.
+            if (emulateCSV) {
+                out.append(DataFormatter.invalidDateTimeString);
+                return;
+            }
+        }
+
+        final int start = out.length();
+        if (formatString == null || formatString.trim().isEmpty()) {
+            out.append(value);
+            return;
+        }
+
+        CompiledFormat cf = getCompiledFormat(formatIndex, formatString, loc);
+        if (!cf.formatMultiPart(value, formatIndex, formatString, use1904Windowing, out)) {
+            FormatPool pool = cf.getPool(value);
+            if (pool.isEmpty()) {
+                out.append(value);
+                return;
+            }
+            if (cf.appendGeneralInteger(pool, value, out)) {
+                return;
+            }
+
+            // see DataFormatter: double to text to BigDecimal is more accurate, unless it's in E notation
+            final String textValue = NumberToTextConverter.toText(value);
+            Object number = (textValue.indexOf('E') > -1) ? Double.valueOf(value) : new BigDecimal(textValue);
+            format(pool, number, out);
+        }
+
+        // Complete scientific notation by adding the missing +.
+        int e = out.indexOf("E", start);
+        if (e > -1 && out.indexOf("E-", start) == -1) {
+            out.insert(e + 1, '+');
+        }
+    }
+
+    private void formatNumericCell(Cell cell, StringBuilder out) {
+        final double value = cell.getNumericCellValue();
+        final boolean use1904 = cell.getSheet().getWorkbook() instanceof Date1904Support
+            && ((Date1904Support)cell.getSheet().getWorkbook()).isDate1904();
+        final boolean isDate = DateUtil.isCellDateFormatted(cell);
+        final Locale loc = getLocale();
+
+        ExcelNumberFormat numFmt = ExcelNumberFormat.from(cell, null);
+        String formatStr = (numFmt == null) ? null : numFmt.getFormat();
+        CompiledFormat cf = (formatStr == null || formatStr.trim().isEmpty())
+            ? null : getCompiledFormat(numFmt.getIdx(), formatStr, loc);
+
+        if (isDate) {
+            if (cf == null || !cf.formatMultiPart(value, numFmt.getIdx(), formatStr, use1904, out)) {
+                FormatPool pool = (cf == null) ? null : cf.getPool(value);
+                if (pool == null || pool.isEmpty()) {
+                    pool = getDefaultDateFormats(loc);
+                }
+                formatDate(pool, value, cell.getDateCellValue(), out);
+            }
+            return;
+        }
+
+        final int start = out.length();
+        if (cf == null || !cf.formatMultiPart(value, numFmt.getIdx(), formatStr, use1904, out)) {
+            FormatPool pool = (cf == null) ? null : cf.getPool(value);
+            if (pool == null || pool.isEmpty()) {
+                out.append(value);
+                return;
+            }
+            if (cf.appendGeneralInteger(pool, value, out)) {
+                return;
+            }
+            format(pool, Double.valueOf(value), out);
+        }
+
+        // to match Excel's E-notation
+        int e = out.indexOf("E", start);
+        if (e > -1 && e + 1 < out.length() && Character.isDigit(out.charAt(e + 1))) {
+            out.insert(e + 1, '+');
+        }
+    }
+
+    private void formatDate(FormatPool pool, double value, Date date, StringBuilder out) {
+        PooledFormat pf = pool.borrow();
+        try {
+            if (pf.format instanceof ExcelStyleDateFormatter) {
+                // Hint about the raw excel value
+                ((ExcelStyleDateFormatter)pf.format).setDateToBeFormatted(value);
+            }
+            pf.appendTo(date, out);
+        } finally {
+            pool.release(pf);
+        }
+    }
+
+    private void format(FormatPool pool, Object value, StringBuilder out) {
+        PooledFormat pf = pool.borrow();
+        try {
+            pf.appendTo(value, out);
+        } finally {
+            pool.release(pf);
+        }
+    }
+
+    private Locale getLocale() {
+        return (locale != null) ? locale : LocaleUtil.getUserLocale();
+    }
+
+    private CompiledFormat getCompiledFormat(int formatIndex, String formatString, Locale loc) {
+        FormatKey key = new FormatKey(formatIndex, formatString, loc);
+        CompiledFormat cf = formats.get(key);
+        if (cf == null) {
+            CompiledFormat newCf = new CompiledFormat(key);
+            cf = formats.putIfAbsent(key, newCf);
+            if (cf == null) {
+                cf = newCf;
+                evict();
+            }
+        }
+        return cf;
+    }
+
+    /**
+     * Drops formats, once there are more than the maximum. The dropped formats
+     * are arbitrary, which is fine for the usual small set of formats per workbook.
+     */
+    private void evict() {
+        if (formats.size() <= maxFormats) {
+            return;
+        }
+        int target = maxFormats - Math.max(1, maxFormats / 4);
+        for (Iterator<FormatKey> iter = formats.keySet().iterator(); iter.hasNext() && formats.size() > target; ) {
+            iter.next();
+            iter.remove();
+        }
+    }
+
+    private FormatPool getDefaultDateFormats(Locale loc) {
+        FormatPool pool = defaultDateFormats.get(loc);
+        if (pool == null) {
+            FormatPool newPool = new FormatPool(loc, 0, -1, null);
+            pool = defaultDateFormats.putIfAbsent(loc, newPool);
+            if (pool == null) {
+                pool = newPool;
+            }
+        }
+        return pool;
+    }
+
+    private DataFormatter getCompiler(Locale loc) {
+        DataFormatter compiler = compilers.get(loc);
+        if (compiler == null) {
+            DataFormatter newCompiler = new DataFormatter(loc, emulateCSV);
+            compiler = compilers.putIfAbsent(loc, newCompiler);
+            if (compiler == null) {
+                compiler = newCompiler;
+            }
+        }
+        return compiler;
+    }
+
+    private static final class FormatKey {
+        private final int formatIndex;
+        private final String formatString;
+        private final Locale locale;
+
+        FormatKey(int formatIndex, String formatString, Locale locale) {
+            this.formatIndex = formatIndex;
+            this.formatString = formatString;
+            this.locale = locale;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FormatKey)) {
+                return false;
+            }
+            FormatKey other = (FormatKey)o;
+            return formatIndex == other.formatIndex
+                && formatString.equals(other.formatString)
+                && locale.equals(other.locale);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * formatIndex + formatString.hashCode()) * 31 + locale.hashCode();
+        }
+    }
+
+    /**
+     * The compiled variants of a format string, as the format used by {@link DataFormatter}
+     * depends on the value in some cases
+     */
+    private final class CompiledFormat {
+        /** the formatter of conditional and 3+ part formats or {@code null} */
+        private final CellFormat multiPart;
+        /** the format of regular values and valid dates */
+        private final FormatPool valueFormats;
+        /** the format of date formats for values, which aren't valid dates, or {@code null} */
+        private final FormatPool invalidDateFormats;
+        /** the format for zero values, when emulating CSV, or {@code null} */
+        private final FormatPool zeroFormats;
+        /** the General format can be appended directly for integers */
+        private final boolean plainGeneral;
+
+        CompiledFormat(FormatKey key) {
+            final String formatStr = key.formatString;
+            final int formatIndex = key.formatIndex;
+
+            CellFormat cfmt = null;
+            if (DataFormatter.isMultiPartFormat(formatStr)) {
+                try {
+                    cfmt = CellFormat.getInstance(key.locale, formatStr);
+                } catch (Exception e) {
+                    LOG.log(POILogger.WARN, "Formatting failed for format " + formatStr + ", falling back", e);
+                }
+            }
+            multiPart = cfmt;
+
+            // a valid date, so date formats are compiled as such
+            valueFormats = new FormatPool(key.locale, 1, formatIndex, formatStr);
+            invalidDateFormats = DateUtil.isADateFormat(formatIndex, formatStr)
+                ? new FormatPool(key.locale, -1, formatIndex, formatStr) : null;
+            zeroFormats = (emulateCSV && formatStr.contains("#") && !formatStr.contains("0"))
+                ? new FormatPool(key.locale, 0, formatIndex, formatStr.replaceAll("#", "")) : null;
+
+            boolean general = "General".equalsIgnoreCase(formatStr) || "@".equals(formatStr);
+            if (general) {
+                DecimalFormatSymbols dfs = DecimalFormatSymbols.getInstance(key.locale);
+                general = dfs.getZeroDigit() == '0' && dfs.getMinusSign() == '-';
+            }
+            plainGeneral = general;
+        }
+
+        FormatPool getPool(double value) {
+            if (zeroFormats != null && value == 0.0) {
+                return zeroFormats;
+            }
+            if (invalidDateFormats != null && !DateUtil.isValidExcelDate(value)) {
+                return invalidDateFormats;
+            }
+            return valueFormats;
+        }
+
+        /**
+         * Formats conditional and 3+ part formats via {@link CellFormat}, like DataFormatter does
+         *
+         * @return {@code false}, if the format isn't handled by CellFormat
+         */
+        boolean formatMultiPart(double value, int formatIndex, String formatStr, boolean use1904Windowing, StringBuilder out) {
+            if (multiPart == null) {
+                return false;
+            }
+            try {
+                Object cellValue = Double.valueOf(value);
+                // don't try to handle Date value 0, let a 3 or 4-part format take care of it
+                if (DateUtil.isADateFormat(formatIndex, formatStr) && value != 0.0) {
+                    cellValue = DateUtil.getJavaDate(value, use1904Windowing);
+                }
+                out.append(multiPart.apply(cellValue).text);
+                return true;
+            } catch (Exception e) {
+                LOG.log(POILogger.WARN, "Formatting failed for format " + formatStr + ", falling back", e);
+                return false;
+            }
+        }
+
+        /**
+         * Appends integers in General format, which {@link ExcelGeneralNumberFormat} formats
+         * with the plain "#" pattern
+         *
+         * @return {@code false}, if the value needs to be formatted
+         */
+        boolean appendGeneralInteger(FormatPool pool, double value, StringBuilder out) {
+            if (!plainGeneral || pool != valueFormats || Math.floor(value) != value || Math.abs(value) >= 1E10) {
+                return false;
+            }
+            if (value == 0.0 && Double.doubleToRawLongBits(value) != 0) {
+                // negative zero
+                return false;
+            }
+            out.append((long)value);
+            return true;
+        }
+    }
+
+    /**
+     * The instances of a compiled format, which are currently not in use
+     */
+    private final class FormatPool {
+        private final Locale locale;
+        private final double cellValue;
+        private final int formatIndex;
+        /** the format string or {@code null} for the default date format */
+        private final String formatStr;
+        private final ConcurrentLinkedQueue<PooledFormat> idle = new ConcurrentLinkedQueue<>();
+        /** the format string isn't supported, i.e. the value is formatted without a format */
+        private volatile boolean empty;
+
+        FormatPool(Locale locale, double cellValue, int formatIndex, String formatStr) {
+            this.locale = locale;
+            this.cellValue = cellValue;
+            this.formatIndex = formatIndex;
+            this.formatStr = formatStr;
+        }
+
+        boolean isEmpty() {
+            if (!empty && idle.isEmpty()) {
+                // compile once to find out
+                PooledFormat pf = create();
+                if (pf != null) {
+                    idle.offer(pf);
+                }
+            }
+            return empty;
+        }
+
+        PooledFormat borrow() {
+            PooledFormat pf = idle.poll();
+            return (pf != null) ? pf : create();
+        }
+
+        void release(PooledFormat pf) {
+            idle.offer(pf);
+        }
+
+        private PooledFormat create() {
+            DataFormatter compiler = getCompiler(locale);
+            final Format format;
+            synchronized (compiler) {
+                format = (formatStr == null)
+                    ? compiler.newDefaultDateFormat()
+                    : compiler.newFormat(cellValue, formatIndex, formatStr);
+            }
+            if (format == null) {
+                empty = true;
+                return null;
+            }
+            return new PooledFormat(format);
+        }
+    }
+
+    /**
+     * A format instance with its scratch buffer, which is used by one thread at a time
+     */
+    private static final class PooledFormat {
+        private final Format format;
+        private final StringBuffer buffer = new StringBuffer(32);
+        private final FieldPosition pos = new FieldPosition(0);
+
+        PooledFormat(Format format) {
+            this.format = format;
+        }
+
+        void appendTo(Object value, StringBuilder out) {
+            buffer.setLength(0);
+            pos.setBeginIndex(0);
+            pos.setEndIndex(0);
+            // some formats return a new buffer instead of appending
+            out.append(format.format(value, buffer, pos));
+        }
+    }
+}
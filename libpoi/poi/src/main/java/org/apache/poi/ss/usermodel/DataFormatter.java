@@ -170,7 +170,7 @@ public class DataFormatter implements Observer {
       * Cells formatted with a date or time format and which contain invalid date or time values
      *  show 255 pound signs ("#").
       */
-     private static final String invalidDateTimeString;
+     static final String invalidDateTimeString;
      static {
          StringBuilder buf = new StringBuilder();
          for(int i = 0; i < 255; i++) buf.append('#');
@@ -334,10 +334,7 @@ public class DataFormatter implements Observer {
         //  handle these ourselves in a special way.
         // For now, if we detect 2+ parts, we call out to CellFormat to handle it
         // TODO Going forward, we should really merge the logic between the two classes
-        if (formatStr.contains(";") &&
-                (formatStr.indexOf(';') != formatStr.lastIndexOf(';')
-                 || rangeConditionalPattern.matcher(formatStr).matches()
-                ) ) {
+        if (isMultiPartFormat(formatStr)) {
             try {
                 // Ask CellFormat to get a formatter for it
                 CellFormat cfmt = CellFormat.getInstance(locale, formatStr);
@@ -377,6 +374,39 @@ public class DataFormatter implements Observer {
         return format;
     }
 
+    /**
+     * @return {@code true}, if the format string has conditional or more than two parts,
+     *  which are handled by {@link CellFormat}
+     */
+    static boolean isMultiPartFormat(String formatStr) {
+        return formatStr.contains(";") &&
+                (formatStr.indexOf(';') != formatStr.lastIndexOf(';')
+                 || rangeConditionalPattern.matcher(formatStr).matches()
+                );
+    }
+
+    /**
+     * Creates an unshared format for a single-part format string, for formatters which
+     * cache and pool the formats themselves. The built-in formats are returned as-is,
+     * as they are thread-safe.
+     *
+     * @return the format or {@code null}, if the format string isn't supported
+     */
+    Format newFormat(double cellValue, int formatIndex, String formatStr) {
+        Format format = formats.get(formatStr);
+        if (format == null) {
+            format = createFormat(cellValue, formatIndex, formatStr);
+        }
+        return (format == generalNumberFormat) ? new ExcelGeneralNumberFormat(locale) : format;
+    }
+
+    /**
+     * @return an unshared copy of the default date format
+     */
+    Format newDefaultDateFormat() {
+        return (Format)defaultDateformat.clone();
+    }
+
     /**
      * Create and return a Format based on the format string from a  cell's
      * style. If the pattern cannot be parsed, return a default pattern.
@@ -1177,7 +1207,11 @@ public class DataFormatter implements Observer {
 
         /** Format a number as an SSN */
         public static String format(Number num) {
-            String result = df.format(num);
+            final String result;
+            // the format is shared by all formatters
+            synchronized (df) {
+                result = df.format(num);
+            }
             return result.substring(0, 3) + '-' +
                     result.substring(3, 5) + '-' +
                     result.substring(5, 9);
@@ -1209,7 +1243,11 @@ public class DataFormatter implements Observer {
 
         /** Format a number as Zip + 4 */
         public static String format(Number num) {
-            String result = df.format(num);
+            final String result;
+            // the format is shared by all formatters
+            synchronized (df) {
+                result = df.format(num);
+            }
             return result.substring(0, 5) + '-' +
                     result.substring(5, 9);
         }
@@ -1240,7 +1278,11 @@ public class DataFormatter implements Observer {
 
         /** Format a number as a phone number */
         public static String format(Number num) {
-            String result = df.format(num);
+            final String result;
+            // the format is shared by all formatters
+            synchronized (df) {
+                result = df.format(num);
+            }
             StringBuilder sb = new StringBuilder();
             String seg1, seg2, seg3;
             int len = result.length();
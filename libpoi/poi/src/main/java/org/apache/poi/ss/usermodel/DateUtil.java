@@ -393,7 +393,9 @@ public class DateUtil {
     private static ThreadLocal<Boolean> lastCachedResult = new ThreadLocal<>();
 
     private static boolean isCached(String formatString, int formatIndex) {
-        return formatIndex == lastFormatIndex.get()
+        // the thread local isn't initialized on other threads than the one which loaded the class
+        Integer lastIndex = lastFormatIndex.get();
+        return lastIndex != null && formatIndex == lastIndex
                 && formatString.equals(lastFormatString.get());
     }
 
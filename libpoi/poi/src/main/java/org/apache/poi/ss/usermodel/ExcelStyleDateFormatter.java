@@ -86,6 +86,15 @@ public class ExcelStyleDateFormatter extends SimpleDateFormat {
         super(processFormatPattern(pattern), locale);
     }
 
+    /**
+     * Formats with one of the shared digit formats, which may be used by several threads
+     */
+    private static String formatDigits(DecimalFormat df, double value) {
+        synchronized (df) {
+            return df.format(value);
+        }
+    }
+
     /**
      * Takes a format String, and replaces Excel specific bits
      * with our detection sequences
@@ -134,11 +143,11 @@ public class ExcelStyleDateFormatter extends SimpleDateFormat {
 
             s = s.replaceAll(
                     String.valueOf(H_BRACKET_SYMBOL),
-                    format1digit.format(hours)
+                    formatDigits(format1digit, hours)
             );
             s = s.replaceAll(
                     String.valueOf(HH_BRACKET_SYMBOL),
-                    format2digits.format(hours)
+                    formatDigits(format2digits, hours)
             );
         }
 
@@ -147,11 +156,11 @@ public class ExcelStyleDateFormatter extends SimpleDateFormat {
             float minutes = (float) dateToBeFormatted * 24 * 60;
             s = s.replaceAll(
                     String.valueOf(M_BRACKET_SYMBOL),
-                    format1digit.format(minutes)
+                    formatDigits(format1digit, minutes)
             );
             s = s.replaceAll(
                     String.valueOf(MM_BRACKET_SYMBOL),
-                    format2digits.format(minutes)
+                    formatDigits(format2digits, minutes)
             );
         }
         if (s.indexOf(S_BRACKET_SYMBOL) != -1 ||
@@ -159,11 +168,11 @@ public class ExcelStyleDateFormatter extends SimpleDateFormat {
             float seconds = (float) (dateToBeFormatted * 24 * 60 * 60);
             s = s.replaceAll(
                     String.valueOf(S_BRACKET_SYMBOL),
-                    format1digit.format(seconds)
+                    formatDigits(format1digit, seconds)
             );
             s = s.replaceAll(
                     String.valueOf(SS_BRACKET_SYMBOL),
-                    format2digits.format(seconds)
+                    formatDigits(format2digits, seconds)
             );
         }
 
@@ -173,11 +182,11 @@ public class ExcelStyleDateFormatter extends SimpleDateFormat {
             float millis = (millisTemp - (int) millisTemp);
             s = s.replaceAll(
                     String.valueOf(L_BRACKET_SYMBOL),
-                    format3digit.format(millis * 10.0)
+                    formatDigits(format3digit, millis * 10.0)
             );
             s = s.replaceAll(
                     String.valueOf(LL_BRACKET_SYMBOL),
-                    format4digits.format(millis * 100.0)
+                    formatDigits(format4digits, millis * 100.0)
             );
         }
 
@@ -22,10 +22,12 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.formula.udf.UDFFinder;
 import org.apache.poi.ss.usermodel.Row.MissingCellPolicy;
+import org.apache.poi.ss.util.CellUtil;
 import org.apache.poi.util.Removal;
 
 /**
@@ -320,6 +322,26 @@ public interface Workbook extends Closeable, Iterable<Sheet> {
      */
     CellStyle getCellStyleAt(int idx);
 
+    /**
+     * Finds the first cell style, whose format properties are equal to the given ones.
+     * The default implementation compares each cell style of the workbook.
+     *
+     * @param properties the complete format properties, as returned by {@link CellUtil#getFormatProperties(CellStyle)}
+     * @return the matching cell style or <code>null</code>
+     *
+     * @see CellUtil#getOrCreateCellStyle(Workbook, Map)
+     */
+    default CellStyle findCellStyle(Map<String, Object> properties) {
+        int numberCellStyles = getNumCellStyles();
+        for (int i = 0; i < numberCellStyles; i++) {
+            CellStyle wbStyle = getCellStyleAt(i);
+            if (CellUtil.getFormatProperties(wbStyle).equals(properties)) {
+                return wbStyle;
+            }
+        }
+        return null;
+    }
+
     /**
      * Write out this workbook to an Outputstream.
      *
@@ -275,32 +275,40 @@ public final class CellUtil {
     public static void setCellStyleProperties(Cell cell, Map<String, Object> properties) {
         Workbook workbook = cell.getSheet().getWorkbook();
         CellStyle originalStyle = cell.getCellStyle();
-        CellStyle newStyle = null;
         Map<String, Object> values = getFormatProperties(originalStyle);
         putAll(properties, values);
 
-        // index seems like what index the cellstyle is in the list of styles for a workbook.
-        // not good to compare on!
-        int numberCellStyles = workbook.getNumCellStyles();
+        cell.setCellStyle(findOrCreateCellStyle(workbook, values));
+    }
 
-        for (int i = 0; i < numberCellStyles; i++) {
-            CellStyle wbStyle = workbook.getCellStyleAt(i);
-            Map<String, Object> wbStyleMap = getFormatProperties(wbStyle);
+    /**
+     * <p>Returns a CellStyle with the given format properties. An existing style of the workbook
+     * is reused if it matches, otherwise a new style is created.</p>
+     *
+     * <p>Properties which aren't specified are taken from the default cell style of the workbook,
+     * i.e. the style at index 0.</p>
+     *
+     * @param workbook The workbook to search and to add the style to
+     * @param properties The properties of the cell style, as {propertyName: propertyValue}.
+     * @return the existing or new cell style
+     * @see Workbook#findCellStyle(Map)
+     */
+    public static CellStyle getOrCreateCellStyle(Workbook workbook, Map<String, Object> properties) {
+        Map<String, Object> values = getFormatProperties(workbook.getCellStyleAt(0));
+        putAll(properties, values);
+        return findOrCreateCellStyle(workbook, values);
+    }
 
-            // the desired style already exists in the workbook. Use the existing style.
-            if (wbStyleMap.equals(values)) {
-                newStyle = wbStyle;
-                break;
-            }
-        }
+    private static CellStyle findOrCreateCellStyle(Workbook workbook, Map<String, Object> values) {
+        // the desired style already exists in the workbook. Use the existing style.
+        CellStyle style = workbook.findCellStyle(values);
 
         // the desired style does not exist in the workbook. Create a new style with desired properties.
-        if (newStyle == null) {
-            newStyle = workbook.createCellStyle();
-            setFormatProperties(newStyle, workbook, values);
+        if (style == null) {
+            style = workbook.createCellStyle();
+            setFormatProperties(style, workbook, values);
         }
-
-        cell.setCellStyle(newStyle);
+        return style;
     }
 
     /**
@@ -335,7 +343,7 @@ public final class CellUtil {
      * @return map of format properties (String -> Object)
      * @see #setFormatProperties(org.apache.poi.ss.usermodel.CellStyle, org.apache.poi.ss.usermodel.Workbook, Map)
      */
-    private static Map<String, Object> getFormatProperties(CellStyle style) {
+    public static Map<String, Object> getFormatProperties(CellStyle style) {
         Map<String, Object> properties = new HashMap<>();
         put(properties, ALIGNMENT, style.getAlignment());
         put(properties, VERTICAL_ALIGNMENT, style.getVerticalAlignment());
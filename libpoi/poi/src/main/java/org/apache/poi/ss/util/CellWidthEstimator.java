@@ -0,0 +1,403 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.ss.util;
+
+import android.graphics.Paint;
+import android.graphics.Typeface;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.util.Beta;
+
+/**
+ * Estimates the best-fit width of cells by summing cached character advance widths.<p>
+ *
+ * {@link SheetUtil#getCellWidth(Cell, int, DataFormatter, boolean)} lays out the text of each cell.
+ * This estimator measures the advance width of a character once per font and looks it up
+ * afterwards, so kerning and ligatures are ignored. In precise mode, texts which need shaping -
+ * e.g. Arabic or Indic scripts, combining marks or supplementary characters - are still measured
+ * as a whole.<p>
+ *
+ * The widths are returned in units of the default character width, like the ones of {@link SheetUtil}.
+ * An instance can be shared by multiple threads, e.g. to measure the columns of a sheet in parallel,
+ * as long as the workbook isn't modified at the same time.
+ */
+@Beta
+public class CellWidthEstimator {
+    private final Workbook workbook;
+    private final boolean precise;
+    private final ConcurrentHashMap<FontKey, GlyphWidths> fonts = new ConcurrentHashMap<>();
+    private final int defaultCharWidth;
+
+    /**
+     * Creates a precise estimator
+     *
+     * @param workbook the workbook of the cells to measure
+     */
+    public CellWidthEstimator(Workbook workbook) {
+        this(workbook, true);
+    }
+
+    /**
+     * @param workbook the workbook of the cells to measure
+     * @param precise if {@code true}, texts of complex scripts are measured as a whole,
+     *  otherwise all texts are measured via the cached character widths
+     */
+    public CellWidthEstimator(Workbook workbook, boolean precise) {
+        this.workbook = workbook;
+        this.precise = precise;
+        this.defaultCharWidth = (int)getGlyphWidths(workbook.getFontAt(0)).measure(String.valueOf(SheetUtil.defaultChar), false);
+    }
+
+    /**
+     * @return the width of the default character of the workbook, i.e. the unit of the estimated widths
+     */
+    public int getDefaultCharWidth() {
+        return defaultCharWidth;
+    }
+
+    /**
+     * Estimates the width of a single cell
+     *
+     * @param cell the cell whose width is to be calculated
+     * @param formatter formatter used to prepare the text to be measured
+     * @param useMergedCells whether to use merged cells
+     * @return the width in default character widths or -1 if the cell is empty
+     */
+    public double getCellWidth(Cell cell, DataFormatter formatter, boolean useMergedCells) {
+        return getCellWidth(cell, formatter, useMergedCells, cell.getSheet().getMergedRegions());
+    }
+
+    /**
+     * Estimates the width of a single cell, while the merged regions are looked up by the caller,
+     * e.g. once for all cells of a row
+     *
+     * @param cell the cell whose width is to be calculated
+     * @param formatter formatter used to prepare the text to be measured
+     * @param useMergedCells whether to use merged cells
+     * @param mergedRegions the merged regions of the sheet of the cell
+     * @return the width in default character widths or -1 if the cell is empty
+     */
+    public double getCellWidth(Cell cell, DataFormatter formatter, boolean useMergedCells, List<CellRangeAddress> mergedRegions) {
+        Row row = cell.getRow();
+        int column = cell.getColumnIndex();
+
+        int colspan = 1;
+        for (CellRangeAddress region : mergedRegions) {
+            if (region.isInRange(row.getRowNum(), column)) {
+                if (!useMergedCells) {
+                    return -1;
+                }
+                cell = row.getCell(region.getFirstColumn());
+                colspan = 1 + region.getLastColumn() - region.getFirstColumn();
+            }
+        }
+
+        CellStyle style = cell.getCellStyle();
+        CellType cellType = cell.getCellType();
+
+        // for formula cells we compute the cell width for the cached formula result
+        if (cellType == CellType.FORMULA) {
+            cellType = cell.getCachedFormulaResultType();
+        }
+
+        double width = -1;
+        if (cellType == CellType.STRING) {
+            GlyphWidths glyphs = getGlyphWidths(workbook.getFontAt(style.getFontIndexAsInt()));
+            for (String line : cell.getRichStringCellValue().getString().split("\\n")) {
+                width = getCellWidth(glyphs, colspan, style, width, line + SheetUtil.defaultChar);
+            }
+        } else {
+            String sval = null;
+            if (cellType == CellType.NUMERIC) {
+                // Try to get it formatted to look the same as excel
+                try {
+                    sval = formatter.formatCellValue(cell, SheetUtil.dummyEvaluator);
+                } catch (Exception e) {
+                    sval = String.valueOf(cell.getNumericCellValue());
+                }
+            } else if (cellType == CellType.BOOLEAN) {
+                sval = String.valueOf(cell.getBooleanCellValue()).toUpperCase(Locale.ROOT);
+            }
+            if (sval != null) {
+                GlyphWidths glyphs = getGlyphWidths(workbook.getFontAt(style.getFontIndexAsInt()));
+                width = getCellWidth(glyphs, colspan, style, width, sval + SheetUtil.defaultChar);
+            }
+        }
+        return width;
+    }
+
+    private double getCellWidth(GlyphWidths glyphs, int colspan, CellStyle style, double minWidth, String txt) {
+        double frameWidth = glyphs.measure(txt, precise);
+        if (style.getRotation() != 0) {
+            // the bounds of the rotated text, with the height scaled like in SheetUtil
+            double angle = Math.toRadians(style.getRotation());
+            frameWidth = Math.abs(frameWidth * Math.cos(angle))
+                + Math.abs(glyphs.lineHeight * SheetUtil.fontHeightMultiple * Math.sin(angle));
+        }
+        return Math.max(minWidth, ((frameWidth / colspan) / defaultCharWidth) + style.getIndention());
+    }
+
+    /**
+     * Estimates the width of a column based on a subset of the rows
+     *
+     * @param sheet the sheet to calculate
+     * @param column 0-based index of the column
+     * @param useMergedCells whether to use merged cells
+     * @param firstRow 0-based index of the first row to consider (inclusive)
+     * @param lastRow 0-based index of the last row to consider (inclusive)
+     * @return the width in default character widths or -1 if all cells are empty
+     */
+    public double getColumnWidth(Sheet sheet, int column, boolean useMergedCells, int firstRow, int lastRow) {
+        return getColumnWidth(sheet, column, useMergedCells, firstRow, lastRow, sheet.getMergedRegions(), new DataFormatter());
+    }
+
+    private double getColumnWidth(Sheet sheet, int column, boolean useMergedCells, int firstRow, int lastRow,
+            List<CellRangeAddress> mergedRegions, DataFormatter formatter) {
+        double width = -1;
+        for (int rowIdx = firstRow; rowIdx <= lastRow; ++rowIdx) {
+            Row row = sheet.getRow(rowIdx);
+            Cell cell = (row == null) ? null : row.getCell(column);
+            if (cell != null) {
+                width = Math.max(width, getCellWidth(cell, formatter, useMergedCells, mergedRegions));
+            }
+        }
+        return width;
+    }
+
+    /**
+     * Estimates the widths of several columns, one task per column
+     *
+     * @param sheet the sheet to calculate
+     * @param columns the 0-based indexes of the columns
+     * @param useMergedCells whether to use merged cells
+     * @param executor the executor to run the tasks, or {@code null} to measure in the calling thread
+     * @return the widths in default character widths, -1 for the columns with only empty cells
+     */
+    public double[] getColumnWidths(final Sheet sheet, final int[] columns, final boolean useMergedCells, ExecutorService executor) {
+        final int firstRow = sheet.getFirstRowNum();
+        final int lastRow = sheet.getLastRowNum();
+        final List<CellRangeAddress> mergedRegions = sheet.getMergedRegions();
+        final double[] widths = new double[columns.length];
+
+        if (executor == null) {
+            DataFormatter formatter = new DataFormatter();
+            for (int i = 0; i < columns.length; i++) {
+                widths[i] = getColumnWidth(sheet, columns[i], useMergedCells, firstRow, lastRow, mergedRegions, formatter);
+            }
+            return widths;
+        }
+
+        List<Future<Double>> futures = new ArrayList<>(columns.length);
+        for (final int column : columns) {
+            futures.add(executor.submit(new Callable<Double>() {
+                @Override
+                public Double call() {
+                    // the formatter isn't thread-safe
+                    return getColumnWidth(sheet, column, useMergedCells, firstRow, lastRow, mergedRegions, new DataFormatter());
+                }
+            }));
+        }
+
+        try {
+            for (int i = 0; i < columns.length; i++) {
+                widths[i] = futures.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while measuring the column widths", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+        return widths;
+    }
+
+    private GlyphWidths getGlyphWidths(Font font) {
+        FontKey key = new FontKey(font);
+        GlyphWidths glyphs = fonts.get(key);
+        if (glyphs == null) {
+            GlyphWidths newGlyphs = new GlyphWidths(key);
+            glyphs = fonts.putIfAbsent(key, newGlyphs);
+            if (glyphs == null) {
+                glyphs = newGlyphs;
+            }
+        }
+        return glyphs;
+    }
+
+    /**
+     * @return {@code true}, if the text contains characters, whose width depends on their neighbours
+     */
+    static boolean needsLayout(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char ch = text.charAt(i);
+            if (ch < 0x0300) {
+                // latin, up to the combining diacritical marks
+                continue;
+            }
+            if (Character.isSurrogate(ch)) {
+                return true;
+            }
+            switch (Character.getType(ch)) {
+                case Character.NON_SPACING_MARK:
+                case Character.ENCLOSING_MARK:
+                case Character.COMBINING_SPACING_MARK:
+                case Character.FORMAT:
+                    return true;
+                default:
+                    break;
+            }
+            switch (Character.getDirectionality(ch)) {
+                case Character.DIRECTIONALITY_RIGHT_TO_LEFT:
+                case Character.DIRECTIONALITY_RIGHT_TO_LEFT_ARABIC:
+                    return true;
+                default:
+                    break;
+            }
+            if ((ch >= 0x0900 && ch <= 0x109F) || (ch >= 0x1100 && ch <= 0x11FF) || (ch >= 0x1780 && ch <= 0x17FF)) {
+                // indic, southeast asian and tibetan scripts, hangul jamo and khmer
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The font attributes, which affect the glyph widths
+     */
+    private static final class FontKey {
+        private final String name;
+        private final short height;
+        private final boolean bold;
+        private final boolean italic;
+
+        FontKey(Font font) {
+            name = font.getFontName();
+            height = font.getFontHeight();
+            bold = font.getBold();
+            italic = font.getItalic();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof FontKey)) {
+                return false;
+            }
+            FontKey other = (FontKey)o;
+            return height == other.height && bold == other.bold && italic == other.italic
+                && (name == null ? other.name == null : name.equals(other.name));
+        }
+
+        @Override
+        public int hashCode() {
+            int result = (name == null) ? 0 : name.hashCode();
+            result = 31 * result + height;
+            return 31 * result + (bold ? 2 : 0) + (italic ? 1 : 0);
+        }
+    }
+
+    /**
+     * The advance widths of the characters of a font, measured in blocks of 256 characters
+     */
+    private static final class GlyphWidths {
+        /** guarded by itself, as a paint isn't thread-safe */
+        private final Paint paint;
+        private final AtomicReferenceArray<float[]> blocks = new AtomicReferenceArray<>(256);
+        private final float lineHeight;
+
+        GlyphWidths(FontKey key) {
+            int style = (key.bold ? Typeface.BOLD : 0) | (key.italic ? Typeface.ITALIC : 0);
+            paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            paint.setTypeface(Typeface.create(key.name, style));
+            // the point size is used as pixel size like the 72 dpi font render context of SheetUtil
+            paint.setTextSize(key.height / 20f);
+            Paint.FontMetrics fm = paint.getFontMetrics();
+            lineHeight = fm.descent - fm.ascent;
+        }
+
+        double measure(String text, boolean precise) {
+            if (precise && needsLayout(text)) {
+                synchronized (paint) {
+                    return paint.measureText(text);
+                }
+            }
+
+            double width = 0;
+            final int len = text.length();
+            for (int i = 0; i < len; i++) {
+                char ch = text.charAt(i);
+                if (Character.isHighSurrogate(ch) && i + 1 < len && Character.isLowSurrogate(text.charAt(i + 1))) {
+                    // supplementary characters aren't cached
+                    synchronized (paint) {
+                        width += paint.measureText(text, i, i + 2);
+                    }
+                    i++;
+                } else {
+                    width += advance(ch);
+                }
+            }
+            return width;
+        }
+
+        private float advance(char ch) {
+            final int blockIdx = ch >>> 8;
+            float[] block = blocks.get(blockIdx);
+            if (block == null) {
+                // concurrent measurements may race - the first one wins
+                blocks.compareAndSet(blockIdx, null, measureBlock(blockIdx));
+                block = blocks.get(blockIdx);
+            }
+            return block[ch & 0xFF];
+        }
+
+        private float[] measureBlock(int blockIdx) {
+            final float[] widths = new float[256];
+            final char[] chars = new char[1];
+            synchronized (paint) {
+                for (int i = 0; i < 256; i++) {
+                    chars[0] = (char)((blockIdx << 8) | i);
+                    if (!Character.isSurrogate(chars[0])) {
+                        // measure each character on its own, to not pick up kerning or ligatures
+                        widths[i] = paint.measureText(chars, 0, 1);
+                    }
+                }
+            }
+            return widths;
+        }
+    }
+}
@@ -53,13 +53,13 @@ public class SheetUtil {
      * but the docs say nothing about what particular character is used.
      * '0' looks to be a good choice.
      */
-    private static final char defaultChar = '0';
+    static final char defaultChar = '0';
 
     /**
      * This is the multiple that the font height is scaled by when determining the
      * boundary of rotated text.
      */
-    private static final double fontHeightMultiple = 2.0;
+    static final double fontHeightMultiple = 2.0;
 
     /**
      *  Dummy formula evaluator that does nothing.
@@ -69,7 +69,7 @@ public class SheetUtil {
      *
      *  See Bugzilla #50021
      */
-    private static final FormulaEvaluator dummyEvaluator = new FormulaEvaluator() {
+    static final FormulaEvaluator dummyEvaluator = new FormulaEvaluator() {
         @Override
         public void clearAllCachedResultValues(){}
         @Override
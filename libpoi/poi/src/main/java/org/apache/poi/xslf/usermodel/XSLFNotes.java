@@ -57,6 +57,7 @@ implements Notes<XSLFShape,XSLFTextParagraph> {
         NotesDocument doc =
             NotesDocument.Factory.parse(getPackagePart().getInputStream(), DEFAULT_XML_OPTIONS);
         _notes = doc.getNotes();
+        trackChanges(_notes);
     }
 
     private static CTNotesSlide prototype(){
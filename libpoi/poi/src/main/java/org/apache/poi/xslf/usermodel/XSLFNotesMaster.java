@@ -63,6 +63,7 @@ import org.openxmlformats.schemas.presentationml.x2006.main.NotesMasterDocument;
         NotesMasterDocument doc =
             NotesMasterDocument.Factory.parse(getPackagePart().getInputStream(), DEFAULT_XML_OPTIONS);
         _slide = doc.getNotesMaster();
+        trackChanges(_slide);
     }
 
     private static CTNotesMaster prototype() {
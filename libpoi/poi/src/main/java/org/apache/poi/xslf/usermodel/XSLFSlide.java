@@ -86,6 +86,7 @@ implements Slide<XSLFShape,XSLFTextParagraph> {
 
         SldDocument doc = SldDocument.Factory.parse(_doc, DEFAULT_XML_OPTIONS);
         _slide = doc.getSld();
+        trackChanges(_slide);
     }
 
     private static CTSlide prototype(){
@@ -45,6 +45,7 @@ implements MasterSheet<XSLFShape,XSLFTextParagraph> {
         SldLayoutDocument doc =
                 SldLayoutDocument.Factory.parse(getPackagePart().getInputStream(), DEFAULT_XML_OPTIONS);
         _layout = doc.getSldLayout();
+        trackChanges(_layout);
     }
 
     public String getName() {
@@ -267,6 +267,22 @@ public class XSSFEventBasedExcelExtractor extends POIXMLTextExtractor
      * Processes the file and returns the text
      */
     public String getText() {
+        StringBuilder text = new StringBuilder(64);
+        try {
+            writeText(text);
+            return text.toString();
+        } catch (IOException e) {
+            LOGGER.log(POILogger.WARN, e);
+            return null;
+        }
+    }
+
+    /**
+     * Processes the file and writes the text sheet by sheet,
+     * i.e. only the text of the current sheet is kept in memory
+     */
+    @Override
+    public void writeText(Appendable out) throws IOException {
         try {
             XSSFReader xssfReader = new XSSFReader(container);
             SharedStrings strings = createSharedStringsTable(xssfReader, container);
@@ -295,12 +311,13 @@ public class XSSFEventBasedExcelExtractor extends POIXMLTextExtractor
                 }
                 sheetExtractor.reset();
                 stream.close();
-            }
 
-            return text.toString();
-        } catch (IOException | OpenXML4JException | SAXException e) {
-            LOGGER.log(POILogger.WARN, e);
-            return null;
+                // the max text size is checked per sheet, while its text is collected
+                out.append(text);
+                text.setLength(0);
+            }
+        } catch (OpenXML4JException | SAXException e) {
+            throw new IOException(e);
         }
     }
 
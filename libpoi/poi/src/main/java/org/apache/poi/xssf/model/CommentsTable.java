@@ -80,6 +80,7 @@ public class CommentsTable extends POIXMLDocumentPart implements Comments {
         } catch (XmlException e) {
             throw new IOException(e.getLocalizedMessage());
         }
+        trackChanges(comments);
     }
 
     public void writeTo(OutputStream out) throws IOException {
@@ -0,0 +1,162 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.util.Internal;
+
+/**
+ * A hash index over one of the lists of the {@link StylesTable}, i.e. the fonts, fills,
+ * borders or cell xfs.<p>
+ *
+ * The items are bucketed by a structural key, which needs to be equal for items
+ * which are considered to be equal. The key may be coarser, so the callers verify
+ * the candidates.<p>
+ *
+ * The index is updated lazily: items appended to the list and items which were
+ * reported as changed or replaced are (re-)keyed on the next lookup.
+ */
+@Internal
+abstract class StyleIndex<T> {
+    private final List<T> items;
+    private final Map<Object, List<Integer>> buckets = new HashMap<>();
+    private final List<Object> keys = new ArrayList<>();
+    private final List<T> indexed = new ArrayList<>();
+    private final Map<T, Integer> positions = new IdentityHashMap<>();
+    private final BitSet dirty = new BitSet();
+
+    StyleIndex(List<T> items) {
+        this.items = items;
+    }
+
+    /**
+     * @param item the item to key
+     * @param idx the position of the item
+     * @return the lookup key of the item in its current state, or {@code null} if the index
+     *  is only used for identity lookups
+     */
+    protected abstract Object keyOf(T item, int idx);
+
+    /**
+     * Marks the item as changed, so it will be re-keyed on the next lookup.
+     * Items, which aren't part of the list, are ignored.
+     */
+    void changed(T item) {
+        Integer idx = positions.get(item);
+        if (idx != null) {
+            dirty.set(idx);
+        }
+    }
+
+    /**
+     * Marks the item at the given position as changed or replaced
+     */
+    void changed(int idx) {
+        dirty.set(idx);
+    }
+
+    /**
+     * @return the position of the given instance or -1, if the instance isn't part of the list
+     */
+    int identityIndexOf(T item) {
+        sync();
+        Integer idx = positions.get(item);
+        return (idx == null) ? -1 : idx;
+    }
+
+    /**
+     * @return the ascending positions of the items with the given key
+     */
+    List<Integer> candidates(Object key) {
+        sync();
+        List<Integer> bucket = buckets.get(key);
+        return (bucket == null) ? Collections.<Integer>emptyList() : bucket;
+    }
+
+    private void sync() {
+        if (items.size() < indexed.size()) {
+            // the list was shrunk or replaced - start over
+            buckets.clear();
+            keys.clear();
+            indexed.clear();
+            positions.clear();
+            dirty.clear();
+        }
+
+        for (int idx = dirty.nextSetBit(0); idx >= 0 && idx < indexed.size(); idx = dirty.nextSetBit(idx+1)) {
+            removeFromBucket(keys.get(idx), idx);
+            T old = indexed.get(idx);
+            Integer oldIdx = positions.get(old);
+            if (oldIdx != null && oldIdx == idx) {
+                positions.remove(old);
+            }
+            T item = items.get(idx);
+            Object key = keyOf(item, idx);
+            keys.set(idx, key);
+            indexed.set(idx, item);
+            positions.put(item, idx);
+            addToBucket(key, idx);
+        }
+        dirty.clear();
+
+        for (int idx = indexed.size(); idx < items.size(); idx++) {
+            T item = items.get(idx);
+            Object key = keyOf(item, idx);
+            keys.add(key);
+            indexed.add(item);
+            positions.put(item, idx);
+            addToBucket(key, idx);
+        }
+    }
+
+    private void addToBucket(Object key, int idx) {
+        if (key == null) {
+            return;
+        }
+        List<Integer> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = new ArrayList<>(1);
+            buckets.put(key, bucket);
+        }
+        // keep the positions sorted, so the first match is the lowest index as with List.indexOf
+        int pos = Collections.binarySearch(bucket, idx);
+        if (pos < 0) {
+            bucket.add(-pos - 1, idx);
+        }
+    }
+
+    private void removeFromBucket(Object key, int idx) {
+        if (key == null) {
+            return;
+        }
+        List<Integer> bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.remove(Integer.valueOf(idx));
+            if (bucket.isEmpty()) {
+                buckets.remove(key);
+            }
+        }
+    }
+}
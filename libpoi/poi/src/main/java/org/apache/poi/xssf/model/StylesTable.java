@@ -37,18 +37,21 @@ import org.apache.poi.ooxml.POIXMLDocumentPart;
 import org.apache.poi.openxml4j.opc.PackagePart;
 import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.ss.util.CellUtil;
 import org.apache.poi.util.Internal;
 import org.apache.poi.xssf.usermodel.CustomIndexedColorMap;
 import org.apache.poi.xssf.usermodel.DefaultIndexedColorMap;
 import org.apache.poi.xssf.usermodel.IndexedColorMap;
 import org.apache.poi.xssf.usermodel.XSSFBuiltinTableStyle;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
 import org.apache.poi.xssf.usermodel.XSSFFactory;
 import org.apache.poi.xssf.usermodel.XSSFFont;
 import org.apache.poi.xssf.usermodel.XSSFRelation;
 import org.apache.poi.xssf.usermodel.XSSFTableStyle;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.apache.poi.xssf.usermodel.extensions.XSSFCellBorder;
+import org.apache.poi.xssf.usermodel.extensions.XSSFCellBorder.BorderSide;
 import org.apache.poi.xssf.usermodel.extensions.XSSFCellFill;
 import org.apache.xmlbeans.XmlException;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.*;
@@ -66,6 +69,40 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
 
     private final List<CTDxf> dxfs = new ArrayList<>();
     private final Map<String, TableStyle> tableStyles = new HashMap<>();
+
+    private final StyleIndex<XSSFFont> fontIndex = new StyleIndex<XSSFFont>(fonts) {
+        @Override
+        protected Object keyOf(XSSFFont font, int idx) {
+            return fontKey(font.getBold(), font.getFontHeight(), font.getFontName(), font.getItalic(),
+                font.getStrikeout(), font.getTypeOffset(), font.getUnderline());
+        }
+    };
+    private final StyleIndex<XSSFCellFill> fillIndex = new StyleIndex<XSSFCellFill>(fills) {
+        @Override
+        protected Object keyOf(XSSFCellFill fill, int idx) {
+            return fillKey(fill);
+        }
+    };
+    private final StyleIndex<XSSFCellBorder> borderIndex = new StyleIndex<XSSFCellBorder>(borders) {
+        @Override
+        protected Object keyOf(XSSFCellBorder border, int idx) {
+            return borderKey(border);
+        }
+    };
+    /** the positions of the cell xfs by identity, as CTXf.equals() compares instances */
+    private final StyleIndex<CTXf> xfPositions = new StyleIndex<CTXf>(xfs) {
+        @Override
+        protected Object keyOf(CTXf xf, int idx) {
+            return null;
+        }
+    };
+    /** the cell xfs by their format properties, see {@link CellUtil#getFormatProperties(CellStyle)} */
+    private final StyleIndex<CTXf> xfProperties = new StyleIndex<CTXf>(xfs) {
+        @Override
+        protected Object keyOf(CTXf xf, int idx) {
+            return CellUtil.getFormatProperties(getStyleAt(idx));
+        }
+    };
     
     private IndexedColorMap indexedColors = new DefaultIndexedColorMap();
     
@@ -211,6 +248,7 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
                 for (CTFont font : ctfonts.getFontArray()) {
                     // Create the font and save it. Themes Table supplied later
                     XSSFFont f = new XSSFFont(font, idx, indexedColors);
+                    f.setStylesSource(this);
                     fonts.add(f);
                     idx++;
                 }
@@ -394,17 +432,19 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
      */
     @Override
     public int putFont(XSSFFont font, boolean forceRegistration) {
-        int idx = -1;
         if(!forceRegistration) {
-            idx = fonts.indexOf(font);
-        }
-
-        if (idx != -1) {
-            return idx;
+            Object key = fontKey(font.getBold(), font.getFontHeight(), font.getFontName(), font.getItalic(),
+                font.getStrikeout(), font.getTypeOffset(), font.getUnderline());
+            for (int idx : fontIndex.candidates(key)) {
+                if (font.equals(fonts.get(idx))) {
+                    return idx;
+                }
+            }
         }
 
-        idx = fonts.size();
+        int idx = fonts.size();
         fonts.add(font);
+        font.setStylesSource(this);
         return idx;
     }
 
@@ -438,10 +478,12 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
     public int putStyle(XSSFCellStyle style) {
         CTXf mainXF = style.getCoreXf();
 
-        if(! xfs.contains(mainXF)) {
+        int idx = xfPositions.identityIndexOf(mainXF);
+        if (idx == -1) {
+            idx = xfs.size();
             xfs.add(mainXF);
         }
-        return xfs.indexOf(mainXF);
+        return idx;
     }
 
     @Override
@@ -458,9 +500,10 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
      */
     @Override
     public int putBorder(XSSFCellBorder border) {
-        int idx = borders.indexOf(border);
-        if (idx != -1) {
-            return idx;
+        for (int idx : borderIndex.candidates(borderKey(border))) {
+            if (border.equals(borders.get(idx))) {
+                return idx;
+            }
         }
         borders.add(border);
         border.setThemesTable(theme);
@@ -497,9 +540,10 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
      */
     @Override
     public int putFill(XSSFCellFill fill) {
-        int idx = fills.indexOf(fill);
-        if (idx != -1) {
-            return idx;
+        for (int idx : fillIndex.candidates(fillKey(fill))) {
+            if (fill.equals(fills.get(idx))) {
+                return idx;
+            }
         }
         fills.add(fill);
         return fills.size() - 1;
@@ -526,6 +570,31 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
     @Internal
     public void replaceCellXfAt(int idx, CTXf cellXf) {
         xfs.set(idx, cellXf);
+        xfPositions.changed(idx);
+        xfProperties.changed(idx);
+    }
+
+    /**
+     * Notifies the style lookup of a change to a cell xf, which is
+     * part of this styles table.
+     * Called by the {@link XSSFCellStyle} setters.
+     *
+     * @param cellXf the changed cell xf
+     */
+    @Internal
+    public void onCellXfChanged(CTXf cellXf) {
+        xfProperties.changed(cellXf);
+    }
+
+    /**
+     * Notifies the font lookup of a change to a font, which is part of this styles table.
+     * Called by the {@link XSSFFont} setters.
+     *
+     * @param font the changed font
+     */
+    @Internal
+    public void onFontChanged(XSSFFont font) {
+        fontIndex.changed(font);
     }
 
     @Internal
@@ -715,6 +784,7 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
     private void initialize() {
         //CTFont ctFont = createDefaultFont();
         XSSFFont xssfFont = createDefaultFont();
+        xssfFont.setStylesSource(this);
         fonts.add(xssfFont);
 
         CTFill[] ctFill = createDefaultFills();
@@ -848,7 +918,9 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
      * where color is the indexed-value, not the actual color.
      */
     public XSSFFont findFont(boolean bold, short color, short fontHeight, String name, boolean italic, boolean strikeout, short typeOffset, byte underline) {
-        for (XSSFFont font : fonts) {
+        Object key = fontKey(bold, fontHeight, name, italic, strikeout, typeOffset, underline);
+        for (int idx : fontIndex.candidates(key)) {
+            XSSFFont font = fonts.get(idx);
             if (    (font.getBold() == bold)
                     && font.getColor() == color
                     && font.getFontHeight() == fontHeight
@@ -869,7 +941,9 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
      * where color is the actual Color-value, not the indexed color
      */
     public XSSFFont findFont(boolean bold, Color color, short fontHeight, String name, boolean italic, boolean strikeout, short typeOffset, byte underline) {
-        for (XSSFFont font : fonts) {
+        Object key = fontKey(bold, fontHeight, name, italic, strikeout, typeOffset, underline);
+        for (int idx : fontIndex.candidates(key)) {
+            XSSFFont font = fonts.get(idx);
             if (    (font.getBold() == bold)
                     && font.getXSSFColor().equals(color)
                     && font.getFontHeight() == fontHeight
@@ -885,6 +959,61 @@ public class StylesTable extends POIXMLDocumentPart implements Styles {
         return null;
     }
 
+    /**
+     * Finds the first cell style, whose format properties are equal to the given ones,
+     * via a hash index of the cell xfs.
+     *
+     * @param properties the complete format properties, as returned by {@link CellUtil#getFormatProperties(CellStyle)}
+     * @return the matching cell style or {@code null}
+     */
+    public XSSFCellStyle findCellStyle(Map<String, Object> properties) {
+        for (int idx : xfProperties.candidates(properties)) {
+            // the fills and borders might have been changed in-place, so verify the match
+            XSSFCellStyle style = getStyleAt(idx);
+            if (style != null && CellUtil.getFormatProperties(style).equals(properties)) {
+                return style;
+            }
+        }
+        return null;
+    }
+
+    private static Object fontKey(boolean bold, short fontHeight, String name, boolean italic,
+            boolean strikeout, short typeOffset, byte underline) {
+        return Arrays.asList(bold, fontHeight, name, italic, strikeout, typeOffset, underline);
+    }
+
+    private static Object fillKey(XSSFCellFill fill) {
+        return Arrays.asList(fill.getPatternType(), colorKey(fill.getFillForegroundColor()),
+            colorKey(fill.getFillBackgroundColor()));
+    }
+
+    private static Object borderKey(XSSFCellBorder border) {
+        BorderSide[] sides = BorderSide.values();
+        Object[] key = new Object[sides.length];
+        for (int i=0; i<sides.length; i++) {
+            key[i] = border.getBorderStyle(sides[i]);
+        }
+        return Arrays.asList(key);
+    }
+
+    /**
+     * A key which is equal for colors, which are equal according to {@link XSSFColor#equals(Object)}.
+     * The tint isn't part of the key.
+     */
+    private static Object colorKey(XSSFColor color) {
+        if (color == null) {
+            return null;
+        } else if (color.isRGB()) {
+            return Arrays.toString(color.getARGB());
+        } else if (color.isIndexed()) {
+            return "indexed" + color.getIndexed();
+        } else if (color.isThemed()) {
+            return "theme" + color.getTheme();
+        } else {
+            return color.isAuto();
+        }
+    }
+
     /**
      * @return default or custom indexed color to RGB mapping
      */
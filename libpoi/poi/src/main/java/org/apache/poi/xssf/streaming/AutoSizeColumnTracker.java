@@ -23,6 +23,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -33,7 +34,8 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.util.SheetUtil;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.ss.util.CellWidthEstimator;
 import org.apache.poi.util.Internal;
 
 /**
@@ -49,7 +51,8 @@ import org.apache.poi.util.Internal;
 */
 @Internal
 /*package*/ class AutoSizeColumnTracker {
-    private final int defaultCharWidth;
+    // measures with cached glyph widths, as the tracker measures every cell of the tracked columns
+    private final CellWidthEstimator widthEstimator;
     private final DataFormatter dataFormatter = new DataFormatter();
 
     // map of tracked columns, with values containing the best-fit width for the column
@@ -116,7 +119,20 @@ import org.apache.poi.util.Internal;
      */
     public AutoSizeColumnTracker(final Sheet sheet) {
         // If sheet needs to be saved, use a java.lang.ref.WeakReference to avoid garbage collector gridlock.
-        defaultCharWidth = SheetUtil.getDefaultCharWidth(sheet.getWorkbook());
+        widthEstimator = new CellWidthEstimator(sheet.getWorkbook());
+    }
+
+    /**
+     * Calculate the best-fit width of a column for the rows in the random access window,
+     * measured in the same way as the tracked rows
+     *
+     * @param sheet the sheet to calculate
+     * @param column the index of the column
+     * @param useMergedCells true if merged cells should be considered when computing the best-fit width
+     * @return best-fit column width, measured in number of characters, or -1 if all cells are empty
+     */
+    public double getColumnWidth(Sheet sheet, int column, boolean useMergedCells) {
+        return widthEstimator.getColumnWidth(sheet, column, useMergedCells, sheet.getFirstRowNum(), sheet.getLastRowNum());
     }
     
     /**
@@ -297,7 +313,10 @@ import org.apache.poi.util.Internal;
     public void updateColumnWidths(Row row) {
         // track new columns
         implicitlyTrackColumnsInRow(row);
-        
+
+        // look up the merged regions once per row
+        final List<CellRangeAddress> mergedRegions = row.getSheet().getMergedRegions();
+
         // update the widths
         // for-loop over the shorter of the number of cells in the row and the number of tracked columns
         // these two for-loops should do the same thing
@@ -310,12 +329,9 @@ import org.apache.poi.util.Internal;
                 // FIXME: if cell belongs to a merged region, some of the merged region may have fallen outside of the random access window
                 // In this case, getting the column width may result in an error. Need to gracefully handle this.
 
-                // FIXME: Most cells are not merged, so calling getCellWidth twice re-computes the same value twice.
-                // Need to rewrite this to avoid unnecessary computation if this proves to be a performance bottleneck.
-
                 if (cell != null) {
                     final ColumnWidthPair pair = e.getValue();
-                    updateColumnWidth(cell, pair);
+                    updateColumnWidth(cell, pair, mergedRegions);
                 }
             }
         }
@@ -327,12 +343,9 @@ import org.apache.poi.util.Internal;
                 // FIXME: if cell belongs to a merged region, some of the merged region may have fallen outside of the random access window
                 // In this case, getting the column width may result in an error. Need to gracefully handle this.
 
-                // FIXME: Most cells are not merged, so calling getCellWidth twice re-computes the same value twice.
-                // Need to rewrite this to avoid unnecessary computation if this proves to be a performance bottleneck.
-
                 if (maxColumnWidths.containsKey(column)) {
                     final ColumnWidthPair pair = maxColumnWidths.get(column);
-                    updateColumnWidth(cell, pair);
+                    updateColumnWidth(cell, pair, mergedRegions);
                 }
             }
         }
@@ -363,11 +376,15 @@ import org.apache.poi.util.Internal;
      *
      * @param cell the cell to compute the best fit width on
      * @param pair the column width pair to update
+     * @param mergedRegions the merged regions of the sheet
      * @since 3.14beta1
      */
-    private void updateColumnWidth(final Cell cell, final ColumnWidthPair pair) {
-        final double unmergedWidth = SheetUtil.getCellWidth(cell, defaultCharWidth, dataFormatter, false);
-        final double mergedWidth = SheetUtil.getCellWidth(cell, defaultCharWidth, dataFormatter, true);
+    private void updateColumnWidth(final Cell cell, final ColumnWidthPair pair, final List<CellRangeAddress> mergedRegions) {
+        final double unmergedWidth = widthEstimator.getCellWidth(cell, dataFormatter, false, mergedRegions);
+        // the widths only differ for cells in merged regions, which are skipped when not using merged cells
+        final double mergedWidth = (unmergedWidth == -1)
+            ? widthEstimator.getCellWidth(cell, dataFormatter, true, mergedRegions)
+            : unmergedWidth;
         pair.setMaxColumnWidths(unmergedWidth, mergedWidth);
     }
 }
@@ -44,7 +44,6 @@ import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellAddress;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.PaneInformation;
-import org.apache.poi.ss.util.SheetUtil;
 import org.apache.poi.util.Internal;
 import org.apache.poi.util.NotImplemented;
 import org.apache.poi.xssf.usermodel.XSSFColor;
@@ -1592,7 +1591,7 @@ public class SXSSFSheet implements Sheet
         }
         
         // get the best-fit width of rows currently in the random access window
-        final int activeWidth = (int) (256 * SheetUtil.getColumnWidth(this, column, useMergedCells));
+        final int activeWidth = (int) (256 * _autoSizeColumnTracker.getColumnWidth(this, column, useMergedCells));
 
         // the best-fit width for both flushed rows and random access window rows
         // flushedWidth or activeWidth may be negative if column contains only blank cells
@@ -907,6 +907,12 @@ public class SXSSFWorkbook implements Workbook {
         return _wb.getCellStyleAt(idx);
     }
 
+    @Override
+    public CellStyle findCellStyle(Map<String, Object> properties)
+    {
+        return _wb.findCellStyle(properties);
+    }
+
     /**
      * Closes the underlying {@link XSSFWorkbook} and {@link OPCPackage} 
      *  on which this Workbook is based, if any.
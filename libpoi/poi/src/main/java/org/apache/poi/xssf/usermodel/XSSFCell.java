@@ -108,6 +108,16 @@ public final class XSSFCell extends CellBase {
      */
     private StylesTable _stylesSource;
 
+    /**
+     * The decoded value of this cell, if the sheet was read with cell value caching
+     */
+    private XSSFCellValueCache _valueCache;
+
+    /**
+     * The slot of this cell in {@link #_valueCache}, or -1 if the value is read from the bean
+     */
+    private int _cacheSlot = -1;
+
     /**
      * Construct a XSSFCell.
      *
@@ -129,6 +139,79 @@ public final class XSSFCell extends CellBase {
         _stylesSource = row.getSheet().getWorkbook().getStylesSource();
     }
 
+    /**
+     * Construct a XSSFCell, which was streamed from the sheet data without an xml bean.
+     * The value is only held in the cache until the bean is needed.
+     *
+     * @param row the parent row.
+     * @param cellNum the 0-based column index
+     * @param cache the cell value cache of the sheet
+     * @param slot the slot of this cell in the cache
+     */
+    /* package */ XSSFCell(XSSFRow row, int cellNum, XSSFCellValueCache cache, int slot) {
+        _row = row;
+        _cellNum = cellNum;
+        _valueCache = cache;
+        _cacheSlot = slot;
+        _sharedStringSource = row.getSheet().getWorkbook().getSharedStringSource();
+        _stylesSource = row.getSheet().getWorkbook().getStylesSource();
+    }
+
+    /**
+     * Decodes the value of this cell into the given cache, so the getters don't need to
+     * access the xml bean until the cell is modified.
+     */
+    /* package */ void cacheValue(XSSFCellValueCache cache) {
+        _valueCache = cache;
+        _cacheSlot = cache.add(_cell);
+    }
+
+    /**
+     * @return {@code true}, if the cell value is read from the cache
+     */
+    private boolean isCached() {
+        return _cacheSlot != -1;
+    }
+
+    /**
+     * Drops the cached value before the xml bean gets modified
+     */
+    private void dropCachedValue() {
+        if (_cell == null) {
+            // the cache holds the only copy of the value
+            ct();
+        }
+        _cacheSlot = -1;
+    }
+
+    /**
+     * @return the xml bean of this cell, which is created first for streamed cells
+     */
+    private CTCell ct() {
+        if (_cell == null) {
+            _row.onCreateCTCell(this);
+        }
+        return _cell;
+    }
+
+    /**
+     * Creates the xml bean of a streamed cell from its cached value
+     *
+     * @param cell the new and empty bean, which is already part of the row
+     */
+    /* package */ void initCTCell(CTCell cell) {
+        _valueCache.writeTo(_cacheSlot, cell);
+        cell.setR(new CellReference(getRowIndex(), getColumnIndex()).formatAsString());
+        _cell = cell;
+    }
+
+    /**
+     * @return {@code true}, if the cell has an xml bean, i.e. it wasn't streamed or was modified since
+     */
+    /* package */ boolean hasCTCell() {
+        return _cell != null;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -262,10 +345,16 @@ public final class XSSFCell extends CellBase {
             case BLANK:
                 return false;
             case BOOLEAN:
-                return _cell.isSetV() && TRUE_AS_STRING.equals(_cell.getV());
+                if (isCached()) {
+                    return TRUE_AS_STRING.equals(_valueCache.getText(_cacheSlot));
+                }
+                return ct().isSetV() && TRUE_AS_STRING.equals(ct().getV());
             case FORMULA:
                 //YK: should throw an exception if requesting boolean value from a non-boolean formula
-                return _cell.isSetV() && TRUE_AS_STRING.equals(_cell.getV());
+                if (isCached() && _valueCache.getType(_cacheSlot) == XSSFCellValueCache.TYPE_BOOLEAN) {
+                    return TRUE_AS_STRING.equals(_valueCache.getText(_cacheSlot));
+                }
+                return TRUE_AS_STRING.equals(rawValue());
             default:
                 throw typeMismatch(CellType.BOOLEAN, cellType, false);
         }
@@ -280,8 +369,9 @@ public final class XSSFCell extends CellBase {
      */
     @Override
     public void setCellValue(boolean value) {
-        _cell.setT(STCellType.B);
-        _cell.setV(value ? TRUE_AS_STRING : FALSE_AS_STRING);
+        dropCachedValue();
+        ct().setT(STCellType.B);
+        ct().setV(value ? TRUE_AS_STRING : FALSE_AS_STRING);
     }
 
     /**
@@ -302,8 +392,14 @@ public final class XSSFCell extends CellBase {
             case BLANK:
                 return 0.0;
             case NUMERIC:
-                if(_cell.isSetV()) {
-                   String v = _cell.getV();
+                if (isCached()) {
+                    if (!_valueCache.isValidNumber(_cacheSlot)) {
+                        throw typeMismatch(CellType.NUMERIC, CellType.STRING, false);
+                    }
+                    return _valueCache.getNumber(_cacheSlot);
+                }
+                if(ct().isSetV()) {
+                   String v = ct().getV();
                    if (v.isEmpty()) {
                        return 0.0;
                    }
@@ -327,8 +423,9 @@ public final class XSSFCell extends CellBase {
      */
     @Override
     public void setCellValueImpl(double value) {
-        _cell.setT(STCellType.N);
-        _cell.setV(String.valueOf(value));
+        dropCachedValue();
+        ct().setT(STCellType.N);
+        ct().setV(String.valueOf(value));
     }
 
     /**
@@ -361,22 +458,33 @@ public final class XSSFCell extends CellBase {
                 rt = new XSSFRichTextString("");
                 break;
             case STRING:
-                if (_cell.getT() == STCellType.INLINE_STR) {
-                    if(_cell.isSetIs()) {
+                if (isCached()) {
+                    if (_valueCache.getType(_cacheSlot) != XSSFCellValueCache.TYPE_SHARED_STRING) {
+                        //inline string or cached formula value
+                        String str = _valueCache.getText(_cacheSlot);
+                        rt = new XSSFRichTextString(str == null ? "" : str);
+                    } else if (_valueCache.hasValue(_cacheSlot)) {
+                        int idx = _valueCache.getSharedStringIndex(_cacheSlot);
+                        rt = new XSSFRichTextString(_sharedStringSource.getEntryAt(idx));
+                    } else {
+                        rt = new XSSFRichTextString("");
+                    }
+                } else if (ct().getT() == STCellType.INLINE_STR) {
+                    if(ct().isSetIs()) {
                         //string is expressed directly in the cell definition instead of implementing the shared string table.
-                        rt = new XSSFRichTextString(_cell.getIs());
-                    } else if (_cell.isSetV()) {
+                        rt = new XSSFRichTextString(ct().getIs());
+                    } else if (ct().isSetV()) {
                         //cached result of a formula
-                        rt = new XSSFRichTextString(_cell.getV());
+                        rt = new XSSFRichTextString(ct().getV());
                     } else {
                         rt = new XSSFRichTextString("");
                     }
-                } else if (_cell.getT() == STCellType.STR) {
+                } else if (ct().getT() == STCellType.STR) {
                     //cached formula value
-                    rt = new XSSFRichTextString(_cell.isSetV() ? _cell.getV() : "");
+                    rt = new XSSFRichTextString(ct().isSetV() ? ct().getV() : "");
                 } else {
-                    if (_cell.isSetV()) {
-                        int idx = Integer.parseInt(_cell.getV());
+                    if (ct().isSetV()) {
+                        int idx = Integer.parseInt(ct().getV());
                         rt = new XSSFRichTextString(_sharedStringSource.getEntryAt(idx));
                     }
                     else {
@@ -386,7 +494,12 @@ public final class XSSFCell extends CellBase {
                 break;
             case FORMULA:
                 checkFormulaCachedValueType(CellType.STRING, getBaseCellType(false));
-                rt = new XSSFRichTextString(_cell.isSetV() ? _cell.getV() : "");
+                if (isCached() && _valueCache.getType(_cacheSlot) == XSSFCellValueCache.TYPE_FORMULA_STRING) {
+                    String str = _valueCache.getText(_cacheSlot);
+                    rt = new XSSFRichTextString(str == null ? "" : str);
+                } else {
+                    rt = new XSSFRichTextString(ct().isSetV() ? ct().getV() : "");
+                }
                 break;
             default:
                 throw typeMismatch(CellType.STRING, cellType, false);
@@ -415,19 +528,20 @@ public final class XSSFCell extends CellBase {
     @Override
     protected void setCellValueImpl(RichTextString str) {
         CellType cellType = getCellType();
+        dropCachedValue();
         if (cellType == CellType.FORMULA) {
-            _cell.setV(str.getString());
-            _cell.setT(STCellType.STR);
+            ct().setV(str.getString());
+            ct().setT(STCellType.STR);
         } else {
-            if(_cell.getT() == STCellType.INLINE_STR) {
+            if(ct().getT() == STCellType.INLINE_STR) {
                 //set the 'pre-evaluated result
-                _cell.setV(str.getString());
+                ct().setV(str.getString());
             } else {
-                _cell.setT(STCellType.S);
+                ct().setT(STCellType.S);
                 XSSFRichTextString rt = (XSSFRichTextString)str;
                 rt.setStylesTableReference(_stylesSource);
                 int sRef = _sharedStringSource.addSharedStringItem(rt);
-                _cell.setV(Integer.toString(sRef));
+                ct().setV(Integer.toString(sRef));
             }
         }
     }
@@ -457,7 +571,7 @@ public final class XSSFCell extends CellBase {
             throw typeMismatch(CellType.FORMULA, cellType, false);
         }
 
-        CTCellFormula f = _cell.getF();
+        CTCellFormula f = ct().getF();
         if (isPartOfArrayFormulaGroup()) {
             /* In an excel generated array formula, the formula property might be set, but the string is empty in slave cells */
             if (f == null || f.getStringValue().isEmpty()) {
@@ -530,18 +644,19 @@ public final class XSSFCell extends CellBase {
 
     /* package */ void setCellArrayFormula(String formula, CellRangeAddress range) {
         setFormula(formula, FormulaType.ARRAY);
-        CTCellFormula cellFormula = _cell.getF();
+        CTCellFormula cellFormula = ct().getF();
         cellFormula.setT(STCellFormulaType.ARRAY);
         cellFormula.setRef(range.formatAsString());
     }
 
     private void setFormula(String formula, FormulaType formulaType) {
+        dropCachedValue();
         XSSFWorkbook wb = _row.getSheet().getWorkbook();
         if (formulaType == FormulaType.ARRAY && formula == null) {
             wb.onDeleteFormula(this);
-            if (_cell.isSetF()) {
+            if (ct().isSetF()) {
                 _row.getSheet().onDeleteFormula(this, null);
-                _cell.unsetF();
+                ct().unsetF();
             }
             return;
         }
@@ -553,8 +668,8 @@ public final class XSSFCell extends CellBase {
         }
 
         CTCellFormula f;
-        if (_cell.isSetF()) {
-            f = _cell.getF();
+        if (ct().isSetF()) {
+            f = ct().getF();
             f.setStringValue(formula);
             if(f.getT() == STCellFormulaType.SHARED){
                 getRow().getSheet().onReadCell(this);
@@ -562,16 +677,17 @@ public final class XSSFCell extends CellBase {
         } else {
             f = CTCellFormula.Factory.newInstance();
             f.setStringValue(formula);
-            _cell.setF(f);
+            ct().setF(f);
         }
     }
 
     @Override
     protected void removeFormulaImpl() {
+        dropCachedValue();
         _row.getSheet().getWorkbook().onDeleteFormula(this);
-        if (_cell.isSetF()) {
+        if (ct().isSetF()) {
             _row.getSheet().onDeleteFormula(this, null);
-            _cell.unsetF();
+            ct().unsetF();
         }
     }
 
@@ -601,7 +717,7 @@ public final class XSSFCell extends CellBase {
      * @return A1 style reference to the location of this cell
      */
     public String getReference() {
-        String ref = _cell.getR();
+        String ref = (_cell == null) ? null : _cell.getR();
         if(ref == null) {
             return getAddress().formatAsString();
         }
@@ -617,7 +733,7 @@ public final class XSSFCell extends CellBase {
     public XSSFCellStyle getCellStyle() {
         XSSFCellStyle style = null;
         if(_stylesSource.getNumCellStyles() > 0){
-            long idx = _cell.isSetS() ? _cell.getS() : 0;
+            long idx = isCached() ? _valueCache.getStyleIndex(_cacheSlot) : (ct().isSetS() ? ct().getS() : 0);
             style = _stylesSource.getStyleAt(MathCompaty.toIntExact(idx));
         }
         return style;
@@ -636,16 +752,17 @@ public final class XSSFCell extends CellBase {
      */
     @Override
     public void setCellStyle(CellStyle style) {
+        dropCachedValue();
         if(style == null) {
-            if(_cell.isSetS()) {
-                _cell.unsetS();
+            if(ct().isSetS()) {
+                ct().unsetS();
             }
         } else {
             XSSFCellStyle xStyle = (XSSFCellStyle)style;
             xStyle.verifyBelongsToStylesSource(_stylesSource);
 
             long idx = _stylesSource.putStyle(xStyle);
-            _cell.setS(idx);
+            ct().setS(idx);
         }
     }
     
@@ -660,7 +777,10 @@ public final class XSSFCell extends CellBase {
      * @return true if the cell is of a formula type POI can handle
      */
     private boolean isFormulaCell() {
-        if ( (_cell.isSetF() && _cell.getF().getT() != STCellFormulaType.DATA_TABLE ) || getSheet().isCellInArrayFormulaContext(this)) {
+        final boolean hasFormula = isCached()
+            ? _valueCache.isFormula(_cacheSlot)
+            : (ct().isSetF() && ct().getF().getT() != STCellFormulaType.DATA_TABLE);
+        if (hasFormula || getSheet().isCellInArrayFormulaContext(this)) {
             return true;
         }
         return false;
@@ -720,11 +840,24 @@ public final class XSSFCell extends CellBase {
      * Detect cell type based on the "t" attribute of the CTCell bean
      */
     private CellType getBaseCellType(boolean blankCells) {
-        switch (_cell.getT().intValue()) {
+        if (isCached()) {
+            switch (_valueCache.getType(_cacheSlot)) {
+                case XSSFCellValueCache.TYPE_BOOLEAN:
+                    return CellType.BOOLEAN;
+                case XSSFCellValueCache.TYPE_NUMBER:
+                    return (!_valueCache.hasValue(_cacheSlot) && blankCells) ? CellType.BLANK : CellType.NUMERIC;
+                case XSSFCellValueCache.TYPE_ERROR:
+                    return CellType.ERROR;
+                default:
+                    return CellType.STRING;
+            }
+        }
+
+        switch (ct().getT().intValue()) {
             case STCellType.INT_B:
                 return CellType.BOOLEAN;
             case STCellType.INT_N:
-                if (!_cell.isSetV() && blankCells) {
+                if (!ct().isSetV() && blankCells) {
                     // ooxml does have a separate cell type of 'blank'.  A blank cell gets encoded as
                     // (either not present or) a numeric cell with no value set.
                     // The formula evaluator (and perhaps other clients of this interface) needs to
@@ -740,7 +873,7 @@ public final class XSSFCell extends CellBase {
             case STCellType.INT_STR:
                  return CellType.STRING;
             default:
-                throw new IllegalStateException("Illegal cell type: " + this._cell.getT());
+                throw new IllegalStateException("Illegal cell type: " + this.ct().getT());
         }
     }
 
@@ -817,7 +950,7 @@ public final class XSSFCell extends CellBase {
             throw typeMismatch(CellType.ERROR, cellType, false);
         }
 
-        return _cell.getV();
+        return isCached() ? _valueCache.getText(_cacheSlot) : ct().getV();
     }
     /**
      * Get the value of the cell as an error code.
@@ -867,8 +1000,9 @@ public final class XSSFCell extends CellBase {
      *        cell and set its value.
      */
     public void setCellErrorValue(FormulaError error) {
-        _cell.setT(STCellType.E);
-        _cell.setV(error.getString());
+        dropCachedValue();
+        ct().setT(STCellType.E);
+        ct().setV(error.getString());
     }
 
     /**
@@ -884,12 +1018,13 @@ public final class XSSFCell extends CellBase {
      * This method erases all the data previously associated with this cell.
      */
     private void setBlankPrivate(){
+        dropCachedValue();
         CTCell blank = CTCell.Factory.newInstance();
-        blank.setR(_cell.getR());
-        if(_cell.isSetS()) {
-            blank.setS(_cell.getS());
+        blank.setR(ct().getR());
+        if(ct().isSetS()) {
+            blank.setS(ct().getS());
         }
-        _cell.set(blank);
+        ct().set(blank);
     }
 
     /**
@@ -900,8 +1035,14 @@ public final class XSSFCell extends CellBase {
     protected void setCellNum(int num) {
         checkBounds(num);
         _cellNum = num;
-        String ref = new CellReference(getRowIndex(), getColumnIndex()).formatAsString();
-        _cell.setR(ref);
+        if (_cell != null) {
+            String ref = new CellReference(getRowIndex(), getColumnIndex()).formatAsString();
+            _cell.setR(ref);
+        } else {
+            // streamed cells get their reference when the bean is created on write,
+            // but the unchanged sheet bean wouldn't be written at all
+            getSheet().markDirty();
+        }
     }
 
     @Override
@@ -917,8 +1058,9 @@ public final class XSSFCell extends CellBase {
      */
     protected void setCellType(CellType cellType, BaseXSSFEvaluationWorkbook evalWb) {
         CellType prevType = getCellType();
+        dropCachedValue();
         if(prevType == CellType.FORMULA && cellType != CellType.FORMULA) {
-            if (_cell.isSetF()) {
+            if (ct().isSetF()) {
                 _row.getSheet().onDeleteFormula(this, evalWb);
             }
             getSheet().getWorkbook().onDeleteFormula(this);
@@ -926,7 +1068,7 @@ public final class XSSFCell extends CellBase {
 
         switch (cellType) {
             case NUMERIC:
-                _cell.setT(STCellType.N);
+                ct().setT(STCellType.N);
                 break;
             case STRING:
                 if(prevType != CellType.STRING){
@@ -934,17 +1076,17 @@ public final class XSSFCell extends CellBase {
                     XSSFRichTextString rt = new XSSFRichTextString(str);
                     rt.setStylesTableReference(_stylesSource);
                     int sRef = _sharedStringSource.addSharedStringItem(rt);
-                    _cell.setV(Integer.toString(sRef));
+                    ct().setV(Integer.toString(sRef));
                 }
-                _cell.setT(STCellType.S);
+                ct().setT(STCellType.S);
                 break;
             case FORMULA:
-                if(!_cell.isSetF()){
+                if(!ct().isSetF()){
                     CTCellFormula f =  CTCellFormula.Factory.newInstance();
                     f.setStringValue("0");
-                    _cell.setF(f);
-                    if(_cell.isSetT()) {
-                        _cell.unsetT();
+                    ct().setF(f);
+                    if(ct().isSetT()) {
+                        ct().unsetT();
                     }
                 }
                 break;
@@ -953,20 +1095,20 @@ public final class XSSFCell extends CellBase {
                 break;
             case BOOLEAN:
                 String newVal = convertCellValueToBoolean() ? TRUE_AS_STRING : FALSE_AS_STRING;
-                _cell.setT(STCellType.B);
-                _cell.setV(newVal);
+                ct().setT(STCellType.B);
+                ct().setV(newVal);
                 break;
 
             case ERROR:
-                _cell.setT(STCellType.E);
+                ct().setT(STCellType.E);
                 break;
 
 
             default:
                 throw new IllegalArgumentException("Illegal cell type: " + cellType);
         }
-        if (cellType != CellType.FORMULA && _cell.isSetF()) {
-            _cell.unsetF();
+        if (cellType != CellType.FORMULA && ct().isSetF()) {
+            ct().unsetF();
         }
     }
 
@@ -1016,7 +1158,14 @@ public final class XSSFCell extends CellBase {
      *     <code>null</code> for blank cells.
      */
     public String getRawValue() {
-        return _cell.getV();
+        return rawValue();
+    }
+
+    /**
+     * Reads the "v" element without creating the bean of a streamed cell
+     */
+    private String rawValue() {
+        return (_cell != null) ? _cell.getV() : _valueCache.getRawValue(_cacheSlot);
     }
 
 
@@ -1129,6 +1278,26 @@ public final class XSSFCell extends CellBase {
      */
     @Internal
     public CTCell getCTCell(){
+        // the caller might modify the bean
+        dropCachedValue();
+        return ct();
+    }
+
+    /**
+     * @return {@code true}, if the cell has a formula element, including data table formulas.
+     *  Unlike {@link #getCTCell()}, this neither creates the bean of a streamed cell nor drops its cached value.
+     */
+    @Internal
+    public boolean hasFormulaElement() {
+        // streamed cells are plain value cells
+        return (_cell != null) ? _cell.isSetF() : _valueCache.isFormula(_cacheSlot);
+    }
+
+    /**
+     * @return the xml bean of this cell, without dropping the cached value - the caller must not modify it.
+     *  Streamed cells return {@code null} until their bean is created.
+     */
+    /* package */ CTCell getCTCellForReading() {
         return _cell;
     }
     
@@ -1139,6 +1308,7 @@ public final class XSSFCell extends CellBase {
      */
     @Internal
     public void setCTCell(CTCell cell) {
+        dropCachedValue();
         _cell = cell;
     }
 
@@ -1159,14 +1329,14 @@ public final class XSSFCell extends CellBase {
 
         switch (cellType) {
             case BOOLEAN:
-                return TRUE_AS_STRING.equals(_cell.getV());
+                return TRUE_AS_STRING.equals(rawValue());
             case STRING:
-                int sstIndex = Integer.parseInt(_cell.getV());
+                int sstIndex = Integer.parseInt(rawValue());
                 XSSFRichTextString rt = new XSSFRichTextString(_sharedStringSource.getEntryAt(sstIndex));
                 String text = rt.getString();
                 return Boolean.parseBoolean(text);
             case NUMERIC:
-                return Double.parseDouble(_cell.getV()) != 0;
+                return Double.parseDouble(rawValue()) != 0;
 
             case ERROR:
                 // fall-through
@@ -1185,14 +1355,14 @@ public final class XSSFCell extends CellBase {
             case BLANK:
                 return "";
             case BOOLEAN:
-                return TRUE_AS_STRING.equals(_cell.getV()) ? TRUE : FALSE;
+                return TRUE_AS_STRING.equals(rawValue()) ? TRUE : FALSE;
             case STRING:
-                int sstIndex = Integer.parseInt(_cell.getV());
+                int sstIndex = Integer.parseInt(rawValue());
                 XSSFRichTextString rt = new XSSFRichTextString(_sharedStringSource.getEntryAt(sstIndex));
                 return rt.getString();
             case NUMERIC:
             case ERROR:
-                return _cell.getV();
+                return rawValue();
             case FORMULA:
                 // should really evaluate, but HSSFCell can't call HSSFFormulaEvaluator
                 // just use cached formula result instead
@@ -1201,7 +1371,7 @@ public final class XSSFCell extends CellBase {
                 throw new IllegalStateException("Unexpected cell type (" + cellType + ")");
         }
         cellType = getBaseCellType(false);
-        String textValue = _cell.getV();
+        String textValue = rawValue();
         switch (cellType) {
             case BOOLEAN:
                 if (TRUE_AS_STRING.equals(textValue)) {
@@ -1233,7 +1403,7 @@ public final class XSSFCell extends CellBase {
             throw new IllegalStateException("Cell " + new CellReference(this).formatAsString()
                     + " is not part of an array formula.");
         }
-        String formulaRef = cell._cell.getF().getRef();
+        String formulaRef = cell.ct().getF().getRef();
         return CellRangeAddress.valueOf(formulaRef);
     }
 
@@ -1254,9 +1424,14 @@ public final class XSSFCell extends CellBase {
         //remove the reference in the calculation chain
         if(calcChain != null) calcChain.removeItem(sheetId, getReference());
     
-        CTCell ctCell = getCTCell();
-        String r = new CellReference(getRowIndex(), getColumnIndex()).formatAsString();
-        ctCell.setR(r);
+        // only the reference changes, so the cached value is still valid
+        if (_cell != null) {
+            String r = new CellReference(getRowIndex(), getColumnIndex()).formatAsString();
+            _cell.setR(r);
+        } else {
+            // see setCellNum()
+            getSheet().markDirty();
+        }
     }
         
 }
@@ -148,6 +148,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
                // Nice and easy
                _cellXf.set(src.getCoreXf());
                _cellStyleXf.set(src.getStyleXf());
+               _stylesSource.onCellXfChanged(_cellXf);
             } else {
                // Copy the style
                try {
@@ -686,6 +687,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setAlignment(HorizontalAlignment align) {
+        _stylesSource.onCellXfChanged(_cellXf);
         getCellAlignment().setHorizontal(align);
     }
 
@@ -698,6 +700,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setBorderBottom(BorderStyle border) {
+        _stylesSource.onCellXfChanged(_cellXf);
         CTBorder ct = getCTBorder();
         CTBorderPr pr = ct.isSetBottom() ? ct.getBottom() : ct.addNewBottom();
         if(border == BorderStyle.NONE) ct.unsetBottom();
@@ -717,6 +720,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setBorderLeft(BorderStyle border) {
+        _stylesSource.onCellXfChanged(_cellXf);
         CTBorder ct = getCTBorder();
         CTBorderPr pr = ct.isSetLeft() ? ct.getLeft() : ct.addNewLeft();
         if(border == BorderStyle.NONE) ct.unsetLeft();
@@ -736,6 +740,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setBorderRight(BorderStyle border) {
+        _stylesSource.onCellXfChanged(_cellXf);
         CTBorder ct = getCTBorder();
         CTBorderPr pr = ct.isSetRight() ? ct.getRight() : ct.addNewRight();
         if(border == BorderStyle.NONE) ct.unsetRight();
@@ -755,6 +760,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setBorderTop(BorderStyle border) {
+        _stylesSource.onCellXfChanged(_cellXf);
         CTBorder ct = getCTBorder();
         CTBorderPr pr = ct.isSetTop() ? ct.getTop() : ct.addNewTop();
         if(border == BorderStyle.NONE) ct.unsetTop();
@@ -773,6 +779,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setBottomBorderColor(short color) {
+        _stylesSource.onCellXfChanged(_cellXf);
         XSSFColor clr = XSSFColor.from(CTColor.Factory.newInstance(), _stylesSource.getIndexedColors());
         clr.setIndexed(color);
         setBottomBorderColor(clr);
@@ -784,6 +791,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      * @param color the color to use, null means no color
      */
     public void setBottomBorderColor(XSSFColor color) {
+        _stylesSource.onCellXfChanged(_cellXf);
         CTBorder ct = getCTBorder();
         if(color == null && !ct.isSetBottom()) return;
 
@@ -804,6 +812,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setDataFormat(short fmt) {
+        _stylesSource.onCellXfChanged(_cellXf);
         // XSSF supports >32,767 formats
         setDataFormat(fmt&0xffff);
     }
@@ -813,6 +822,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      * @param fmt the index of a data format
      */
     public void setDataFormat(int fmt) {
+        _stylesSource.onCellXfChanged(_cellXf);
         _cellXf.setApplyNumberFormat(true);
         _cellXf.setNumFmtId(fmt);
     }
@@ -843,6 +853,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      * @param color - the color to use
      */
     public void setFillBackgroundColor(XSSFColor color) {
+        _stylesSource.onCellXfChanged(_cellXf);
         CTFill ct = getCTFill();
         CTPatternFill ptrn = ct.getPatternFill();
         if(color == null) {
@@ -883,6 +894,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setFillBackgroundColor(short bg) {
+        _stylesSource.onCellXfChanged(_cellXf);
         XSSFColor clr = XSSFColor.from(CTColor.Factory.newInstance(), _stylesSource.getIndexedColors());
         clr.setIndexed(bg);
         setFillBackgroundColor(clr);
@@ -896,6 +908,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
     * @see #setFillBackgroundColor(XSSFColor) )
     */
     public void setFillForegroundColor(XSSFColor color) {
+        _stylesSource.onCellXfChanged(_cellXf);
         CTFill ct = getCTFill();
 
         CTPatternFill ptrn = ct.getPatternFill();
@@ -918,6 +931,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setFillForegroundColor(short fg) {
+        _stylesSource.onCellXfChanged(_cellXf);
         XSSFColor clr = XSSFColor.from(CTColor.Factory.newInstance(), _stylesSource.getIndexedColors());
         clr.setIndexed(fg);
         setFillForegroundColor(clr);
@@ -946,6 +960,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      * @param order - the reading order
      */
     public void setReadingOrder(ReadingOrder order) {
+        _stylesSource.onCellXfChanged(_cellXf);
         getCellAlignment().setReadingOrder(order);
     }
 
@@ -985,6 +1000,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setFillPattern(FillPatternType pattern) {
+        _stylesSource.onCellXfChanged(_cellXf);
         CTFill ct = getCTFill();
         CTPatternFill ctptrn = ct.isSetPatternFill() ? ct.getPatternFill() : ct.addNewPatternFill();
         if (pattern == FillPatternType.NO_FILL && ctptrn.isSetPatternType()) {
@@ -1005,6 +1021,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setFont(Font font) {
+        _stylesSource.onCellXfChanged(_cellXf);
         if(font != null){
             long index = font.getIndexAsInt();
             this._cellXf.setFontId(index);
@@ -1021,6 +1038,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setHidden(boolean hidden) {
+        _stylesSource.onCellXfChanged(_cellXf);
         if (!_cellXf.isSetProtection()) {
              _cellXf.addNewProtection();
          }
@@ -1034,6 +1052,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setIndention(short indent) {
+        _stylesSource.onCellXfChanged(_cellXf);
         getCellAlignment().setIndent(indent);
     }
 
@@ -1045,6 +1064,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setLeftBorderColor(short color) {
+        _stylesSource.onCellXfChanged(_cellXf);
         XSSFColor clr = XSSFColor.from(CTColor.Factory.newInstance(), _stylesSource.getIndexedColors());
         clr.setIndexed(color);
         setLeftBorderColor(clr);
@@ -1056,6 +1076,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      * @param color the color to use
      */
     public void setLeftBorderColor(XSSFColor color) {
+        _stylesSource.onCellXfChanged(_cellXf);
         CTBorder ct = getCTBorder();
         if(color == null && !ct.isSetLeft()) return;
 
@@ -1076,6 +1097,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setLocked(boolean locked) {
+        _stylesSource.onCellXfChanged(_cellXf);
         if (!_cellXf.isSetProtection()) {
              _cellXf.addNewProtection();
          }
@@ -1089,6 +1111,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setQuotePrefixed(boolean quotePrefix) {
+        _stylesSource.onCellXfChanged(_cellXf);
         _cellXf.setQuotePrefix(quotePrefix);
     }
 
@@ -1100,6 +1123,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setRightBorderColor(short color) {
+        _stylesSource.onCellXfChanged(_cellXf);
         XSSFColor clr = XSSFColor.from(CTColor.Factory.newInstance(), _stylesSource.getIndexedColors());
         clr.setIndexed(color);
         setRightBorderColor(clr);
@@ -1111,6 +1135,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      * @param color the color to use
      */
     public void setRightBorderColor(XSSFColor color) {
+        _stylesSource.onCellXfChanged(_cellXf);
         CTBorder ct = getCTBorder();
         if(color == null && !ct.isSetRight()) return;
 
@@ -1145,6 +1170,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setRotation(short rotation) {
+        _stylesSource.onCellXfChanged(_cellXf);
         getCellAlignment().setTextRotation(rotation);
     }
 
@@ -1157,6 +1183,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setTopBorderColor(short color) {
+        _stylesSource.onCellXfChanged(_cellXf);
         XSSFColor clr = XSSFColor.from(CTColor.Factory.newInstance(), _stylesSource.getIndexedColors());
         clr.setIndexed(color);
         setTopBorderColor(clr);
@@ -1168,6 +1195,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      * @param color the color to use
      */
     public void setTopBorderColor(XSSFColor color) {
+        _stylesSource.onCellXfChanged(_cellXf);
         CTBorder ct = getCTBorder();
         if(color == null && !ct.isSetTop()) return;
 
@@ -1187,6 +1215,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      * @param align - the type of alignment
      */
     public void setVerticalAlignment(VerticalAlignment align) {
+        _stylesSource.onCellXfChanged(_cellXf);
         getCellAlignment().setVertical(align);
     }
 
@@ -1201,6 +1230,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      */
     @Override
     public void setWrapText(boolean wrapped) {
+        _stylesSource.onCellXfChanged(_cellXf);
         getCellAlignment().setWrapText(wrapped);
     }
 
@@ -1232,6 +1262,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
      * @param color - the color to use
      */
     public void setBorderColor(BorderSide side, XSSFColor color) {
+        _stylesSource.onCellXfChanged(_cellXf);
         switch(side){
             case BOTTOM:
                 setBottomBorderColor(color);
@@ -1250,6 +1281,7 @@ public class XSSFCellStyle implements CellStyle, Duplicatable {
 
     @Override
     public void setShrinkToFit(boolean shrinkToFit) {
+        _stylesSource.onCellXfChanged(_cellXf);
         getCellAlignment().setShrinkToFit(shrinkToFit);
     }
 
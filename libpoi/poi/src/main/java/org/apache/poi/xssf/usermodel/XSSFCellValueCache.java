@@ -0,0 +1,308 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.usermodel;
+
+import java.util.Arrays;
+
+import org.apache.poi.util.Internal;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCell;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellFormulaType;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.STCellType;
+
+/**
+ * A columnar snapshot of the cell values of a sheet, which is filled when the sheet is read
+ * with {@link XSSFWorkbook#setCellValueCaching(boolean)} enabled.<p>
+ *
+ * Each cell gets a slot in a set of primitive arrays, which hold the cell type, the parsed
+ * number, the shared string index, the style index and - for the text based cell types - the raw
+ * value. The {@link CTCell} beans stay the master copy: a cell drops its slot as soon as it's
+ * modified (or its bean is handed out) and reads from the bean afterwards. Cells with
+ * inline rich text aren't cached at all.<p>
+ *
+ * When the sheet data is streamed (see {@link XSSFWorkbook#setStreamingSheetData(boolean)}),
+ * plain value cells don't get a bean while reading. Their slot is the only copy of the value
+ * until the bean is created via {@link #writeTo(int, CTCell)}.
+ */
+@Internal
+final class XSSFCellValueCache {
+    static final byte TYPE_BOOLEAN = 0;
+    static final byte TYPE_NUMBER = 1;
+    static final byte TYPE_ERROR = 2;
+    static final byte TYPE_SHARED_STRING = 3;
+    static final byte TYPE_INLINE_STRING = 4;
+    static final byte TYPE_FORMULA_STRING = 5;
+
+    private static final int TYPE_MASK = 0x07;
+    /** the value element is present */
+    private static final int FLAG_VALUE = 0x08;
+    /** the cell has a formula, which isn't a data table formula */
+    private static final int FLAG_FORMULA = 0x10;
+    /** the value of a numeric cell isn't a parsable double */
+    private static final int FLAG_NAN = 0x20;
+
+    private byte[] flags = new byte[64];
+    private double[] numbers = new double[64];
+    private int[] ints = new int[64];
+    private int[] styles = new int[64];
+    private String[] texts = new String[64];
+    private int size;
+
+    /**
+     * Decodes the value of the given cell bean into a new slot
+     *
+     * @return the slot or -1, if the cell can't be cached
+     */
+    int add(CTCell cell) {
+        final STCellType.Enum t = cell.getT();
+        final boolean hasValue = cell.isSetV();
+        final String value = hasValue ? cell.getV() : null;
+
+        int flag = hasValue ? FLAG_VALUE : 0;
+        if (cell.isSetF() && cell.getF().getT() != STCellFormulaType.DATA_TABLE) {
+            flag |= FLAG_FORMULA;
+        }
+
+        double number = 0;
+        int intValue = 0;
+        String text = null;
+        switch (t.intValue()) {
+            case STCellType.INT_B:
+                flag |= TYPE_BOOLEAN;
+                text = value;
+                break;
+            case STCellType.INT_N:
+                flag |= TYPE_NUMBER;
+                if (value != null && !value.isEmpty()) {
+                    try {
+                        number = Double.parseDouble(value);
+                    } catch (NumberFormatException e) {
+                        flag |= FLAG_NAN;
+                    }
+                }
+                break;
+            case STCellType.INT_E:
+                flag |= TYPE_ERROR;
+                text = value;
+                break;
+            case STCellType.INT_S:
+                flag |= TYPE_SHARED_STRING;
+                if (value != null) {
+                    try {
+                        intValue = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        return -1;
+                    }
+                }
+                break;
+            case STCellType.INT_INLINE_STR:
+                if (cell.isSetIs()) {
+                    // rich text is read from the bean
+                    return -1;
+                }
+                flag |= TYPE_INLINE_STRING;
+                text = value;
+                break;
+            case STCellType.INT_STR:
+                flag |= TYPE_FORMULA_STRING;
+                text = value;
+                break;
+            default:
+                return -1;
+        }
+
+        return addSlot(flag, number, intValue, cell.isSetS() ? (int)cell.getS() : 0, text);
+    }
+
+    /**
+     * Decodes the raw attributes and value of a cell, which is streamed from the sheet data,
+     * into a new slot
+     *
+     * @param type the "t" attribute or {@code null}
+     * @param style the "s" attribute or {@code null}
+     * @param value the text of the "v" element or {@code null}
+     * @return the slot or -1, if the cell can't be reproduced from the slot and needs an xml bean
+     */
+    int add(String type, String style, String value) {
+        int styleIdx = 0;
+        if (style != null) {
+            try {
+                styleIdx = Integer.parseInt(style);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+
+        int flag = (value != null) ? FLAG_VALUE : 0;
+        double number = 0;
+        int intValue = 0;
+        String text = null;
+        if (type == null || "n".equals(type)) {
+            flag |= TYPE_NUMBER;
+            if (value != null) {
+                try {
+                    number = Double.parseDouble(value);
+                } catch (NumberFormatException e) {
+                    // keep the original text in the bean
+                    return -1;
+                }
+            }
+        } else if ("s".equals(type)) {
+            flag |= TYPE_SHARED_STRING;
+            if (value != null) {
+                try {
+                    intValue = Integer.parseInt(value);
+                } catch (NumberFormatException e) {
+                    return -1;
+                }
+            }
+        } else if ("b".equals(type)) {
+            flag |= TYPE_BOOLEAN;
+            text = value;
+        } else if ("e".equals(type)) {
+            flag |= TYPE_ERROR;
+            text = value;
+        } else if ("inlineStr".equals(type)) {
+            flag |= TYPE_INLINE_STRING;
+            text = value;
+        } else if ("str".equals(type)) {
+            flag |= TYPE_FORMULA_STRING;
+            text = value;
+        } else {
+            return -1;
+        }
+
+        return addSlot(flag, number, intValue, styleIdx, text);
+    }
+
+    private int addSlot(int flag, double number, int intValue, int style, String text) {
+        if (size == flags.length) {
+            int newLength = size * 2;
+            flags = Arrays.copyOf(flags, newLength);
+            numbers = Arrays.copyOf(numbers, newLength);
+            ints = Arrays.copyOf(ints, newLength);
+            styles = Arrays.copyOf(styles, newLength);
+            texts = Arrays.copyOf(texts, newLength);
+        }
+
+        final int slot = size++;
+        flags[slot] = (byte)flag;
+        numbers[slot] = number;
+        ints[slot] = intValue;
+        styles[slot] = style;
+        texts[slot] = text;
+        return slot;
+    }
+
+    /**
+     * Fills the type, style and value of a new cell bean from the given slot.
+     * The cell reference is set by the caller.
+     */
+    void writeTo(int slot, CTCell cell) {
+        switch (getType(slot)) {
+            case TYPE_BOOLEAN:
+                cell.setT(STCellType.B);
+                break;
+            case TYPE_ERROR:
+                cell.setT(STCellType.E);
+                break;
+            case TYPE_SHARED_STRING:
+                cell.setT(STCellType.S);
+                break;
+            case TYPE_INLINE_STRING:
+                cell.setT(STCellType.INLINE_STR);
+                break;
+            case TYPE_FORMULA_STRING:
+                cell.setT(STCellType.STR);
+                break;
+            default:
+                // numeric is the default type
+                break;
+        }
+
+        if (styles[slot] != 0) {
+            cell.setS(styles[slot]);
+        }
+
+        if (hasValue(slot)) {
+            cell.setV(getRawValue(slot));
+        }
+    }
+
+    /**
+     * @return the value of the slot as it is written to the "v" element, {@code null} if the value isn't set
+     */
+    String getRawValue(int slot) {
+        if (!hasValue(slot)) {
+            return null;
+        }
+        switch (getType(slot)) {
+            case TYPE_NUMBER:
+                double d = numbers[slot];
+                return (d == Math.rint(d) && Math.abs(d) < 1e15) ? Long.toString((long)d) : Double.toString(d);
+            case TYPE_SHARED_STRING:
+                return Integer.toString(ints[slot]);
+            default:
+                return texts[slot];
+        }
+    }
+
+    /**
+     * @return one of the {@code TYPE_*} constants
+     */
+    int getType(int slot) {
+        return flags[slot] & TYPE_MASK;
+    }
+
+    boolean hasValue(int slot) {
+        return (flags[slot] & FLAG_VALUE) != 0;
+    }
+
+    boolean isFormula(int slot) {
+        return (flags[slot] & FLAG_FORMULA) != 0;
+    }
+
+    boolean isValidNumber(int slot) {
+        return (flags[slot] & FLAG_NAN) == 0;
+    }
+
+    double getNumber(int slot) {
+        return numbers[slot];
+    }
+
+    int getSharedStringIndex(int slot) {
+        return ints[slot];
+    }
+
+    int getStyleIndex(int slot) {
+        return styles[slot];
+    }
+
+    /**
+     * @return the raw value of boolean, error and non-shared string cells, {@code null} if the value isn't set
+     */
+    String getText(int slot) {
+        return texts[slot];
+    }
+
+    /**
+     * @return the number of slots
+     */
+    int size() {
+        return size;
+    }
+}
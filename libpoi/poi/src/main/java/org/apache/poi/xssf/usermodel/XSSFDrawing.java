@@ -116,6 +116,7 @@ public final class XSSFDrawing extends POIXMLDocumentPart implements Drawing<XSS
         try (InputStream is = part.getInputStream()) {
             drawing = CTDrawing.Factory.parse(is, options);
         }
+        trackChanges(drawing);
     }
 
     /**
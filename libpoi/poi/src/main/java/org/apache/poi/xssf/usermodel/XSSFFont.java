@@ -66,6 +66,7 @@ public class XSSFFont implements Font {
     private ThemesTable _themes;
     private CTFont _ctFont;
     private int _index;
+    private StylesTable _stylesSource;
 
     /**
      * Create a new XSSFFont
@@ -299,6 +300,7 @@ public class XSSFFont implements Font {
      * @param bold - boldness to use
      */
     public void setBold(boolean bold) {
+        fontChanged();
         if(bold){
             CTBooleanProperty ctBold = _ctFont.sizeOfBArray() == 0 ? _ctFont.addNewB() : _ctFont.getBArray(0);
             ctBold.setVal(true);
@@ -314,6 +316,7 @@ public class XSSFFont implements Font {
      * @see FontCharset
      */
     public void setCharSet(byte charset) {
+        fontChanged();
        int cs = charset & 0xff;
        setCharSet(cs);
     }
@@ -324,6 +327,7 @@ public class XSSFFont implements Font {
      * @see FontCharset
      */
     public void setCharSet(int charset) {
+        fontChanged();
         FontCharset fontCharset = FontCharset.valueOf(charset);
         if(fontCharset != null) {
            setCharSet(fontCharset);
@@ -338,6 +342,7 @@ public class XSSFFont implements Font {
      * @param charSet
      */
     public void setCharSet(FontCharset charSet) {
+        fontChanged();
        CTIntProperty charsetProperty;
        if(_ctFont.sizeOfCharsetArray() == 0) {
           charsetProperty = _ctFont.addNewCharset();
@@ -357,6 +362,7 @@ public class XSSFFont implements Font {
      * @see IndexedColors
      */
     public void setColor(short color) {
+        fontChanged();
         CTColor ctColor = _ctFont.sizeOfColorArray() == 0 ? _ctFont.addNewColor() : _ctFont.getColorArray(0);
         switch (color) {
             case Font.COLOR_NORMAL: {
@@ -378,6 +384,7 @@ public class XSSFFont implements Font {
      * @param color - color to use
      */
     public void setColor(XSSFColor color) {
+        fontChanged();
         if(color == null) _ctFont.setColorArray(null);
         else {
             CTColor ctColor = _ctFont.sizeOfColorArray() == 0 ? _ctFont.addNewColor() : _ctFont.getColorArray(0);
@@ -394,6 +401,7 @@ public class XSSFFont implements Font {
      * @param height - height in points
      */
     public void setFontHeight(short height) {
+        fontChanged();
         setFontHeight((double) height/20);
     }
 
@@ -403,6 +411,7 @@ public class XSSFFont implements Font {
      * @param height - height in points
      */
     public void setFontHeight(double height) {
+        fontChanged();
         CTFontSize fontSize = _ctFont.sizeOfSzArray() == 0 ? _ctFont.addNewSz() : _ctFont.getSzArray(0);
         fontSize.setVal(height);
     }
@@ -413,6 +422,7 @@ public class XSSFFont implements Font {
      * @see #setFontHeight
      */
     public void setFontHeightInPoints(short height) {
+        fontChanged();
         setFontHeight((double)height);
     }
 
@@ -422,6 +432,7 @@ public class XSSFFont implements Font {
      * @param theme - theme color to use
      */
     public void setThemeColor(short theme) {
+        fontChanged();
         CTColor ctColor = _ctFont.sizeOfColorArray() == 0 ? _ctFont.addNewColor() : _ctFont.getColorArray(0);
         ctColor.setTheme(theme);
     }
@@ -438,6 +449,7 @@ public class XSSFFont implements Font {
      * @see #DEFAULT_FONT_NAME
      */
     public void setFontName(String name) {
+        fontChanged();
         CTFontName fontName = _ctFont.sizeOfNameArray() == 0 ? _ctFont.addNewName() : _ctFont.getNameArray(0);
         fontName.setVal(name == null ? DEFAULT_FONT_NAME : name);
     }
@@ -450,6 +462,7 @@ public class XSSFFont implements Font {
      * @param italic - value for italics or not
      */
     public void setItalic(boolean italic) {
+        fontChanged();
         if(italic){
             CTBooleanProperty bool = _ctFont.sizeOfIArray() == 0 ? _ctFont.addNewI() : _ctFont.getIArray(0);
             bool.setVal(true);
@@ -466,6 +479,7 @@ public class XSSFFont implements Font {
      * @param strikeout - value for strikeout or not
      */
     public void setStrikeout(boolean strikeout) {
+        fontChanged();
         if(strikeout) {
             CTBooleanProperty strike = _ctFont.sizeOfStrikeArray() == 0 ? _ctFont.addNewStrike() : _ctFont.getStrikeArray(0);
             strike.setVal(true);
@@ -485,6 +499,7 @@ public class XSSFFont implements Font {
      * @see #SS_SUB
      */
     public void setTypeOffset(short offset) {
+        fontChanged();
         if(offset == Font.SS_NONE){
             _ctFont.setVertAlignArray(null);
         } else {
@@ -513,6 +528,7 @@ public class XSSFFont implements Font {
      * @see FontUnderline
      */
     public void setUnderline(byte underline) {
+        fontChanged();
         setUnderline(FontUnderline.valueOf(underline));
     }
 
@@ -524,6 +540,7 @@ public class XSSFFont implements Font {
      * @param underline - FontUnderline enum value
      */
     public void setUnderline(FontUnderline underline) {
+        fontChanged();
         if(underline == FontUnderline.NONE && _ctFont.sizeOfUArray() > 0){
             _ctFont.setUArray(null);
         } else {
@@ -563,6 +580,21 @@ public class XSSFFont implements Font {
        this._themes = themes;
     }
 
+    /**
+     * Records the styles table, which contains this font,
+     *  so it can be notified of changes to the font.
+     */
+    @Internal
+    public void setStylesSource(StylesTable styles) {
+       this._stylesSource = styles;
+    }
+
+    private void fontChanged() {
+        if (_stylesSource != null) {
+            _stylesSource.onFontChanged(this);
+        }
+    }
+
     /**
      * get the font scheme property.
      * is used only in StylesTable to create the default instance of font
@@ -583,6 +615,7 @@ public class XSSFFont implements Font {
      * @see FontScheme
      */
     public void setScheme(FontScheme scheme) {
+        fontChanged();
         CTFontScheme ctFontScheme = _ctFont.sizeOfSchemeArray() == 0 ? _ctFont.addNewScheme() : _ctFont.getSchemeArray(0);
         STFontScheme.Enum val = STFontScheme.Enum.forInt(scheme.getValue());
         ctFontScheme.setVal(val);
@@ -608,6 +641,7 @@ public class XSSFFont implements Font {
      * @see FontFamily
      */
     public void setFamily(int value) {
+        fontChanged();
         CTIntProperty family = _ctFont.sizeOfFamilyArray() == 0 ? _ctFont.addNewFamily() : _ctFont.getFamilyArray(0);
         family.setVal(value);
     }
@@ -620,6 +654,7 @@ public class XSSFFont implements Font {
      * @see #setFamily(int value)
      */
     public void setFamily(FontFamily family) {
+        fontChanged();
         setFamily(family.getValue());
     }
 
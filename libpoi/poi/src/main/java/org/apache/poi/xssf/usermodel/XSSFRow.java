@@ -75,12 +75,16 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
         _row = row;
         _sheet = sheet;
         _cells = new TreeMap<>();
+        final XSSFCellValueCache valueCache = sheet.getCellValueCache();
         for (CTCell c : row.getCArray()) {
             XSSFCell cell = new XSSFCell(this, c);
             // Performance optimization for bug 57840: explicit boxing is slightly faster than auto-unboxing, though may use more memory
             final Integer colI = Integer.valueOf(cell.getColumnIndex()); // NOSONAR
             _cells.put(colI, cell);
             sheet.onReadCell(cell);
+            if (valueCache != null) {
+                cell.cacheValue(valueCache);
+            }
         }
 
         if (! row.isSetR()) {
@@ -94,6 +98,25 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
         }
     }
 
+    /**
+     * Construct a XSSFRow from a streamed row, whose plain value cells are only held by the
+     * cell value cache of the sheet.
+     *
+     * @param row the xml bean containing the row attributes and the cells, which need a bean
+     * @param sheet the parent sheet
+     * @param columns the column indexes of the cached cells
+     * @param slots the cache slots of the cached cells
+     * @param count the number of cached cells
+     */
+    XSSFRow(CTRow row, XSSFSheet sheet, int[] columns, int[] slots, int count) {
+        this(row, sheet);
+        final XSSFCellValueCache valueCache = sheet.getCellValueCache();
+        for (int i = 0; i < count; i++) {
+            // cached cells don't have formulas, so there's no need to notify the sheet
+            _cells.put(columns[i], new XSSFCell(this, columns[i], valueCache, slots[i]));
+        }
+    }
+
     /**
      * Returns the XSSFSheet this row belongs to
      *
@@ -526,13 +549,18 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
         // Performance optimization for bug 57840: explicit boxing is slightly faster than auto-unboxing, though may use more memory
         final Integer colI = Integer.valueOf(cell.getColumnIndex()); // NOSONAR
         XSSFCell removed = _cells.remove(colI);
+        if (!removed.hasCTCell()) {
+            // a streamed cell isn't part of the bean, so the change tracking doesn't notice its removal
+            _sheet.markDirty();
+            return;
+        }
 
         // also remove the corresponding CTCell from the _row.cArray,
         // it may not be at the same position right now
         // thus search for it
         int i = 0;
         for (CTCell ctCell : _row.getCArray()) {
-            if(ctCell == removed.getCTCell()) {
+            if(ctCell == removed.getCTCellForReading()) {
                 _row.removeC(i);
             }
             i++;
@@ -555,6 +583,15 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
      * @see org.apache.poi.xssf.usermodel.XSSFSheet#write(java.io.OutputStream) ()
      */
     protected void onDocumentWrite() {
+        // streamed cells get their beans now
+        int pos = 0;
+        for (XSSFCell cell : _cells.values()) {
+            if (!cell.hasCTCell()) {
+                cell.initCTCell(_row.insertNewC(pos));
+            }
+            pos++;
+        }
+
         // _row.cArray and _cells.getCTCell might be out of sync after adding/removing cells,
         // thus we need to re-order it here to make the resulting file correct
 
@@ -569,7 +606,7 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
                 // we want to compare on identity here on purpose
                 // as we want to ensure that both lists contain the
                 // same documents, not copies!
-                if (ctCell != cell.getCTCell()) {
+                if (ctCell != cell.getCTCellForReading()) {
                     allEqual = false;
                     break;
                 }
@@ -584,6 +621,29 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
         fixupCTCells(cArrayOrig);
     }
 
+    /**
+     * Creates the bean of a streamed cell, which is about to be modified or handed out
+     */
+    CTCell onCreateCTCell(XSSFCell cell) {
+        final Integer colI = Integer.valueOf(cell.getColumnIndex()); // NOSONAR
+        final CTCell ctCell;
+        if (_cells.get(colI) != cell) {
+            // the cell was removed from the row
+            ctCell = CTCell.Factory.newInstance();
+        } else {
+            // keep the document order of the cells, which already have a bean
+            int pos = 0;
+            for (XSSFCell c : _cells.headMap(colI).values()) {
+                if (c.hasCTCell()) {
+                    pos++;
+                }
+            }
+            ctCell = _row.insertNewC(pos);
+        }
+        cell.initCTCell(ctCell);
+        return ctCell;
+    }
+
     private void fixupCTCells(CTCell[] cArrayOrig) {
         // copy all values to 2nd array and a map for lookup of index
         CTCell[] cArrayCopy = new CTCell[cArrayOrig.length];
@@ -599,7 +659,7 @@ public class XSSFRow implements Row, Comparable<XSSFRow> {
         i = 0;
         for (XSSFCell cell : _cells.values()) {
             // no need to change anything if position is correct
-            Integer correctPosition = map.get(cell.getCTCell());
+            Integer correctPosition = map.get(cell.getCTCellForReading());
             Objects.requireNonNull(correctPosition, "Should find CTCell in _row");
             if(correctPosition != i) {
                 // we need to re-populate this CTCell
@@ -21,6 +21,8 @@ import com.android.compaty.util.MathCompaty;
 
 import org.apache.poi.ooxml.POIXMLDocumentPart;
 import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.ooxml.POIXMLFactory;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.openxml4j.exceptions.PartAlreadyExistsException;
 import org.apache.poi.openxml4j.opc.PackagePart;
@@ -59,16 +61,19 @@ import org.apache.poi.util.POILogFactory;
 import org.apache.poi.util.POILogger;
 import org.apache.poi.util.Removal;
 import org.apache.poi.util.Units;
+import org.apache.poi.util.XMLHelper;
 import org.apache.poi.xssf.model.CommentsTable;
 import org.apache.poi.xssf.usermodel.XSSFPivotTable.PivotTableReferenceConfigurator;
 import org.apache.poi.xssf.usermodel.helpers.ColumnHelper;
 import org.apache.poi.xssf.usermodel.helpers.XSSFColumnShifter;
 import org.apache.poi.xssf.usermodel.helpers.XSSFIgnoredErrorHelper;
 import org.apache.poi.xssf.usermodel.helpers.XSSFRowShifter;
+import org.apache.xmlbeans.XmlBeans;
 import org.apache.xmlbeans.XmlCursor;
 import org.apache.xmlbeans.XmlException;
 import org.apache.xmlbeans.XmlObject;
 import org.apache.xmlbeans.XmlOptions;
+import org.apache.xmlbeans.XmlSaxHandler;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTAutoFilter;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTBreak;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTCalcPr;
@@ -100,6 +105,7 @@ import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRow;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTSelection;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTSheet;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTSheetCalcPr;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTSheetData;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTSheetFormatPr;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTSheetPr;
 import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTSheetProtection;
@@ -121,6 +127,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
@@ -131,9 +139,14 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 
 import javax.xml.namespace.QName;
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
 import static org.apache.poi.ooxml.POIXMLTypeLoader.DEFAULT_XML_OPTIONS;
 import static org.apache.poi.xssf.usermodel.helpers.XSSFPasswordHelper.setPassword;
 import static org.apache.poi.xssf.usermodel.helpers.XSSFPasswordHelper.validatePassword;
@@ -177,6 +190,17 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
     private List<CellRangeAddress> arrayFormulas;
     private XSSFDataValidationHelper dataValidationHelper;
 
+    /**
+     * the factory for reading the worksheet and its related parts on first access,
+     * if the workbook reads its sheets lazily
+     */
+    private POIXMLFactory pendingReadFactory;
+
+    /**
+     * the decoded cell values, if the workbook was read with cell value caching
+     */
+    private XSSFCellValueCache cellValueCache;
+
     /**
      * Creates new XSSFSheet   - called by XSSFWorkbook to create a sheet from scratch.
      *
@@ -211,6 +235,42 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         return (XSSFWorkbook)getParent();
     }
 
+    @Override
+    protected void read(POIXMLFactory factory, Map<PackagePart, POIXMLDocumentPart> context) throws OpenXML4JException {
+        POIXMLDocumentPart parent = getParent();
+        if (parent instanceof XSSFWorkbook && ((XSSFWorkbook)parent).isReadingSheetsLazily()) {
+            // defer the related parts until the sheet is accessed
+            context.put(getPackagePart(), this);
+            pendingReadFactory = factory;
+            return;
+        }
+        super.read(factory, context);
+    }
+
+    /**
+     * @return {@code true}, if the worksheet hasn't been read yet because of lazy sheet loading
+     */
+    boolean isReadPending() {
+        return pendingReadFactory != null;
+    }
+
+    /**
+     * Reads the worksheet and its related parts, if this was deferred by lazy sheet loading
+     */
+    void readIfPending() {
+        POIXMLFactory factory = pendingReadFactory;
+        if (factory == null) {
+            return;
+        }
+        pendingReadFactory = null;
+        try {
+            super.read(factory, getWorkbook().getDocumentPartContext());
+        } catch (OpenXML4JException e) {
+            throw new POIXMLException(e);
+        }
+        onDocumentRead();
+    }
+
     /**
      * Initialize worksheet data when reading in an exisiting file.
      */
@@ -224,13 +284,31 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
     }
 
     protected void read(InputStream is) throws IOException {
-        try {
-            worksheet = WorksheetDocument.Factory.parse(is, DEFAULT_XML_OPTIONS).getWorksheet();
-        } catch (XmlException e){
-            throw new POIXMLException(e);
-        }
+        XSSFWorkbook wb = getWorkbook();
+        cellValueCache = (wb != null && wb.isCachingCellValues()) ? new XSSFCellValueCache() : null;
 
-        initRows(worksheet);
+        if (wb != null && wb.isStreamedSheetData()) {
+            // the sheet data is filtered out of the SAX events, before they are passed to XmlBeans
+            final XSSFSheetDataReader reader = new XSSFSheetDataReader(cellValueCache);
+            try {
+                XmlSaxHandler handler = XmlBeans.getContextTypeLoader().newXmlSaxHandler(WorksheetDocument.type, DEFAULT_XML_OPTIONS);
+                reader.setContentHandler(handler.getContentHandler());
+                XMLReader xmlReader = XMLHelper.newXMLReader();
+                xmlReader.setContentHandler(reader);
+                xmlReader.parse(new InputSource(is));
+                worksheet = ((WorksheetDocument)handler.getObject()).getWorksheet();
+            } catch (SAXException | ParserConfigurationException | XmlException e){
+                throw new POIXMLException(e);
+            }
+            initRows(worksheet, reader);
+        } else {
+            try {
+                worksheet = WorksheetDocument.Factory.parse(is, DEFAULT_XML_OPTIONS).getWorksheet();
+            } catch (XmlException e){
+                throw new POIXMLException(e);
+            }
+            initRows(worksheet);
+        }
         columnHelper = new ColumnHelper(worksheet);
         // Look for bits we're interested in
         for(RelationPart rp : getRelationParts()){
@@ -242,12 +320,14 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
                 tables.put( rp.getRelationship().getId(), (XSSFTable)p );
             }
             if(p instanceof XSSFPivotTable) {
-                getWorkbook().getPivotTables().add((XSSFPivotTable) p);
+                getWorkbook().getReadPivotTables().add((XSSFPivotTable) p);
             }
         }
 
         // Process external hyperlinks for the sheet, if there are any
         initHyperlinks();
+
+        trackChanges(worksheet);
     }
 
     /**
@@ -275,6 +355,20 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         }
     }
 
+    /**
+     * Creates the rows from the streamed sheet data. The rows are added one by one,
+     * as rows without a row number are numbered after their predecessor.
+     */
+    private void initRows(CTWorksheet worksheetParam, XSSFSheetDataReader reader) {
+        initRows(worksheetParam);
+        final CTSheetData sheetData = worksheetParam.getSheetData();
+        for (int i = 0; i < reader.getRowCount(); i++) {
+            XSSFRow r = reader.createRow(i, sheetData, this);
+            final Integer rownumI = Integer.valueOf(r.getRowNum()); // NOSONAR
+            _rows.put(rownumI, r);
+        }
+    }
+
     /**
      * Read hyperlink relations, link them with CTHyperlink beans in this worksheet
      * and initialize the internal array of XSSFHyperlink objects
@@ -3040,8 +3134,6 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         rowShifter.updateFormulas(formulaShifter);
         rowShifter.updateConditionalFormatting(formulaShifter);
         rowShifter.updateHyperlinks(formulaShifter);
-
-        rebuildRows();
     }
 
     /**
@@ -3083,8 +3175,13 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
 
     // remove all rows which will be overwritten
     private void removeOverwritten(XSSFVMLDrawing vml, int startRow, int endRow, final int n){
-        for (Iterator<Row> it = rowIterator() ; it.hasNext() ; ) {
-            XSSFRow row = (XSSFRow)it.next();
+        // only rows of the target window can be overwritten
+        final Integer fromI = Integer.valueOf(startRow + n);
+        final Integer toI = Integer.valueOf(endRow + n + 1);
+        final Collection<XSSFRow> window = _rows.subMap(fromI, toI).values();
+        final Set<Integer> removed = new HashSet<>();
+        for (Iterator<XSSFRow> it = window.iterator(); it.hasNext(); ) {
+            XSSFRow row = it.next();
             int rownum = row.getRowNum();
 
             // check if we should remove this row as it will be overwritten by the data later
@@ -3092,108 +3189,103 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
                 // remove row from worksheet.getSheetData row array
                 // Performance optimization: explicit boxing is slightly faster than auto-unboxing, though may use more memory
                 //noinspection UnnecessaryBoxing
-                final Integer rownumI = Integer.valueOf(row.getRowNum()); // NOSONAR
+                final Integer rownumI = Integer.valueOf(rownum); // NOSONAR
                 int idx = _rows.headMap(rownumI).size();
                 worksheet.getSheetData().removeRow(idx);
 
                 // remove row from _rows
                 it.remove();
+                removed.add(rownumI);
+            }
+        }
 
-                // FIXME: (performance optimization) this should be moved outside the for-loop so that comments only needs to be iterated over once.
-                // also remove any comments associated with this row
-                if(sheetComments != null){
-                    CTCommentList lst = sheetComments.getCTComments().getCommentList();
-                    for (CTComment comment : lst.getCommentArray()) {
-                        String strRef = comment.getRef();
-                        CellAddress ref = new CellAddress(strRef);
-
-                        // is this comment part of the current row?
-                        if(ref.getRow() == rownum) {
-                            sheetComments.removeComment(ref);
-                            vml.removeCommentShape(ref.getRow(), ref.getColumn());
-                        }
+        if (removed.isEmpty()) {
+            return;
+        }
+
+        // also remove any comments associated with the removed rows
+        if(sheetComments != null){
+            CTCommentList lst = sheetComments.getCTComments().getCommentList();
+            for (CTComment comment : lst.getCommentArray()) {
+                String strRef = comment.getRef();
+                CellAddress ref = new CellAddress(strRef);
+
+                // is this comment part of a removed row?
+                if(removed.contains(ref.getRow())) {
+                    sheetComments.removeComment(ref);
+                    if (vml != null) {
+                        vml.removeCommentShape(ref.getRow(), ref.getColumn());
                     }
                 }
-                // FIXME: (performance optimization) this should be moved outside the for-loop so that hyperlinks only needs to be iterated over once.
-                // also remove any hyperlinks associated with this row
-                if (hyperlinks != null) {
-                    for (XSSFHyperlink link : new ArrayList<>(hyperlinks)) {
-                        CellReference ref = new CellReference(link.getCellRef());
-                        if (ref.getRow() == rownum) {
-                            hyperlinks.remove(link);
-                        }
-                    }
+            }
+        }
+        // also remove any hyperlinks associated with the removed rows
+        if (hyperlinks != null) {
+            for (Iterator<XSSFHyperlink> it = hyperlinks.iterator(); it.hasNext(); ) {
+                CellReference ref = new CellReference(it.next().getCellRef());
+                if (removed.contains(ref.getRow())) {
+                    it.remove();
                 }
             }
         }
-
     }
 
     private void shiftCommentsAndRows(XSSFVMLDrawing vml, int startRow, int endRow, final int n){
         // then do the actual moving and also adjust comments/rowHeight
         // we need to sort it in a way so the shifting does not mess up the structures,
         // i.e. when shifting down, start from down and go up, when shifting up, vice-versa
-        SortedMap<XSSFComment, Integer> commentsToShift = new TreeMap<>((o1, o2) -> {
-            int row1 = o1.getRow();
-            int row2 = o2.getRow();
-
-            if (row1 == row2) {
-                // ordering is not important when row is equal, but don't return zero to still
-                // get multiple comments per row into the map
-                return o1.hashCode() - o2.hashCode();
-            }
-
-            // when shifting down, sort higher row-values first
-            if (n > 0) {
-                return row1 < row2 ? 1 : -1;
-            } else {
-                // sort lower-row values first when shifting up
-                return row1 > row2 ? 1 : -1;
-            }
-        });
-
+        final List<XSSFComment> commentsToShift = new ArrayList<>();
+        final Map<XSSFComment, Integer> newRows = new IdentityHashMap<>();
 
-        for (Iterator<Row> it = rowIterator() ; it.hasNext() ; ) {
-            XSSFRow row = (XSSFRow)it.next();
-            int rownum = row.getRowNum();
+        if(sheetComments != null){
+            CTCommentList lst = sheetComments.getCTComments().getCommentList();
+            for (CTComment comment : lst.getCommentArray()) {
+                String oldRef = comment.getRef();
+                CellReference ref = new CellReference(oldRef);
 
-            if(sheetComments != null){
                 // calculate the new rownum
+                int rownum = ref.getRow();
                 int newrownum = shiftedRowNum(startRow, endRow, n, rownum);
 
                 // is there a change necessary for the current row?
-                if(newrownum != rownum) {
-                    CTCommentList lst = sheetComments.getCTComments().getCommentList();
-                    for (CTComment comment : lst.getCommentArray()) {
-                        String oldRef = comment.getRef();
-                        CellReference ref = new CellReference(oldRef);
-
-                        // is this comment part of the current row?
-                        if(ref.getRow() == rownum) {
-                            XSSFComment xssfComment = new XSSFComment(sheetComments, comment,
-                                    vml == null ? null : vml.findCommentShape(rownum, ref.getCol()));
-
-                            // we should not perform the shifting right here as we would then find
-                            // already shifted comments and would shift them again...
-                            commentsToShift.put(xssfComment, newrownum);
-                        }
-                    }
+                // (comments of rows without cells don't move, as the row isn't moved either)
+                if(newrownum != rownum && _rows.containsKey(rownum)) {
+                    XSSFComment xssfComment = new XSSFComment(sheetComments, comment,
+                            vml == null ? null : vml.findCommentShape(rownum, ref.getCol()));
+
+                    // we should not perform the shifting right here as we would then find
+                    // already shifted comments and would shift them again...
+                    commentsToShift.add(xssfComment);
+                    newRows.put(xssfComment, newrownum);
                 }
             }
+        }
 
-            if(rownum < startRow || rownum > endRow) {
-                continue;
-            }
+        // when shifting down, sort higher row-values first, when shifting up, sort lower-row values first
+        Collections.sort(commentsToShift, (o1, o2) -> (n > 0)
+                ? Integer.compare(o2.getRow(), o1.getRow())
+                : Integer.compare(o1.getRow(), o2.getRow()));
+
+        // move the row entries - the overwritten rows were already removed, so only the
+        // shifted block changes its keys and the XSSFRow instances are kept
+        final Integer startI = Integer.valueOf(startRow);
+        final Integer endI = Integer.valueOf(endRow + 1);
+        final SortedMap<Integer, XSSFRow> block = _rows.subMap(startI, endI);
+        final List<XSSFRow> shifted = new ArrayList<>(block.values());
+        block.clear();
+        for (XSSFRow row : shifted) {
             row.shift(n);
+            // Performance optimization: explicit boxing is slightly faster than auto-unboxing, though may use more memory
+            //noinspection UnnecessaryBoxing
+            _rows.put(Integer.valueOf(row.getRowNum()), row); // NOSONAR
         }
+
         // adjust all the affected comment-structures now
-        // the Map is sorted and thus provides them in the order that we need here,
+        // the list is sorted and thus provides them in the order that we need here,
         // i.e. from down to up if shifting down, vice-versa otherwise
-        for(Map.Entry<XSSFComment, Integer> entry : commentsToShift.entrySet()) {
-            entry.getKey().setRow(entry.getValue());
+        for(XSSFComment comment : commentsToShift) {
+            comment.setRow(newRows.get(comment));
         }
-
-        rebuildRows();
     }
 
     private int shiftedRowNum(int startRow, int endRow, int n, int rownum) {
@@ -3398,6 +3490,7 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
     @Internal
     public void addHyperlink(XSSFHyperlink hyperlink) {
         hyperlinks.add(hyperlink);
+        markDirty();
     }
 
     /**
@@ -3416,6 +3509,7 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
             XSSFHyperlink hyperlink = it.next();
             if (hyperlink.getCellRef().equals(ref)) {
                 it.remove();
+                markDirty();
                 return;
             }
         }
@@ -3553,6 +3647,14 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         return sharedFormulas.get(sid);
     }
 
+    /**
+     * @return the cache for the cell values of the rows which are read, or {@code null}
+     *  if the cell values are read from the xml beans
+     */
+    XSSFCellValueCache getCellValueCache() {
+        return cellValueCache;
+    }
+
     void onReadCell(XSSFCell cell){
         //collect cells holding shared formulas
         CTCell ct = cell.getCTCell();
@@ -3580,8 +3682,28 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
         }
     }
 
+    /**
+     * The hyperlinks are kept outside of the worksheet bean until the sheet is written,
+     * so a sheet with hyperlinks is always committed
+     */
+    @Override
+    public boolean isDirty() {
+        return super.isDirty() || (hyperlinks != null && !hyperlinks.isEmpty());
+    }
+
+    @Override
+    protected void prepareForCommit() {
+        // an unread sheet keeps its original content
+        if (!isReadPending()) {
+            super.prepareForCommit();
+        }
+    }
+
     @Override
     protected void commit() throws IOException {
+        if (isReadPending()) {
+            return;
+        }
         PackagePart part = getPackagePart();
         OutputStream out = part.getOutputStream();
         write(out);
@@ -4552,7 +4674,7 @@ public class XSSFSheet extends POIXMLDocumentPart implements Sheet  {
     @Beta
     public List<XSSFPivotTable> getPivotTables() {
         List<XSSFPivotTable> tables = new ArrayList<>();
-        for (XSSFPivotTable table : getWorkbook().getPivotTables()) {
+        for (XSSFPivotTable table : getWorkbook().getReadPivotTables()) {
             if (table.getParent() == this) {
                 tables.add(table);
             }
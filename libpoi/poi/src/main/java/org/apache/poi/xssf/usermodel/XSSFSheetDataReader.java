@@ -0,0 +1,358 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.usermodel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.Internal;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTRow;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTSheetData;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+/**
+ * Streams the {@code <sheetData>} element of a worksheet, while XmlBeans parses the rest of it.<p>
+ *
+ * The SAX events of the worksheet are passed through this filter to the content handler of an
+ * {@link org.apache.xmlbeans.XmlSaxHandler}. The children of the {@code <sheetData>} element are
+ * consumed by the filter, so XmlBeans only sees an empty element. Plain value cells, i.e. cells
+ * with only a {@code <v>} element and the {@code r}, {@code s} and {@code t} attributes, are decoded
+ * into the {@link XSSFCellValueCache} and don't get an xml bean. The remaining cells, e.g. formula
+ * or rich text cells, are kept as a small element tree and copied into beans when the rows are created.
+ */
+@Internal
+final class XSSFSheetDataReader extends XMLFilterImpl {
+    private static final String NS = XSSFRelation.NS_SPREADSHEETML;
+
+    private final XSSFCellValueCache cache;
+    private final List<RowData> rows = new ArrayList<>();
+
+    /** the depth of the current element in the worksheet */
+    private int depth;
+    /** the depth of the sheet data element, or -1 outside of it */
+    private int sheetDataDepth = -1;
+    /** the open elements within the sheet data, starting with a row */
+    private final List<Element> open = new ArrayList<>();
+    private int lastRow = -1;
+
+    XSSFSheetDataReader(XSSFCellValueCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+        depth++;
+        if (sheetDataDepth == -1) {
+            if ("sheetData".equals(localName) && NS.equals(uri)) {
+                sheetDataDepth = depth;
+            }
+            super.startElement(uri, localName, qName, atts);
+            return;
+        }
+
+        Element e = new Element(new QName(uri, localName));
+        for (int i = 0; i < atts.getLength(); i++) {
+            e.attrNames.add(new QName(atts.getURI(i), atts.getLocalName(i)));
+            e.attrValues.add(atts.getValue(i));
+        }
+        if (!open.isEmpty()) {
+            open.get(open.size() - 1).add(e);
+        }
+        // the schema doesn't allow other children than rows, they are read but dropped
+        open.add(e);
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        if (sheetDataDepth != -1 && depth > sheetDataDepth) {
+            depth--;
+            Element e = open.remove(open.size() - 1);
+            if (open.isEmpty() && "row".equals(e.name.getLocalPart()) && NS.equals(e.name.getNamespaceURI())) {
+                readRow(e);
+            }
+            return;
+        }
+
+        if (depth == sheetDataDepth) {
+            sheetDataDepth = -1;
+        }
+        depth--;
+        super.endElement(uri, localName, qName);
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) throws SAXException {
+        if (sheetDataDepth == -1) {
+            super.characters(ch, start, length);
+        } else if (!open.isEmpty()) {
+            open.get(open.size() - 1).add(new String(ch, start, length));
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+        if (sheetDataDepth == -1) {
+            super.ignorableWhitespace(ch, start, length);
+        }
+    }
+
+    @Override
+    public void startPrefixMapping(String prefix, String uri) throws SAXException {
+        // the streamed elements are copied by their qualified names
+        if (sheetDataDepth == -1) {
+            super.startPrefixMapping(prefix, uri);
+        }
+    }
+
+    @Override
+    public void endPrefixMapping(String prefix) throws SAXException {
+        if (sheetDataDepth == -1) {
+            super.endPrefixMapping(prefix);
+        }
+    }
+
+    @Override
+    public void processingInstruction(String target, String data) throws SAXException {
+        if (sheetDataDepth == -1) {
+            super.processingInstruction(target, data);
+        }
+    }
+
+    /**
+     * @return the number of rows which were streamed
+     */
+    int getRowCount() {
+        return rows.size();
+    }
+
+    /**
+     * Creates the bean of the given streamed row in the sheet data and the {@link XSSFRow} for it.
+     * The rows need to be created in their document order.
+     */
+    XSSFRow createRow(int index, CTSheetData sheetData, XSSFSheet sheet) {
+        RowData rd = rows.get(index);
+        // release the element trees as soon as they are copied
+        rows.set(index, null);
+
+        CTRow ctRow = sheetData.addNewRow();
+        copy(rd.row, ctRow);
+        return new XSSFRow(ctRow, sheet, rd.columns, rd.slots, rd.count);
+    }
+
+    /**
+     * Splits a completely read row into its cached cells and the element tree of the remaining content
+     */
+    private void readRow(Element row) {
+        final RowData rd = new RowData(new Element(row.name));
+        rd.row.attrNames.addAll(row.attrNames);
+        rd.row.attrValues.addAll(row.attrValues);
+        rows.add(rd);
+
+        String r = row.getAttribute("r");
+        final int rowNum = (r == null) ? lastRow + 1 : Integer.parseInt(r) - 1;
+        lastRow = rowNum;
+
+        int lastCol = -1;
+        for (Object child : row.content) {
+            if (!(child instanceof Element)) {
+                // whitespace between the cells
+                continue;
+            }
+            final Element c = (Element)child;
+            if (!("c".equals(c.name.getLocalPart()) && NS.equals(c.name.getNamespaceURI()))) {
+                // e.g. extLst
+                rd.row.add(c);
+                continue;
+            }
+
+            final String ref = c.getAttribute("r");
+            final int col = (ref == null) ? lastCol + 1 : columnOf(ref);
+            lastCol = col;
+
+            final int slot = isPlainCell(c) ? cache.add(c.getAttribute("t"), c.getAttribute("s"), valueOf(c)) : -1;
+            if (slot == -1) {
+                if (ref == null) {
+                    // the bean is created before the other cells of the row are known
+                    c.setAttribute("r", new CellReference(rowNum, col).formatAsString());
+                }
+                rd.row.add(c);
+            } else {
+                rd.add(col, slot);
+            }
+        }
+    }
+
+    /**
+     * @return {@code true}, if the cell consists of nothing but the attributes and the value,
+     *  which are held by the cache
+     */
+    private static boolean isPlainCell(Element c) {
+        for (QName name : c.attrNames) {
+            if (!name.getNamespaceURI().isEmpty()) {
+                return false;
+            }
+            String local = name.getLocalPart();
+            if (!("r".equals(local) || "s".equals(local) || "t".equals(local))) {
+                return false;
+            }
+        }
+        Element v = null;
+        for (Object child : c.content) {
+            if (child instanceof Element) {
+                Element e = (Element)child;
+                if (v != null || !NS.equals(e.name.getNamespaceURI()) || !"v".equals(e.name.getLocalPart())
+                    || !e.attrNames.isEmpty()) {
+                    return false;
+                }
+                for (Object o : e.content) {
+                    if (o instanceof Element) {
+                        return false;
+                    }
+                }
+                v = e;
+            } else if (!((String)child).trim().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String valueOf(Element c) {
+        for (Object child : c.content) {
+            if (child instanceof Element) {
+                Element v = (Element)child;
+                StringBuilder sb = new StringBuilder();
+                for (Object o : v.content) {
+                    sb.append((String)o);
+                }
+                return sb.toString();
+            }
+        }
+        return null;
+    }
+
+    private static int columnOf(String ref) {
+        int col = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char ch = ref.charAt(i);
+            if (ch >= 'A' && ch <= 'Z') {
+                col = col * 26 + (ch - 'A' + 1);
+            } else if (ch >= 'a' && ch <= 'z') {
+                col = col * 26 + (ch - 'a' + 1);
+            } else if (ch != '$') {
+                break;
+            }
+        }
+        return col - 1;
+    }
+
+    /**
+     * Copies the attributes and the content of the element into the empty bean
+     */
+    private static void copy(Element e, XmlObject target) {
+        XmlCursor cur = target.newCursor();
+        try {
+            cur.toEndToken();
+            copyContent(e, cur);
+        } finally {
+            cur.dispose();
+        }
+    }
+
+    private static void copyContent(Element e, XmlCursor cur) {
+        for (int i = 0; i < e.attrNames.size(); i++) {
+            cur.insertAttributeWithValue(e.attrNames.get(i), e.attrValues.get(i));
+        }
+        for (Object child : e.content) {
+            if (child instanceof Element) {
+                Element ce = (Element)child;
+                cur.beginElement(ce.name);
+                copyContent(ce, cur);
+                // move behind the end of the new element
+                cur.toNextToken();
+            } else {
+                cur.insertChars((String)child);
+            }
+        }
+    }
+
+    /**
+     * A minimal element tree of the parts, which aren't cached
+     */
+    private static final class Element {
+        final QName name;
+        final List<QName> attrNames = new ArrayList<>(4);
+        final List<String> attrValues = new ArrayList<>(4);
+        final List<Object> content = new ArrayList<>(2);
+
+        Element(QName name) {
+            this.name = name;
+        }
+
+        String getAttribute(String localName) {
+            for (int i = 0; i < attrNames.size(); i++) {
+                QName n = attrNames.get(i);
+                if (n.getNamespaceURI().isEmpty() && localName.equals(n.getLocalPart())) {
+                    return attrValues.get(i);
+                }
+            }
+            return null;
+        }
+
+        void setAttribute(String localName, String value) {
+            attrNames.add(new QName(localName));
+            attrValues.add(value);
+        }
+
+        void add(Object child) {
+            content.add(child);
+        }
+    }
+
+    /**
+     * A streamed row with its element tree and the cache slots of its plain cells
+     */
+    private static final class RowData {
+        final Element row;
+        int[] columns = new int[8];
+        int[] slots = new int[8];
+        int count;
+
+        RowData(Element row) {
+            this.row = row;
+        }
+
+        void add(int col, int slot) {
+            if (count == columns.length) {
+                columns = Arrays.copyOf(columns, count * 2);
+                slots = Arrays.copyOf(slots, count * 2);
+            }
+            columns[count] = col;
+            slots[count] = slot;
+            count++;
+        }
+    }
+}
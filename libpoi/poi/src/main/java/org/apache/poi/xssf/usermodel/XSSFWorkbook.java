@@ -240,6 +240,36 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
 
     private final XSSFFactory xssfFactory;
 
+    /**
+     * Should the sheets of workbooks, which are read afterwards, be parsed on first access?
+     */
+    private static boolean lazySheetLoading;
+
+    /**
+     * Are the sheets of this workbook parsed on first access?
+     */
+    private boolean readSheetsLazily;
+
+    /**
+     * Should the cell values of workbooks, which are read afterwards, be decoded into a cache?
+     */
+    private static boolean cellValueCaching;
+
+    /**
+     * Are the cell values of this workbook read from a cache?
+     */
+    private boolean cacheCellValues;
+
+    /**
+     * Should the sheet data of workbooks, which are read afterwards, be streamed?
+     */
+    private static boolean streamingSheetData;
+
+    /**
+     * Is the sheet data of this workbook streamed?
+     */
+    private boolean streamSheetData;
+
     /**
      * Create a new SpreadsheetML workbook.
      */
@@ -281,6 +311,9 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
     public XSSFWorkbook(OPCPackage pkg) throws IOException {
         super(pkg);
         this.xssfFactory = XSSFFactory.getInstance();
+        this.readSheetsLazily = lazySheetLoading;
+        this.cacheCellValues = cellValueCaching;
+        this.streamSheetData = streamingSheetData;
 
         beforeDocumentRead();
 
@@ -351,6 +384,129 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
         this(part.getInputStream());
     }
 
+    /**
+     * Enables or disables lazy sheet loading for the workbooks, which are read afterwards.<p>
+     *
+     * When enabled, a sheet and its related parts, e.g. comments, drawings and pivot tables,
+     * are only parsed when the sheet is accessed the first time via the workbook. Sheets which
+     * are never accessed are copied unchanged when the workbook is written.
+     *
+     * @param lazy {@code true} to parse the sheets on first access, defaults to {@code false}
+     */
+    @Beta
+    public static void setLazySheetLoading(boolean lazy) {
+        lazySheetLoading = lazy;
+    }
+
+    /**
+     * @return {@code true}, if workbooks read afterwards parse their sheets on first access
+     * @see #setLazySheetLoading(boolean)
+     */
+    @Beta
+    public static boolean isLazySheetLoading() {
+        return lazySheetLoading;
+    }
+
+    /**
+     * Enables or disables the cell value cache for the workbooks, which are read afterwards.<p>
+     *
+     * When enabled, the cell values of a sheet are decoded into compact primitive arrays when the
+     * sheet is read, and the value getters of {@link XSSFCell} read from those arrays instead of the
+     * xml beans. This speeds up reading whole sheets via the usermodel at the cost of decoding
+     * each cell upfront. A cell falls back to its xml bean once it's modified, so the cache is
+     * meant for workbooks which are mainly read.
+     *
+     * @param enabled {@code true} to cache the cell values, defaults to {@code false}
+     */
+    @Beta
+    public static void setCellValueCaching(boolean enabled) {
+        cellValueCaching = enabled;
+    }
+
+    /**
+     * @return {@code true}, if workbooks read afterwards cache their cell values
+     * @see #setCellValueCaching(boolean)
+     */
+    @Beta
+    public static boolean isCellValueCaching() {
+        return cellValueCaching;
+    }
+
+    /**
+     * @return {@code true}, if the cell values of this workbook are cached
+     */
+    boolean isCachingCellValues() {
+        return cacheCellValues || streamSheetData;
+    }
+
+    /**
+     * Enables or disables streaming the sheet data of the workbooks, which are read afterwards.<p>
+     *
+     * When enabled, the worksheet is parsed via SAX and the {@code <sheetData>} is filtered out
+     * of the events, which are passed on to XmlBeans, so XmlBeans only parses the remaining
+     * worksheet parts. Cells, which consist of nothing but a value, are decoded into the cell
+     * value cache (see {@link #setCellValueCaching(boolean)}) and don't get an xml bean until
+     * they are modified or the workbook is written. Formula and rich text cells are still read
+     * into xml beans. This reduces the memory and time needed to read large value-only sheets.
+     *
+     * @param enabled {@code true} to stream the sheet data, defaults to {@code false}
+     */
+    @Beta
+    public static void setStreamingSheetData(boolean enabled) {
+        streamingSheetData = enabled;
+    }
+
+    /**
+     * @return {@code true}, if workbooks read afterwards stream their sheet data
+     * @see #setStreamingSheetData(boolean)
+     */
+    @Beta
+    public static boolean isStreamingSheetData() {
+        return streamingSheetData;
+    }
+
+    /**
+     * @return {@code true}, if the sheet data of this workbook is streamed
+     */
+    boolean isStreamedSheetData() {
+        return streamSheetData;
+    }
+
+    /**
+     * @return {@code true}, if the sheets of this workbook are parsed on first access
+     */
+    boolean isReadingSheetsLazily() {
+        return readSheetsLazily;
+    }
+
+    /**
+     * Collects the document parts, which have been created so far, so a lazily read sheet
+     * reuses the parts which it shares with the workbook or other sheets
+     */
+    Map<PackagePart, POIXMLDocumentPart> getDocumentPartContext() {
+        Map<PackagePart, POIXMLDocumentPart> context = new HashMap<>();
+        collectDocumentParts(this, context);
+        return context;
+    }
+
+    private static void collectDocumentParts(POIXMLDocumentPart part, Map<PackagePart, POIXMLDocumentPart> context) {
+        if (context.put(part.getPackagePart(), part) != null) {
+            return;
+        }
+        for (POIXMLDocumentPart p : part.getRelations()) {
+            collectDocumentParts(p, context);
+        }
+    }
+
+    /**
+     * Reads all sheets, which haven't been accessed yet
+     */
+    private void readPendingSheets() {
+        for (XSSFSheet sh : sheets) {
+            sh.readIfPending();
+        }
+    }
+
     protected void beforeDocumentRead() {
         // Ensure it isn't a XLSB file, which we don't support
         if (getCorePart().getContentType().equals(XSSFRelation.XLSB_BINARY_WORKBOOK.getContentType())) {
@@ -451,7 +607,9 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
             return;
         }
         sh.sheet = ctSheet;
-        sh.onDocumentRead();
+        if (!sh.isReadPending()) {
+            sh.onDocumentRead();
+        }
         sheets.add(sh);
     }
 
@@ -611,7 +769,7 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
      */
     public XSSFSheet cloneSheet(int sheetNum, String newName) {
         validateSheetIndex(sheetNum);
-        XSSFSheet srcSheet = sheets.get(sheetNum);
+        XSSFSheet srcSheet = getSheetAt(sheetNum);
 
         if (newName == null) {
             String srcName = srcSheet.getSheetName();
@@ -977,6 +1135,15 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
         return stylesSource.getStyleAt(idx);
     }
 
+    /**
+     * Finds the first cell style with the given format properties
+     * via the hash index of the styles table.
+     */
+    @Override
+    public XSSFCellStyle findCellStyle(Map<String, Object> properties) {
+        return stylesSource.findCellStyle(properties);
+    }
+
     @Override
     public XSSFFont getFontAt(short idx) {
         return stylesSource.getFontAt(idx);
@@ -1135,6 +1302,7 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
     public XSSFSheet getSheet(String name) {
         for (XSSFSheet sheet : sheets) {
             if (name.equalsIgnoreCase(sheet.getSheetName())) {
+                sheet.readIfPending();
                 return sheet;
             }
         }
@@ -1152,7 +1320,9 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
     @Override
     public XSSFSheet getSheetAt(int index) {
         validateSheetIndex(index);
-        return sheets.get(index);
+        XSSFSheet sheet = sheets.get(index);
+        sheet.readIfPending();
+        return sheet;
     }
 
     /**
@@ -1243,7 +1413,9 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
         }
         @Override
         public T next() throws NoSuchElementException {
-            return it.next();
+            T sheet = it.next();
+            ((XSSFSheet)sheet).readIfPending();
+            return sheet;
         }
         /**
          * Unexpected behavior may occur if sheets are reordered after iterator
@@ -1592,6 +1764,7 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
      */
     @Override
     public void setSelectedTab(int index) {
+        readPendingSheets();
         int idx = 0;
         for (XSSFSheet sh : sheets) {
             sh.setSelected(idx == index);
@@ -2278,6 +2451,14 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
 
     @Beta
     public List<XSSFPivotTable> getPivotTables() {
+        readPendingSheets();
+        return pivotTables;
+    }
+
+    /**
+     * @return the pivot tables of the sheets, which have been read so far
+     */
+    List<XSSFPivotTable> getReadPivotTables() {
         return pivotTables;
     }
 
@@ -2369,6 +2550,7 @@ public class XSSFWorkbook extends POIXMLDocument implements Workbook, Date1904Su
      */
     public XSSFTable getTable(String name) {
         if (name != null && sheets != null) {
+            readPendingSheets();
             for (XSSFSheet sheet : sheets) {
                 for (XSSFTable tbl : sheet.getTables()) {
                     if (name.equalsIgnoreCase(tbl.getName())) {
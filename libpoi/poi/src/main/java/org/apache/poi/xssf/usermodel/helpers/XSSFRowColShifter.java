@@ -70,8 +70,12 @@ import java.util.List;
     static void updateNamedRanges(Sheet sheet, FormulaShifter formulaShifter) {
         Workbook wb = sheet.getWorkbook();
         XSSFEvaluationWorkbook fpb = XSSFEvaluationWorkbook.create((XSSFWorkbook) wb);
+        int firstRow = formulaShifter.getFirstAffectedRow();
         for (Name name : wb.getAllNames()) {
             String formula = name.getRefersToFormula();
+            if (!mayReferenceRows(formula, firstRow)) {
+                continue;
+            }
             int sheetIndex = name.getSheetIndex();
             final int rowIndex = -1; //don't care, named ranges are not allowed to include structured references
 
@@ -87,22 +91,30 @@ import java.util.List;
      * Update formulas.
      */
     /*package*/ static void updateFormulas(Sheet sheet, FormulaShifter formulaShifter) {
+        // the parsing context is shared by all formulas of the workbook
+        Workbook wb = sheet.getWorkbook();
+        XSSFEvaluationWorkbook fpb = XSSFEvaluationWorkbook.create((XSSFWorkbook) wb);
+
         //update formulas on the parent sheet
-        updateSheetFormulas(sheet,formulaShifter);
+        updateSheetFormulas(sheet, formulaShifter, fpb, null);
 
-        //update formulas on other sheets
-        Workbook wb = sheet.getWorkbook();
+        //update formulas on other sheets - only 3D references to the parent sheet are shifted there
         for(Sheet sh : wb)
         {
             if (sheet == sh) continue;
-            updateSheetFormulas(sh, formulaShifter);
+            updateSheetFormulas(sh, formulaShifter, fpb, formulaShifter.getSheetName());
         }
     }
 
     /*package*/ static void updateSheetFormulas(Sheet sh, FormulaShifter formulashifter) {
+        XSSFEvaluationWorkbook fpb = XSSFEvaluationWorkbook.create((XSSFWorkbook) sh.getWorkbook());
+        updateSheetFormulas(sh, formulashifter, fpb, null);
+    }
+
+    private static void updateSheetFormulas(Sheet sh, FormulaShifter formulashifter, XSSFEvaluationWorkbook fpb, String refSheetName) {
         for (Row r : sh) {
             XSSFRow row = (XSSFRow) r;
-            updateRowFormulas(row, formulashifter);
+            updateRowFormulas(row, formulashifter, fpb, refSheetName);
         }
     }
 
@@ -113,30 +125,44 @@ import java.util.List;
      * @param formulaShifter the formula shifting policy
      */
     /*package*/ static void updateRowFormulas(XSSFRow row, FormulaShifter formulaShifter) {
+        XSSFEvaluationWorkbook fpb = XSSFEvaluationWorkbook.create(row.getSheet().getWorkbook());
+        updateRowFormulas(row, formulaShifter, fpb, null);
+    }
+
+    /**
+     * @param refSheetName if set, only formulas which mention that sheet are parsed
+     */
+    private static void updateRowFormulas(XSSFRow row, FormulaShifter formulaShifter, XSSFEvaluationWorkbook fpb, String refSheetName) {
         XSSFSheet sheet = row.getSheet();
+        int firstRow = formulaShifter.getFirstAffectedRow();
         for (Cell c : row) {
             XSSFCell cell = (XSSFCell) c;
+            // the bean of a value cell isn't touched, as it would drop its cached or streamed value
+            if (!cell.hasFormulaElement()) {
+                continue;
+            }
 
             CTCell ctCell = cell.getCTCell();
             if (ctCell.isSetF()) {
                 CTCellFormula f = ctCell.getF();
                 String formula = f.getStringValue();
-                if (formula.length() > 0) {
-                    String shiftedFormula = shiftFormula(row, formula, formulaShifter);
+                if (formula.length() > 0 && mayReferenceSheet(formula, refSheetName) && mayReferenceRows(formula, firstRow)) {
+                    String shiftedFormula = shiftFormula(row, formula, formulaShifter, fpb);
                     if (shiftedFormula != null) {
                         f.setStringValue(shiftedFormula);
+                        // the master cell of a shared formula also carries the shared definition
                         if(f.getT() == STCellFormulaType.SHARED){
                             int si = MathCompaty.toIntExact(f.getSi());
                             CTCellFormula sf = sheet.getSharedFormula(si);
                             sf.setStringValue(shiftedFormula);
-                            updateRefInCTCellFormula(row, formulaShifter, sf);
+                            updateRefInCTCellFormula(row, formulaShifter, sf, fpb, refSheetName);
                         }
                     }
 
                 }
 
                 //Range of cells which the formula applies to.
-                updateRefInCTCellFormula(row, formulaShifter, f);
+                updateRefInCTCellFormula(row, formulaShifter, f, fpb, refSheetName);
             }
 
         }
@@ -153,11 +179,14 @@ import java.util.List;
      */
     /*package*/
     static String shiftFormula(Row row, String formula, FormulaShifter formulaShifter) {
+        XSSFEvaluationWorkbook fpb = XSSFEvaluationWorkbook.create((XSSFWorkbook) row.getSheet().getWorkbook());
+        return shiftFormula(row, formula, formulaShifter, fpb);
+    }
+
+    private static String shiftFormula(Row row, String formula, FormulaShifter formulaShifter, XSSFEvaluationWorkbook fpb) {
         Sheet sheet = row.getSheet();
-        Workbook wb = sheet.getWorkbook();
-        int sheetIndex = wb.getSheetIndex(sheet);
+        int sheetIndex = sheet.getWorkbook().getSheetIndex(sheet);
         final int rowIndex = row.getRowNum();
-        XSSFEvaluationWorkbook fpb = XSSFEvaluationWorkbook.create((XSSFWorkbook) wb);
 
         try {
             Ptg[] ptgs = FormulaParser.parse(formula, fpb, FormulaType.CELL, sheetIndex, rowIndex);
@@ -175,13 +204,129 @@ import java.util.List;
 
     /*package*/
     static void updateRefInCTCellFormula(Row row, FormulaShifter formulaShifter, CTCellFormula f) {
+        XSSFEvaluationWorkbook fpb = XSSFEvaluationWorkbook.create((XSSFWorkbook) row.getSheet().getWorkbook());
+        updateRefInCTCellFormula(row, formulaShifter, f, fpb, null);
+    }
+
+    private static void updateRefInCTCellFormula(Row row, FormulaShifter formulaShifter, CTCellFormula f,
+            XSSFEvaluationWorkbook fpb, String refSheetName) {
         if (f.isSetRef()) { //Range of cells which the formula applies to.
             String ref = f.getRef();
-            String shiftedRef = shiftFormula(row, ref, formulaShifter);
+            // the range is local to the sheet of the formula, so it's never shifted by moves on other sheets
+            if (refSheetName != null || !mayReferenceRows(ref, formulaShifter.getFirstAffectedRow())) {
+                return;
+            }
+            String shiftedRef = shiftFormula(row, ref, formulaShifter, fpb);
             if (shiftedRef != null) f.setRef(shiftedRef);
         }
     }
 
+    /**
+     * Cheap textual check, if a formula may refer to the sheet with the given name.
+     *
+     * @param formula the formula text
+     * @param sheetName the sheet name or {@code null} to match any formula
+     * @return {@code false}, if the formula definitely doesn't mention the sheet
+     */
+    /*package*/ static boolean mayReferenceSheet(String formula, String sheetName) {
+        if (sheetName == null || formula == null) {
+            return true;
+        }
+        if (containsIgnoreCase(formula, sheetName)) {
+            return true;
+        }
+        // apostrophes are doubled within quoted sheet names
+        String quoted = sheetName.replace("'", "''");
+        return !quoted.equals(sheetName) && containsIgnoreCase(formula, quoted);
+    }
+
+    private static boolean containsIgnoreCase(String str, String search) {
+        final int max = str.length() - search.length();
+        for (int i = 0; i <= max; i++) {
+            if (str.regionMatches(true, i, search, 0, search.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cheap textual check, if a formula may refer to a row at or below the given row.
+     * References above that row are never adjusted by a row move, so those formulas don't
+     * need to be parsed.<p>
+     *
+     * Anything which isn't understood by this check, e.g. whole column, structured or
+     * external references, is treated as a possible match.
+     *
+     * @param formula the formula text
+     * @param firstRow the first affected (0-based) row index, or -1 to match any formula
+     * @return {@code false}, if the formula definitely doesn't refer to the affected rows
+     */
+    /*package*/ static boolean mayReferenceRows(String formula, int firstRow) {
+        if (firstRow < 0 || formula == null) {
+            return true;
+        }
+        final int len = formula.length();
+        int i = 0;
+        while (i < len) {
+            char c = formula.charAt(i);
+            if (c == '"') {
+                // skip string literals - escaped quotes are handled like two adjacent literals
+                int end = formula.indexOf('"', i+1);
+                if (end < 0) {
+                    return true;
+                }
+                i = end+1;
+                continue;
+            }
+            if (c == '[') {
+                return true;
+            }
+            if (!(c == '$' || isAsciiLetter(c) || isAsciiDigit(c)) || (i > 0 && isNameChar(formula.charAt(i-1)))) {
+                i++;
+                continue;
+            }
+
+            // [$]column[$]row, or the parts of whole column (A:C) and whole row (1:3) ranges
+            final int start = i;
+            if (formula.charAt(i) == '$') i++;
+            final int letters = i;
+            while (i < len && isAsciiLetter(formula.charAt(i))) i++;
+            final boolean hasLetters = (i > letters);
+            if (i < len && formula.charAt(i) == '$') i++;
+            final int digits = i;
+            while (i < len && isAsciiDigit(formula.charAt(i))) i++;
+            final int nDigits = i - digits;
+            final boolean isRange = (start > 0 && formula.charAt(start-1) == ':') || (i < len && formula.charAt(i) == ':');
+
+            if (nDigits > 0 && (hasLetters || isRange)) {
+                // the row numbers are 1-based
+                if (nDigits > 7 || Integer.parseInt(formula.substring(digits, i)) > firstRow) {
+                    return true;
+                }
+            } else if (hasLetters && isRange) {
+                return true;
+            }
+
+            // skip the rest of a function name, defined name or number
+            if (i == start) i++;
+            while (i < len && isNameChar(formula.charAt(i))) i++;
+        }
+        return false;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isNameChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '.' || c == '\\' || c == '?';
+    }
+
 
 
     /*package*/ static void updateConditionalFormatting(Sheet sheet, FormulaShifter formulaShifter) {
@@ -191,6 +336,7 @@ import java.util.List;
         final int rowIndex = -1; //don't care, structured references not allowed in conditional formatting
 
         XSSFEvaluationWorkbook fpb = XSSFEvaluationWorkbook.create(wb);
+        int firstRow = formulaShifter.getFirstAffectedRow();
         CTWorksheet ctWorksheet = xsheet.getCTWorksheet();
         CTConditionalFormatting[] conditionalFormattingArray = ctWorksheet.getConditionalFormattingArray();
         // iterate backwards due to possible calls to ctWorksheet.removeConditionalFormatting(j)
@@ -234,6 +380,9 @@ import java.util.List;
                 String[] formulaArray = cfRule.getFormulaArray();
                 for (int i = 0; i < formulaArray.length; i++) {
                     String formula = formulaArray[i];
+                    if (!mayReferenceRows(formula, firstRow)) {
+                        continue;
+                    }
                     Ptg[] ptgs = FormulaParser.parse(formula, fpb, FormulaType.CELL, sheetIndex, rowIndex);
                     if (formulaShifter.adjustFormula(ptgs, sheetIndex)) {
                         String shiftedFmla = FormulaRenderer.toFormulaString(fpb, ptgs);
@@ -0,0 +1,780 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.xwpf.eventusermodel;
+
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.poi.util.Beta;
+import org.apache.poi.xwpf.usermodel.UnderlinePatterns;
+import org.apache.poi.xwpf.usermodel.VerticalAlign;
+import org.apache.poi.xwpf.usermodel.XWPFAbstractNum;
+import org.apache.poi.xwpf.usermodel.XWPFDefaultRunStyle;
+import org.apache.poi.xwpf.usermodel.XWPFNum;
+import org.apache.poi.xwpf.usermodel.XWPFNumbering;
+import org.apache.poi.xwpf.usermodel.XWPFStyle;
+import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTAbstractNum;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTDecimalNumber;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTLvl;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTOnOff;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTRPr;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STOnOff;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STUnderline;
+import org.openxmlformats.schemas.wordprocessingml.x2006.main.STVerticalAlignRun;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * This class handles the streaming processing of the body of a
+ *  word/document.xml part (or of a header or footer part) of a
+ *  XWPF .docx file, and generates paragraph, run and table events
+ *  for it.
+ *
+ * This allows to build functionality which reads huge documents
+ * without needing large amounts of main memory, as only the
+ * current run is held at any time.
+ *
+ * See {@link BodyContentsHandler} for the interface that
+ * you need to implement for reading information from a file.<p>
+ *
+ * Drawings, text boxes and embedded objects are skipped, as are
+ * the previous values of tracked formatting changes.
+ */
+@Beta
+public class XWPFBodyXMLHandler extends DefaultHandler {
+    private static final String NS_WORDPROCESSINGML = "http://schemas.openxmlformats.org/wordprocessingml/2006/main";
+    private static final String NS_RELATIONSHIPS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String NS_MARKUP_COMPATIBILITY = "http://schemas.openxmlformats.org/markup-compatibility/2006";
+
+    /** stops the lookup of style hierarchies, which are cyclic */
+    private static final int MAX_STYLE_DEPTH = 32;
+
+    private final XWPFStyles styles;
+    private final XWPFNumbering numbering;
+    private final BodyContentsHandler output;
+
+    /** the run formatting of the styles including their base styles, keyed by style id */
+    private final Map<String, RunProperties> styleRunProperties = new HashMap<>();
+    private final RunProperties defaultRunProperties = new RunProperties();
+
+    private final ParagraphProperties paragraphProperties = new ParagraphProperties();
+    private final RunProperties directRunProperties = new RunProperties();
+    private final RunProperties runProperties = new RunProperties();
+
+    // Gathers characters as they are seen.
+    private final StringBuilder text = new StringBuilder(64);
+    private final StringBuilder phonetic = new StringBuilder();
+
+    // Depth of the subtree, which is currently skipped
+    private int skipDepth;
+    // Set when a paragraph start element is seen
+    private boolean pIsOpen;
+    // Set when the paragraph start event has been sent
+    private boolean pIsStarted;
+    // Set when the paragraph properties are seen
+    private boolean pPrIsOpen;
+    // Nesting of runs, as runs of a ruby contain runs again
+    private int runDepth;
+    // Set when the properties of the outermost run are seen
+    private boolean rPrIsOpen;
+    // Set when a text element of a run is seen
+    private boolean tIsOpen;
+    // Set when the phonetic part of a ruby is seen
+    private boolean rtIsOpen;
+    // Set when the section properties are seen
+    private boolean sectPrIsOpen;
+    // Set when a check box form field is seen
+    private boolean checkBoxIsOpen;
+    private boolean checkBoxChecked;
+
+    /**
+     * Accepts objects needed while parsing.
+     *
+     * @param styles the styles of the document, may be {@code null}
+     * @param numbering the numbering definitions of the document, may be {@code null}
+     * @param bodyContentsHandler the receiver of the events
+     */
+    public XWPFBodyXMLHandler(XWPFStyles styles, XWPFNumbering numbering, BodyContentsHandler bodyContentsHandler) {
+        this.styles = styles;
+        this.numbering = numbering;
+        this.output = bodyContentsHandler;
+
+        XWPFDefaultRunStyle defaultRunStyle = (styles == null) ? null : styles.getDefaultRunStyle();
+        if (defaultRunStyle != null && defaultRunStyle.getFontSize() != -1) {
+            defaultRunProperties.fontSize = defaultRunStyle.getFontSize();
+        }
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+        if (skipDepth > 0) {
+            skipDepth++;
+            return;
+        }
+        if (NS_MARKUP_COMPATIBILITY.equals(uri)) {
+            // alternative content is about drawings, which are skipped anyway
+            if ("AlternateContent".equals(localName)) {
+                skipDepth = 1;
+            }
+            return;
+        }
+        if (!NS_WORDPROCESSINGML.equals(uri)) {
+            return;
+        }
+        if (isSkipped(localName)) {
+            skipDepth = 1;
+            return;
+        }
+
+        if (pPrIsOpen) {
+            startParagraphProperty(localName, attributes);
+        } else if (rPrIsOpen) {
+            startRunProperty(localName, attributes);
+        } else if (runDepth > 0) {
+            startRunContent(localName, attributes);
+        } else if (pIsOpen) {
+            if ("pPr".equals(localName)) {
+                pPrIsOpen = true;
+                return;
+            }
+            startParagraph();
+            if ("r".equals(localName)) {
+                runDepth = 1;
+                text.setLength(0);
+                phonetic.setLength(0);
+                directRunProperties.reset();
+            } else if ("hyperlink".equals(localName)) {
+                output.startHyperlink(attributes.getValue(NS_RELATIONSHIPS, "id"),
+                        attributes.getValue(NS_WORDPROCESSINGML, "anchor"));
+            }
+        } else if (sectPrIsOpen) {
+            startSectionProperty(localName, attributes);
+        } else if ("p".equals(localName)) {
+            pIsOpen = true;
+            pIsStarted = false;
+            paragraphProperties.reset();
+        } else if ("tbl".equals(localName)) {
+            output.startTable();
+        } else if ("tr".equals(localName)) {
+            output.startTableRow();
+        } else if ("tc".equals(localName)) {
+            output.startTableCell();
+        } else if ("sectPr".equals(localName)) {
+            sectPrIsOpen = true;
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) {
+        if (skipDepth > 0) {
+            skipDepth--;
+            return;
+        }
+        if (!NS_WORDPROCESSINGML.equals(uri)) {
+            return;
+        }
+
+        if (pPrIsOpen) {
+            if (sectPrIsOpen) {
+                if ("sectPr".equals(localName)) {
+                    sectPrIsOpen = false;
+                }
+            } else if ("pPr".equals(localName)) {
+                pPrIsOpen = false;
+                startParagraph();
+            }
+        } else if (rPrIsOpen) {
+            if ("rPr".equals(localName)) {
+                rPrIsOpen = false;
+            }
+        } else if (runDepth > 0) {
+            endRunContent(localName);
+        } else if (pIsOpen) {
+            if ("p".equals(localName)) {
+                startParagraph();
+                pIsOpen = false;
+                output.endParagraph();
+            } else if ("hyperlink".equals(localName)) {
+                output.endHyperlink();
+            }
+        } else if (sectPrIsOpen) {
+            if ("sectPr".equals(localName)) {
+                sectPrIsOpen = false;
+            }
+        } else if ("tbl".equals(localName)) {
+            output.endTable();
+        } else if ("tr".equals(localName)) {
+            output.endTableRow();
+        } else if ("tc".equals(localName)) {
+            output.endTableCell();
+        }
+    }
+
+    /**
+     * Captures characters only if a suitable element is open.
+     */
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (tIsOpen && skipDepth == 0) {
+            (rtIsOpen ? phonetic : text).append(ch, start, length);
+        }
+    }
+
+    @Override
+    public void endDocument() {
+        output.endBody();
+    }
+
+    private static boolean isSkipped(String localName) {
+        switch (localName) {
+            // graphical content, including the text boxes
+            case "drawing":
+            case "pict":
+            case "object":
+            // the content controls' properties may contain a run formatting and placeholder text
+            case "sdtPr":
+            case "sdtEndPr":
+            // the previous values of tracked formatting changes
+            case "pPrChange":
+            case "rPrChange":
+            case "sectPrChange":
+            case "tblPrChange":
+            case "tblPrExChange":
+            case "tblGridChange":
+            case "trPrChange":
+            case "tcPrChange":
+            case "numberingChange":
+            // the table structure doesn't carry any text
+            case "tblPr":
+            case "tblPrEx":
+            case "tblGrid":
+            case "trPr":
+            case "tcPr":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void startParagraphProperty(String localName, Attributes attributes) {
+        if (sectPrIsOpen) {
+            startSectionProperty(localName, attributes);
+            return;
+        }
+        switch (localName) {
+            case "pStyle":
+                paragraphProperties.styleId = getVal(attributes);
+                break;
+            case "ilvl":
+                paragraphProperties.numIlvl = getBigInteger(attributes);
+                break;
+            case "numId":
+                paragraphProperties.numID = getBigInteger(attributes);
+                break;
+            case "sectPr":
+                sectPrIsOpen = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void startSectionProperty(String localName, Attributes attributes) {
+        boolean isHeader = "headerReference".equals(localName);
+        if (isHeader || "footerReference".equals(localName)) {
+            String type = attributes.getValue(NS_WORDPROCESSINGML, "type");
+            output.headerFooterReference(attributes.getValue(NS_RELATIONSHIPS, "id"),
+                    isHeader, (type == null) ? "default" : type);
+        }
+    }
+
+    private void startRunProperty(String localName, Attributes attributes) {
+        final RunProperties rp = directRunProperties;
+        switch (localName) {
+            case "rStyle":
+                rp.styleId = getVal(attributes);
+                break;
+            case "b":
+                rp.bold = isOn(attributes);
+                break;
+            case "i":
+                rp.italic = isOn(attributes);
+                break;
+            case "strike":
+                rp.strike = isOn(attributes);
+                break;
+            case "u": {
+                STUnderline.Enum u = STUnderline.Enum.forString(getVal(attributes));
+                if (u != null) {
+                    rp.underline = UnderlinePatterns.valueOf(u.intValue());
+                }
+                break;
+            }
+            case "sz": {
+                BigInteger sz = getBigInteger(attributes);
+                if (sz != null) {
+                    rp.fontSize = sz.doubleValue() / 2;
+                }
+                break;
+            }
+            case "rFonts":
+                rp.fontFamily = attributes.getValue(NS_WORDPROCESSINGML, "ascii");
+                break;
+            case "color":
+                rp.color = getVal(attributes);
+                break;
+            case "vertAlign": {
+                STVerticalAlignRun.Enum va = STVerticalAlignRun.Enum.forString(getVal(attributes));
+                if (va != null) {
+                    rp.verticalAlign = VerticalAlign.valueOf(va.intValue());
+                }
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    private void startRunContent(String localName, Attributes attributes) {
+        switch (localName) {
+            case "rPr":
+                // only the formatting of the outer run is reported
+                rPrIsOpen = (runDepth == 1);
+                if (!rPrIsOpen) {
+                    skipDepth = 1;
+                }
+                break;
+            case "r":
+                runDepth++;
+                break;
+            case "rt":
+                rtIsOpen = true;
+                break;
+            case "t":
+            case "delText":
+                // w:instrText holds field codes, which aren't part of the text
+                tIsOpen = true;
+                break;
+            case "tab":
+            case "ptab":
+                (rtIsOpen ? phonetic : text).append('\t');
+                break;
+            case "br":
+            case "cr":
+                (rtIsOpen ? phonetic : text).append('\n');
+                break;
+            case "checkBox":
+                checkBoxIsOpen = true;
+                checkBoxChecked = false;
+                break;
+            case "default":
+                if (checkBoxIsOpen) {
+                    checkBoxChecked = "1".equals(getVal(attributes));
+                }
+                break;
+            case "footnoteReference":
+                text.append("[footnoteRef:").append(attributes.getValue(NS_WORDPROCESSINGML, "id")).append(']');
+                break;
+            case "endnoteReference":
+                text.append("[endnoteRef:").append(attributes.getValue(NS_WORDPROCESSINGML, "id")).append(']');
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void endRunContent(String localName) {
+        switch (localName) {
+            case "r":
+                if (--runDepth == 0 && (text.length() > 0 || phonetic.length() > 0)) {
+                    resolveRunProperties();
+                    output.run(text.toString(), phonetic.toString(), runProperties);
+                }
+                break;
+            case "rt":
+                rtIsOpen = false;
+                break;
+            case "t":
+            case "delText":
+                tIsOpen = false;
+                break;
+            case "checkBox":
+                checkBoxIsOpen = false;
+                text.append(checkBoxChecked ? "|X|" : "|_|");
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void startParagraph() {
+        if (!pIsStarted) {
+            pIsStarted = true;
+            output.startParagraph(paragraphProperties);
+        }
+    }
+
+    /**
+     * Completes the direct formatting of the current run with the formatting of its character style,
+     * the paragraph style and the document defaults
+     */
+    private void resolveRunProperties() {
+        runProperties.reset();
+        runProperties.mergeFrom(directRunProperties);
+        runProperties.styleId = directRunProperties.styleId;
+        if (directRunProperties.styleId != null) {
+            runProperties.mergeFrom(getStyleRunProperties(directRunProperties.styleId));
+        }
+        if (paragraphProperties.styleId != null) {
+            runProperties.mergeFrom(getStyleRunProperties(paragraphProperties.styleId));
+        }
+        runProperties.mergeFrom(defaultRunProperties);
+    }
+
+    private RunProperties getStyleRunProperties(String styleId) {
+        RunProperties rp = styleRunProperties.get(styleId);
+        if (rp == null) {
+            rp = new RunProperties();
+            XWPFStyle style = (styles == null) ? null : styles.getStyle(styleId);
+            for (int depth = 0; style != null && depth < MAX_STYLE_DEPTH; depth++) {
+                CTRPr pr = style.getCTStyle().getRPr();
+                if (pr != null) {
+                    rp.mergeFrom(pr);
+                }
+                String basisId = style.getBasisStyleID();
+                style = (basisId == null) ? null : styles.getStyle(basisId);
+            }
+            styleRunProperties.put(styleId, rp);
+        }
+        return rp;
+    }
+
+    private static String getVal(Attributes attributes) {
+        return attributes.getValue(NS_WORDPROCESSINGML, "val");
+    }
+
+    private static BigInteger getBigInteger(Attributes attributes) {
+        String val = getVal(attributes);
+        if (val == null) {
+            return null;
+        }
+        try {
+            return new BigInteger(val);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Boolean isOn(Attributes attributes) {
+        String val = getVal(attributes);
+        return val == null || "true".equals(val) || "1".equals(val) || "on".equals(val);
+    }
+
+    private static Boolean isCTOnOff(CTOnOff onoff) {
+        if (!onoff.isSetVal()) {
+            return true;
+        }
+        final STOnOff.Enum val = onoff.getVal();
+        return (STOnOff.TRUE == val) || (STOnOff.X_1 == val) || (STOnOff.ON == val);
+    }
+
+    /**
+     * The properties of the current paragraph.<p>
+     *
+     * The instance is reused for the following paragraphs, so its values
+     * are only valid until {@link BodyContentsHandler#endParagraph()}.
+     */
+    public final class ParagraphProperties {
+        private String styleId;
+        private BigInteger numID;
+        private BigInteger numIlvl;
+
+        private ParagraphProperties() {
+        }
+
+        private void reset() {
+            styleId = null;
+            numID = null;
+            numIlvl = null;
+        }
+
+        /**
+         * @return the id of the paragraph style or {@code null}, if the paragraph has no style
+         */
+        public String getStyleId() {
+            return styleId;
+        }
+
+        /**
+         * @return the paragraph style or {@code null}, if the paragraph has no (known) style
+         */
+        public XWPFStyle getStyle() {
+            return (styleId == null || styles == null) ? null : styles.getStyle(styleId);
+        }
+
+        /**
+         * @return the numbering id of the paragraph or {@code null}, if it isn't numbered
+         */
+        public BigInteger getNumID() {
+            return numID;
+        }
+
+        /**
+         * @return the numbering level of the paragraph or {@code null}
+         */
+        public BigInteger getNumIlvl() {
+            return numIlvl;
+        }
+
+        /**
+         * Returns numbering format for this paragraph, eg bullet or
+         * lowerLetter.
+         * Returns null if this paragraph does not have numeric style.
+         */
+        public String getNumFmt() {
+            CTLvl level = getNumLevel();
+            return (level != null && level.getNumFmt() != null && level.getNumFmt().getVal() != null)
+                    ? level.getNumFmt().getVal().toString() : null;
+        }
+
+        /**
+         * Returns the text that should be used around the paragraph level numbers.
+         *
+         * @return a string (e.g. "%1.") or null if the value is not found.
+         */
+        public String getNumLevelText() {
+            CTLvl level = getNumLevel();
+            return (level != null && level.getLvlText() != null) ? level.getLvlText().getVal() : null;
+        }
+
+        private CTLvl getNumLevel() {
+            if (numID == null || numbering == null) {
+                return null;
+            }
+            XWPFNum num = numbering.getNum(numID);
+            if (num == null || num.getCTNum() == null) {
+                return null;
+            }
+            CTDecimalNumber abstractNumId = num.getCTNum().getAbstractNumId();
+            if (abstractNumId == null || abstractNumId.getVal() == null) {
+                return null;
+            }
+            XWPFAbstractNum abstractNum = numbering.getAbstractNum(abstractNumId.getVal());
+            CTAbstractNum anum = (abstractNum == null) ? null : abstractNum.getCTAbstractNum();
+            if (anum == null) {
+                return null;
+            }
+            BigInteger ilvl = (numIlvl == null) ? BigInteger.ZERO : numIlvl;
+            for (int i = 0; i < anum.sizeOfLvlArray(); i++) {
+                CTLvl lvl = anum.getLvlArray(i);
+                if (lvl != null && ilvl.equals(lvl.getIlvl())) {
+                    return lvl;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The formatting of a run, resolved through the character style
+     * and the paragraph style, including their base styles, and the
+     * document defaults.<p>
+     *
+     * Toggle properties like bold, which are specified in a style,
+     * aren't toggled against the base style, but replace its value.<p>
+     *
+     * The instance passed to {@link BodyContentsHandler#run(String, String, RunProperties)}
+     * is reused for the following runs, so its values are only valid during that call.
+     */
+    public static final class RunProperties {
+        private String styleId;
+        private Boolean bold;
+        private Boolean italic;
+        private Boolean strike;
+        private UnderlinePatterns underline;
+        private double fontSize = -1;
+        private String fontFamily;
+        private String color;
+        private VerticalAlign verticalAlign;
+
+        private RunProperties() {
+        }
+
+        private void reset() {
+            styleId = null;
+            bold = null;
+            italic = null;
+            strike = null;
+            underline = null;
+            fontSize = -1;
+            fontFamily = null;
+            color = null;
+            verticalAlign = null;
+        }
+
+        /**
+         * Fills the properties, which aren't set yet, with the values of the given properties
+         */
+        private void mergeFrom(RunProperties other) {
+            if (bold == null) bold = other.bold;
+            if (italic == null) italic = other.italic;
+            if (strike == null) strike = other.strike;
+            if (underline == null) underline = other.underline;
+            if (fontSize == -1) fontSize = other.fontSize;
+            if (fontFamily == null) fontFamily = other.fontFamily;
+            if (color == null) color = other.color;
+            if (verticalAlign == null) verticalAlign = other.verticalAlign;
+        }
+
+        private void mergeFrom(CTRPr pr) {
+            if (bold == null && pr.isSetB()) bold = isCTOnOff(pr.getB());
+            if (italic == null && pr.isSetI()) italic = isCTOnOff(pr.getI());
+            if (strike == null && pr.isSetStrike()) strike = isCTOnOff(pr.getStrike());
+            if (underline == null && pr.isSetU() && pr.getU().getVal() != null) {
+                underline = UnderlinePatterns.valueOf(pr.getU().getVal().intValue());
+            }
+            if (fontSize == -1 && pr.isSetSz()) fontSize = pr.getSz().getVal().doubleValue() / 2;
+            if (fontFamily == null && pr.isSetRFonts()) fontFamily = pr.getRFonts().getAscii();
+            if (color == null && pr.isSetColor()) color = pr.getColor().xgetVal().getStringValue();
+            if (verticalAlign == null && pr.isSetVertAlign() && pr.getVertAlign().getVal() != null) {
+                verticalAlign = VerticalAlign.valueOf(pr.getVertAlign().getVal().intValue());
+            }
+        }
+
+        /**
+         * @return the id of the character style or {@code null}, if the run has no style
+         */
+        public String getStyleId() {
+            return styleId;
+        }
+
+        public boolean isBold() {
+            return bold != null && bold;
+        }
+
+        public boolean isItalic() {
+            return italic != null && italic;
+        }
+
+        public boolean isStrikeThrough() {
+            return strike != null && strike;
+        }
+
+        public UnderlinePatterns getUnderline() {
+            return (underline == null) ? UnderlinePatterns.NONE : underline;
+        }
+
+        /**
+         * @return the font size in points or -1, if the size isn't specified
+         */
+        public double getFontSize() {
+            return fontSize;
+        }
+
+        /**
+         * @return the font family for the ascii character range or {@code null}
+         */
+        public String getFontFamily() {
+            return fontFamily;
+        }
+
+        /**
+         * @return the color as RGB hex string or "auto", {@code null} if the color isn't specified
+         */
+        public String getColor() {
+            return color;
+        }
+
+        public VerticalAlign getVerticalAlignment() {
+            return (verticalAlign == null) ? VerticalAlign.BASELINE : verticalAlign;
+        }
+    }
+
+    /**
+     * This interface allows to provide callbacks when reading
+     * a document in streaming mode.
+     *
+     * The parts of a .docx file are usually read via {@link XWPFReader}.
+     *
+     * By implementing the methods, you can process arbitrarily
+     * large files without exhausting main memory.
+     */
+    public interface BodyContentsHandler {
+        /**
+         * A paragraph has started. The properties are only valid until the paragraph ends.
+         */
+        void startParagraph(ParagraphProperties properties);
+
+        /**
+         * A run of the current paragraph was encountered, which has some text.
+         *
+         * @param text the text of the run, with tabs and line breaks in place of their xml equivalents
+         * @param phonetic the phonetic (ruby) text of the run or an empty string
+         * @param properties the resolved formatting, only valid during this call
+         */
+        void run(String text, String phonetic, RunProperties properties);
+
+        /** The current paragraph has ended */
+        void endParagraph();
+
+        /**
+         * A hyperlink has started within the current paragraph.
+         * The following runs until {@link #endHyperlink()} are the label of the hyperlink.
+         *
+         * @param relationId the relationship id of the link target or {@code null} for internal links
+         * @param anchor the bookmark name of internal links or {@code null}
+         */
+        default void startHyperlink(String relationId, String anchor) {}
+
+        /** The current hyperlink has ended */
+        default void endHyperlink() {}
+
+        /** A table has started. Tables can be nested within table cells. */
+        default void startTable() {}
+
+        /** A row of the current table has started */
+        default void startTableRow() {}
+
+        /** A cell of the current table row has started */
+        default void startTableCell() {}
+
+        /** The current table cell has ended */
+        default void endTableCell() {}
+
+        /** The current table row has ended */
+        default void endTableRow() {}
+
+        /** The current table has ended */
+        default void endTable() {}
+
+        /**
+         * A section refers to a header or footer part. The references of a section,
+         * which ends with a paragraph, are reported before the paragraph starts.
+         * The references of the last section are reported after the last element of the body.
+         *
+         * @param relationId the relationship id of the header or footer part
+         * @param isHeader {@code true} for a header, {@code false} for a footer
+         * @param type "default", "first" or "even"
+         */
+        default void headerFooterReference(String relationId, boolean isHeader, String type) {}
+
+        /** The end of the body, header or footer has been reached */
+        default void endBody() {}
+    }
+}
@@ -0,0 +1,193 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+package org.apache.poi.xwpf.eventusermodel;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.openxml4j.opc.TargetMode;
+import org.apache.poi.util.Beta;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xwpf.eventusermodel.XWPFBodyXMLHandler.BodyContentsHandler;
+import org.apache.poi.xwpf.usermodel.XWPFNumbering;
+import org.apache.poi.xwpf.usermodel.XWPFRelation;
+import org.apache.poi.xwpf.usermodel.XWPFStyles;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * This class makes it easy to get at the individual parts
+ * of an OOXML .docx file, suitable for low memory sax
+ * parsing of the document body.
+ * It makes up the core part of the EventUserModel support
+ * for XWPF.<p>
+ *
+ * Only the styles and the numbering definitions are parsed
+ * into their usermodel classes, as they are needed to resolve
+ * the formatting of the streamed paragraphs and runs. The
+ * document, header and footer parts are streamed via
+ * {@link #process(PackagePart, BodyContentsHandler)}.
+ */
+@Beta
+public class XWPFReader {
+    protected OPCPackage pkg;
+    protected PackagePart documentPart;
+
+    private XWPFStyles styles;
+    private XWPFNumbering numbering;
+    private boolean partsRead;
+
+    /**
+     * Creates a new XWPFReader, for the given package
+     */
+    public XWPFReader(OPCPackage pkg) throws IOException, OpenXML4JException {
+        this.pkg = pkg;
+
+        PackageRelationship coreDocRelationship = this.pkg.getRelationshipsByType(
+                PackageRelationshipTypes.CORE_DOCUMENT).getRelationship(0);
+
+        if (coreDocRelationship == null) {
+            if (this.pkg.getRelationshipsByType(
+                    PackageRelationshipTypes.STRICT_CORE_DOCUMENT).getRelationship(0) != null) {
+                throw new POIXMLException("Strict OOXML isn't currently supported, please see bug #57699");
+            }
+
+            throw new POIXMLException("OOXML file structure broken/invalid - no core document found!");
+        }
+
+        // Get the part that holds the document body
+        documentPart = this.pkg.getPart(coreDocRelationship);
+    }
+
+    /**
+     * @return the part of the main document, i.e. word/document.xml
+     */
+    public PackagePart getDocumentPart() {
+        return documentPart;
+    }
+
+    /**
+     * Returns an InputStream to read the contents of the
+     * main document part
+     */
+    public InputStream getDocumentData() throws IOException {
+        return documentPart.getInputStream();
+    }
+
+    /**
+     * Opens up the styles of the document and parses them.
+     *
+     * @return the styles or {@code null}, if the document has none
+     */
+    public XWPFStyles getStyles() throws IOException {
+        readParts();
+        return styles;
+    }
+
+    /**
+     * Opens up the numbering definitions of the document and parses them.
+     *
+     * @return the numbering definitions or {@code null}, if the document has none
+     */
+    public XWPFNumbering getNumbering() throws IOException {
+        readParts();
+        return numbering;
+    }
+
+    /**
+     * Looks up an internal part, which is related to the given part,
+     * e.g. a header, which is referenced by a section of the document.
+     *
+     * @param source the part, which contains the reference
+     * @param relationId the relationship id of the reference
+     * @return the related part or {@code null}, if there's no such internal relationship
+     */
+    public PackagePart getRelatedPart(PackagePart source, String relationId) throws InvalidFormatException {
+        PackageRelationship rel = source.getRelationship(relationId);
+        if (rel == null || rel.getTargetMode() == TargetMode.EXTERNAL) {
+            return null;
+        }
+        return source.getRelatedPart(rel);
+    }
+
+    /**
+     * Streams the body of the given part, i.e. the main document or
+     * one of its headers or footers, to the handler.
+     * The styles and numbering definitions of the document are
+     * used to resolve the paragraph and run formatting.
+     */
+    public void process(PackagePart part, BodyContentsHandler handler) throws IOException, SAXException {
+        try (InputStream is = part.getInputStream()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new XWPFBodyXMLHandler(getStyles(), getNumbering(), handler));
+            parser.parse(new InputSource(is));
+        } catch (ParserConfigurationException e) {
+            throw new RuntimeException("SAX parser appears to be broken - " + e.getMessage());
+        }
+    }
+
+    private void readParts() throws IOException {
+        if (partsRead) {
+            return;
+        }
+        partsRead = true;
+
+        try {
+            PackagePart part = getRelatedPart(XWPFRelation.STYLES);
+            if (part != null) {
+                styles = read(new XWPFStyles(part));
+            }
+            part = getRelatedPart(XWPFRelation.NUMBERING);
+            if (part != null) {
+                numbering = read(new XWPFNumbering(part));
+            }
+        } catch (InvalidFormatException e) {
+            throw new POIXMLException(e);
+        }
+    }
+
+    /**
+     * The parts aren't loaded as part of a document, so the protected read hook is called via
+     * the internal helper, which {@link org.apache.poi.xwpf.usermodel.XWPFDocument} uses for
+     * its glossary part, too. This is the only place, which relies on it.
+     */
+    @SuppressWarnings("deprecation")
+    private static <T extends POIXMLDocumentPart> T read(T part) throws IOException {
+        POIXMLDocumentPart._invokeOnDocumentRead(part);
+        return part;
+    }
+
+    private PackagePart getRelatedPart(XWPFRelation relation) throws InvalidFormatException {
+        for (PackageRelationship rel : documentPart.getRelationshipsByType(relation.getRelation())) {
+            if (rel.getTargetMode() != TargetMode.EXTERNAL) {
+                return documentPart.getRelatedPart(rel);
+            }
+        }
+        return null;
+    }
+}
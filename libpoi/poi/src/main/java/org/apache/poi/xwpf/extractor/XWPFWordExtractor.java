@@ -17,12 +17,27 @@
 package org.apache.poi.xwpf.extractor;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.poi.ooxml.POIXMLDocument;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.ooxml.POIXMLProperties;
+import org.apache.poi.ooxml.POIXMLProperties.CoreProperties;
+import org.apache.poi.ooxml.POIXMLProperties.CustomProperties;
+import org.apache.poi.ooxml.POIXMLProperties.ExtendedProperties;
 import org.apache.poi.ooxml.extractor.POIXMLTextExtractor;
 import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
 import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackagePart;
+import org.apache.poi.openxml4j.opc.PackageRelationship;
+import org.apache.poi.util.Beta;
+import org.apache.poi.util.POILogFactory;
+import org.apache.poi.util.POILogger;
+import org.apache.poi.xwpf.eventusermodel.XWPFBodyXMLHandler.BodyContentsHandler;
+import org.apache.poi.xwpf.eventusermodel.XWPFBodyXMLHandler.ParagraphProperties;
+import org.apache.poi.xwpf.eventusermodel.XWPFBodyXMLHandler.RunProperties;
+import org.apache.poi.xwpf.eventusermodel.XWPFReader;
 import org.apache.poi.xwpf.model.XWPFCommentsDecorator;
 import org.apache.poi.xwpf.model.XWPFHeaderFooterPolicy;
 import org.apache.poi.xwpf.usermodel.IBodyElement;
@@ -41,6 +56,7 @@ import org.apache.poi.xwpf.usermodel.XWPFTableCell;
 import org.apache.poi.xwpf.usermodel.XWPFTableRow;
 import org.apache.xmlbeans.XmlException;
 import org.openxmlformats.schemas.wordprocessingml.x2006.main.CTSectPr;
+import org.xml.sax.SAXException;
 
 /**
  * Helper class to extract text from an OOXML Word file
@@ -52,10 +68,19 @@ public class XWPFWordExtractor extends POIXMLTextExtractor {
             XWPFRelation.MACRO_TEMPLATE_DOCUMENT
     };
 
+    private static final POILogger LOGGER = POILogFactory.getLogger(XWPFWordExtractor.class);
+
+    /** the order, in which the header and footer types are extracted */
+    private static final String[] HEADER_FOOTER_TYPES = { "first", "even", "default" };
+
     private XWPFDocument document;
     private boolean fetchHyperlinks;
     private boolean concatenatePhoneticRuns = true;
 
+    // only set in streaming mode
+    private OPCPackage container;
+    private POIXMLProperties properties;
+
     public XWPFWordExtractor(OPCPackage container) throws XmlException, OpenXML4JException, IOException {
         this(new XWPFDocument(container));
     }
@@ -65,6 +90,30 @@ public class XWPFWordExtractor extends POIXMLTextExtractor {
         this.document = document;
     }
 
+    /**
+     * Creates an extractor for the given package, which optionally streams the
+     * document body via {@link XWPFReader} instead of loading the whole document
+     * as {@link XWPFDocument}. In streaming mode, the memory needed for the
+     * extraction is bounded by the size of the styles, numbering and header parts
+     * and by the extracted text itself.<p>
+     *
+     * The streamed text contains the paragraphs, tables, headers and footers,
+     * but not the comments and footnotes, which are appended to the paragraphs
+     * when the whole document is loaded.
+     *
+     * @param container the package of the .docx file
+     * @param streaming {@code true} to stream the document body
+     */
+    @Beta
+    public XWPFWordExtractor(OPCPackage container, boolean streaming) throws XmlException, OpenXML4JException, IOException {
+        super(streaming ? null : new XWPFDocument(container));
+        this.document = (XWPFDocument)getDocument();
+        if (streaming) {
+            this.container = container;
+            this.properties = new POIXMLProperties(container);
+        }
+    }
+
     public static void main(String[] args) throws Exception {
         if (args.length < 1) {
             System.err.println("Use:");
@@ -96,7 +145,39 @@ public class XWPFWordExtractor extends POIXMLTextExtractor {
         this.concatenatePhoneticRuns = concatenatePhoneticRuns;
     }
 
+    /**
+     * @return {@code true}, if the document body is streamed instead of being loaded as {@link XWPFDocument}
+     */
+    @Beta
+    public boolean isStreaming() {
+        return document == null;
+    }
+
+    @Override
+    public OPCPackage getPackage() {
+        return (document == null) ? container : super.getPackage();
+    }
+
+    @Override
+    public CoreProperties getCoreProperties() {
+        return (document == null) ? properties.getCoreProperties() : super.getCoreProperties();
+    }
+
+    @Override
+    public ExtendedProperties getExtendedProperties() {
+        return (document == null) ? properties.getExtendedProperties() : super.getExtendedProperties();
+    }
+
+    @Override
+    public CustomProperties getCustomProperties() {
+        return (document == null) ? properties.getCustomProperties() : super.getCustomProperties();
+    }
+
     public String getText() {
+        if (document == null) {
+            return getStreamedText();
+        }
+
         StringBuilder text = new StringBuilder(64);
         XWPFHeaderFooterPolicy hfPolicy = document.getHeaderFooterPolicy();
 
@@ -216,4 +297,192 @@ public class XWPFWordExtractor extends POIXMLTextExtractor {
             text.append(hfPolicy.getDefaultHeader().getText());
         }
     }
+
+    @Override
+    public void close() throws IOException {
+        if (container != null) {
+            // revert the package to not re-write the file, as for a loaded document
+            container.revert();
+            container = null;
+        }
+        super.close();
+    }
+
+    private String getStreamedText() {
+        try {
+            XWPFReader reader = new XWPFReader(container);
+            StringBuilder text = new StringBuilder(64);
+            PackagePart part = reader.getDocumentPart();
+            reader.process(part, new StreamedBodyText(reader, part, text, false));
+            return text.toString();
+        } catch (IOException | OpenXML4JException | SAXException e) {
+            LOGGER.log(POILogger.WARN, e);
+            return null;
+        }
+    }
+
+    /**
+     * Collects the text of a streamed body, header or footer in the layout of {@link #getText()}
+     */
+    private class StreamedBodyText implements BodyContentsHandler {
+        private final XWPFReader reader;
+        private final PackagePart part;
+        private final StringBuilder text;
+        private final boolean isHeaderFooter;
+
+        // the relationship ids of the section, which is currently read, indexed like HEADER_FOOTER_TYPES
+        private final String[] headerIds = new String[HEADER_FOOTER_TYPES.length];
+        private final String[] footerIds = new String[HEADER_FOOTER_TYPES.length];
+        private boolean hasSectionReferences;
+        // the footers of the section, which ends with the current paragraph
+        private String[] paragraphFooterIds;
+
+        private int tableDepth;
+        private int cellIndex;
+        private int cellElements;
+        private int paragraphStart;
+        private String hyperlinkURL;
+
+        StreamedBodyText(XWPFReader reader, PackagePart part, StringBuilder text, boolean isHeaderFooter) {
+            this.reader = reader;
+            this.part = part;
+            this.text = text;
+            this.isHeaderFooter = isHeaderFooter;
+        }
+
+        @Override
+        public void startParagraph(ParagraphProperties properties) {
+            if (hasSectionReferences) {
+                // the paragraph ends a section
+                appendHeadersFooters(text, headerIds);
+                paragraphFooterIds = footerIds.clone();
+                clearSectionReferences();
+            }
+            if (tableDepth > 0 && cellElements++ > 0) {
+                text.append('\t');
+            }
+            paragraphStart = text.length();
+        }
+
+        @Override
+        public void run(String runText, String phonetic, RunProperties properties) {
+            text.append(runText);
+            if (concatenatePhoneticRuns && !phonetic.isEmpty()) {
+                text.append(" (").append(phonetic).append(")");
+            }
+            if (hyperlinkURL != null) {
+                text.append(" <").append(hyperlinkURL).append(">");
+            }
+        }
+
+        @Override
+        public void endParagraph() {
+            if (paragraphFooterIds != null) {
+                appendHeadersFooters(text, paragraphFooterIds);
+                paragraphFooterIds = null;
+            }
+            if (tableDepth == 0 && !(isHeaderFooter && text.length() == paragraphStart)) {
+                text.append('\n');
+            }
+        }
+
+        @Override
+        public void startHyperlink(String relationId, String anchor) {
+            hyperlinkURL = null;
+            if (fetchHyperlinks && relationId != null) {
+                PackageRelationship rel = part.getRelationship(relationId);
+                if (rel != null) {
+                    hyperlinkURL = rel.getTargetURI().toString();
+                }
+            }
+        }
+
+        @Override
+        public void endHyperlink() {
+            hyperlinkURL = null;
+        }
+
+        @Override
+        public void startTable() {
+            tableDepth++;
+        }
+
+        @Override
+        public void startTableRow() {
+            if (tableDepth == 1) {
+                cellIndex = 0;
+            }
+        }
+
+        @Override
+        public void startTableCell() {
+            if (tableDepth == 1) {
+                if (cellIndex++ > 0) {
+                    text.append('\t');
+                }
+                cellElements = 0;
+            }
+        }
+
+        @Override
+        public void endTableRow() {
+            if (tableDepth == 1) {
+                text.append('\n');
+            }
+        }
+
+        @Override
+        public void endTable() {
+            if (--tableDepth == 0) {
+                text.append('\n');
+            }
+        }
+
+        @Override
+        public void headerFooterReference(String relationId, boolean isHeader, String type) {
+            if (isHeaderFooter) {
+                return;
+            }
+            for (int i = 0; i < HEADER_FOOTER_TYPES.length; i++) {
+                if (HEADER_FOOTER_TYPES[i].equals(type)) {
+                    (isHeader ? headerIds : footerIds)[i] = relationId;
+                    hasSectionReferences = true;
+                }
+            }
+        }
+
+        @Override
+        public void endBody() {
+            if (hasSectionReferences) {
+                // the headers of the last section start the text
+                StringBuilder headers = new StringBuilder();
+                appendHeadersFooters(headers, headerIds);
+                text.insert(0, headers);
+                appendHeadersFooters(text, footerIds);
+                clearSectionReferences();
+            }
+        }
+
+        private void clearSectionReferences() {
+            Arrays.fill(headerIds, null);
+            Arrays.fill(footerIds, null);
+            hasSectionReferences = false;
+        }
+
+        private void appendHeadersFooters(StringBuilder target, String[] relationIds) {
+            for (String relationId : relationIds) {
+                if (relationId == null) {
+                    continue;
+                }
+                try {
+                    PackagePart hfPart = reader.getRelatedPart(part, relationId);
+                    if (hfPart != null) {
+                        reader.process(hfPart, new StreamedBodyText(reader, hfPart, target, true));
+                    }
+                } catch (IOException | OpenXML4JException | SAXException e) {
+                    throw new POIXMLException(e);
+                }
+            }
+        }
+    }
 }
@@ -266,6 +266,7 @@ public class XWPFDocument extends POIXMLDocument implements Document, IBody {
                 }
             }
             initHyperlinks();
+            trackChanges(ctDocument);
         } catch (XmlException e) {
             throw new POIXMLException(e);
         }
@@ -0,0 +1,361 @@
+/*
+ *  ====================================================================
+ *    Licensed to the Apache Software Foundation (ASF) under one or more
+ *    contributor license agreements.  See the NOTICE file distributed with
+ *    this work for additional information regarding copyright ownership.
+ *    The ASF licenses this file to You under the Apache License, Version 2.0
+ *    (the "License"); you may not use this file except in compliance with
+ *    the License.  You may obtain a copy of the License at
+ *
+ *        http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *    Unless required by applicable law or agreed to in writing, software
+ *    distributed under the License is distributed on an "AS IS" BASIS,
+ *    WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *    See the License for the specific language governing permissions and
+ *    limitations under the License.
+ * ====================================================================
+ */
+
+package org.apache.poi.sl.draw.geom;
+
+import static org.apache.poi.sl.draw.geom.PresetGeometries.CMD_ARC_TO;
+import static org.apache.poi.sl.draw.geom.PresetGeometries.CMD_CLOSE;
+import static org.apache.poi.sl.draw.geom.PresetGeometries.CMD_CURVE_TO;
+import static org.apache.poi.sl.draw.geom.PresetGeometries.CMD_LINE_TO;
+import static org.apache.poi.sl.draw.geom.PresetGeometries.CMD_MOVE_TO;
+import static org.apache.poi.sl.draw.geom.PresetGeometries.CMD_QUAD_TO;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.sl.usermodel.PaintStyle.PaintModifier;
+import org.apache.poi.util.Internal;
+import org.apache.poi.util.LittleEndianOutputStream;
+import org.apache.poi.util.StringUtil;
+
+/**
+ * Compiles the preset shape definitions ({@code presetShapeDefinitions.xml}) into the
+ * binary table, which is read by {@link PresetGeometries}.<p>
+ *
+ * This is a build tool and isn't used at runtime, therefore it lives in the test sources
+ * and isn't packaged with the library. After changing the definitions, the table needs
+ * to be regenerated by running it with the unit test classpath:
+ * <pre>
+ * java org.apache.poi.sl.draw.geom.PresetGeometriesCompiler \
+ *     src/main/assets/presetShapeDefinitions.xml src/main/res/raw/preset_shape_definitions.bin
+ * </pre>
+ *
+ * The table is little-endian and starts with the signature, the version and a string table.
+ * All names, formulas and command arguments are stored as unsigned short indexes into the
+ * string table. The string table is followed by the shape index (name, absolute offset)
+ * and the shape records.
+ */
+@Internal
+public final class PresetGeometriesCompiler {
+
+    private PresetGeometriesCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException, XMLStreamException {
+        if (args.length != 2) {
+            System.err.println("Usage: PresetGeometriesCompiler <presetShapeDefinitions.xml> <output file>");
+            System.exit(1);
+        }
+        try (InputStream is = new FileInputStream(args[0]);
+             OutputStream os = new FileOutputStream(args[1])) {
+            compile(is, os);
+        }
+    }
+
+    /**
+     * Parses the preset shape definitions and writes the binary table
+     *
+     * @param xml the preset shape definitions
+     * @param out the stream to write the table to
+     */
+    public static void compile(InputStream xml, OutputStream out) throws IOException, XMLStreamException {
+        write(parse(xml), out);
+    }
+
+    static Map<String, CustomGeometry> parse(InputStream xml) throws XMLStreamException {
+        XMLInputFactory fac = XMLInputFactory.newInstance();
+        fac.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XMLStreamReader sr = fac.createXMLStreamReader(xml);
+        Map<String, CustomGeometry> shapes = new LinkedHashMap<>();
+        try {
+            // skip the root element
+            nextElement(sr);
+            while (nextElement(sr)) {
+                String name = sr.getLocalName();
+                shapes.put(name, parseGeometry(sr));
+            }
+        } finally {
+            sr.close();
+        }
+        return shapes;
+    }
+
+    private static CustomGeometry parseGeometry(XMLStreamReader sr) throws XMLStreamException {
+        CustomGeometry geom = new CustomGeometry();
+        while (nextElement(sr)) {
+            switch (sr.getLocalName()) {
+                case "avLst":
+                    while (nextElement(sr)) {
+                        geom.adjusts.add(new AdjustValue(attr(sr, "name"), attr(sr, "fmla")));
+                        skipElement(sr);
+                    }
+                    break;
+                case "gdLst":
+                    while (nextElement(sr)) {
+                        geom.guides.add(new Guide(attr(sr, "name"), attr(sr, "fmla")));
+                        skipElement(sr);
+                    }
+                    break;
+                case "rect": {
+                    String l = attr(sr, "l"), t = attr(sr, "t"), r = attr(sr, "r"), b = attr(sr, "b");
+                    Path tb = new Path();
+                    tb.addCommand(new MoveToCommand(l, t));
+                    tb.addCommand(new LineToCommand(r, t));
+                    tb.addCommand(new LineToCommand(r, b));
+                    tb.addCommand(new LineToCommand(l, b));
+                    tb.addCommand(new ClosePathCommand());
+                    geom.textBounds = tb;
+                    skipElement(sr);
+                    break;
+                }
+                case "pathLst":
+                    while (nextElement(sr)) {
+                        geom.paths.add(parsePath(sr));
+                    }
+                    break;
+                default:
+                    skipElement(sr);
+                    break;
+            }
+        }
+        return geom;
+    }
+
+    private static Path parsePath(XMLStreamReader sr) throws XMLStreamException {
+        Path path = new Path();
+        path.setFill(parseFill(attr(sr, "fill")));
+        path.setStroke(!"false".equals(attr(sr, "stroke")) && !"0".equals(attr(sr, "stroke")));
+        String w = attr(sr, "w"), h = attr(sr, "h");
+        path.setW(w == null ? -1 : Long.parseLong(w));
+        path.setH(h == null ? -1 : Long.parseLong(h));
+
+        while (nextElement(sr)) {
+            String cmd = sr.getLocalName();
+            if ("arcTo".equals(cmd)) {
+                path.addCommand(new ArcToCommand(attr(sr, "wR"), attr(sr, "hR"), attr(sr, "stAng"), attr(sr, "swAng")));
+                skipElement(sr);
+                continue;
+            }
+
+            List<String> pts = new ArrayList<>();
+            while (nextElement(sr)) {
+                // pt
+                pts.add(attr(sr, "x"));
+                pts.add(attr(sr, "y"));
+                skipElement(sr);
+            }
+            switch (cmd) {
+                case "close":
+                    path.addCommand(new ClosePathCommand());
+                    break;
+                case "moveTo":
+                    path.addCommand(new MoveToCommand(pts.get(0), pts.get(1)));
+                    break;
+                case "lnTo":
+                    path.addCommand(new LineToCommand(pts.get(0), pts.get(1)));
+                    break;
+                case "quadBezTo":
+                    path.addCommand(new QuadToCommand(pts.get(0), pts.get(1), pts.get(2), pts.get(3)));
+                    break;
+                case "cubicBezTo":
+                    path.addCommand(new CurveToCommand(pts.get(0), pts.get(1), pts.get(2), pts.get(3), pts.get(4), pts.get(5)));
+                    break;
+                default:
+                    throw new IllegalStateException("Unsupported path segment: " + cmd);
+            }
+        }
+        return path;
+    }
+
+    private static PaintModifier parseFill(String fill) {
+        if (fill == null) {
+            return PaintModifier.NORM;
+        }
+        switch (fill) {
+            case "none": return PaintModifier.NONE;
+            case "darken": return PaintModifier.DARKEN;
+            case "darkenLess": return PaintModifier.DARKEN_LESS;
+            case "lighten": return PaintModifier.LIGHTEN;
+            case "lightenLess": return PaintModifier.LIGHTEN_LESS;
+            default:
+            case "norm": return PaintModifier.NORM;
+        }
+    }
+
+    /**
+     * Moves to the next child element
+     *
+     * @return {@code true} if a child element was found, {@code false} if the end of the parent was reached
+     */
+    private static boolean nextElement(XMLStreamReader sr) throws XMLStreamException {
+        while (sr.hasNext()) {
+            switch (sr.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    return true;
+                case XMLStreamConstants.END_ELEMENT:
+                    return false;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private static void skipElement(XMLStreamReader sr) throws XMLStreamException {
+        for (int depth = 1; depth > 0; ) {
+            switch (sr.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static String attr(XMLStreamReader sr, String name) {
+        return sr.getAttributeValue(null, name);
+    }
+
+    static void write(Map<String, CustomGeometry> shapes, OutputStream out) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        for (Map.Entry<String, CustomGeometry> me : shapes.entrySet()) {
+            stringIndex(strings, me.getKey());
+        }
+
+        // write the shape records first to collect the strings
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        LittleEndianOutputStream bos = new LittleEndianOutputStream(body);
+        int[] offsets = new int[shapes.size()];
+        int idx = 0;
+        for (CustomGeometry geom : shapes.values()) {
+            offsets[idx++] = body.size();
+            writeGuides(bos, strings, geom.adjusts);
+            writeGuides(bos, strings, geom.guides);
+            bos.writeShort(geom.paths.size());
+            for (Path p : geom.paths) {
+                writePath(bos, strings, p);
+            }
+            bos.writeByte(geom.textBounds == null ? 0 : 1);
+            if (geom.textBounds != null) {
+                writePath(bos, strings, geom.textBounds);
+            }
+        }
+        bos.flush();
+
+        ByteArrayOutputStream head = new ByteArrayOutputStream();
+        LittleEndianOutputStream hos = new LittleEndianOutputStream(head);
+        hos.writeInt(PresetGeometries.SIGNATURE);
+        hos.writeShort(PresetGeometries.VERSION);
+        hos.writeInt(strings.size());
+        for (String s : strings.keySet()) {
+            hos.writeShort(s.length());
+            StringUtil.putCompressedUnicode(s, hos);
+        }
+        hos.writeInt(shapes.size());
+        // the index entries are fixed size, so the absolute body offset is known upfront
+        int bodyStart = head.size() + shapes.size() * (2 + 4);
+        idx = 0;
+        for (String name : shapes.keySet()) {
+            hos.writeShort(strings.get(name));
+            hos.writeInt(bodyStart + offsets[idx++]);
+        }
+        hos.flush();
+
+        head.writeTo(out);
+        body.writeTo(out);
+    }
+
+    private static void writeGuides(LittleEndianOutputStream os, Map<String, Integer> strings, List<Guide> guides) {
+        os.writeShort(guides.size());
+        for (Guide gd : guides) {
+            writeStrings(os, strings, gd.getName(), gd.getFmla());
+        }
+    }
+
+    private static void writePath(LittleEndianOutputStream os, Map<String, Integer> strings, Path path) {
+        os.writeByte(path.getFill().ordinal());
+        os.writeByte(path.isStroke() ? 1 : 0);
+        os.writeLong(path.getW());
+        os.writeLong(path.getH());
+        List<PathCommand> cmds = path.getCommands();
+        os.writeShort(cmds.size());
+        for (PathCommand pc : cmds) {
+            if (pc instanceof ClosePathCommand) {
+                os.writeByte(CMD_CLOSE);
+            } else if (pc instanceof MoveToCommand) {
+                MoveToCommand c = (MoveToCommand)pc;
+                os.writeByte(CMD_MOVE_TO);
+                writeStrings(os, strings, c.arg1, c.arg2);
+            } else if (pc instanceof LineToCommand) {
+                LineToCommand c = (LineToCommand)pc;
+                os.writeByte(CMD_LINE_TO);
+                writeStrings(os, strings, c.arg1, c.arg2);
+            } else if (pc instanceof ArcToCommand) {
+                ArcToCommand c = (ArcToCommand)pc;
+                os.writeByte(CMD_ARC_TO);
+                writeStrings(os, strings, c.wr, c.hr, c.stAng, c.swAng);
+            } else if (pc instanceof QuadToCommand) {
+                QuadToCommand c = (QuadToCommand)pc;
+                os.writeByte(CMD_QUAD_TO);
+                writeStrings(os, strings, c.arg1, c.arg2, c.arg3, c.arg4);
+            } else if (pc instanceof CurveToCommand) {
+                CurveToCommand c = (CurveToCommand)pc;
+                os.writeByte(CMD_CURVE_TO);
+                writeStrings(os, strings, c.arg1, c.arg2, c.arg3, c.arg4, c.arg5, c.arg6);
+            } else {
+                throw new IllegalStateException("Unsupported path command: " + pc);
+            }
+        }
+    }
+
+    private static void writeStrings(LittleEndianOutputStream os, Map<String, Integer> strings, String... values) {
+        for (String s : values) {
+            os.writeShort(stringIndex(strings, s));
+        }
+    }
+
+    private static int stringIndex(Map<String, Integer> strings, String s) {
+        Integer idx = strings.get(s);
+        if (idx == null) {
+            idx = strings.size();
+            if (idx > 0xFFFF) {
+                throw new IllegalStateException("Too many distinct strings for the preset table");
+            }
+            strings.put(s, idx);
+        }
+        return idx;
+    }
+}
@@ -0,0 +1,116 @@
+/* ====================================================================
+   Licensed to the Apache Software Foundation (ASF) under one or more
+   contributor license agreements.  See the NOTICE file distributed with
+   this work for additional information regarding copyright ownership.
+   The ASF licenses this file to You under the Apache License, Version 2.0
+   (the "License"); you may not use this file except in compliance with
+   the License.  You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+==================================================================== */
+
+package org.apache.poi.xssf.usermodel;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Round-trips of structural edits on sheets, which are read with streamed sheet data
+ */
+public final class TestXSSFStreamedSheetData {
+
+    @Before
+    public void setUp() {
+        XSSFWorkbook.setStreamingSheetData(true);
+    }
+
+    @After
+    public void tearDown() {
+        XSSFWorkbook.setStreamingSheetData(false);
+    }
+
+    @Test
+    public void removeCell() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook(new ByteArrayInputStream(createSheet()))) {
+            XSSFRow row = wb.getSheetAt(0).getRow(1);
+            row.removeCell(row.getCell(1));
+
+            try (XSSFWorkbook wb2 = writeAndRead(wb)) {
+                XSSFRow row2 = wb2.getSheetAt(0).getRow(1);
+                assertEquals("A2", row2.getCell(0).getStringCellValue());
+                assertNull(row2.getCell(1));
+                assertEquals(2.0, row2.getCell(2).getNumericCellValue(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void shiftColumns() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook(new ByteArrayInputStream(createSheet()))) {
+            wb.getSheetAt(0).shiftColumns(0, 3, 2);
+
+            try (XSSFWorkbook wb2 = writeAndRead(wb)) {
+                XSSFRow row2 = wb2.getSheetAt(0).getRow(1);
+                assertNull(row2.getCell(0));
+                assertNull(row2.getCell(1));
+                assertEquals("A2", row2.getCell(2).getStringCellValue());
+                assertEquals("B2", row2.getCell(3).getStringCellValue());
+                assertEquals(2.0, row2.getCell(4).getNumericCellValue(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void shiftRows() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook(new ByteArrayInputStream(createSheet()))) {
+            wb.getSheetAt(0).shiftRows(1, 1, 2);
+
+            try (XSSFWorkbook wb2 = writeAndRead(wb)) {
+                XSSFSheet sheet2 = wb2.getSheetAt(0);
+                assertNull(sheet2.getRow(1));
+                XSSFRow row2 = sheet2.getRow(3);
+                assertNotNull(row2);
+                assertEquals("A2", row2.getCell(0).getStringCellValue());
+                assertEquals("B2", row2.getCell(1).getStringCellValue());
+                assertEquals(2.0, row2.getCell(2).getNumericCellValue(), 0);
+            }
+        }
+    }
+
+    private static byte[] createSheet() throws IOException {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            XSSFSheet sheet = wb.createSheet();
+            for (int r = 0; r < 3; r++) {
+                XSSFRow row = sheet.createRow(r);
+                row.createCell(0).setCellValue("A" + (r + 1));
+                row.createCell(1).setCellValue("B" + (r + 1));
+                row.createCell(2).setCellValue(r);
+            }
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            wb.write(bos);
+            return bos.toByteArray();
+        }
+    }
+
+    private static XSSFWorkbook writeAndRead(XSSFWorkbook wb) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        wb.write(bos);
+        XSSFWorkbook.setStreamingSheetData(false);
+        return new XSSFWorkbook(new ByteArrayInputStream(bos.toByteArray()));
+    }
+}